@@ -0,0 +1,199 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// Fixtures are signaling messages in the form the server relays them to the callee:
+// - offer(): a callerOffer| with the SDP of a browser caller (audio, video and data channel)
+// - candidates(): the callerCandidate| burst that follows an offer (host, srflx and relay)
+// - waitingCallers(): a waitingCallers| message with n callers, some with escaped names
+
+package timur.webcall.callee;
+
+public final class Fixtures {
+	private static final String[] sdpLines = {
+		"v=0",
+		"o=- 4611731400430051336 2 IN IP4 127.0.0.1",
+		"s=-",
+		"t=0 0",
+		"a=group:BUNDLE 0 1 2",
+		"a=extmap-allow-mixed",
+		"a=msid-semantic: WMS 3c1e5b0a-6f2d-4b8e-9a57-0d6c3e2f1a44",
+		"m=audio 9 UDP/TLS/RTP/SAVPF 111 63 103 104 9 0 8 106 105 13 110 112 113 126",
+		"c=IN IP4 0.0.0.0",
+		"a=rtcp:9 IN IP4 0.0.0.0",
+		"a=ice-ufrag:Xq3V",
+		"a=ice-pwd:0bLr7m2Jc9Vw+E4kQf1sHtNy",
+		"a=ice-options:trickle",
+		"a=fingerprint:sha-256 5A:3C:9E:71:0B:D2:48:6F:AA:13:C4:87:2E:9F:B0:65:1D:7A:E3:42:58:0C:BF:96:21:D8:4E:73:A5:1F:C0:39",
+		"a=setup:actpass",
+		"a=mid:0",
+		"a=extmap:1 urn:ietf:params:rtp-hdrext:ssrc-audio-level",
+		"a=extmap:2 http://www.webrtc.org/experiments/rtp-hdrext/abs-send-time",
+		"a=extmap:3 http://www.ietf.org/id/draft-holmer-rmcat-transport-wide-cc-extensions-01",
+		"a=extmap:4 urn:ietf:params:rtp-hdrext:sdes:mid",
+		"a=sendrecv",
+		"a=msid:3c1e5b0a-6f2d-4b8e-9a57-0d6c3e2f1a44 8e5d2c71-0a9b-4f36-b1e4-7c2d9a0f5b18",
+		"a=rtcp-mux",
+		"a=rtpmap:111 opus/48000/2",
+		"a=rtcp-fb:111 transport-cc",
+		"a=fmtp:111 minptime=10;useinbandfec=1;stereo=1;maxaveragebitrate=128000",
+		"a=rtpmap:63 red/48000/2",
+		"a=fmtp:63 111/111",
+		"a=rtpmap:103 ISAC/16000",
+		"a=rtpmap:104 ISAC/32000",
+		"a=rtpmap:9 G722/8000",
+		"a=rtpmap:0 PCMU/8000",
+		"a=rtpmap:8 PCMA/8000",
+		"a=rtpmap:106 CN/32000",
+		"a=rtpmap:105 CN/16000",
+		"a=rtpmap:13 CN/8000",
+		"a=rtpmap:110 telephone-event/48000",
+		"a=rtpmap:112 telephone-event/32000",
+		"a=rtpmap:113 telephone-event/16000",
+		"a=rtpmap:126 telephone-event/8000",
+		"a=ssrc:2837461920 cname:k3Jd9Qw0XyZ1aB2c",
+		"a=ssrc:2837461920 msid:3c1e5b0a-6f2d-4b8e-9a57-0d6c3e2f1a44 8e5d2c71-0a9b-4f36-b1e4-7c2d9a0f5b18",
+		"m=video 9 UDP/TLS/RTP/SAVPF 96 97 102 122 127 121 125 107 108 109 124 120 39 40 45 46 98 99 100 101",
+		"c=IN IP4 0.0.0.0",
+		"a=rtcp:9 IN IP4 0.0.0.0",
+		"a=ice-ufrag:Xq3V",
+		"a=ice-pwd:0bLr7m2Jc9Vw+E4kQf1sHtNy",
+		"a=ice-options:trickle",
+		"a=fingerprint:sha-256 5A:3C:9E:71:0B:D2:48:6F:AA:13:C4:87:2E:9F:B0:65:1D:7A:E3:42:58:0C:BF:96:21:D8:4E:73:A5:1F:C0:39",
+		"a=setup:actpass",
+		"a=mid:1",
+		"a=extmap:14 urn:ietf:params:rtp-hdrext:toffset",
+		"a=extmap:2 http://www.webrtc.org/experiments/rtp-hdrext/abs-send-time",
+		"a=extmap:13 urn:3gpp:video-orientation",
+		"a=extmap:3 http://www.ietf.org/id/draft-holmer-rmcat-transport-wide-cc-extensions-01",
+		"a=extmap:5 http://www.webrtc.org/experiments/rtp-hdrext/playout-delay",
+		"a=extmap:6 http://www.webrtc.org/experiments/rtp-hdrext/video-content-type",
+		"a=extmap:7 http://www.webrtc.org/experiments/rtp-hdrext/video-timing",
+		"a=extmap:8 http://www.webrtc.org/experiments/rtp-hdrext/color-space",
+		"a=extmap:4 urn:ietf:params:rtp-hdrext:sdes:mid",
+		"a=extmap:10 urn:ietf:params:rtp-hdrext:sdes:rtp-stream-id",
+		"a=extmap:11 urn:ietf:params:rtp-hdrext:sdes:repaired-rtp-stream-id",
+		"a=sendrecv",
+		"a=msid:3c1e5b0a-6f2d-4b8e-9a57-0d6c3e2f1a44 f1b7c3e9-2d48-4a06-8c5f-9e1a3b7d2c60",
+		"a=rtcp-mux",
+		"a=rtcp-rsize",
+		"a=rtpmap:96 VP8/90000",
+		"a=rtcp-fb:96 goog-remb",
+		"a=rtcp-fb:96 transport-cc",
+		"a=rtcp-fb:96 ccm fir",
+		"a=rtcp-fb:96 nack",
+		"a=rtcp-fb:96 nack pli",
+		"a=rtpmap:97 rtx/90000",
+		"a=fmtp:97 apt=96",
+		"a=rtpmap:102 H264/90000",
+		"a=rtcp-fb:102 goog-remb",
+		"a=rtcp-fb:102 transport-cc",
+		"a=rtcp-fb:102 ccm fir",
+		"a=rtcp-fb:102 nack",
+		"a=rtcp-fb:102 nack pli",
+		"a=fmtp:102 level-asymmetry-allowed=1;packetization-mode=1;profile-level-id=42001f",
+		"a=rtpmap:122 rtx/90000",
+		"a=fmtp:122 apt=102",
+		"a=rtpmap:127 H264/90000",
+		"a=fmtp:127 level-asymmetry-allowed=1;packetization-mode=0;profile-level-id=42001f",
+		"a=rtpmap:121 rtx/90000",
+		"a=fmtp:121 apt=127",
+		"a=rtpmap:125 H264/90000",
+		"a=fmtp:125 level-asymmetry-allowed=1;packetization-mode=1;profile-level-id=42e01f",
+		"a=rtpmap:107 rtx/90000",
+		"a=fmtp:107 apt=125",
+		"a=rtpmap:98 VP9/90000",
+		"a=fmtp:98 profile-id=0",
+		"a=rtpmap:99 rtx/90000",
+		"a=fmtp:99 apt=98",
+		"a=rtpmap:100 VP9/90000",
+		"a=fmtp:100 profile-id=2",
+		"a=rtpmap:101 rtx/90000",
+		"a=fmtp:101 apt=100",
+		"a=rtpmap:45 AV1/90000",
+		"a=rtpmap:46 rtx/90000",
+		"a=fmtp:46 apt=45",
+		"a=ssrc-group:FID 1938475620 3847561029",
+		"a=ssrc:1938475620 cname:k3Jd9Qw0XyZ1aB2c",
+		"a=ssrc:1938475620 msid:3c1e5b0a-6f2d-4b8e-9a57-0d6c3e2f1a44 f1b7c3e9-2d48-4a06-8c5f-9e1a3b7d2c60",
+		"a=ssrc:3847561029 cname:k3Jd9Qw0XyZ1aB2c",
+		"a=ssrc:3847561029 msid:3c1e5b0a-6f2d-4b8e-9a57-0d6c3e2f1a44 f1b7c3e9-2d48-4a06-8c5f-9e1a3b7d2c60",
+		"m=application 9 UDP/DTLS/SCTP webrtc-datachannel",
+		"c=IN IP4 0.0.0.0",
+		"a=ice-ufrag:Xq3V",
+		"a=ice-pwd:0bLr7m2Jc9Vw+E4kQf1sHtNy",
+		"a=ice-options:trickle",
+		"a=fingerprint:sha-256 5A:3C:9E:71:0B:D2:48:6F:AA:13:C4:87:2E:9F:B0:65:1D:7A:E3:42:58:0C:BF:96:21:D8:4E:73:A5:1F:C0:39",
+		"a=setup:actpass",
+		"a=mid:2",
+		"a=sctp-port:5000",
+		"a=max-message-size:262144",
+	};
+
+	private static final String[] candidateLines = {
+		"candidate:1467250027 1 udp 2122260223 192.168.1.23 51427 typ host generation 0 ufrag Xq3V network-id 1 network-cost 10",
+		"candidate:3818563842 1 udp 2122194687 10.8.0.6 46382 typ host generation 0 ufrag Xq3V network-id 2 network-cost 50",
+		"candidate:2999745851 1 udp 2122129151 fd00::1c2b:4eff:fe9a:3d71 58201 typ host generation 0 ufrag Xq3V network-id 3 network-cost 10",
+		"candidate:842163049 1 udp 1686052607 84.112.37.9 51427 typ srflx raddr 192.168.1.23 rport 51427 generation 0 ufrag Xq3V network-id 1 network-cost 10",
+		"candidate:176543903 1 udp 1685987071 2a02:8388:e81:7f00::5 58201 typ srflx raddr fd00::1c2b:4eff:fe9a:3d71 rport 58201 generation 0 ufrag Xq3V network-id 3 network-cost 10",
+		"candidate:232113487 1 tcp 1518280447 192.168.1.23 9 typ host tcptype active generation 0 ufrag Xq3V network-id 1 network-cost 10",
+		"candidate:2655129410 1 tcp 1518214911 10.8.0.6 9 typ host tcptype active generation 0 ufrag Xq3V network-id 2 network-cost 50",
+		"candidate:3547618244 1 udp 41885439 65.108.74.12 60325 typ relay raddr 84.112.37.9 rport 51427 generation 0 ufrag Xq3V network-id 1 network-cost 10",
+		"candidate:3547618244 1 udp 25108223 65.108.74.12 58807 typ relay raddr 84.112.37.9 rport 51431 generation 0 ufrag Xq3V network-id 1 network-cost 10",
+	};
+
+	private static final String[] callerNames = {
+		"Alice", "Bob Müller", "Chloé \\\"Cleo\\\" Durand", "Dmitri \\u0418\\u0432\\u0430\\u043d\\u043e\\u0432",
+		"", "Eve", "Fatima al-Hassan", "Grace O'Brien",
+	};
+
+	private Fixtures() {
+	}
+
+	// sdp() returns the SDP of a browser offer with audio, video and a data channel
+	public static String sdp() {
+		StringBuilder sb = new StringBuilder(8192);
+		for(String line : sdpLines) {
+			sb.append(line).append("\r\n");
+		}
+		return sb.toString();
+	}
+
+	// offer() returns the callerOffer| message carrying sdp() as JSON
+	public static String offer() {
+		return "callerOffer|{\"type\":\"offer\",\"sdp\":\""+sdp().replace("\r\n","\\r\\n")+"\"}";
+	}
+
+	// candidates() returns count callerCandidate| messages, cycling over host, srflx and relay
+	// candidates of the three m-lines
+	public static String[] candidates(int count) {
+		String[] result = new String[count];
+		for(int i=0; i<count; i++) {
+			int mLine = i%3;
+			result[i] = "callerCandidate|{\"candidate\":\""+candidateLines[i%candidateLines.length]+
+				"\",\"sdpMid\":\""+mLine+"\",\"sdpMLineIndex\":"+mLine+
+				",\"usernameFragment\":\"Xq3V\"}";
+		}
+		return result;
+	}
+
+	// waitingCallers() returns a waitingCallers| message with count callers, as the server sends it
+	public static String waitingCallers(int count) {
+		StringBuilder sb = new StringBuilder("waitingCallers|[");
+		for(int i=0; i<count; i++) {
+			if(i>0) {
+				sb.append(",");
+			}
+			sb.append("{\"AddrPort\":\"84.112.37.").append(i%250).append(":").append(40000+i)
+				.append("\",\"CallerName\":\"").append(callerNames[i%callerNames.length])
+				.append("\",\"CallerID\":\"").append(String.format("%08d",19283746+i*7919))
+				.append("\",\"DialID\":\"\",\"WaitingSince\":").append(1697712000L+i*37)
+				.append(",\"Msg\":\"").append(i%4==0 ? "please call back" : "")
+				.append("\"}");
+		}
+		return sb.append("]").toString();
+	}
+
+	// payload() returns the part of message after the command
+	public static String payload(String message) {
+		return message.substring(message.indexOf('|')+1);
+	}
+}
@@ -0,0 +1,88 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// SignalingCoreBenchmark measures the per message work of WebCallService's onMessage path
+// on the Fixtures payloads: classification, building the JS call for callee.js (for an offer
+// and for a candidate burst), waitingCallers parsing, the request headers and the backoff.
+// Run with: gradle :signaling-core:jmh (results in signaling-core/build/results/jmh)
+
+package timur.webcall.callee;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SignalingCoreBenchmark {
+	@Param({"1", "10", "50"})
+	public int waitingCount;
+
+	private String offer;
+	private String[] candidates;
+	private String waitingCallers;
+	private String waitingPayload;
+	private int reconnectCounter = 0;
+
+	@Setup
+	public void setUp() {
+		offer = Fixtures.offer();
+		candidates = Fixtures.candidates(24);
+		waitingCallers = Fixtures.waitingCallers(waitingCount);
+		waitingPayload = Fixtures.payload(waitingCallers);
+	}
+
+	@Benchmark
+	public int classifyOffer() {
+		return SignalingCore.classify(offer);
+	}
+
+	@Benchmark
+	public void classifyCandidateBurst(Blackhole bh) {
+		for(String candidate : candidates) {
+			bh.consume(SignalingCore.classify(candidate));
+		}
+	}
+
+	@Benchmark
+	public String jsOffer() {
+		return SignalingCore.jsWsOnMessage(offer);
+	}
+
+	@Benchmark
+	public void jsCandidateBurst(Blackhole bh) {
+		for(String candidate : candidates) {
+			bh.consume(SignalingCore.jsWsOnMessage(candidate));
+		}
+	}
+
+	@Benchmark
+	public String jsWaitingCallers() {
+		return SignalingCore.jsWsOnMessage(waitingCallers);
+	}
+
+	@Benchmark
+	public Object parseWaitingCallers() throws IOException {
+		return SignalingCore.parseWaitingCallers(waitingPayload);
+	}
+
+	@Benchmark
+	public Object requestHeaders() {
+		return SignalingCore.requestHeaders("1.4.11", "119.0.6045.66", "webcallid=19283746&webcallpw=x");
+	}
+
+	@Benchmark
+	public int reconnectDelay() {
+		reconnectCounter = (reconnectCounter+1) & 63;
+		return SignalingCore.reconnectDelaySecs(reconnectCounter, 300);
+	}
+}
@@ -0,0 +1,281 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// SignalingCore holds the pure-Java parts of the signaling path of WebCallService:
+// - classify() maps a server message to a MSG_* type with a single scan of the command
+//   (instead of a chain of startsWith() calls for every message)
+// - jsWsOnMessage() builds the "wsOnMessage2('...','service');" call for callee.js,
+//   escaping apostrophes in the same pass
+// - reconnectDelaySecs() is the backoff of the reconnecter
+// - requestHeaders() builds the headers of the login request and of intercepted webview requests
+// - parseWaitingCallers() reads the JSON array of a waitingCallers| message
+//
+// This class must not use any android.* types, so it can be run and measured on a plain JVM.
+// It lives in the signaling-core module, which also holds the JMH benchmarks (src/jmh).
+
+package timur.webcall.callee;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+
+public final class SignalingCore {
+	public static final int MSG_OTHER = 0;
+	public static final int MSG_DUMMY = 1;
+	public static final int MSG_CLEARCACHE = 2;
+	public static final int MSG_TEXTMODE = 3;
+	public static final int MSG_CALLER_OFFER = 4;
+	public static final int MSG_CALLER_INFO = 5;
+	public static final int MSG_CALLER_CANDIDATE = 6;
+	public static final int MSG_CANCEL = 7;
+	public static final int MSG_SESSION_ID = 8;
+	public static final int MSG_WAITING_CALLERS = 9;
+	public static final int MSG_MISSED_CALLS = 10;
+
+	private static final String jsPrefix = "wsOnMessage2('";
+	private static final String jsSuffix = "','service');";
+
+	private SignalingCore() {
+	}
+
+	// classify() returns the MSG_* type of a signaling message ("command|payload")
+	public static int classify(String message) {
+		int idxSep = message.indexOf('|');
+		if(idxSep<0) {
+			return message.equals("clearcache") ? MSG_CLEARCACHE : MSG_OTHER;
+		}
+		// the command length alone rules out all but one or two candidates
+		switch(idxSep) {
+			case 5:
+				return command(message, "dummy", MSG_DUMMY);
+			case 6:
+				return command(message, "cancel", MSG_CANCEL);
+			case 8:
+				return command(message, "textmode", MSG_TEXTMODE);
+			case 9:
+				return command(message, "sessionId", MSG_SESSION_ID);
+			case 10:
+				return command(message, "callerInfo", MSG_CALLER_INFO);
+			case 11:
+				if(message.charAt(0)=='c') {
+					return command(message, "callerOffer", MSG_CALLER_OFFER);
+				}
+				return command(message, "missedCalls", MSG_MISSED_CALLS);
+			case 14:
+				return command(message, "waitingCallers", MSG_WAITING_CALLERS);
+			case 15:
+				return command(message, "callerCandidate", MSG_CALLER_CANDIDATE);
+		}
+		return MSG_OTHER;
+	}
+
+	private static int command(String message, String cmd, int type) {
+		return message.startsWith(cmd) ? type : MSG_OTHER;
+	}
+
+	// jsWsOnMessage() returns the JS call that hands message to callee.js;
+	// apostrophes are encoded as "&#39;" (message MUST NOT contain apostrophes)
+	public static String jsWsOnMessage(String message) {
+		int idx = message.indexOf('\'');
+		StringBuilder sb = new StringBuilder(jsPrefix.length()+message.length()+jsSuffix.length()+
+			(idx<0 ? 0 : 16));
+		sb.append(jsPrefix);
+		int start = 0;
+		while(idx>=0) {
+			sb.append(message, start, idx).append("&#39;");
+			start = idx+1;
+			idx = message.indexOf('\'', start);
+		}
+		sb.append(message, start, message.length());
+		sb.append(jsSuffix);
+		return sb.toString();
+	}
+
+	// reconnectDelaySecs() returns the delay before reconnect loop number reconnectCounter
+	public static int reconnectDelaySecs(int reconnectCounter, int maxDelaySecs) {
+		int delaySecs = reconnectCounter*10;
+		if(delaySecs>maxDelaySecs) {
+			delaySecs = maxDelaySecs;
+		}
+		return delaySecs;
+	}
+
+	// requestHeaders() returns the headers the service adds to its requests to the server;
+	// Cookie is left out if cookie is null or empty
+	public static LinkedHashMap<String,String> requestHeaders(String wcVer, String wvVer, String cookie) {
+		LinkedHashMap<String,String> headers = new LinkedHashMap<String,String>(4);
+		headers.put("X-WcVer", wcVer);
+		headers.put("X-WvVer", wvVer);
+		if(cookie!=null && !cookie.isEmpty()) {
+			headers.put("Cookie", cookie);
+		}
+		return headers;
+	}
+
+	// parseWaitingCallers() reads the JSON array of a waitingCallers| payload
+	// ([{"CallerID":..,"CallerName":..},..]) into CallerID -> CallerName, in the order of the array;
+	// other fields are skipped, entries without a CallerID are dropped
+	public static LinkedHashMap<String,String> parseWaitingCallers(String payload) throws IOException {
+		LinkedHashMap<String,String> result = new LinkedHashMap<String,String>();
+		JsonScanner scanner = new JsonScanner(payload);
+		scanner.expect('[');
+		if(!scanner.consume(']')) {
+			do {
+				String callerID = null;
+				String callerName = "";
+				scanner.expect('{');
+				if(!scanner.consume('}')) {
+					do {
+						String name = scanner.nextString();
+						scanner.expect(':');
+						if(name.equals("CallerID")) {
+							callerID = scanner.nextStringOrNull();
+						} else if(name.equals("CallerName")) {
+							callerName = scanner.nextStringOrNull();
+						} else {
+							scanner.skipValue();
+						}
+					} while(scanner.consume(','));
+					scanner.expect('}');
+				}
+				if(callerID!=null) {
+					result.put(callerID, callerName!=null ? callerName : "");
+				}
+			} while(scanner.consume(','));
+			scanner.expect(']');
+		}
+		return result;
+	}
+
+	// JsonScanner is the minimal JSON reader parseWaitingCallers() needs
+	// (org.json and android.util.JsonReader are not available on a plain JVM)
+	private static final class JsonScanner {
+		private final String json;
+		private int pos = 0;
+
+		JsonScanner(String json) {
+			this.json = json;
+		}
+
+		private char peek() throws IOException {
+			while(pos<json.length()) {
+				char c = json.charAt(pos);
+				if(c!=' ' && c!='\t' && c!='\n' && c!='\r') {
+					return c;
+				}
+				pos++;
+			}
+			throw new IOException("unexpected end of json");
+		}
+
+		boolean consume(char c) throws IOException {
+			if(peek()==c) {
+				pos++;
+				return true;
+			}
+			return false;
+		}
+
+		void expect(char c) throws IOException {
+			if(!consume(c)) {
+				throw new IOException("expected '"+c+"' at "+pos);
+			}
+		}
+
+		String nextStringOrNull() throws IOException {
+			if(peek()=='n') {
+				literal("null");
+				return null;
+			}
+			return nextString();
+		}
+
+		String nextString() throws IOException {
+			expect('"');
+			StringBuilder sb = null;
+			int start = pos;
+			while(pos<json.length()) {
+				char c = json.charAt(pos++);
+				if(c=='"') {
+					if(sb==null) {
+						return json.substring(start, pos-1);
+					}
+					return sb.append(json, start, pos-1).toString();
+				}
+				if(c!='\\') {
+					continue;
+				}
+				if(sb==null) {
+					sb = new StringBuilder();
+				}
+				sb.append(json, start, pos-1);
+				if(pos>=json.length()) {
+					break;
+				}
+				char esc = json.charAt(pos++);
+				switch(esc) {
+					case 'b': sb.append('\b'); break;
+					case 'f': sb.append('\f'); break;
+					case 'n': sb.append('\n'); break;
+					case 'r': sb.append('\r'); break;
+					case 't': sb.append('\t'); break;
+					case 'u':
+						if(pos+4>json.length()) {
+							throw new IOException("bad unicode escape at "+pos);
+						}
+						try {
+							sb.append((char)Integer.parseInt(json.substring(pos, pos+4), 16));
+						} catch(NumberFormatException ex) {
+							throw new IOException("bad unicode escape at "+pos);
+						}
+						pos += 4;
+						break;
+					default:
+						// '"', '\\' and '/'
+						sb.append(esc);
+				}
+				start = pos;
+			}
+			throw new IOException("unterminated string");
+		}
+
+		void skipValue() throws IOException {
+			char c = peek();
+			if(c=='"') {
+				nextString();
+			} else if(c=='{') {
+				pos++;
+				if(!consume('}')) {
+					do {
+						nextString();
+						expect(':');
+						skipValue();
+					} while(consume(','));
+					expect('}');
+				}
+			} else if(c=='[') {
+				pos++;
+				if(!consume(']')) {
+					do {
+						skipValue();
+					} while(consume(','));
+					expect(']');
+				}
+			} else {
+				// number, true, false, null
+				int start = pos;
+				while(pos<json.length() && ",}] \t\n\r".indexOf(json.charAt(pos))<0) {
+					pos++;
+				}
+				if(pos==start) {
+					throw new IOException("unexpected '"+c+"' at "+pos);
+				}
+			}
+		}
+
+		private void literal(String word) throws IOException {
+			if(!json.startsWith(word, pos)) {
+				throw new IOException("expected "+word+" at "+pos);
+			}
+			pos += word.length();
+		}
+	}
+}
@@ -0,0 +1,181 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// SignalingQueue holds the signaling messages that arrive while callee.js can not receive them
+// (page not loaded, screen off), until processWebRtcMessages() hands them over.
+// The callerCandidate| messages of a call are not queued one by one: they are collected in one
+// candidate set that sits right behind the callerOffer| of the call, and pollJS() hands the
+// whole set to callee.js in a single JS evaluation. Repeated candidates are dropped.
+// A new callerOffer| replaces the offer and candidates of the previous call; cancel() drops the
+// queued offer and candidates of the current call and any candidates still coming in for it,
+// so a cancelled call does not leak into the next session.
+//
+// Like SignalingCore, this class lives in the signaling-core module and must not use any android.*
+// types. All methods are synchronized: messages are added on the websocket thread and polled on
+// the scheduler.
+
+package timur.webcall.callee;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+
+public final class SignalingQueue {
+	// an Entry is a single message or (if candidates!=null) the candidate set of a call
+	private static final class Entry {
+		final String message;
+		final ArrayList<String> candidates;
+
+		Entry(String message, ArrayList<String> candidates) {
+			this.message = message;
+			this.candidates = candidates;
+		}
+	}
+
+	private final LinkedList<Entry> entries = new LinkedList<Entry>();
+	// the queued offer and candidate set of the current call (null once polled)
+	private Entry offer = null;
+	private Entry candidates = null;
+	// an offer was queued for the current call
+	private boolean haveOffer = false;
+	// the candidates seen for the current call
+	private final HashSet<String> seen = new HashSet<String>();
+	// the current call was cancelled: its late candidates are dropped
+	private boolean cancelled = false;
+
+	private long queued = 0;
+	private long droppedDuplicate = 0;
+	private long droppedStale = 0;
+	private long batches = 0;
+
+	// add() queues message of type msgType (SignalingCore.MSG_*)
+	public synchronized void add(int msgType, String message) {
+		switch(msgType) {
+			case SignalingCore.MSG_MISSED_CALLS:
+				// missedCalls| is not queued
+				return;
+
+			case SignalingCore.MSG_CALLER_OFFER:
+				if(haveOffer) {
+					// a new call replaces the previous one
+					dropCall();
+				}
+				if(candidates!=null) {
+					// candidates that came in ahead of the offer: the offer goes in front of them
+					offer = new Entry(message, null);
+					entries.add(entries.indexOf(candidates), offer);
+				} else {
+					seen.clear();
+					offer = new Entry(message, null);
+					entries.add(offer);
+					candidates = new Entry(null, new ArrayList<String>());
+					entries.add(candidates);
+				}
+				haveOffer = true;
+				cancelled = false;
+				queued++;
+				return;
+
+			case SignalingCore.MSG_CALLER_CANDIDATE:
+				if(cancelled) {
+					droppedStale++;
+					return;
+				}
+				if(!seen.add(message)) {
+					droppedDuplicate++;
+					return;
+				}
+				if(candidates==null) {
+					// the candidate set of this call was handed over already: start a new one
+					candidates = new Entry(null, new ArrayList<String>());
+					entries.add(candidates);
+				}
+				candidates.candidates.add(message);
+				queued++;
+				return;
+		}
+		entries.add(new Entry(message, null));
+		queued++;
+	}
+
+	// cancel() drops the queued offer and candidates of the current call
+	public synchronized void cancel() {
+		dropCall();
+		cancelled = true;
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		offer = null;
+		candidates = null;
+		haveOffer = false;
+		seen.clear();
+		cancelled = false;
+	}
+
+	public synchronized boolean isEmpty() {
+		for(Entry entry : entries) {
+			if(entry.candidates==null || entry.candidates.size()>0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// size() returns the number of JS evaluations needed to hand over the queue
+	public synchronized int size() {
+		int size = 0;
+		for(Entry entry : entries) {
+			if(entry.candidates==null || entry.candidates.size()>0) {
+				size++;
+			}
+		}
+		return size;
+	}
+
+	// pollJS() removes the next message (or candidate set) from the queue and returns the JS code
+	// that hands it to callee.js; it returns null if the queue is empty
+	public synchronized String pollJS() {
+		while(true) {
+			Entry entry = entries.poll();
+			if(entry==null) {
+				return null;
+			}
+			if(entry==offer) {
+				offer = null;
+			} else if(entry==candidates) {
+				candidates = null;
+			}
+			if(entry.candidates==null) {
+				return SignalingCore.jsWsOnMessage(entry.message);
+			}
+			if(entry.candidates.size()==0) {
+				continue;
+			}
+			StringBuilder sb = new StringBuilder();
+			for(String candidate : entry.candidates) {
+				sb.append(SignalingCore.jsWsOnMessage(candidate));
+			}
+			batches++;
+			return sb.toString();
+		}
+	}
+
+	public synchronized String stats() {
+		return "queued="+queued+" batches="+batches+" duplicate="+droppedDuplicate+" stale="+droppedStale;
+	}
+
+	private void dropCall() {
+		if(offer!=null) {
+			entries.remove(offer);
+			droppedStale++;
+			offer = null;
+		}
+		if(candidates!=null) {
+			entries.remove(candidates);
+			droppedStale += candidates.candidates.size();
+			candidates = null;
+		}
+		haveOffer = false;
+		seen.clear();
+	}
+}
@@ -0,0 +1,79 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// SignalingCoreTest checks SignalingCore on a plain JVM.
+
+package timur.webcall.callee;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SignalingCoreTest {
+	@Test
+	public void classifiesCommands() {
+		assertEquals(SignalingCore.MSG_CALLER_OFFER, SignalingCore.classify("callerOffer|{}"));
+		assertEquals(SignalingCore.MSG_MISSED_CALLS, SignalingCore.classify("missedCalls|[]"));
+		assertEquals(SignalingCore.MSG_CALLER_CANDIDATE, SignalingCore.classify("callerCandidate|{}"));
+		assertEquals(SignalingCore.MSG_WAITING_CALLERS, SignalingCore.classify("waitingCallers|[]"));
+		assertEquals(SignalingCore.MSG_CANCEL, SignalingCore.classify("cancel|c"));
+		assertEquals(SignalingCore.MSG_CLEARCACHE, SignalingCore.classify("clearcache"));
+		assertEquals(SignalingCore.MSG_OTHER, SignalingCore.classify("calleeOffer|{}"));
+		assertEquals(SignalingCore.MSG_OTHER, SignalingCore.classify("hello"));
+	}
+
+	@Test
+	public void escapesApostrophes() {
+		assertEquals("wsOnMessage2('a&#39;b&#39;','service');", SignalingCore.jsWsOnMessage("a'b'"));
+		assertEquals("wsOnMessage2('ab','service');", SignalingCore.jsWsOnMessage("ab"));
+	}
+
+	@Test
+	public void buildsRequestHeaders() {
+		LinkedHashMap<String,String> headers = SignalingCore.requestHeaders("1.4.11", "119", "webcallid=1");
+		assertEquals(new ArrayList<String>(headers.keySet()).toString(), "[X-WcVer, X-WvVer, Cookie]");
+		assertEquals("webcallid=1", headers.get("Cookie"));
+		assertFalse(SignalingCore.requestHeaders("1.4.11", "119", "").containsKey("Cookie"));
+		assertFalse(SignalingCore.requestHeaders("1.4.11", "119", null).containsKey("Cookie"));
+	}
+
+	@Test
+	public void capsTheBackoff() {
+		assertEquals(0, SignalingCore.reconnectDelaySecs(0, 300));
+		assertEquals(20, SignalingCore.reconnectDelaySecs(2, 300));
+		assertEquals(300, SignalingCore.reconnectDelaySecs(40, 300));
+	}
+
+	@Test
+	public void parsesWaitingCallers() throws IOException {
+		LinkedHashMap<String,String> callers = SignalingCore.parseWaitingCallers(
+			" [ {\"AddrPort\":\"1.2.3.4:5\",\"CallerName\":\"Bob \\\"B\\\" \\u00e9\\\\\",\"CallerID\":\"2\"," +
+			"\"WaitingSince\":1697712000,\"Extra\":{\"a\":[1,true,null]}}," +
+			"{\"CallerID\":\"1\",\"CallerName\":null},{\"CallerName\":\"no id\"} ] ");
+		assertEquals(2, callers.size());
+		Map.Entry<String,String> first = callers.entrySet().iterator().next();
+		assertEquals("2", first.getKey());
+		assertEquals("Bob \"B\" é\\", first.getValue());
+		assertEquals("", callers.get("1"));
+		assertTrue(SignalingCore.parseWaitingCallers("[]").isEmpty());
+	}
+
+	@Test
+	public void rejectsBrokenWaitingCallers() {
+		String[] broken = { "", "[", "[{\"CallerID\":\"1\"}", "[{\"CallerID\":1x}]", "{}", "[{\"CallerID\":\"1]" };
+		for(String payload : broken) {
+			try {
+				SignalingCore.parseWaitingCallers(payload);
+				fail("no exception for "+payload);
+			} catch(IOException ex) {
+			}
+		}
+	}
+}
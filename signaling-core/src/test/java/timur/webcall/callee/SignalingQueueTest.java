@@ -0,0 +1,108 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// SignalingQueueTest checks the ordering and dropping rules of SignalingQueue on a plain JVM:
+// candidates ahead of their offer, a new offer replacing the previous call, a cancelled call,
+// and candidates that come in after their set was handed over.
+
+package timur.webcall.callee;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SignalingQueueTest {
+	private static final String offer1 = "callerOffer|{\"sdp\":\"1\"}";
+	private static final String offer2 = "callerOffer|{\"sdp\":\"2\"}";
+
+	@Test
+	public void putsOfferAheadOfEarlierCandidates() {
+		SignalingQueue queue = new SignalingQueue();
+		queue.add(SignalingCore.MSG_CALLER_CANDIDATE, candidate(1));
+		queue.add(SignalingCore.MSG_CALLER_CANDIDATE, candidate(2));
+		queue.add(SignalingCore.MSG_CALLER_OFFER, offer1);
+		queue.add(SignalingCore.MSG_CALLER_CANDIDATE, candidate(3));
+		assertEquals(2, queue.size());
+
+		assertEquals(js(offer1), queue.pollJS());
+		assertEquals(js(candidate(1))+js(candidate(2))+js(candidate(3)), queue.pollJS());
+		assertNull(queue.pollJS());
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void newOfferReplacesPreviousCall() {
+		SignalingQueue queue = new SignalingQueue();
+		queue.add(SignalingCore.MSG_CALLER_OFFER, offer1);
+		queue.add(SignalingCore.MSG_CALLER_CANDIDATE, candidate(1));
+		queue.add(SignalingCore.MSG_CALLER_CANDIDATE, candidate(2));
+		queue.add(SignalingCore.MSG_OTHER, "callerInfo|a\tb");
+		queue.add(SignalingCore.MSG_CALLER_OFFER, offer2);
+		// the same candidate may come again for the new call
+		queue.add(SignalingCore.MSG_CALLER_CANDIDATE, candidate(1));
+
+		assertEquals(js("callerInfo|a\tb"), queue.pollJS());
+		assertEquals(js(offer2), queue.pollJS());
+		assertEquals(js(candidate(1)), queue.pollJS());
+		assertNull(queue.pollJS());
+		assertEquals("queued=6 batches=1 duplicate=0 stale=3", queue.stats());
+	}
+
+	@Test
+	public void dropsCancelledCall() {
+		SignalingQueue queue = new SignalingQueue();
+		queue.add(SignalingCore.MSG_CALLER_OFFER, offer1);
+		queue.add(SignalingCore.MSG_CALLER_CANDIDATE, candidate(1));
+		queue.cancel();
+		assertTrue(queue.isEmpty());
+		// late candidates of the cancelled call
+		queue.add(SignalingCore.MSG_CALLER_CANDIDATE, candidate(2));
+		assertTrue(queue.isEmpty());
+		assertNull(queue.pollJS());
+
+		// the next call is queued again
+		queue.add(SignalingCore.MSG_CALLER_OFFER, offer2);
+		queue.add(SignalingCore.MSG_CALLER_CANDIDATE, candidate(2));
+		assertEquals(js(offer2), queue.pollJS());
+		assertEquals(js(candidate(2)), queue.pollJS());
+		assertNull(queue.pollJS());
+		assertEquals("queued=4 batches=1 duplicate=0 stale=3", queue.stats());
+	}
+
+	@Test
+	public void startsNewCandidateSetAfterPoll() {
+		SignalingQueue queue = new SignalingQueue();
+		queue.add(SignalingCore.MSG_CALLER_OFFER, offer1);
+		queue.add(SignalingCore.MSG_CALLER_CANDIDATE, candidate(1));
+		assertEquals(js(offer1), queue.pollJS());
+		assertEquals(js(candidate(1)), queue.pollJS());
+		assertTrue(queue.isEmpty());
+
+		queue.add(SignalingCore.MSG_CALLER_CANDIDATE, candidate(2));
+		// repeated candidates are dropped, also across sets
+		queue.add(SignalingCore.MSG_CALLER_CANDIDATE, candidate(1));
+		queue.add(SignalingCore.MSG_CALLER_CANDIDATE, candidate(3));
+		assertEquals(1, queue.size());
+		assertEquals(js(candidate(2))+js(candidate(3)), queue.pollJS());
+		assertNull(queue.pollJS());
+		assertEquals("queued=4 batches=2 duplicate=1 stale=0", queue.stats());
+	}
+
+	@Test
+	public void doesNotQueueMissedCalls() {
+		SignalingQueue queue = new SignalingQueue();
+		queue.add(SignalingCore.MSG_MISSED_CALLS, "missedCalls|[]");
+		assertTrue(queue.isEmpty());
+		assertNull(queue.pollJS());
+	}
+
+	private static String candidate(int i) {
+		return "callerCandidate|{\"candidate\":\"candidate:"+i+" 1 udp 2122260223 192.168.1."+i+
+			" 5000"+i+" typ host\",\"sdpMid\":\"0\",\"sdpMLineIndex\":0}";
+	}
+
+	private static String js(String message) {
+		return SignalingCore.jsWsOnMessage(message);
+	}
+}
@@ -0,0 +1,172 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// BatchedStore is the common part of the append-only SQLite stores of the service (ChatStore,
+// CallHistory): a record is only queued in memory by queue(); a single writer thread writes the
+// queue in one transaction (write()) once batchMS has passed or batchSize records are waiting
+// (one fsync per batch, WAL journal). Queries run on the same thread via onWriter(), after the
+// queue has been written, so they always see every queued record.
+//
+// Pages are keyset pages by (time, id): the "next" cursor of a page is "time:id" of its last row
+// (nextCursor()), and the following page is the rows before that one (parseNext()), so every page
+// is a single index range scan, no matter how deep, and rows with the same time are neither
+// skipped nor repeated at a page boundary.
+
+package timur.webcall.callee;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.os.SystemClock;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public abstract class BatchedStore<T> {
+	private static final int maxPageSize = 200;
+	private static final long queryTimeoutSecs = 10;
+
+	private final String tag;
+	private final long batchMS;
+	private final int batchSize;
+	protected final SQLiteOpenHelper helper;
+	private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor();
+
+	// records not yet written; guarded by this
+	private ArrayList<T> pending = new ArrayList<T>();
+	private ScheduledFuture<?> flushFuture = null;
+	private boolean closed = false;
+
+	private long batches = 0;
+	private long flushLastMS = 0;
+
+	protected BatchedStore(String tag, SQLiteOpenHelper helper, long batchMS, int batchSize) {
+		this.tag = tag;
+		this.helper = helper;
+		this.batchMS = batchMS;
+		this.batchSize = batchSize;
+	}
+
+	// write() writes batch inside the transaction of flush(); runs on the writer thread
+	protected abstract void write(SQLiteDatabase db, ArrayList<T> batch) throws Exception;
+
+	// queue() adds record to the next batch; returns false if the store is closed
+	protected final synchronized boolean queue(T record) {
+		if(closed) {
+			return false;
+		}
+		pending.add(record);
+		if(pending.size()>=batchSize) {
+			scheduleFlush(0);
+		} else if(flushFuture==null) {
+			scheduleFlush(batchMS);
+		}
+		return true;
+	}
+
+	// onWriter() runs task on the writer thread once the queue is written, and returns its result
+	// (or failed, if the store is closed or the task fails or times out)
+	protected final <R> R onWriter(final Callable<R> task, R failed) {
+		try {
+			return writer.submit(new Callable<R>() {
+				public R call() throws Exception {
+					flush();
+					return task.call();
+				}
+			}).get(queryTimeoutSecs, TimeUnit.SECONDS);
+		} catch(Exception ex) {
+			WebCallLog.d(tag,"# onWriter ex="+ex);
+			return failed;
+		}
+	}
+
+	// close() writes the queued records and closes the database (in the background)
+	public void close() {
+		synchronized(this) {
+			if(closed) {
+				return;
+			}
+			closed = true;
+		}
+		writer.execute(new Runnable() {
+			public void run() {
+				flush();
+				helper.close();
+			}
+		});
+		writer.shutdown();
+	}
+
+	protected final synchronized String batchStats() {
+		return "batches="+batches+" pending="+pending.size()+" flushLastMS="+flushLastMS;
+	}
+
+	// pageSize() returns limit, bounded to 1..maxPageSize
+	protected static int pageSize(int limit) {
+		if(limit<=0 || limit>maxPageSize) {
+			return maxPageSize;
+		}
+		return limit;
+	}
+
+	// nextCursor() returns the cursor of the page after the row (time, id)
+	protected static String nextCursor(long time, long id) {
+		return time+":"+id;
+	}
+
+	// parseNext() returns {beforeTime, beforeID} of cursor next ("" = the newest page),
+	// or null if next is not a cursor
+	protected static long[] parseNext(String next) {
+		if(next==null || next.length()==0) {
+			return new long[] { Long.MAX_VALUE, Long.MAX_VALUE };
+		}
+		try {
+			int idxSep = next.indexOf(':');
+			return new long[] {
+				Long.parseLong(next.substring(0, idxSep)), Long.parseLong(next.substring(idxSep+1)) };
+		} catch(Exception ex) {
+			return null;
+		}
+	}
+
+	private void scheduleFlush(long delayMS) {
+		if(flushFuture!=null) {
+			flushFuture.cancel(false);
+		}
+		flushFuture = writer.schedule(new Runnable() {
+			public void run() {
+				flush();
+			}
+		}, delayMS, TimeUnit.MILLISECONDS);
+	}
+
+	// flush() writes all queued records in one transaction; runs on the writer thread
+	private void flush() {
+		ArrayList<T> batch;
+		synchronized(this) {
+			flushFuture = null;
+			if(pending.size()==0) {
+				return;
+			}
+			batch = pending;
+			pending = new ArrayList<T>();
+		}
+		long startMS = SystemClock.elapsedRealtime();
+		SQLiteDatabase db = helper.getWritableDatabase();
+		db.beginTransaction();
+		try {
+			write(db, batch);
+			db.setTransactionSuccessful();
+		} catch(Exception ex) {
+			WebCallLog.d(tag,"# flush ex="+ex);
+		} finally {
+			db.endTransaction();
+		}
+		synchronized(this) {
+			batches++;
+			flushLastMS = SystemClock.elapsedRealtime() - startMS;
+		}
+	}
+}
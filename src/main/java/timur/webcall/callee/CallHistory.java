@@ -0,0 +1,265 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// CallHistory records the incoming calls the service sees: ringing() on callerInfo|, answered()
+// on peerConnect(), and ended() on peerDisConnect(), cancel| or denyCall. A call that ends
+// without being answered is recorded as missed (or denied).
+//
+// Finished calls are written in batches by BatchedStore. The transaction of a batch also updates
+// the per-caller aggregates in table callers (count, answered, last seen, total duration), so
+// frequentCallers() and the call list are index reads; nothing is ever aggregated by a scan.
+// A page of recent() is one keyset range scan of index calls_start, also deep into the history.
+
+package timur.webcall.callee;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+public class CallHistory extends BatchedStore<CallHistory.Call> {
+	private static final String TAG = "WebCallHistory";
+	private static final String dbName = "callhistory.db";
+	private static final int dbVersion = 1;
+	private static final long batchMS = 2000;
+	private static final int batchSize = 32;
+	private static final String emptyPage = "{\"calls\":[],\"next\":\"\"}";
+
+	public static final int OUTCOME_ANSWERED = 1;
+	public static final int OUTCOME_MISSED = 2;
+	public static final int OUTCOME_DENIED = 3;
+
+	static class Call {
+		String callerID;
+		String callerName;
+		long startMS;     // System.currentTimeMillis() of ringing()
+		long answeredMS;  // 0 = not answered
+		long durationMS;
+		int outcome;
+	}
+
+	// guarded by this
+	private Call current = null;
+	private long recorded = 0;
+
+	private static class Helper extends SQLiteOpenHelper {
+		Helper(Context context) {
+			super(context, dbName, null, dbVersion);
+			setWriteAheadLoggingEnabled(true);
+		}
+
+		@Override
+		public void onCreate(SQLiteDatabase db) {
+			db.execSQL("CREATE TABLE calls (id INTEGER PRIMARY KEY, caller TEXT NOT NULL, name TEXT,"+
+				" start INTEGER NOT NULL, duration INTEGER NOT NULL, outcome INTEGER NOT NULL)");
+			db.execSQL("CREATE INDEX calls_start ON calls (start)");
+			db.execSQL("CREATE INDEX calls_caller_start ON calls (caller, start)");
+			db.execSQL("CREATE TABLE callers (caller TEXT PRIMARY KEY, name TEXT,"+
+				" count INTEGER NOT NULL, answered INTEGER NOT NULL,"+
+				" lastSeen INTEGER NOT NULL, totalDuration INTEGER NOT NULL)");
+			db.execSQL("CREATE INDEX callers_count ON callers (count)");
+		}
+
+		@Override
+		public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+		}
+	}
+
+	public CallHistory(Context context) {
+		super(TAG, new Helper(context.getApplicationContext()), batchMS, batchSize);
+	}
+
+	// ringing() starts a new call (a call that was not ended is recorded as missed)
+	public synchronized void ringing(String callerID, String callerName) {
+		if(current!=null) {
+			finish(OUTCOME_MISSED);
+		}
+		current = new Call();
+		current.callerID = callerID!=null ? callerID : "";
+		current.callerName = callerName;
+		current.startMS = System.currentTimeMillis();
+	}
+
+	public synchronized void answered() {
+		if(current!=null && current.answeredMS==0) {
+			current.answeredMS = System.currentTimeMillis();
+		}
+	}
+
+	// ended() finishes the current call; denied is only used if the call was not answered
+	public synchronized void ended(boolean denied) {
+		if(current==null) {
+			return;
+		}
+		if(current.answeredMS>0) {
+			finish(OUTCOME_ANSWERED);
+		} else {
+			finish(denied ? OUTCOME_DENIED : OUTCOME_MISSED);
+		}
+	}
+
+	// add() records a finished call as it is (ie. to fill a database for a benchmark)
+	synchronized void add(String callerID, String callerName, long startMS, long durationMS, int outcome) {
+		Call call = new Call();
+		call.callerID = callerID;
+		call.callerName = callerName;
+		call.startMS = startMS;
+		call.durationMS = durationMS;
+		call.outcome = outcome;
+		if(queue(call)) {
+			recorded++;
+		}
+	}
+
+	// recent() returns up to limit calls, newest first, that come before the cursor next of the
+	// previous page ("" = the newest page):
+	// {"calls":[{"id":..,"caller":..,"name":..,"start":..,"duration":..,"outcome":1},..],"next":"start:id"}
+	// next is "" after the last page
+	public String recent(final String next, final int limit) {
+		return onWriter(new Callable<String>() {
+			public String call() {
+				long[] before = parseNext(next);
+				if(before==null) {
+					WebCallLog.d(TAG,"# recent next="+next);
+					return emptyPage;
+				}
+				// start<=? is the index range, the OR drops the calls at the boundary start already sent
+				// (id is the rowid, the last column of index calls_start)
+				String beforeMS = String.valueOf(before[0]);
+				int pageSize = pageSize(limit);
+				Cursor cursor = helper.getReadableDatabase().rawQuery(
+					"SELECT id, caller, name, start, duration, outcome FROM calls WHERE start<=?"+
+					" AND (start<? OR id<?) ORDER BY start DESC, id DESC LIMIT "+pageSize,
+					new String[] { beforeMS, beforeMS, String.valueOf(before[1]) });
+				JSONArray calls = new JSONArray();
+				long lastStart = 0;
+				long lastID = 0;
+				try {
+					while(cursor.moveToNext()) {
+						lastID = cursor.getLong(0);
+						lastStart = cursor.getLong(3);
+						JSONObject obj = new JSONObject();
+						obj.put("id", lastID);
+						obj.put("caller", cursor.getString(1));
+						obj.put("name", cursor.getString(2));
+						obj.put("start", lastStart);
+						obj.put("duration", cursor.getLong(4));
+						obj.put("outcome", cursor.getInt(5));
+						calls.put(obj);
+					}
+					JSONObject page = new JSONObject();
+					page.put("calls", calls);
+					page.put("next", calls.length()>=pageSize ? nextCursor(lastStart, lastID) : "");
+					return page.toString();
+				} catch(Exception ex) {
+					WebCallLog.d(TAG,"# recent ex="+ex);
+					return emptyPage;
+				} finally {
+					cursor.close();
+				}
+			}
+		}, emptyPage);
+	}
+
+	// frequentCallers() returns the aggregates of the limit callers with the most calls:
+	// [{"caller":..,"name":..,"count":..,"answered":..,"lastSeen":..,"totalDuration":..},..]
+	public String frequentCallers(final int limit) {
+		return onWriter(new Callable<String>() {
+			public String call() {
+				Cursor cursor = helper.getReadableDatabase().rawQuery(
+					"SELECT caller, name, count, answered, lastSeen, totalDuration FROM callers"+
+					" ORDER BY count DESC LIMIT "+pageSize(limit), null);
+				JSONArray result = new JSONArray();
+				try {
+					while(cursor.moveToNext()) {
+						JSONObject obj = new JSONObject();
+						obj.put("caller", cursor.getString(0));
+						obj.put("name", cursor.getString(1));
+						obj.put("count", cursor.getLong(2));
+						obj.put("answered", cursor.getLong(3));
+						obj.put("lastSeen", cursor.getLong(4));
+						obj.put("totalDuration", cursor.getLong(5));
+						result.put(obj);
+					}
+				} catch(Exception ex) {
+					WebCallLog.d(TAG,"# frequentCallers ex="+ex);
+				} finally {
+					cursor.close();
+				}
+				return result.toString();
+			}
+		}, "[]");
+	}
+
+	public synchronized String stats() {
+		return "recorded="+recorded+" "+batchStats();
+	}
+
+	private void finish(int outcome) {
+		Call call = current;
+		current = null;
+		call.outcome = outcome;
+		if(call.answeredMS>0) {
+			call.durationMS = System.currentTimeMillis() - call.answeredMS;
+		}
+		if(queue(call)) {
+			WebCallLog.d(TAG,"finish caller="+call.callerID+" outcome="+outcome+" durationMS="+call.durationMS);
+			recorded++;
+		}
+	}
+
+	// write() inserts the calls and updates the aggregates of their callers; runs on the writer thread
+	@Override
+	protected void write(SQLiteDatabase db, ArrayList<Call> batch) {
+		SQLiteStatement insertCall = null;
+		SQLiteStatement insertCaller = null;
+		SQLiteStatement updateCaller = null;
+		try {
+			insertCall = db.compileStatement(
+				"INSERT INTO calls (caller, name, start, duration, outcome) VALUES (?,?,?,?,?)");
+			insertCaller = db.compileStatement(
+				"INSERT OR IGNORE INTO callers (caller, name, count, answered, lastSeen, totalDuration)"+
+				" VALUES (?,?,0,0,0,0)");
+			// a call without a name keeps the name the caller had
+			updateCaller = db.compileStatement(
+				"UPDATE callers SET name=coalesce(nullif(?,''),name), count=count+1, answered=answered+?,"+
+				" lastSeen=max(lastSeen,?), totalDuration=totalDuration+? WHERE caller=?");
+			for(Call call : batch) {
+				String callerName = call.callerName!=null ? call.callerName : "";
+				insertCall.bindString(1, call.callerID);
+				insertCall.bindString(2, callerName);
+				insertCall.bindLong(3, call.startMS);
+				insertCall.bindLong(4, call.durationMS);
+				insertCall.bindLong(5, call.outcome);
+				insertCall.executeInsert();
+
+				insertCaller.bindString(1, call.callerID);
+				insertCaller.bindString(2, callerName);
+				insertCaller.executeInsert();
+
+				updateCaller.bindString(1, callerName);
+				updateCaller.bindLong(2, call.outcome==OUTCOME_ANSWERED ? 1 : 0);
+				updateCaller.bindLong(3, call.startMS);
+				updateCaller.bindLong(4, call.durationMS);
+				updateCaller.bindString(5, call.callerID);
+				updateCaller.executeUpdateDelete();
+			}
+		} finally {
+			closeStatement(insertCall);
+			closeStatement(insertCaller);
+			closeStatement(updateCaller);
+		}
+	}
+
+	private static void closeStatement(SQLiteStatement statement) {
+		if(statement!=null) {
+			statement.close();
+		}
+	}
+}
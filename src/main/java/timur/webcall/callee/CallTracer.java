@@ -0,0 +1,160 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// CallTracer records the timeline of an incoming call, from the server's "callerInfo|" or
+// "callerOffer|" to peerConnect(), to show where the time between offer and ring goes.
+//
+// Events are stored in eventCount preallocated slots (a ring, the oldest events are
+// overwritten). Recording an event copies a few primitives and a reference to a constant name
+// into the slots, so it does not allocate and tracing can stay on in release builds.
+// Time is taken from SystemClock.elapsedRealtimeNanos(), which is monotonic and keeps counting
+// in deep sleep, so spans across doze are measured correctly.
+//
+// Event kinds (as in the Chrome trace-event format):
+//   span()                  a complete event ('X') from a start time taken with now()
+//   instant()               a point in time ('i')
+//   asyncBegin/asyncEnd()   a span that starts and ends on different threads ('b'/'e'),
+//                           bound to the current call
+// callBegin() starts a new call (with its own id) and its "callSetup" span, callEnd() ends it.
+//
+// json() exports the events in Chrome trace-event JSON, to be loaded in chrome://tracing or
+// ui.perfetto.dev.
+
+package timur.webcall.callee;
+
+import android.os.Process;
+import android.os.SystemClock;
+
+public final class CallTracer {
+	private static final String TAG = "WebCallTrace";
+	private static final int eventCount = 512;
+	// a call that is not ended after maxCallNS is considered abandoned by callBegin()
+	private static final long maxCallNS = 120L*1000*1000*1000;
+
+	private static final String[] names = new String[eventCount];
+	private static final char[] phases = new char[eventCount];
+	private static final long[] timesNS = new long[eventCount];
+	private static final long[] durationsNS = new long[eventCount];
+	private static final long[] threadIds = new long[eventCount];
+	private static final int[] callIds = new int[eventCount];
+	private static long nextEvent = 0;
+
+	private static int callId = 0;
+	private static boolean callActive = false;
+	private static long callStartNS = 0;
+
+	private static volatile boolean enabled = true;
+
+	private CallTracer() {
+	}
+
+	public static void setEnabled(boolean flag) {
+		enabled = flag;
+	}
+
+	public static long now() {
+		return SystemClock.elapsedRealtimeNanos();
+	}
+
+	// span() records name from startNS (taken with now()) until now
+	public static void span(String name, long startNS) {
+		if(enabled) {
+			long nowNS = now();
+			record(name, 'X', startNS, nowNS-startNS);
+		}
+	}
+
+	public static void instant(String name) {
+		if(enabled) {
+			record(name, 'i', now(), 0);
+		}
+	}
+
+	public static void asyncBegin(String name) {
+		if(enabled) {
+			record(name, 'b', now(), 0);
+		}
+	}
+
+	public static void asyncEnd(String name) {
+		if(enabled) {
+			record(name, 'e', now(), 0);
+		}
+	}
+
+	// callBegin() starts the trace of a new call, unless one is already being traced
+	public static synchronized void callBegin() {
+		if(!enabled) {
+			return;
+		}
+		long nowNS = now();
+		if(callActive && nowNS - callStartNS < maxCallNS) {
+			return;
+		}
+		if(callActive) {
+			// the previous call never reached callEnd()
+			record("callSetup", 'e', nowNS, 0);
+		}
+		callId++;
+		callActive = true;
+		callStartNS = nowNS;
+		record("callSetup", 'b', nowNS, 0);
+	}
+
+	// callEnd() ends the trace of the current call (why is recorded as an instant event)
+	public static synchronized void callEnd(String why) {
+		if(!enabled || !callActive) {
+			return;
+		}
+		long nowNS = now();
+		record(why, 'i', nowNS, 0);
+		record("callSetup", 'e', nowNS, 0);
+		callActive = false;
+		WebCallLog.d(TAG,"callEnd {} ms={}", why, (nowNS-callStartNS)/1000000);
+	}
+
+	private static synchronized void record(String name, char phase, long timeNS, long durationNS) {
+		int idx = (int)(nextEvent % eventCount);
+		nextEvent++;
+		names[idx] = name;
+		phases[idx] = phase;
+		timesNS[idx] = timeNS;
+		durationsNS[idx] = durationNS;
+		threadIds[idx] = Thread.currentThread().getId();
+		callIds[idx] = callId;
+	}
+
+	public static synchronized void clear() {
+		nextEvent = 0;
+		callActive = false;
+	}
+
+	// json() returns the recorded events (oldest first) as Chrome trace-event JSON
+	public static synchronized String json() {
+		StringBuilder sb = new StringBuilder(128 + (int)Math.min(nextEvent, eventCount)*112);
+		int pid = Process.myPid();
+		sb.append("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+		long first = Math.max(0, nextEvent - eventCount);
+		for(long event=first; event<nextEvent; event++) {
+			int idx = (int)(event % eventCount);
+			if(event>first) {
+				sb.append(',');
+			}
+			sb.append("{\"name\":\"").append(names[idx]).append('"');
+			sb.append(",\"cat\":\"call\",\"ph\":\"").append(phases[idx]).append('"');
+			// trace-event times are in microseconds
+			sb.append(",\"ts\":").append(timesNS[idx]/1000);
+			if(phases[idx]=='X') {
+				sb.append(",\"dur\":").append(durationsNS[idx]/1000);
+			} else if(phases[idx]=='i') {
+				sb.append(",\"s\":\"p\"");
+			} else {
+				sb.append(",\"id\":").append(callIds[idx]);
+			}
+			sb.append(",\"pid\":").append(pid);
+			sb.append(",\"tid\":").append(threadIds[idx]);
+			sb.append(",\"args\":{\"call\":").append(callIds[idx]).append("}}");
+		}
+		sb.append("]}");
+		return sb.toString();
+	}
+}
@@ -0,0 +1,532 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// CalleeIdentities keeps additional callee IDs registered, next to the primary ID that
+// WebCallService (and the webview) handle. This lets a shared device be reachable under several IDs.
+//
+// The IDs are taken from prefs "extraIdentities" (comma separated). Each ID needs its own
+// password cookie in prefs "cookies_"+id (stored by the page via storePreference()).
+// Every identity only has a small connection state: its cookie, a WebSocket, a backoff counter
+// and the time of the last server message. Everything else is shared with the service: the
+// scheduler, the OkHttp client and TLS sessions (WebCallTls), ConnectionRacer, the periodic
+// pingcheck of WakeScheduler (which calls check()) and the notification surface (Host).
+//
+// An incoming call for an identity is reported to Host.incomingCall(); the service shows it as a
+// notification. To pick up, the service switches that identity to be the primary one: handover()
+// keeps the connection of the identity (and with it the waiting caller) registered until the
+// primary WebSocket has logged in under that ID, then remove() closes it.
+//
+// With setMux() the identities do not open sockets of their own: each one gets a SignalingMux
+// channel on the WebSocket of the service (login, init and all further messages are sent as
+// tagged frames), and muxReset() marks them offline when that WebSocket goes away.
+
+package timur.webcall.callee;
+
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.os.SystemClock;
+
+import java.io.BufferedReader;
+import java.net.Socket;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.framing.Framedata;
+import org.java_websocket.handshake.ServerHandshake;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+public class CalleeIdentities {
+	private static final String TAG = "WebCallIds";
+	// same as serverPingPeriodPlus in WebCallService
+	private static final long serverSilenceMS = (2*60+10)*1000;
+	private static final int maxBackoffSecs = 5*60;
+	// max time a handed over identity stays connected while the primary logs in
+	private static final long handoverTimeoutMS = 30*1000;
+
+	public interface Host {
+		// the domain of the signaling server (host[:port])
+		String domain();
+		boolean insecureTls();
+		String version();
+		void incomingCall(String calleeID, String callerID, String callerName, String txtMsg);
+		void cancelCall(String calleeID);
+	}
+
+	public interface MuxSender {
+		// send() sends a tagged frame over the primary WebSocket
+		boolean send(String frame);
+	}
+
+	private final Host host;
+	private final ScheduledExecutorService scheduler;
+	private final ConnectionRacer connectionRacer;
+	private final SharedPreferences prefs;
+
+	private class Identity {
+		final String calleeID;
+		volatile String state = "offline"; // offline, login, connecting, online, backoff, failed
+		volatile IdentitySocket socket = null;
+		volatile String muxTag = null;
+		volatile long lastServerMessageAt = 0;
+		volatile boolean busy = false;
+		volatile boolean handover = false;
+		int failures = 0;
+		long connects = 0;
+
+		Identity(String calleeID) {
+			this.calleeID = calleeID;
+		}
+	}
+	// calleeID -> identity
+	private final LinkedHashMap<String,Identity> identities = new LinkedHashMap<String,Identity>();
+	private volatile boolean wanted = false;
+	private volatile SignalingMux mux = null;
+	private volatile MuxSender muxSender = null;
+
+	public CalleeIdentities(Host host, ScheduledExecutorService scheduler,
+			ConnectionRacer connectionRacer, SharedPreferences prefs) {
+		this.host = host;
+		this.scheduler = scheduler;
+		this.connectionRacer = connectionRacer;
+		this.prefs = prefs;
+	}
+
+	// setMux() switches to multiplexing over the primary WebSocket (mux==null: own sockets)
+	public void setMux(SignalingMux mux, MuxSender muxSender) {
+		if(mux==this.mux) {
+			return;
+		}
+		disconnectAll();
+		this.muxSender = muxSender;
+		this.mux = mux;
+		WebCallLog.d(TAG,"setMux "+(mux!=null));
+	}
+
+	public boolean isMux() {
+		return mux!=null;
+	}
+
+	// muxReset() is called when the primary WebSocket is gone: all channels are lost with it
+	public void muxReset() {
+		SignalingMux currentMux = mux;
+		if(currentMux==null) {
+			return;
+		}
+		synchronized(this) {
+			for(Identity identity : identities.values()) {
+				if(identity.muxTag!=null) {
+					currentMux.unregister(identity.muxTag);
+					identity.muxTag = null;
+					identity.state = "offline";
+				}
+			}
+		}
+	}
+
+	// ids() returns the configured extra IDs
+	public ArrayList<String> ids() {
+		ArrayList<String> list = new ArrayList<String>();
+		String primary = prefs.getString("username", "").toLowerCase(Locale.getDefault());
+		for(String tok : prefs.getString("extraIdentities", "").split(",")) {
+			String calleeID = tok.trim().toLowerCase(Locale.getDefault());
+			if(!calleeID.equals("") && !calleeID.equals(primary) && !list.contains(calleeID)) {
+				list.add(calleeID);
+			}
+		}
+		return list;
+	}
+
+	// check() (re)connects every identity that is down, and drops identities that were removed
+	// from the config; it is called from the service pingcheck and after the primary connected
+	public void check(boolean networkAvailable) {
+		ArrayList<String> ids = ids();
+		ArrayList<Identity> toConnect = new ArrayList<Identity>();
+		ArrayList<Identity> toClose = new ArrayList<Identity>();
+		synchronized(this) {
+			wanted = true;
+			for(String calleeID : new ArrayList<String>(identities.keySet())) {
+				if(!ids.contains(calleeID) && !identities.get(calleeID).handover) {
+					toClose.add(identities.remove(calleeID));
+				}
+			}
+			long now = SystemClock.elapsedRealtime();
+			for(String calleeID : ids) {
+				Identity identity = identities.get(calleeID);
+				if(identity==null) {
+					identity = new Identity(calleeID);
+					identities.put(calleeID, identity);
+				}
+				if(identity.busy || identity.state.equals("failed") || identity.state.equals("backoff")) {
+					continue;
+				}
+				if(identity.state.equals("online") && identity.muxTag==null &&
+						now - identity.lastServerMessageAt > serverSilenceMS) {
+					// (a mux channel is covered by the server pings of the primary WebSocket)
+					WebCallLog.d(TAG,"check "+calleeID+" server silent, reconnect");
+					toClose.add(identity);
+					identity.state = "offline";
+				}
+				if(!identity.state.equals("online") && networkAvailable) {
+					identity.busy = true;
+					toConnect.add(identity);
+				}
+			}
+		}
+		for(Identity identity : toClose) {
+			close(identity);
+		}
+		for(final Identity identity : toConnect) {
+			scheduler.execute(new Runnable() {
+				public void run() {
+					connect(identity);
+				}
+			});
+		}
+	}
+
+	// disconnectAll() closes all identity connections (no reconnect)
+	public void disconnectAll() {
+		ArrayList<Identity> list;
+		synchronized(this) {
+			wanted = false;
+			list = new ArrayList<Identity>(identities.values());
+		}
+		for(Identity identity : list) {
+			close(identity);
+			identity.state = "offline";
+		}
+	}
+
+	// handover() keeps calleeID connected while it becomes the primary identity, until remove()
+	// is called after the primary has logged in (or handoverTimeoutMS has passed)
+	public void handover(final String calleeID) {
+		synchronized(this) {
+			Identity identity = identities.get(calleeID);
+			if(identity==null) {
+				return;
+			}
+			identity.handover = true;
+		}
+		WebCallLog.d(TAG,"handover "+calleeID);
+		scheduler.schedule(new Runnable() {
+			public void run() {
+				Identity identity;
+				synchronized(CalleeIdentities.this) {
+					identity = identities.get(calleeID);
+				}
+				if(identity!=null && identity.handover) {
+					WebCallLog.d(TAG,"# handover "+calleeID+" timeout");
+					remove(calleeID);
+				}
+			}
+		}, handoverTimeoutMS, TimeUnit.MILLISECONDS);
+	}
+
+	// remove() drops calleeID (ie. because it has become the primary identity)
+	public void remove(String calleeID) {
+		Identity identity;
+		synchronized(this) {
+			identity = identities.remove(calleeID);
+		}
+		if(identity!=null) {
+			close(identity);
+		}
+	}
+
+	// send() sends msg over the connection of calleeID
+	public boolean send(String calleeID, String msg) {
+		Identity identity;
+		synchronized(this) {
+			identity = identities.get(calleeID);
+		}
+		if(identity!=null && identity.muxTag!=null) {
+			return muxSender.send(SignalingMux.frame(identity.muxTag, msg));
+		}
+		IdentitySocket socket = identity!=null ? identity.socket : null;
+		if(socket==null || !socket.isOpen()) {
+			return false;
+		}
+		try {
+			socket.send(msg);
+			return true;
+		} catch(Exception ex) {
+			WebCallLog.d(TAG,"# send "+calleeID+" ex="+ex);
+			return false;
+		}
+	}
+
+	// json() returns the state of all identities for the page
+	public synchronized String json() {
+		JSONArray array = new JSONArray();
+		try {
+			for(Identity identity : identities.values()) {
+				JSONObject obj = new JSONObject();
+				obj.put("id", identity.calleeID);
+				obj.put("state", identity.state);
+				obj.put("failures", identity.failures);
+				obj.put("connects", identity.connects);
+				array.put(obj);
+			}
+		} catch(Exception ex) {
+			WebCallLog.d(TAG,"# json ex="+ex);
+		}
+		return array.toString();
+	}
+
+	private void connect(Identity identity) {
+		try {
+			if(!wanted) {
+				return;
+			}
+			String cookie = prefs.getString("cookies_"+identity.calleeID, "");
+			if(cookie.equals("")) {
+				WebCallLog.d(TAG,"# connect "+identity.calleeID+" no password cookie");
+				identity.state = "failed";
+				return;
+			}
+			if(mux!=null) {
+				connectMux(identity, cookie);
+				return;
+			}
+			identity.state = "login";
+			String wsAddr = login(identity, cookie);
+			if(wsAddr==null) {
+				backoff(identity);
+				return;
+			}
+			if(identity.state.equals("failed") || !wanted) {
+				return;
+			}
+
+			identity.state = "connecting";
+			IdentitySocket socket = new IdentitySocket(identity, new URI(wsAddr+"&auto=true"));
+			socket.setConnectionLostTimeout(0); // the server pings us
+			socket.addHeader("Cookie", cookie);
+			URI wsUri = socket.getURI();
+			boolean isWss = wsAddr.startsWith("wss");
+			int port = wsUri.getPort();
+			if(port<0) {
+				port = isWss ? 443 : 80;
+			}
+			Socket plainSocket = connectionRacer.connect(wsUri.getHost(), port, 22000);
+			if(isWss) {
+				socket.setSocket(WebCallTls.getInstance().layerSocket(
+					plainSocket, wsUri.getHost(), port, host.insecureTls()));
+			} else {
+				socket.setSocket(plainSocket);
+			}
+			if(!socket.connectBlocking(22, TimeUnit.SECONDS)) {
+				WebCallLog.d(TAG,"# connect "+identity.calleeID+" websocket not open");
+				backoff(identity);
+				return;
+			}
+			if(isWss && !host.insecureTls() && Build.VERSION.SDK_INT < Build.VERSION_CODES.N) {
+				// self hostVerify (see onSetSSLParameters() below), same as the service does
+				HostnameVerifier hv = HttpsURLConnection.getDefaultHostnameVerifier();
+				if(!hv.verify(wsUri.getHost(), ((SSLSocket)socket.getSocket()).getSession())) {
+					WebCallLog.d(TAG,"# connect "+identity.calleeID+" self-hostVerify fail "+wsUri.getHost());
+					backoff(identity);
+					return;
+				}
+			}
+			identity.socket = socket;
+			identity.lastServerMessageAt = SystemClock.elapsedRealtime();
+			// register as callee; the server responds with "sessionId|"
+			socket.send("init|");
+			identity.connects++;
+			WebCallLog.d(TAG,"connect "+identity.calleeID+" done");
+		} catch(Exception ex) {
+			WebCallLog.d(TAG,"# connect "+identity.calleeID+" ex="+ex);
+			backoff(identity);
+		} finally {
+			identity.busy = false;
+		}
+	}
+
+	// connectMux() registers the identity on a channel of the primary WebSocket
+	private void connectMux(final Identity identity, String cookie) {
+		SignalingMux currentMux = mux;
+		String tag = currentMux.register(new SignalingMux.Handler() {
+			public void onFrame(String frame, int offset) {
+				handleMessage(identity, frame, offset);
+			}
+		});
+		identity.muxTag = tag;
+		identity.state = "connecting";
+		identity.lastServerMessageAt = SystemClock.elapsedRealtime();
+		if(!muxSender.send(SignalingMux.frame(tag, "login|"+identity.calleeID+"|"+cookie)) ||
+				!muxSender.send(SignalingMux.frame(tag, "init|"))) {
+			// no primary WebSocket right now; the next check() will try again
+			currentMux.unregister(tag);
+			identity.muxTag = null;
+			identity.state = "offline";
+			return;
+		}
+		identity.connects++;
+		WebCallLog.d(TAG,"connectMux "+identity.calleeID+" tag="+tag);
+	}
+
+	// handleMessage() processes a server message for identity, starting at offset of frame
+	private void handleMessage(Identity identity, String frame, int offset) {
+		identity.lastServerMessageAt = SystemClock.elapsedRealtime();
+		if(frame.startsWith("sessionId|", offset)) {
+			identity.state = "online";
+			identity.failures = 0;
+		} else if(frame.startsWith("callerInfo|", offset)) {
+			// callerID \t callerName \t txtMsg
+			String[] toks = frame.substring(offset+11).split("\t");
+			host.incomingCall(identity.calleeID,
+				toks.length>=1 ? toks[0] : "",
+				toks.length>=2 ? toks[1] : "",
+				toks.length>=3 ? toks[2] : "");
+		} else if(frame.startsWith("cancel|", offset)) {
+			host.cancelCall(identity.calleeID);
+		}
+	}
+
+	// login() returns the wsAddr for the identity, or null
+	private String login(Identity identity, String cookie) throws Exception {
+		String loginUrl = "https://"+host.domain()+"/rtcsig/login?id="+identity.calleeID+
+			"&ver="+host.version();
+		OkHttpClient client = WebCallTls.getInstance().okHttpClient(host.insecureTls());
+		Request request = new Request.Builder().url(loginUrl)
+			.header("Cookie", cookie)
+			.header("X-WcVer", host.version())
+			.build();
+		Response response = client.newCall(request).execute();
+		try {
+			if(response.code()!=200) {
+				WebCallLog.d(TAG,"# login "+identity.calleeID+" status="+response.code());
+				return null;
+			}
+			String line = new BufferedReader(response.body().charStream()).readLine();
+			String[] tokens = line!=null ? line.split("\\|") : new String[0];
+			if(tokens.length<3 || tokens[0].equals("fatal") || tokens[0].equals("error") ||
+					tokens[0].equals("busy") || tokens[0].equals("noservice") ||
+					tokens[0].equals("notregistered")) {
+				// no use retrying
+				WebCallLog.d(TAG,"# login "+identity.calleeID+" fail '"+line+"'");
+				identity.state = "failed";
+				return null;
+			}
+			return tokens[0];
+		} finally {
+			response.close();
+		}
+	}
+
+	private void backoff(final Identity identity) {
+		if(identity.state.equals("failed")) {
+			return;
+		}
+		close(identity);
+		identity.failures++;
+		int delaySecs = Math.min(identity.failures*10, maxBackoffSecs);
+		identity.state = "backoff";
+		WebCallLog.d(TAG,"backoff "+identity.calleeID+" retry in "+delaySecs+"s");
+		scheduler.schedule(new Runnable() {
+			public void run() {
+				synchronized(CalleeIdentities.this) {
+					if(identity.state.equals("backoff")) {
+						identity.state = "offline";
+					}
+				}
+				if(wanted) {
+					check(true);
+				}
+			}
+		}, delaySecs, TimeUnit.SECONDS);
+	}
+
+	private void close(Identity identity) {
+		String muxTag = identity.muxTag;
+		identity.muxTag = null;
+		if(muxTag!=null) {
+			muxSender.send(SignalingMux.frame(muxTag, "logout|"));
+			mux.unregister(muxTag);
+		}
+		IdentitySocket socket = identity.socket;
+		identity.socket = null;
+		if(socket!=null) {
+			socket.closed = true;
+			try {
+				socket.close();
+			} catch(Exception ex) {
+				WebCallLog.d(TAG,"# close "+identity.calleeID+" ex="+ex);
+			}
+		}
+	}
+
+	private class IdentitySocket extends WebSocketClient {
+		private final Identity identity;
+		// set when we close the socket ourselves
+		volatile boolean closed = false;
+
+		IdentitySocket(Identity identity, URI serverUri) {
+			super(serverUri);
+			this.identity = identity;
+		}
+
+		@Override
+		public void onOpen(ServerHandshake handshakedata) {
+			identity.lastServerMessageAt = SystemClock.elapsedRealtime();
+		}
+
+		@Override
+		public void onMessage(String message) {
+			handleMessage(identity, message, 0);
+		}
+
+		@Override
+		public void onSetSSLParameters(SSLParameters sslParameters) {
+			// this method is only supported on Android >= 24 (Nougat)
+			// below that, connect() does host verification itself
+			if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+				super.onSetSSLParameters(sslParameters);
+			} else {
+				WebCallLog.d(TAG,"# onSetSSLParameters "+identity.calleeID+" not supported "+
+					Build.VERSION.SDK_INT+" < "+Build.VERSION_CODES.N);
+			}
+		}
+
+		@Override
+		public void onWebsocketPing(WebSocket conn, Framedata f) {
+			identity.lastServerMessageAt = SystemClock.elapsedRealtime();
+			super.onWebsocketPing(conn,f); // will send a pong
+		}
+
+		@Override
+		public void onClose(int code, String reason, boolean remote) {
+			WebCallLog.d(TAG,"onClose "+identity.calleeID+" code="+code+" closed="+closed);
+			if(closed) {
+				return;
+			}
+			identity.socket = null;
+			if(wanted) {
+				backoff(identity);
+			} else {
+				identity.state = "offline";
+			}
+		}
+
+		@Override
+		public void onError(Exception ex) {
+			WebCallLog.d(TAG,"onError "+identity.calleeID+" ex="+ex);
+		}
+	}
+}
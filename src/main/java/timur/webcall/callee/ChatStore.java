@@ -0,0 +1,222 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// ChatStore keeps the text chat history of P2P calls, so it survives the page and the activity.
+// The chat itself runs over the WebRTC data channel inside the page; the page hands every sent
+// and received message to the service (JS chatAppend()) and reads the history back in pages.
+//
+// Messages are only ever appended, to an SQLite table with an index on (peer, time). The text is
+// also indexed by an FTS4 table (external content, so it is not stored twice) for search().
+// Batching, the writer thread and the keyset cursor of query() come from BatchedStore; a page of
+// query() is one range scan of index chat_peer_time, no matter how many messages a peer has.
+
+package timur.webcall.callee;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+public class ChatStore extends BatchedStore<ChatStore.Message> {
+	private static final String TAG = "WebCallChat";
+	private static final String dbName = "chat.db";
+	private static final int dbVersion = 1;
+	private static final long batchMS = 1000;
+	private static final int batchSize = 64;
+	private static final String emptyPage = "{\"messages\":[],\"next\":\"\"}";
+
+	static class Message {
+		final String peer;
+		final long time;
+		final boolean outgoing;
+		final String text;
+
+		Message(String peer, long time, boolean outgoing, String text) {
+			this.peer = peer;
+			this.time = time;
+			this.outgoing = outgoing;
+			this.text = text;
+		}
+	}
+
+	// guarded by this
+	private long appended = 0;
+
+	private static class Helper extends SQLiteOpenHelper {
+		Helper(Context context) {
+			super(context, dbName, null, dbVersion);
+			setWriteAheadLoggingEnabled(true);
+		}
+
+		@Override
+		public void onCreate(SQLiteDatabase db) {
+			db.execSQL("CREATE TABLE chat (id INTEGER PRIMARY KEY, peer TEXT NOT NULL,"+
+				" time INTEGER NOT NULL, outgoing INTEGER NOT NULL, text TEXT NOT NULL)");
+			db.execSQL("CREATE INDEX chat_peer_time ON chat (peer, time)");
+			db.execSQL("CREATE VIRTUAL TABLE chat_fts USING fts4(content=\"chat\", text)");
+		}
+
+		@Override
+		public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+		}
+	}
+
+	public ChatStore(Context context) {
+		super(TAG, new Helper(context.getApplicationContext()), batchMS, batchSize);
+	}
+
+	// append() queues one message (time in ms since epoch) for the next batch
+	public synchronized void append(String peer, long time, boolean outgoing, String text) {
+		if(peer==null || peer.length()==0 || text==null) {
+			return;
+		}
+		if(queue(new Message(peer, time, outgoing, text))) {
+			appended++;
+		}
+	}
+
+	// query() returns up to limit messages with peer, newest first, that come before the cursor
+	// next of the previous page ("" = the newest page):
+	// {"messages":[{"id":..,"time":..,"out":true,"text":".."},..],"next":"time:id"}
+	// next is "" after the last page
+	public String query(final String peer, final String next, final int limit) {
+		return onWriter(new Callable<String>() {
+			public String call() {
+				long[] before = parseNext(next);
+				if(before==null) {
+					WebCallLog.d(TAG,"# query next="+next);
+					return emptyPage;
+				}
+				// time<=? is the index range, the OR drops the rows at the boundary time already sent
+				// (id is the rowid, the last column of index chat_peer_time)
+				String beforeMS = String.valueOf(before[0]);
+				int pageSize = pageSize(limit);
+				Cursor cursor = helper.getReadableDatabase().rawQuery(
+					"SELECT id, peer, time, outgoing, text FROM chat WHERE peer=? AND time<=?"+
+					" AND (time<? OR id<?) ORDER BY time DESC, id DESC LIMIT "+pageSize,
+					new String[] { peer, beforeMS, beforeMS, String.valueOf(before[1]) });
+				return toPage(cursor, pageSize);
+			}
+		}, emptyPage);
+	}
+
+	// search() returns up to limit messages (of peer, or of all peers if peer is empty)
+	// that contain all words of words, newest first
+	public String search(final String peer, final String words, final int limit) {
+		final String match = matchExpression(words);
+		if(match==null) {
+			return "[]";
+		}
+		return onWriter(new Callable<String>() {
+			public String call() {
+				Cursor cursor;
+				if(peer==null || peer.length()==0) {
+					cursor = helper.getReadableDatabase().rawQuery(
+						"SELECT c.id, c.peer, c.time, c.outgoing, c.text FROM chat_fts f"+
+						" JOIN chat c ON c.id=f.docid WHERE chat_fts MATCH ?"+
+						" ORDER BY c.time DESC LIMIT "+pageSize(limit),
+						new String[] { match });
+				} else {
+					cursor = helper.getReadableDatabase().rawQuery(
+						"SELECT c.id, c.peer, c.time, c.outgoing, c.text FROM chat_fts f"+
+						" JOIN chat c ON c.id=f.docid WHERE chat_fts MATCH ? AND c.peer=?"+
+						" ORDER BY c.time DESC LIMIT "+pageSize(limit),
+						new String[] { match, peer });
+				}
+				return toJson(cursor, true).toString();
+			}
+		}, "[]");
+	}
+
+	public synchronized String stats() {
+		return "appended="+appended+" "+batchStats();
+	}
+
+	// write() inserts the messages and their FTS rows; runs on the writer thread
+	@Override
+	protected void write(SQLiteDatabase db, ArrayList<Message> batch) {
+		ContentValues values = new ContentValues();
+		ContentValues ftsValues = new ContentValues();
+		for(Message message : batch) {
+			values.clear();
+			values.put("peer", message.peer);
+			values.put("time", message.time);
+			values.put("outgoing", message.outgoing ? 1 : 0);
+			values.put("text", message.text);
+			long id = db.insert("chat", null, values);
+			if(id<0) {
+				continue;
+			}
+			ftsValues.clear();
+			ftsValues.put("docid", id);
+			ftsValues.put("text", message.text);
+			db.insert("chat_fts", null, ftsValues);
+		}
+	}
+
+	// matchExpression() turns the words into an FTS query that matches all of them
+	// (each word quoted, so that the user can not produce an FTS syntax error)
+	private static String matchExpression(String words) {
+		if(words==null) {
+			return null;
+		}
+		StringBuilder sb = new StringBuilder();
+		for(String word : words.trim().split("\\s+")) {
+			if(word.length()==0) {
+				continue;
+			}
+			if(sb.length()>0) {
+				sb.append(' ');
+			}
+			sb.append('"').append(word.replace("\"","\"\"")).append('"');
+		}
+		return sb.length()>0 ? sb.toString() : null;
+	}
+
+	// toPage() adds the cursor of the next page to the messages, unless this is the last page
+	private static String toPage(Cursor cursor, int pageSize) {
+		JSONArray messages = toJson(cursor, false);
+		String next = "";
+		try {
+			if(messages.length()>=pageSize) {
+				JSONObject last = messages.getJSONObject(messages.length()-1);
+				next = nextCursor(last.getLong("time"), last.getLong("id"));
+			}
+			JSONObject page = new JSONObject();
+			page.put("messages", messages);
+			page.put("next", next);
+			return page.toString();
+		} catch(Exception ex) {
+			WebCallLog.d(TAG,"# toPage ex="+ex);
+			return emptyPage;
+		}
+	}
+
+	private static JSONArray toJson(Cursor cursor, boolean withPeer) {
+		JSONArray result = new JSONArray();
+		try {
+			while(cursor.moveToNext()) {
+				JSONObject obj = new JSONObject();
+				obj.put("id", cursor.getLong(0));
+				if(withPeer) {
+					obj.put("peer", cursor.getString(1));
+				}
+				obj.put("time", cursor.getLong(2));
+				obj.put("out", cursor.getInt(3)!=0);
+				obj.put("text", cursor.getString(4));
+				result.put(obj);
+			}
+		} catch(Exception ex) {
+			WebCallLog.d(TAG,"# toJson ex="+ex);
+		} finally {
+			cursor.close();
+		}
+		return result;
+	}
+}
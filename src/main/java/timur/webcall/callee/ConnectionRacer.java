@@ -0,0 +1,284 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// ConnectionRacer makes dual-stack tcp connects to the webcall server (happy eyeballs).
+//
+// The host is resolved once via DnsCache (getaddrinfo asks for A and AAAA records in parallel)
+// and the addresses are split by family. Connect attempts are started staggerMS apart, alternating
+// between the families, beginning with the family that won last time on the current network.
+// A failing attempt starts the next one right away. The first socket to connect wins, all
+// other attempts are closed. This way a network with broken IPv6 (or IPv4) costs us staggerMS
+// instead of a full 22s connect timeout.
+//
+// The winning family is stored per network (interface + dns servers) in prefs "ipFamilyPrefs".
+// connect() hands out the winning socket (used for the WebSocket). dns() is an OkHttp Dns for the
+// login request: it does not race (OkHttp could not take over the winning socket and would connect
+// a second time), it only lists the addresses beginning with the family that won last time.
+
+package timur.webcall.callee;
+
+import android.content.SharedPreferences;
+
+import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import okhttp3.Dns;
+
+public class ConnectionRacer {
+	private static final String TAG = "WebCallRacer";
+	private static final long staggerMS = 250;
+	private static final int maxAttempts = 4;
+	private static final int maxNetworks = 16;
+
+	private final DnsCache dnsCache;
+	private final SharedPreferences prefs;
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	// networkKey -> winning family (4 or 6), most recently used last
+	private final LinkedHashMap<String,Integer> familyPrefs = new LinkedHashMap<String,Integer>();
+
+	private long races = 0;
+	private long wins4 = 0;
+	private long wins6 = 0;
+	private long failedRaces = 0;
+	private long lastRaceMS = 0;
+
+	private volatile boolean logFlag = false;
+
+	public ConnectionRacer(DnsCache dnsCache, SharedPreferences prefs) {
+		this.dnsCache = dnsCache;
+		this.prefs = prefs;
+		restoreFamilyPrefs();
+	}
+
+	public void setLogFlag(boolean logFlag) {
+		this.logFlag = logFlag;
+	}
+
+	// connect() returns a plain tcp socket to host:port, connected via the winner of the race
+	public Socket connect(String host, int port, int timeoutMS) throws IOException {
+		return race(host, port, timeoutMS);
+	}
+
+	// dns() returns an OkHttp Dns that lists the addresses of host interleaved by family, beginning
+	// with the family that won the last race on the current network; it does not connect itself,
+	// so OkHttp makes the only connect to each address
+	public Dns dns() {
+		return new Dns() {
+			@Override
+			public List<InetAddress> lookup(String host) throws UnknownHostException {
+				InetAddress[] addresses = dnsCache.resolve(host);
+				Integer preferredFamily;
+				synchronized(ConnectionRacer.this) {
+					preferredFamily = familyPrefs.get(dnsCache.networkKey());
+				}
+				return interleave(addresses, preferredFamily!=null ? preferredFamily : 6);
+			}
+		};
+	}
+
+	public synchronized String stats() {
+		return "races="+races+" v4="+wins4+" v6="+wins6+" fail="+failedRaces+" lastMS="+lastRaceMS+
+			" pref="+familyPrefs.get(dnsCache.networkKey());
+	}
+
+	public synchronized void clear() {
+		familyPrefs.clear();
+		saveFamilyPrefs();
+	}
+
+	// race state shared between the caller and the attempt threads
+	private static class Race {
+		Socket winner = null;
+		InetAddress winnerAddress = null;
+		int started = 0;
+		int failed = 0;
+		IOException lastEx = null;
+		final ArrayList<Socket> sockets = new ArrayList<Socket>();
+	}
+
+	private Socket race(String host, int port, int timeoutMS) throws IOException {
+		long startMS = System.currentTimeMillis();
+		InetAddress[] addresses = dnsCache.resolve(host);
+		String networkKey = dnsCache.networkKey();
+		Integer preferredFamily;
+		synchronized(this) {
+			preferredFamily = familyPrefs.get(networkKey);
+		}
+		List<InetAddress> ordered = interleave(addresses, preferredFamily!=null ? preferredFamily : 6);
+		int attempts = Math.min(ordered.size(), maxAttempts);
+
+		final Race race = new Race();
+		long deadline = startMS + timeoutMS;
+		synchronized(race) {
+			for(int i=0; i<attempts && race.winner==null; i++) {
+				startAttempt(race, ordered.get(i), port, timeoutMS);
+				// wait staggerMS for a winner, or less if all started attempts have failed
+				long staggerEnd = System.currentTimeMillis() + staggerMS;
+				while(race.winner==null && race.failed<race.started) {
+					long waitMS = staggerEnd - System.currentTimeMillis();
+					if(waitMS<=0) {
+						break;
+					}
+					try {
+						race.wait(waitMS);
+					} catch(InterruptedException ex) {
+						break;
+					}
+				}
+			}
+			// all attempts are started; wait for the first one to connect
+			while(race.winner==null && race.failed<race.started) {
+				long waitMS = deadline - System.currentTimeMillis();
+				if(waitMS<=0) {
+					break;
+				}
+				try {
+					race.wait(waitMS);
+				} catch(InterruptedException ex) {
+					break;
+				}
+			}
+			// abort the losers (closing a socket aborts a pending connect)
+			for(Socket socket : race.sockets) {
+				if(socket!=race.winner) {
+					try {
+						socket.close();
+					} catch(IOException ex) {
+					}
+				}
+			}
+		}
+
+		long raceMS = System.currentTimeMillis() - startMS;
+		synchronized(this) {
+			races++;
+			lastRaceMS = raceMS;
+			if(race.winner==null) {
+				failedRaces++;
+			} else {
+				int family = (race.winnerAddress instanceof Inet6Address) ? 6 : 4;
+				if(family==6) {
+					wins6++;
+				} else {
+					wins4++;
+				}
+				familyPrefs.remove(networkKey);
+				familyPrefs.put(networkKey, family);
+				while(familyPrefs.size()>maxNetworks) {
+					familyPrefs.remove(familyPrefs.keySet().iterator().next());
+				}
+				if(preferredFamily==null || preferredFamily!=family) {
+					WebCallLog.d(TAG,"race "+host+" network="+networkKey+" family "+preferredFamily+" -> "+family);
+					saveFamilyPrefs();
+				}
+			}
+		}
+
+		if(race.winner==null) {
+			WebCallLog.d(TAG,"# race "+host+":"+port+" no winner after "+raceMS+"ms attempts="+race.started+
+				" ex="+race.lastEx);
+			if(race.lastEx!=null) {
+				throw race.lastEx;
+			}
+			throw new IOException("failed to connect to "+host+":"+port+" after "+raceMS+"ms");
+		}
+		if(logFlag) {
+			WebCallLog.d(TAG,"race "+host+":"+port+" won by "+race.winnerAddress.getHostAddress()+
+				" in "+raceMS+"ms attempts="+race.started);
+		}
+		return race.winner;
+	}
+
+	// startAttempt() must be called with race locked
+	private void startAttempt(final Race race, final InetAddress address, final int port,
+			final int timeoutMS) {
+		final Socket socket = new Socket();
+		race.sockets.add(socket);
+		race.started++;
+		executor.execute(new Runnable() {
+			public void run() {
+				try {
+					socket.connect(new InetSocketAddress(address, port), timeoutMS);
+					synchronized(race) {
+						if(race.winner==null) {
+							race.winner = socket;
+							race.winnerAddress = address;
+							race.notifyAll();
+							return;
+						}
+					}
+					// too late
+					socket.close();
+				} catch(IOException ex) {
+					if(logFlag) {
+						WebCallLog.d(TAG,"attempt "+address.getHostAddress()+" ex="+ex);
+					}
+					synchronized(race) {
+						race.failed++;
+						race.lastEx = ex;
+						race.notifyAll();
+					}
+				}
+			}
+		});
+	}
+
+	// interleave() orders the addresses by alternating family, starting with firstFamily
+	private static List<InetAddress> interleave(InetAddress[] addresses, int firstFamily) {
+		ArrayList<InetAddress> first = new ArrayList<InetAddress>();
+		ArrayList<InetAddress> second = new ArrayList<InetAddress>();
+		for(InetAddress address : addresses) {
+			boolean isV6 = address instanceof Inet6Address;
+			if(isV6 == (firstFamily==6)) {
+				first.add(address);
+			} else {
+				second.add(address);
+			}
+		}
+		ArrayList<InetAddress> ordered = new ArrayList<InetAddress>();
+		for(int i=0; i<first.size() || i<second.size(); i++) {
+			if(i<first.size()) {
+				ordered.add(first.get(i));
+			}
+			if(i<second.size()) {
+				ordered.add(second.get(i));
+			}
+		}
+		return ordered;
+	}
+
+	// familyPrefs are stored as: "networkKey,family;networkKey,family;"
+	private void saveFamilyPrefs() {
+		StringBuilder sb = new StringBuilder();
+		for(Map.Entry<String,Integer> entry : familyPrefs.entrySet()) {
+			sb.append(entry.getKey()).append(",").append(entry.getValue()).append(";");
+		}
+		SharedPreferences.Editor prefed = prefs.edit();
+		prefed.putString("ipFamilyPrefs", sb.toString());
+		prefed.apply();
+	}
+
+	private void restoreFamilyPrefs() {
+		try {
+			for(String tok : prefs.getString("ipFamilyPrefs", "").split(";")) {
+				String[] fields = tok.split(",");
+				if(fields.length>=2) {
+					familyPrefs.put(fields[0], Integer.parseInt(fields[1]));
+				}
+			}
+		} catch(Exception ex) {
+			WebCallLog.d(TAG,"# restoreFamilyPrefs ex="+ex);
+			familyPrefs.clear();
+		}
+	}
+}
@@ -0,0 +1,323 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// ContactCache is a local copy of the callee's contacts (kept by the WebCall server), so that
+// incomingCall() can show the name the callee gave a caller, without a network round trip and
+// also while there is no activity or WebView.
+//
+// refresh() fetches /rtcsig/getcontacts with the shared OkHttpClient of the intercept code (and
+// the request headers of the service) and reads the response ({"callerID":"name|...",..}) with a
+// streaming JsonReader. The result is applied as a diff to the CallerID -> name index; only if
+// something was added, removed or renamed is the index written to filesDir/contacts-<calleeID>.txt
+// (AtomicFile, one "id<tab>name" line per contact), so that every callee ID keeps its own
+// contacts. The file is written on the fetch thread outside the lock, so nameFor() never waits
+// for it. setCalleeID() switches to the index of another ID and reads its file right away, so the
+// first nameFor() of an incoming call does not have to. refresh() skips the fetch if the last
+// successful one is younger than minRefreshMS, unless forced (ie. after the page changed a
+// contact); a failed fetch is retried on the next refresh(). Only one fetch runs at a time, a
+// forced refresh during a fetch runs once it is done.
+
+package timur.webcall.callee;
+
+import android.content.Context;
+import android.util.AtomicFile;
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+public class ContactCache {
+	private static final String TAG = "WebCallContacts";
+	private static final long minRefreshMS = 10*60*1000;
+
+	private final File filesDir;
+
+	// guarded by this
+	private String calleeID = null;
+	private AtomicFile file = null; // null until a calleeID is set
+	// CallerID -> name given by the callee
+	private final HashMap<String,String> names = new HashMap<String,String>();
+	private boolean loaded = false;
+	private long lastRefreshMS = 0; // System.currentTimeMillis() of the last successful fetch
+	private boolean refreshing = false;
+	private boolean refreshAgain = false;
+
+	private long lookups = 0;
+	private long hits = 0;
+	private long refreshes = 0;
+	private long changes = 0;
+
+	public ContactCache(Context context) {
+		filesDir = context.getFilesDir();
+	}
+
+	// setCalleeID() switches to the contacts of calleeID and reads them from its file
+	public void setCalleeID(String newCalleeID) {
+		if(newCalleeID!=null && newCalleeID.length()==0) {
+			newCalleeID = null;
+		}
+		AtomicFile newFile;
+		synchronized(this) {
+			if(newCalleeID==null ? calleeID==null : newCalleeID.equals(calleeID)) {
+				return;
+			}
+			WebCallLog.d(TAG,"setCalleeID "+newCalleeID);
+			calleeID = newCalleeID;
+			file = null;
+			if(calleeID!=null) {
+				// the callee ID becomes part of the file name
+				file = new AtomicFile(new File(filesDir,
+					"contacts-"+calleeID.replaceAll("[^A-Za-z0-9._-]","_")+".txt"));
+			}
+			names.clear();
+			loaded = false;
+			lastRefreshMS = 0;
+			newFile = file;
+		}
+		if(newFile==null) {
+			return;
+		}
+		// preload outside the lock
+		HashMap<String,String> stored = read(newFile);
+		synchronized(this) {
+			if(file==newFile && !loaded) {
+				names.putAll(stored);
+				loaded = true;
+			}
+		}
+	}
+
+	// nameFor() returns the local name of callerID, or serverName if callerID is not a contact
+	public synchronized String nameFor(String callerID, String serverName) {
+		load();
+		lookups++;
+		if(callerID!=null) {
+			String name = names.get(callerID);
+			if(name!=null && name.length()>0) {
+				hits++;
+				return name;
+			}
+		}
+		return serverName;
+	}
+
+	// refresh() fetches the contacts of calleeID from domain, with headers (see
+	// SignalingCore.requestHeaders()); must not run on the main thread
+	public void refresh(OkHttpClient client, String domain, String calleeID,
+			Map<String,String> headers, boolean force) {
+		if(domain==null || domain.length()==0 || calleeID==null || calleeID.length()==0) {
+			return;
+		}
+		synchronized(this) {
+			if(refreshing) {
+				// the running fetch may have started before the change
+				refreshAgain = refreshAgain || force;
+				return;
+			}
+			if(!force && System.currentTimeMillis() - lastRefreshMS < minRefreshMS) {
+				return;
+			}
+			refreshing = true;
+		}
+		try {
+			boolean again = true;
+			while(again) {
+				fetch(client, domain, calleeID, headers);
+				synchronized(this) {
+					again = refreshAgain;
+					refreshAgain = false;
+				}
+			}
+		} finally {
+			synchronized(this) {
+				refreshing = false;
+			}
+		}
+	}
+
+	private void fetch(OkHttpClient client, String domain, String calleeID, Map<String,String> headers) {
+		HashMap<String,String> newNames;
+		Request.Builder requestBuilder = new Request.Builder()
+			.url("https://"+domain+"/rtcsig/getcontacts?id="+calleeID);
+		for(Map.Entry<String,String> entry : headers.entrySet()) {
+			requestBuilder.header(entry.getKey(), entry.getValue());
+		}
+		Response response = null;
+		try {
+			response = client.newCall(requestBuilder.build()).execute();
+			if(response.code()!=200) {
+				WebCallLog.d(TAG,"# refresh status="+response.code());
+				return;
+			}
+			newNames = parse(new JsonReader(new InputStreamReader(
+				response.body().byteStream(), StandardCharsets.UTF_8)));
+		} catch(Exception ex) {
+			WebCallLog.d(TAG,"# refresh ex="+ex);
+			return;
+		} finally {
+			if(response!=null) {
+				response.close();
+			}
+		}
+		String content;
+		AtomicFile target;
+		synchronized(this) {
+			content = apply(calleeID, newNames);
+			target = file;
+		}
+		if(content!=null && target!=null) {
+			// only one fetch runs at a time, so the writes of the file do not overlap
+			save(target, content);
+		}
+	}
+
+	public synchronized String stats() {
+		return "contacts="+names.size()+" lookups="+lookups+" hits="+hits+
+			" refreshes="+refreshes+" changes="+changes;
+	}
+
+	// apply() updates the index to newNames; if anything changed, it returns the new file content
+	// (else null); called with the lock held
+	private String apply(String fetchedCalleeID, HashMap<String,String> newNames) {
+		if(!fetchedCalleeID.equals(calleeID)) {
+			// setCalleeID() switched to another callee during the fetch
+			WebCallLog.d(TAG,"refresh dropped, calleeID="+fetchedCalleeID+" now="+calleeID);
+			return null;
+		}
+		load();
+		lastRefreshMS = System.currentTimeMillis();
+		refreshes++;
+		int removed = 0;
+		Iterator<Map.Entry<String,String>> it = names.entrySet().iterator();
+		while(it.hasNext()) {
+			if(!newNames.containsKey(it.next().getKey())) {
+				it.remove();
+				removed++;
+			}
+		}
+		int updated = 0;
+		for(Map.Entry<String,String> entry : newNames.entrySet()) {
+			String oldName = names.put(entry.getKey(), entry.getValue());
+			if(oldName==null || !oldName.equals(entry.getValue())) {
+				updated++;
+			}
+		}
+		if(removed==0 && updated==0) {
+			return null;
+		}
+		changes++;
+		WebCallLog.d(TAG,"refresh updated="+updated+" removed="+removed+" contacts="+names.size());
+		StringBuilder sb = new StringBuilder();
+		for(Map.Entry<String,String> entry : names.entrySet()) {
+			sb.append(entry.getKey()).append('\t').append(entry.getValue()).append('\n');
+		}
+		return sb.toString();
+	}
+
+	// parse() reads {"callerID":"name|callbackID|nickname",..}; for an object value, its "name" is used
+	private static HashMap<String,String> parse(JsonReader reader) throws IOException {
+		HashMap<String,String> result = new HashMap<String,String>();
+		try {
+			reader.beginObject();
+			while(reader.hasNext()) {
+				String callerID = reader.nextName();
+				String name = null;
+				JsonToken token = reader.peek();
+				if(token==JsonToken.STRING) {
+					name = reader.nextString();
+					int idxSep = name.indexOf('|');
+					if(idxSep>=0) {
+						name = name.substring(0, idxSep);
+					}
+				} else if(token==JsonToken.BEGIN_OBJECT) {
+					reader.beginObject();
+					while(reader.hasNext()) {
+						String field = reader.nextName();
+						if(field.equalsIgnoreCase("name") && reader.peek()==JsonToken.STRING) {
+							name = reader.nextString();
+						} else {
+							reader.skipValue();
+						}
+					}
+					reader.endObject();
+				} else {
+					reader.skipValue();
+				}
+				if(name!=null) {
+					// tab and newline separate the entries of our file
+					result.put(callerID, name.replace('\t',' ').replace('\n',' ').trim());
+				}
+			}
+			reader.endObject();
+		} finally {
+			reader.close();
+		}
+		return result;
+	}
+
+	// load() reads the index of the current callee, unless setCalleeID() has done so already
+	private void load() {
+		if(loaded) {
+			return;
+		}
+		loaded = true;
+		if(file!=null) {
+			names.putAll(read(file));
+		}
+	}
+
+	// read() returns the index stored in file
+	private static HashMap<String,String> read(AtomicFile file) {
+		HashMap<String,String> stored = new HashMap<String,String>();
+		BufferedReader reader = null;
+		try {
+			reader = new BufferedReader(new InputStreamReader(file.openRead(), StandardCharsets.UTF_8));
+			String line;
+			while((line = reader.readLine())!=null) {
+				int idxTab = line.indexOf('\t');
+				if(idxTab>0) {
+					stored.put(line.substring(0,idxTab), line.substring(idxTab+1));
+				}
+			}
+			WebCallLog.d(TAG,"load contacts="+stored.size());
+		} catch(FileNotFoundException ex) {
+			// nothing stored yet
+		} catch(Exception ex) {
+			WebCallLog.d(TAG,"# load ex="+ex);
+		} finally {
+			if(reader!=null) {
+				try {
+					reader.close();
+				} catch(Exception ex) {
+				}
+			}
+		}
+		return stored;
+	}
+
+	private static void save(AtomicFile file, String content) {
+		FileOutputStream fos = null;
+		try {
+			fos = file.startWrite();
+			fos.write(content.getBytes(StandardCharsets.UTF_8));
+			file.finishWrite(fos);
+		} catch(Exception ex) {
+			WebCallLog.d(TAG,"# save ex="+ex);
+			if(fos!=null) {
+				file.failWrite(fos);
+			}
+		}
+	}
+}
@@ -0,0 +1,235 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// DnsCache is an in-process resolver cache for the login and WebSocket hosts.
+//
+// Entries are kept per network (see networkKey()), so a network switch never serves addresses
+// resolved on the previous network, while switching back finds its entries again.
+// A fresh entry is served from the cache. Once an entry has used up prefetchPercent of its ttl,
+// it is still served, but refreshed in the background. An expired entry is resolved again
+// synchronously; if that fails (ie. UnknownHostException right after doze exit or a network
+// switch) the last known addresses for the host on this network are served (stale-on-error)
+// for up to maxStaleMS.
+//
+// The platform resolver (getaddrinfo) does not expose record ttls, so all entries use ttlMS.
+// Resolution latency, hits, prefetches and stale serves are counted for stats().
+
+package timur.webcall.callee;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.LinkProperties;
+import android.net.Network;
+import android.net.NetworkInfo;
+import android.os.Build;
+import android.os.SystemClock;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class DnsCache {
+	private static final String TAG = "WebCallDns";
+	private static final long ttlMS = 5*60*1000;
+	private static final int prefetchPercent = 80;
+	private static final long maxStaleMS = 24*60*60*1000;
+	private static final int maxEntries = 32;
+
+	private final Context context;
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	private static class Entry {
+		String host;
+		InetAddress[] addresses;
+		long resolvedAt; // elapsedRealtime
+		boolean refreshing;
+	}
+	// networkKey+"|"+host -> entry, most recently used last
+	private final LinkedHashMap<String,Entry> entries = new LinkedHashMap<String,Entry>();
+
+	private long lookups = 0;
+	private long hits = 0;
+	private long resolves = 0;
+	private long resolveFails = 0;
+	private long resolveSumMS = 0;
+	private long resolveLastMS = 0;
+	private long resolveMaxMS = 0;
+	private long prefetches = 0;
+	private long staleServes = 0;
+
+	private volatile boolean logFlag = false;
+
+	public DnsCache(Context context) {
+		this.context = context;
+	}
+
+	public void setLogFlag(boolean logFlag) {
+		this.logFlag = logFlag;
+	}
+
+	// resolve() returns the addresses of host on the current network
+	public InetAddress[] resolve(String host) throws UnknownHostException {
+		final String networkKey = networkKey();
+		final String key = networkKey+"|"+host;
+		Entry stale = null;
+		synchronized(this) {
+			lookups++;
+			Entry entry = entries.get(key);
+			if(entry!=null) {
+				long ageMS = SystemClock.elapsedRealtime() - entry.resolvedAt;
+				if(ageMS < ttlMS) {
+					hits++;
+					// keep the entry most recently used
+					entries.remove(key);
+					entries.put(key, entry);
+					if(ageMS >= ttlMS*prefetchPercent/100 && !entry.refreshing) {
+						entry.refreshing = true;
+						prefetches++;
+						refreshInBackground(networkKey, host);
+					}
+					return entry.addresses;
+				}
+			}
+			// stale-on-error only serves what was resolved on this network
+			stale = entry;
+		}
+
+		try {
+			return lookup(networkKey, host);
+		} catch(UnknownHostException ex) {
+			if(stale!=null && SystemClock.elapsedRealtime() - stale.resolvedAt < maxStaleMS) {
+				synchronized(this) {
+					staleServes++;
+				}
+				WebCallLog.d(TAG,"resolve "+host+" ex="+ex+" serving stale age="+
+					(SystemClock.elapsedRealtime() - stale.resolvedAt)/1000+"s");
+				return stale.addresses;
+			}
+			throw ex;
+		}
+	}
+
+	// prefetch() resolves host in the background, unless a fresh entry exists for the current network
+	public void prefetch(final String host) {
+		if(host==null || host.equals("")) {
+			return;
+		}
+		final String networkKey = networkKey();
+		synchronized(this) {
+			Entry entry = entries.get(networkKey+"|"+host);
+			if(entry!=null && (entry.refreshing || SystemClock.elapsedRealtime() - entry.resolvedAt <
+					ttlMS*prefetchPercent/100)) {
+				return;
+			}
+			if(entry!=null) {
+				entry.refreshing = true;
+			}
+			prefetches++;
+		}
+		refreshInBackground(networkKey, host);
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	public synchronized String stats() {
+		return "lookups="+lookups+" hits="+hits+" resolves="+resolves+" fails="+resolveFails+
+			" avgMS="+(resolves>0 ? resolveSumMS/resolves : 0)+" lastMS="+resolveLastMS+
+			" maxMS="+resolveMaxMS+" prefetches="+prefetches+" stale="+staleServes;
+	}
+
+	private void refreshInBackground(final String networkKey, final String host) {
+		executor.execute(new Runnable() {
+			public void run() {
+				try {
+					lookup(networkKey, host);
+				} catch(UnknownHostException ex) {
+					WebCallLog.d(TAG,"# prefetch "+host+" ex="+ex);
+					synchronized(DnsCache.this) {
+						Entry entry = entries.get(networkKey+"|"+host);
+						if(entry!=null) {
+							entry.refreshing = false;
+						}
+					}
+				}
+			}
+		});
+	}
+
+	// lookup() asks the platform resolver and stores the result
+	private InetAddress[] lookup(String networkKey, String host) throws UnknownHostException {
+		long startMS = SystemClock.elapsedRealtime();
+		InetAddress[] addresses;
+		try {
+			addresses = InetAddress.getAllByName(host);
+		} catch(UnknownHostException ex) {
+			synchronized(this) {
+				resolveFails++;
+			}
+			throw ex;
+		}
+		long durationMS = SystemClock.elapsedRealtime() - startMS;
+		synchronized(this) {
+			resolves++;
+			resolveSumMS += durationMS;
+			resolveLastMS = durationMS;
+			if(durationMS > resolveMaxMS) {
+				resolveMaxMS = durationMS;
+			}
+			String key = networkKey+"|"+host;
+			Entry entry = new Entry();
+			entry.host = host;
+			entry.addresses = addresses;
+			entry.resolvedAt = SystemClock.elapsedRealtime();
+			entries.remove(key);
+			entries.put(key, entry);
+			while(entries.size()>maxEntries) {
+				entries.remove(entries.keySet().iterator().next());
+			}
+		}
+		if(logFlag) {
+			WebCallLog.d(TAG,"lookup "+host+" network="+networkKey+" "+addresses.length+" addresses in "+
+				durationMS+"ms");
+		}
+		return addresses;
+	}
+
+	// networkKey() identifies the current default network by its interface and dns servers
+	// (the ssid would need location permission); below M the NetworkInfo extra info is used
+	public String networkKey() {
+		try {
+			ConnectivityManager connectivityManager =
+				(ConnectivityManager)context.getSystemService(Context.CONNECTIVITY_SERVICE);
+			if(connectivityManager==null) {
+				return "none";
+			}
+			if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+				Network network = connectivityManager.getActiveNetwork();
+				if(network==null) {
+					return "none";
+				}
+				LinkProperties linkProperties = connectivityManager.getLinkProperties(network);
+				if(linkProperties==null) {
+					return "none";
+				}
+				StringBuilder sb = new StringBuilder();
+				sb.append(linkProperties.getInterfaceName());
+				for(InetAddress dnsServer : linkProperties.getDnsServers()) {
+					sb.append(",").append(dnsServer.getHostAddress());
+				}
+				return Integer.toString(sb.toString().hashCode(), 36);
+			}
+			NetworkInfo netInfo = connectivityManager.getActiveNetworkInfo();
+			if(netInfo==null) {
+				return "none";
+			}
+			return Integer.toString((netInfo.getTypeName()+","+netInfo.getExtraInfo()).hashCode(), 36);
+		} catch(Exception ex) {
+			WebCallLog.d(TAG,"# networkKey ex="+ex);
+			return "none";
+		}
+	}
+}
@@ -0,0 +1,299 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// EndpointSelector picks the signaling server for each reconnect.
+//
+// The endpoints are taken from prefs "webcalldomains" (an ordered, comma separated list of
+// domains, ie. "timur.mobi,timur.mobi:8443,backup.example.org"); if that is not set, the single
+// "webcalldomain" is used as before. For every endpoint an EWMA of the probe round trip time is
+// kept, together with the number of consecutive login/connect failures. probeAll() measures all
+// endpoints (the connected one included) every probeIntervalMS the same way, by timing a tcp
+// connect (one round trip), so that select() compares like with like. The WebSocket ping/pong
+// rtt of the connected endpoint is kept as a separate series; it is reported by stats() only.
+//
+// After prefs "failoverFailures" (default 3) consecutive failures an endpoint is taken out of
+// rotation for cooldownMS; after that it is tried again. select() returns the first healthy
+// endpoint in list order, unless another healthy endpoint has a probe rtt that is at least
+// fasterPercent lower. If no endpoint is healthy, the one whose cooldown ends first is returned.
+
+package timur.webcall.callee;
+
+import android.content.SharedPreferences;
+import android.os.SystemClock;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Locale;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+public class EndpointSelector {
+	private static final String TAG = "WebCallEndpoint";
+	private static final int defaultFailoverFailures = 3;
+	private static final long cooldownMS = 5*60*1000;
+	private static final int fasterPercent = 30;
+	// weight of a new rtt sample in the EWMA, in percent
+	private static final int ewmaPercent = 25;
+	private static final long probeIntervalMS = 10*60*1000;
+	private static final int probeTimeoutMS = 5000;
+	private static final int defaultPort = 443;
+
+	private final SharedPreferences prefs;
+
+	private static class Endpoint {
+		String domain;
+		long probeRttMS = -1; // EWMA of the tcp connect time, -1 = not measured yet
+		long probeSamples = 0;
+		long pingRttMS = -1;  // EWMA of the ws ping/pong rtt (only while connected)
+		long pingSamples = 0;
+		int failures = 0;    // consecutive
+		long totalFailures = 0;
+		long failovers = 0;
+		long downUntil = 0;  // elapsedRealtime
+		long probes = 0;
+		long probeFailures = 0;
+	}
+	// domain -> endpoint; survives changes of the configured list
+	private final HashMap<String,Endpoint> endpoints = new HashMap<String,Endpoint>();
+	private String lastSelected = null;
+	private long lastProbe = 0; // elapsedRealtime
+
+	public EndpointSelector(SharedPreferences prefs) {
+		this.prefs = prefs;
+	}
+
+	// domains() returns the configured endpoint list
+	public synchronized ArrayList<String> domains() {
+		ArrayList<String> list = new ArrayList<String>();
+		String configured = prefs.getString("webcalldomains", "");
+		if(configured.equals("")) {
+			configured = prefs.getString("webcalldomain", "");
+		}
+		for(String tok : configured.split(",")) {
+			String domain = tok.trim().toLowerCase(Locale.getDefault());
+			if(!domain.equals("") && !list.contains(domain)) {
+				list.add(domain);
+			}
+		}
+		return list;
+	}
+
+	// select() returns the domain to use for the next login ("" if none is configured)
+	public synchronized String select() {
+		ArrayList<String> domains = domains();
+		if(domains.size()==0) {
+			return "";
+		}
+		long now = SystemClock.elapsedRealtime();
+		Endpoint selected = null;
+		Endpoint earliestBack = null;
+		for(String domain : domains) {
+			Endpoint endpoint = endpoint(domain);
+			if(endpoint.downUntil > now) {
+				if(earliestBack==null || endpoint.downUntil < earliestBack.downUntil) {
+					earliestBack = endpoint;
+				}
+				continue;
+			}
+			if(selected==null) {
+				selected = endpoint;
+			} else if(endpoint.probeRttMS>=0 && selected.probeRttMS>=0 &&
+					endpoint.probeRttMS < selected.probeRttMS*(100-fasterPercent)/100) {
+				selected = endpoint;
+			}
+		}
+		if(selected==null) {
+			selected = earliestBack;
+		}
+		if(lastSelected!=null && !lastSelected.equals(selected.domain)) {
+			WebCallLog.d(TAG,"select "+lastSelected+" -> "+selected.domain+" "+stats());
+		}
+		lastSelected = selected.domain;
+		return selected.domain;
+	}
+
+	// reportPingRtt() adds a ws ping/pong round trip sample of the connected endpoint
+	public synchronized void reportPingRtt(String domain, long rttMS) {
+		if(domain==null || rttMS<0) {
+			return;
+		}
+		Endpoint endpoint = endpoint(domain);
+		endpoint.pingRttMS = ewma(endpoint.pingRttMS, rttMS);
+		endpoint.pingSamples++;
+	}
+
+	// reportProbeRtt() adds a probe (tcp connect) round trip sample
+	public synchronized void reportProbeRtt(String domain, long rttMS) {
+		if(domain==null || rttMS<0) {
+			return;
+		}
+		Endpoint endpoint = endpoint(domain);
+		endpoint.probeRttMS = ewma(endpoint.probeRttMS, rttMS);
+		endpoint.probeSamples++;
+	}
+
+	// reportSuccess() is called after a successful login/connect
+	public synchronized void reportSuccess(String domain) {
+		if(domain==null) {
+			return;
+		}
+		Endpoint endpoint = endpoint(domain);
+		endpoint.failures = 0;
+		endpoint.downUntil = 0;
+	}
+
+	// reportFailure() is called after a failed login/connect; it returns true if the endpoint
+	// was taken out of rotation (so the next select() will fail over)
+	public synchronized boolean reportFailure(String domain) {
+		if(domain==null) {
+			return false;
+		}
+		Endpoint endpoint = endpoint(domain);
+		endpoint.failures++;
+		endpoint.totalFailures++;
+		int failoverFailures = failoverFailures();
+		if(endpoint.failures < failoverFailures || domains().size()<2) {
+			return false;
+		}
+		endpoint.failures = 0;
+		endpoint.failovers++;
+		endpoint.downUntil = SystemClock.elapsedRealtime() + cooldownMS;
+		WebCallLog.d(TAG,"reportFailure "+domain+" down for "+cooldownMS/1000+"s");
+		return true;
+	}
+
+	// probeDue() returns true (once per probeIntervalMS) if the other endpoints should be probed now
+	public synchronized boolean probeDue() {
+		if(domains().size()<2) {
+			return false;
+		}
+		long now = SystemClock.elapsedRealtime();
+		if(lastProbe!=0 && now - lastProbe < probeIntervalMS) {
+			return false;
+		}
+		lastProbe = now;
+		return true;
+	}
+
+	// probeAll() measures the rtt of all endpoints, the selected one included;
+	// it connects and must not run on the main thread
+	public void probeAll(DnsCache dnsCache) {
+		for(String domain : domains()) {
+			long rttMS = probe(dnsCache, domain);
+			synchronized(this) {
+				Endpoint endpoint = endpoint(domain);
+				endpoint.probes++;
+				if(rttMS<0) {
+					endpoint.probeFailures++;
+					continue;
+				}
+			}
+			reportProbeRtt(domain, rttMS);
+		}
+	}
+
+	public synchronized void clear() {
+		endpoints.clear();
+		lastSelected = null;
+		lastProbe = 0;
+	}
+
+	// stats() returns a JSON array with one object per configured endpoint
+	public synchronized String stats() {
+		JSONArray array = new JSONArray();
+		long now = SystemClock.elapsedRealtime();
+		try {
+			for(String domain : domains()) {
+				Endpoint endpoint = endpoint(domain);
+				JSONObject obj = new JSONObject();
+				obj.put("domain", domain);
+				obj.put("probeRttMS", endpoint.probeRttMS);
+				obj.put("probeSamples", endpoint.probeSamples);
+				obj.put("pingRttMS", endpoint.pingRttMS);
+				obj.put("pingSamples", endpoint.pingSamples);
+				obj.put("failures", endpoint.failures);
+				obj.put("totalFailures", endpoint.totalFailures);
+				obj.put("failovers", endpoint.failovers);
+				obj.put("probes", endpoint.probes);
+				obj.put("probeFailures", endpoint.probeFailures);
+				obj.put("downSecs", endpoint.downUntil > now ? (endpoint.downUntil-now)/1000 : 0);
+				obj.put("selected", domain.equals(lastSelected));
+				array.put(obj);
+			}
+		} catch(Exception ex) {
+			WebCallLog.d(TAG,"# stats ex="+ex);
+		}
+		return array.toString();
+	}
+
+	// probe() returns the tcp connect time to domain ("host" or "host:port") in ms, or -1
+	private long probe(DnsCache dnsCache, String domain) {
+		String host = domain;
+		int port = defaultPort;
+		int idxColon = domain.lastIndexOf(":");
+		if(idxColon>0) {
+			host = domain.substring(0,idxColon);
+			try {
+				port = Integer.parseInt(domain.substring(idxColon+1));
+			} catch(NumberFormatException ex) {
+				WebCallLog.d(TAG,"# probe "+domain+" bad port");
+				return -1;
+			}
+		}
+		Socket socket = new Socket();
+		try {
+			// resolve first, so that only the connect is timed
+			InetAddress[] addresses = dnsCache.resolve(host);
+			long startNS = System.nanoTime();
+			socket.connect(new InetSocketAddress(addresses[0], port), probeTimeoutMS);
+			return (System.nanoTime() - startNS)/1000000;
+		} catch(Exception ex) {
+			WebCallLog.d(TAG,"# probe "+domain+" ex="+ex);
+			return -1;
+		} finally {
+			try {
+				socket.close();
+			} catch(Exception ex) {
+			}
+		}
+	}
+
+	// failoverFailures() returns prefs "failoverFailures", which may be stored as int, long or string
+	private int failoverFailures() {
+		int failoverFailures = defaultFailoverFailures;
+		Object value = prefs.getAll().get("failoverFailures");
+		try {
+			if(value instanceof Number) {
+				failoverFailures = ((Number)value).intValue();
+			} else if(value instanceof String) {
+				failoverFailures = Integer.parseInt(((String)value).trim());
+			}
+		} catch(NumberFormatException ex) {
+			WebCallLog.d(TAG,"# failoverFailures bad value "+value);
+		}
+		if(failoverFailures<=0) {
+			failoverFailures = defaultFailoverFailures;
+		}
+		return failoverFailures;
+	}
+
+	private static long ewma(long averageMS, long sampleMS) {
+		if(averageMS<0) {
+			return sampleMS;
+		}
+		return (averageMS*(100-ewmaPercent) + sampleMS*ewmaPercent)/100;
+	}
+
+	private Endpoint endpoint(String domain) {
+		Endpoint endpoint = endpoints.get(domain);
+		if(endpoint==null) {
+			endpoint = new Endpoint();
+			endpoint.domain = domain;
+			endpoints.put(domain, endpoint);
+		}
+		return endpoint;
+	}
+}
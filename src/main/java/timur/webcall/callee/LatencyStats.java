@@ -0,0 +1,93 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// LatencyStats keeps the distribution of one latency (ie. time-to-reconnect or time-to-ring).
+// The last sampleCount samples are kept for percentiles; count, sum, max and the last value
+// cover all samples since the service was started. json() returns a summary for callee.js.
+
+package timur.webcall.callee;
+
+import java.util.Arrays;
+
+import org.json.JSONObject;
+
+public class LatencyStats {
+	private static final String TAG = "WebCallLatency";
+	private static final int sampleCount = 64;
+
+	private final String name;
+	private final long[] samples = new long[sampleCount];
+	private int sampleIdx = 0;
+	private long count = 0;
+	private long sumMS = 0;
+	private long maxMS = 0;
+	private long lastMS = -1;
+
+	public LatencyStats(String name) {
+		this.name = name;
+	}
+
+	public synchronized void add(long ms) {
+		if(ms<0) {
+			return;
+		}
+		samples[sampleIdx] = ms;
+		sampleIdx = (sampleIdx+1) % sampleCount;
+		count++;
+		sumMS += ms;
+		lastMS = ms;
+		if(ms>maxMS) {
+			maxMS = ms;
+		}
+	}
+
+	public synchronized long count() {
+		return count;
+	}
+
+	public synchronized long avgMS() {
+		return count>0 ? sumMS/count : 0;
+	}
+
+	// percentile() returns the given percentile of the recent samples, or -1 without samples
+	public synchronized long percentile(int percent) {
+		int num = (int)Math.min(count, sampleCount);
+		if(num==0) {
+			return -1;
+		}
+		long[] sorted = Arrays.copyOf(samples, num);
+		Arrays.sort(sorted);
+		int idx = (num*percent+99)/100 - 1;
+		return sorted[Math.max(0, Math.min(num-1, idx))];
+	}
+
+	public synchronized void clear() {
+		sampleIdx = 0;
+		count = 0;
+		sumMS = 0;
+		maxMS = 0;
+		lastMS = -1;
+	}
+
+	// toString() is a one line summary for the log
+	@Override
+	public synchronized String toString() {
+		return name+"(n="+count+" avg="+avgMS()+" p90="+percentile(90)+" max="+maxMS+")";
+	}
+
+	// json() returns ie. {"n":12,"lastMS":310,"avgMS":420,"p50MS":350,"p90MS":900,"p99MS":1400,"maxMS":1400}
+	public synchronized JSONObject json() {
+		JSONObject obj = new JSONObject();
+		try {
+			obj.put("n", count);
+			obj.put("lastMS", lastMS);
+			obj.put("avgMS", avgMS());
+			obj.put("p50MS", percentile(50));
+			obj.put("p90MS", percentile(90));
+			obj.put("p99MS", percentile(99));
+			obj.put("maxMS", maxMS);
+		} catch(Exception ex) {
+			WebCallLog.d(TAG,"# json "+name+" ex="+ex);
+		}
+		return obj;
+	}
+}
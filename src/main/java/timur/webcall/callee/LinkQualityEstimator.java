@@ -0,0 +1,292 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// LinkQualityEstimator turns the WebSocket ping/pong traffic into a link quality estimate.
+//
+// Our own pings are timestamped (pingSent()) and matched with the server pong (pongReceived()),
+// giving a round trip time sample. Every ping carries a tag (a sequence number as payload, which
+// the server echoes in its pong), so a late pong of an earlier ping is never taken for the pong of
+// the current one; it only shows that the link is alive. Per network (DnsCache.networkKey()) we keep an EWMA of the
+// rtt and the last sampleCount samples for percentiles. The arrival of server pings is tracked
+// as well: a server ping that comes in much later than the usual interval counts as late.
+//
+// A pong that has not arrived after stallTimeoutMS() counts as missed; the caller then sends one
+// more probe ping and if that one is missed as well, the link is considered stalled. This way
+// a dead link can be detected after two stall timeouts instead of after serverPingPeriodPlus.
+// When to probe follows from the link state (nextProbeMS()): as soon as a server ping is overdue
+// (half an interval later than usual), and every degradedProbeMS while the link is degraded (a
+// missed pong, a late server ping, or a p90 rtt of poorRttMS or more). A healthy link, on which
+// the server pings arrive on time, needs no probes for stall detection.
+//
+// json() returns the estimate for callee.js, including a quality grade and an audio bitrate hint.
+
+package timur.webcall.callee;
+
+import android.os.SystemClock;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+import org.json.JSONObject;
+
+public class LinkQualityEstimator {
+	private static final String TAG = "WebCallLink";
+	private static final int sampleCount = 64;
+	private static final int maxNetworks = 8;
+	// weight of a new rtt sample in the EWMA, in percent
+	private static final int ewmaPercent = 20;
+	private static final long minStallTimeoutMS = 5000;
+	private static final long maxStallTimeoutMS = 15000;
+	private static final long degradedProbeMS = 20000;
+	private static final long poorRttMS = 400;
+	// the server ping interval (pingPeriod in wsClient.go) until it has been measured
+	private static final long defaultServerPingMS = 60000;
+
+	private final DnsCache dnsCache;
+
+	private static class NetStats {
+		long rttEwmaMS = -1;
+		final long[] samples = new long[sampleCount];
+		int sampleIdx = 0;
+		long sampleTotal = 0;
+		long missedPongs = 0;
+		long stalls = 0;
+		long serverPings = 0;
+		long lateServerPings = 0;
+		long serverPingIntervalMS = -1; // EWMA
+	}
+	// networkKey -> stats, most recently used last
+	private final LinkedHashMap<String,NetStats> networks = new LinkedHashMap<String,NetStats>();
+
+	private long pingSentAt = 0;      // elapsedRealtime, 0 = no pong outstanding
+	private long pingTag = 0;         // tag of the outstanding ping
+	private long lastTag = 0;
+	private long lastServerPingAt = 0;
+	private int consecutiveMissed = 0;
+	private boolean stalled = false;
+	private boolean lastServerPingLate = false;
+	private long connectedAt = 0;     // elapsedRealtime of connectionReset()
+
+	public LinkQualityEstimator(DnsCache dnsCache) {
+		this.dnsCache = dnsCache;
+	}
+
+	// pingSent() is called right before we send a ws ping; it returns the tag to send as payload
+	public synchronized long pingSent() {
+		pingSentAt = SystemClock.elapsedRealtime();
+		lastTag++;
+		pingTag = lastTag;
+		return pingTag;
+	}
+
+	// pingFailed() is called if the ping could not be sent
+	public synchronized void pingFailed() {
+		pingSentAt = 0;
+	}
+
+	// pongReceived() returns the rtt of our outstanding ping, or -1
+	// tag is the payload of the pong (-1 if it carries none)
+	public synchronized long pongReceived(long tag) {
+		// an untagged pong can only be matched while no earlier ping was missed
+		boolean match = pingSentAt!=0 && (tag==pingTag || (tag<0 && consecutiveMissed==0));
+		// any pong shows that the link is alive
+		consecutiveMissed = 0;
+		stalled = false;
+		if(!match) {
+			// not the pong of the outstanding ping (ie. a late one of an earlier probe)
+			return -1;
+		}
+		long rttMS = SystemClock.elapsedRealtime() - pingSentAt;
+		pingSentAt = 0;
+		NetStats stats = current();
+		if(stats.rttEwmaMS<0) {
+			stats.rttEwmaMS = rttMS;
+		} else {
+			stats.rttEwmaMS = (stats.rttEwmaMS*(100-ewmaPercent) + rttMS*ewmaPercent)/100;
+		}
+		stats.samples[stats.sampleIdx] = rttMS;
+		stats.sampleIdx = (stats.sampleIdx+1) % sampleCount;
+		stats.sampleTotal++;
+		return rttMS;
+	}
+
+	// serverPingReceived() tracks the interval of server pings; any traffic also proves the link alive
+	public synchronized void serverPingReceived() {
+		long now = SystemClock.elapsedRealtime();
+		NetStats stats = current();
+		stats.serverPings++;
+		lastServerPingLate = false;
+		if(lastServerPingAt>0) {
+			long intervalMS = now - lastServerPingAt;
+			if(stats.serverPingIntervalMS<0) {
+				stats.serverPingIntervalMS = intervalMS;
+			} else {
+				if(intervalMS > stats.serverPingIntervalMS*3/2) {
+					stats.lateServerPings++;
+					lastServerPingLate = true;
+				}
+				stats.serverPingIntervalMS =
+					(stats.serverPingIntervalMS*(100-ewmaPercent) + intervalMS*ewmaPercent)/100;
+			}
+		}
+		lastServerPingAt = now;
+		consecutiveMissed = 0;
+		stalled = false;
+	}
+
+	// connectionReset() forgets the outstanding ping (ie. after a new connection was opened)
+	public synchronized void connectionReset() {
+		pingSentAt = 0;
+		lastServerPingAt = 0;
+		connectedAt = SystemClock.elapsedRealtime();
+		consecutiveMissed = 0;
+		stalled = false;
+		lastServerPingLate = false;
+	}
+
+	// nextProbeMS() returns the delay until the link state calls for the next probe ping:
+	// 0 if a server ping is overdue, at most degradedProbeMS while the link is degraded,
+	// otherwise the time until the next server ping would be overdue
+	public synchronized long nextProbeMS() {
+		long expectedMS = current().serverPingIntervalMS;
+		if(expectedMS<=0) {
+			expectedMS = defaultServerPingMS;
+		}
+		// the first server ping is expected one interval after the connect
+		long since = lastServerPingAt>0 ? lastServerPingAt : connectedAt;
+		long overdueMS = Math.max(0, since + expectedMS*3/2 - SystemClock.elapsedRealtime());
+		if(isDegraded()) {
+			return Math.min(degradedProbeMS, overdueMS);
+		}
+		return overdueMS;
+	}
+
+	// isDegraded() returns true after a missed pong or a late server ping, or on a high p90 rtt
+	public synchronized boolean isDegraded() {
+		return stalled || consecutiveMissed>0 || lastServerPingLate || percentile(current(), 90)>=poorRttMS;
+	}
+
+	// stallTimeoutMS() is the time after which an outstanding pong counts as missed:
+	// four times the 90th percentile rtt of this network, within min/maxStallTimeoutMS
+	public synchronized long stallTimeoutMS() {
+		long p90 = percentile(current(), 90);
+		if(p90<0) {
+			return maxStallTimeoutMS;
+		}
+		return Math.max(minStallTimeoutMS, Math.min(maxStallTimeoutMS, p90*4));
+	}
+
+	// checkPong() is called stallTimeoutMS() after pingSent(); it returns
+	// 0 if the pong has arrived (or the check is unreliable), 1 on the first missed pong
+	// (send another probe), 2 if the link is stalled
+	public synchronized int checkPong(long sentAt) {
+		if(pingSentAt==0 || pingSentAt!=sentAt) {
+			return 0;
+		}
+		long waitedMS = SystemClock.elapsedRealtime() - pingSentAt;
+		if(waitedMS > maxStallTimeoutMS*2) {
+			// the device was asleep while we waited: this says nothing about the link
+			pingSentAt = 0;
+			return 0;
+		}
+		NetStats stats = current();
+		stats.missedPongs++;
+		pingSentAt = 0;
+		consecutiveMissed++;
+		if(consecutiveMissed<2) {
+			return 1;
+		}
+		if(!stalled) {
+			stalled = true;
+			stats.stalls++;
+			WebCallLog.d(TAG,"stalled after "+consecutiveMissed+" missed pongs");
+		}
+		return 2;
+	}
+
+	public synchronized long pingSentAt() {
+		return pingSentAt;
+	}
+
+	public synchronized boolean isStalled() {
+		return stalled;
+	}
+
+	// json() returns the estimate for the current network, ie:
+	// {"network":"1x2y3z","rttMS":48,"p50MS":45,"p90MS":80,"p99MS":210,"samples":64,"missedPongs":0,
+	//  "stalls":0,"serverPingMS":60000,"lateServerPings":1,"stalled":false,"quality":"good",
+	//  "audioKbps":300}
+	public synchronized String json() {
+		JSONObject obj = new JSONObject();
+		try {
+			String networkKey = dnsCache.networkKey();
+			NetStats stats = stats(networkKey);
+			long p90 = percentile(stats, 90);
+			obj.put("network", networkKey);
+			obj.put("rttMS", stats.rttEwmaMS);
+			obj.put("p50MS", percentile(stats, 50));
+			obj.put("p90MS", p90);
+			obj.put("p99MS", percentile(stats, 99));
+			obj.put("samples", Math.min(stats.sampleTotal, sampleCount));
+			obj.put("missedPongs", stats.missedPongs);
+			obj.put("stalls", stats.stalls);
+			obj.put("serverPingMS", stats.serverPingIntervalMS);
+			obj.put("lateServerPings", stats.lateServerPings);
+			obj.put("stalled", stalled);
+			String quality;
+			int audioKbps;
+			if(stalled) {
+				quality = "stalled";
+				audioKbps = 32;
+			} else if(p90<0) {
+				quality = "unknown";
+				audioKbps = 300;
+			} else if(p90<150 && consecutiveMissed==0) {
+				quality = "good";
+				audioKbps = 300;
+			} else if(p90<poorRttMS) {
+				quality = "fair";
+				audioKbps = 128;
+			} else {
+				quality = "poor";
+				audioKbps = 64;
+			}
+			obj.put("quality", quality);
+			obj.put("audioKbps", audioKbps);
+		} catch(Exception ex) {
+			WebCallLog.d(TAG,"# json ex="+ex);
+		}
+		return obj.toString();
+	}
+
+	public synchronized void clear() {
+		networks.clear();
+		connectionReset();
+	}
+
+	private NetStats current() {
+		return stats(dnsCache.networkKey());
+	}
+
+	private NetStats stats(String networkKey) {
+		NetStats stats = networks.remove(networkKey);
+		if(stats==null) {
+			stats = new NetStats();
+		}
+		networks.put(networkKey, stats);
+		while(networks.size()>maxNetworks) {
+			networks.remove(networks.keySet().iterator().next());
+		}
+		return stats;
+	}
+
+	private static long percentile(NetStats stats, int percent) {
+		int count = (int)Math.min(stats.sampleTotal, sampleCount);
+		if(count==0) {
+			return -1;
+		}
+		long[] sorted = Arrays.copyOf(stats.samples, count);
+		Arrays.sort(sorted);
+		int idx = (count*percent+99)/100 - 1;
+		return sorted[Math.max(0, Math.min(count-1, idx))];
+	}
+}
@@ -0,0 +1,198 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// MissedCallStore keeps the last missed calls list the server sent (missedCalls|[...]), so the
+// page can show missed calls right away, before it is connected to the server again.
+//
+// update() is called for every missedCalls| message, also while there is no WebView. The payload
+// (the server's own JSON, not parsed here) is kept as-is; a list that differs from the stored one
+// increments the version and is written in the background to filesDir/missedcalls-<calleeID>.txt,
+// so that every callee ID keeps its own list; setCalleeID() switches to the file of another ID.
+// The file holds the version, the update time and the payload on three lines and is replaced
+// atomically (AtomicFile), so a crash during the write leaves the previous list. The file is read
+// on first use. Until a callee ID is set, the list is kept in memory only.
+// snapshot() returns {"version":n,"time":ms,"missedCalls":[...]} for the page; version() lets the
+// page find out cheaply if its copy is still current.
+
+package timur.webcall.callee;
+
+import android.content.Context;
+import android.util.AtomicFile;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class MissedCallStore {
+	private static final String TAG = "WebCallMissed";
+	private static final String emptyList = "[]";
+
+	private final File filesDir;
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	private String calleeID = null;
+	private AtomicFile file = null; // null until a calleeID is set
+	private boolean loaded = false;
+	private long version = 0;
+	private long updatedMS = 0; // System.currentTimeMillis()
+	private String payload = emptyList;
+	private boolean savePending = false;
+
+	private long updates = 0;
+	private long unchanged = 0;
+	private long saves = 0;
+
+	public MissedCallStore(Context context) {
+		filesDir = context.getFilesDir();
+	}
+
+	// setCalleeID() switches to the list of calleeID; a pending save of the previous list is kept
+	public synchronized void setCalleeID(String newCalleeID) {
+		if(newCalleeID!=null && newCalleeID.length()==0) {
+			newCalleeID = null;
+		}
+		if(newCalleeID==null ? calleeID==null : newCalleeID.equals(calleeID)) {
+			return;
+		}
+		if(savePending) {
+			// write the previous list to its own file
+			savePending = false;
+			final AtomicFile previousFile = file;
+			final String previousContent = content();
+			executor.execute(new Runnable() {
+				public void run() {
+					write(previousFile, previousContent);
+				}
+			});
+		}
+		WebCallLog.d(TAG,"setCalleeID "+newCalleeID);
+		calleeID = newCalleeID;
+		file = null;
+		if(calleeID!=null) {
+			// the callee ID becomes part of the file name
+			file = new AtomicFile(new File(filesDir,
+				"missedcalls-"+calleeID.replaceAll("[^A-Za-z0-9._-]","_")+".txt"));
+		}
+		loaded = false;
+		version = 0;
+		updatedMS = 0;
+		payload = emptyList;
+	}
+
+	// update() stores the payload of a missedCalls| message; it returns true if the list changed
+	public synchronized boolean update(String newPayload) {
+		load();
+		if(newPayload==null || newPayload.length()==0 || newPayload.equals("null")) {
+			newPayload = emptyList;
+		}
+		updates++;
+		if(newPayload.equals(payload)) {
+			unchanged++;
+			return false;
+		}
+		payload = newPayload;
+		version++;
+		updatedMS = System.currentTimeMillis();
+		if(!savePending && file!=null) {
+			// the save task writes whatever is current when it runs
+			savePending = true;
+			executor.execute(new Runnable() {
+				public void run() {
+					save();
+				}
+			});
+		}
+		return true;
+	}
+
+	public synchronized long version() {
+		load();
+		return version;
+	}
+
+	// snapshot() returns the stored list for the page
+	public synchronized String snapshot() {
+		load();
+		return "{\"version\":"+version+",\"time\":"+updatedMS+",\"missedCalls\":"+payload+"}";
+	}
+
+	public synchronized String stats() {
+		return "version="+version+" updates="+updates+" unchanged="+unchanged+" saves="+saves;
+	}
+
+	private void load() {
+		if(loaded) {
+			return;
+		}
+		loaded = true;
+		if(file==null) {
+			return;
+		}
+		BufferedReader reader = null;
+		try {
+			reader = new BufferedReader(new InputStreamReader(file.openRead(), StandardCharsets.UTF_8));
+			long fileVersion = Long.parseLong(reader.readLine());
+			long fileUpdatedMS = Long.parseLong(reader.readLine());
+			String filePayload = reader.readLine();
+			if(filePayload!=null && filePayload.length()>0) {
+				version = fileVersion;
+				updatedMS = fileUpdatedMS;
+				payload = filePayload;
+			}
+			WebCallLog.d(TAG,"load version="+version+" len="+payload.length());
+		} catch(FileNotFoundException ex) {
+			// nothing stored yet
+		} catch(Exception ex) {
+			WebCallLog.d(TAG,"# load ex="+ex);
+		} finally {
+			if(reader!=null) {
+				try {
+					reader.close();
+				} catch(Exception ex) {
+				}
+			}
+		}
+	}
+
+	private void save() {
+		AtomicFile saveFile;
+		String content;
+		synchronized(this) {
+			if(!savePending) {
+				// setCalleeID() has written it already
+				return;
+			}
+			savePending = false;
+			saveFile = file;
+			content = content();
+		}
+		write(saveFile, content);
+	}
+
+	private String content() {
+		// the payload is a single line of JSON (the server does not send raw newlines)
+		return version+"\n"+updatedMS+"\n"+payload.replace('\n',' ')+"\n";
+	}
+
+	private void write(AtomicFile file, String content) {
+		FileOutputStream fos = null;
+		try {
+			fos = file.startWrite();
+			fos.write(content.getBytes(StandardCharsets.UTF_8));
+			file.finishWrite(fos);
+			synchronized(this) {
+				saves++;
+			}
+		} catch(Exception ex) {
+			WebCallLog.d(TAG,"# save ex="+ex);
+			if(fos!=null) {
+				file.failWrite(fos);
+			}
+		}
+	}
+}
@@ -0,0 +1,205 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// NotificationPresenter posts the ongoing service notification (NOTIF_ID1), either as a status
+// line (showStatus()) or as the 2-button call-in-progress notification (showCallInProgress()).
+//
+// The PendingIntents and the two NotificationCompat.Builders are created once and reused.
+// A state that equals the one last posted is not posted again. Posts are spaced at least
+// windowMS apart (Android drops notification updates that come faster than ~5 per second):
+// a state that comes in earlier is held back and posted at the end of the window; if more
+// states come in meanwhile, only the latest one is posted.
+// stats() reports how many states were posted and how many were suppressed (unchanged or
+// replaced by a newer one within the window).
+
+package timur.webcall.callee;
+
+import android.app.Notification;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.SystemClock;
+
+import androidx.core.app.NotificationCompat;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public class NotificationPresenter {
+	private static final String TAG = "WebCallNotif";
+	private static final long windowMS = 250;
+
+	private final Context context;
+	private final NotificationManager notificationManager;
+	private final ScheduledExecutorService scheduler;
+	private final int notifID;
+
+	private final NotificationCompat.Builder statusBuilder;
+	private final NotificationCompat.Builder callBuilder;
+	private final PendingIntent hangupPendingIntent;
+	private final PendingIntent mutePendingIntent;
+
+	// the state last posted and the state waiting for the end of the window
+	private String postedKey = null;
+	private String pendingKey = null;
+	private Notification pendingNotification = null;
+	private ScheduledFuture<?> flushFuture = null;
+	private long lastPostMS = 0;
+
+	private long posted = 0;
+	private long suppressedUnchanged = 0;
+	private long suppressedReplaced = 0;
+
+	public NotificationPresenter(Context context, NotificationManager notificationManager,
+			ScheduledExecutorService scheduler, String notifChannel, int notifID) {
+		this.context = context;
+		this.notificationManager = notificationManager;
+		this.scheduler = scheduler;
+		this.notifID = notifID;
+
+		Intent switchToIntent = new Intent(context, WebCallCalleeActivity.class);
+		PendingIntent contentPendingIntent = PendingIntent.getActivity(context, 0, switchToIntent,
+			PendingIntent.FLAG_UPDATE_CURRENT|PendingIntent.FLAG_IMMUTABLE);
+
+		Intent hangupIntent = new Intent("serviceCmdReceiver");
+		hangupIntent.putExtra("hangup", "true");
+		hangupPendingIntent = PendingIntent.getBroadcast(context, 1, hangupIntent,
+			PendingIntent.FLAG_UPDATE_CURRENT|PendingIntent.FLAG_IMMUTABLE);
+
+		Intent muteIntent = new Intent("serviceCmdReceiver");
+		muteIntent.putExtra("muteMic", "true");
+		mutePendingIntent = PendingIntent.getBroadcast(context, 2, muteIntent,
+			PendingIntent.FLAG_UPDATE_CURRENT|PendingIntent.FLAG_IMMUTABLE);
+
+		statusBuilder = new NotificationCompat.Builder(context, notifChannel)
+			.setPriority(NotificationCompat.PRIORITY_LOW) // on O+ setPriority is ignored in favor of notifChannel
+			.setOngoing(true)
+			.setSmallIcon(R.mipmap.notification_icon)
+			.setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
+			.setContentIntent(contentPendingIntent);
+
+		callBuilder = new NotificationCompat.Builder(context, notifChannel)
+			.setSmallIcon(R.mipmap.notification_icon)
+			.setOngoing(true)
+			.setCategory(NotificationCompat.CATEGORY_CALL)
+			.setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
+			.setPriority(NotificationCompat.PRIORITY_LOW) // on O+ setPriority is ignored in favor of notifChannel
+			.setContentIntent(contentPendingIntent);
+	}
+
+	// statusNotification() returns the status notification for msg without posting it
+	// (for startForeground(), which posts it itself)
+	public synchronized Notification statusNotification(String msg) {
+		Notification notification = statusBuilder.setContentTitle(msg).build();
+		cancelPending();
+		postedKey = "s|"+msg;
+		lastPostMS = SystemClock.elapsedRealtime();
+		return notification;
+	}
+
+	// showStatus() posts msg as the (1-line) service notification
+	public synchronized void showStatus(String msg) {
+		String key = "s|"+msg;
+		if(skip(key)) {
+			return;
+		}
+		show(key, statusBuilder.setContentTitle(msg).build());
+	}
+
+	// showCallInProgress() posts the call-in-progress notification with Hangup and Mute buttons
+	public synchronized void showCallInProgress(String title, String muteButtonLabel, String text) {
+		String key = "c|"+title+"|"+muteButtonLabel+"|"+text;
+		if(skip(key)) {
+			return;
+		}
+		callBuilder.clearActions();
+		callBuilder.setContentTitle(title) // 1st line
+			.addAction(R.mipmap.notification_icon, "Hangup", hangupPendingIntent)
+			.addAction(R.mipmap.notification_icon, muteButtonLabel, mutePendingIntent)
+			.setContentText(text); // 2nd line
+		show(key, callBuilder.build());
+	}
+
+	// cancel() removes the notification; the next state will be posted in any case
+	public synchronized void cancel() {
+		cancelPending();
+		postedKey = null;
+		notificationManager.cancel(notifID);
+	}
+
+	public synchronized String stats() {
+		return "posted="+posted+" unchanged="+suppressedUnchanged+" replaced="+suppressedReplaced;
+	}
+
+	// skip() returns true if key is already shown or about to be shown
+	private boolean skip(String key) {
+		if(key.equals(pendingKey) || (pendingKey==null && key.equals(postedKey))) {
+			suppressedUnchanged++;
+			return true;
+		}
+		return false;
+	}
+
+	private void show(String key, Notification notification) {
+		long nowMS = SystemClock.elapsedRealtime();
+		if(pendingKey!=null) {
+			// a flush is already scheduled: it will post this newer state instead
+			suppressedReplaced++;
+			pendingKey = key;
+			pendingNotification = notification;
+			return;
+		}
+		long waitMS = lastPostMS + windowMS - nowMS;
+		if(waitMS<=0) {
+			post(key, notification);
+			return;
+		}
+		pendingKey = key;
+		pendingNotification = notification;
+		flushFuture = scheduler.schedule(new Runnable() {
+			public void run() {
+				flush();
+			}
+		}, waitMS, TimeUnit.MILLISECONDS);
+	}
+
+	private synchronized void flush() {
+		flushFuture = null;
+		if(pendingKey==null) {
+			return;
+		}
+		String key = pendingKey;
+		Notification notification = pendingNotification;
+		pendingKey = null;
+		pendingNotification = null;
+		if(key.equals(postedKey)) {
+			// went back to what is shown already
+			suppressedUnchanged++;
+			return;
+		}
+		post(key, notification);
+	}
+
+	private void post(String key, Notification notification) {
+		notificationManager.notify(notifID, notification);
+		postedKey = key;
+		lastPostMS = SystemClock.elapsedRealtime();
+		posted++;
+		if(posted%100==0) {
+			WebCallLog.d(TAG,"stats "+stats());
+		}
+	}
+
+	private void cancelPending() {
+		if(flushFuture!=null) {
+			flushFuture.cancel(false);
+			flushFuture = null;
+		}
+		if(pendingKey!=null) {
+			suppressedReplaced++;
+		}
+		pendingKey = null;
+		pendingNotification = null;
+	}
+}
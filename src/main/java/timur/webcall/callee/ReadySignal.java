@@ -0,0 +1,124 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// ReadySignal is one readiness condition (ie. "service bound" or "main page loaded") that code
+// can wait for without polling. whenReady() runs a task the moment the condition is set(), or
+// right away if it is set already. A task that is still waiting when its timeout expires is
+// dropped and its onTimeout runs instead. clear() resets the condition; tasks that are waiting
+// keep waiting for the next set(). cancelWaiters() drops all waiting tasks (without running
+// their onTimeout), ie. when the activity that queued them goes away.
+// Tasks and timeouts always run on the main thread; set() and clear() may be called from any thread.
+
+package timur.webcall.callee;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+
+public class ReadySignal {
+	private static final String TAG = "WebCallReady";
+
+	private final String name;
+	private final Handler handler = new Handler(Looper.getMainLooper());
+	private final ArrayList<Waiter> waiters = new ArrayList<Waiter>();
+	private boolean ready = false;
+
+	private static class Waiter {
+		final Runnable task;
+		Runnable timeout;
+
+		Waiter(Runnable task) {
+			this.task = task;
+		}
+	}
+
+	public ReadySignal(String name) {
+		this.name = name;
+	}
+
+	// set() marks the condition as met and runs all waiting tasks
+	public void set() {
+		ArrayList<Waiter> runWaiters;
+		synchronized(this) {
+			if(ready) {
+				return;
+			}
+			ready = true;
+			if(waiters.size()==0) {
+				return;
+			}
+			runWaiters = new ArrayList<Waiter>(waiters);
+			waiters.clear();
+		}
+		// the tasks run outside the lock, so they can wait for this signal again
+		WebCallLog.d(TAG,"set "+name+" waiting="+runWaiters.size());
+		for(Waiter waiter : runWaiters) {
+			handler.removeCallbacks(waiter.timeout);
+			runOnMain(waiter.task);
+		}
+	}
+
+	public synchronized void clear() {
+		ready = false;
+	}
+
+	public synchronized boolean isReady() {
+		return ready;
+	}
+
+	// cancelWaiters() drops all waiting tasks and their timeouts; the condition is not changed
+	public void cancelWaiters() {
+		ArrayList<Waiter> dropWaiters;
+		synchronized(this) {
+			if(waiters.size()==0) {
+				return;
+			}
+			dropWaiters = new ArrayList<Waiter>(waiters);
+			waiters.clear();
+		}
+		WebCallLog.d(TAG,"cancelWaiters "+name+" waiting="+dropWaiters.size());
+		for(Waiter waiter : dropWaiters) {
+			handler.removeCallbacks(waiter.timeout);
+		}
+	}
+
+	// whenReady() runs task as soon as the condition is met; if this does not happen within
+	// timeoutMS, onTimeout (may be null) runs instead
+	public void whenReady(final Runnable task, long timeoutMS, final Runnable onTimeout) {
+		synchronized(this) {
+			if(!ready) {
+				addWaiter(task, timeoutMS, onTimeout);
+				return;
+			}
+		}
+		runOnMain(task);
+	}
+
+	private void addWaiter(Runnable task, long timeoutMS, final Runnable onTimeout) {
+		final Waiter waiter = new Waiter(task);
+		waiter.timeout = new Runnable() {
+			public void run() {
+				synchronized(ReadySignal.this) {
+					if(!waiters.remove(waiter)) {
+						// task was run by set() already
+						return;
+					}
+				}
+				WebCallLog.d(TAG,"# whenReady "+name+" timeout");
+				if(onTimeout!=null) {
+					onTimeout.run();
+				}
+			}
+		};
+		waiters.add(waiter);
+		handler.postDelayed(waiter.timeout, Math.max(timeoutMS,0));
+	}
+
+	private void runOnMain(Runnable task) {
+		if(Looper.myLooper()==Looper.getMainLooper()) {
+			task.run();
+		} else {
+			handler.post(task);
+		}
+	}
+}
@@ -0,0 +1,188 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// RingEngine plays the ringtone and the short status sounds of the service.
+//
+// The ringtone player is created and prepared once (prepare(), called in the background at
+// service start), so startRing() is a single non-blocking MediaPlayer.start(). stopRing() pauses
+// and rewinds the player instead of throwing it away, so it stays prepared for the next call.
+// If the player runs into an error it is released and prepared again on the next startRing().
+// The ringtone is a looping ogg of a few hundred KB decoded, too large for a SoundPool sample.
+//
+// The beeps (beep()) share one ToneGenerator and the alarm sound (alarm()) one Ringtone,
+// instead of creating a new one for every sound.
+
+package timur.webcall.callee;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.media.AudioAttributes;
+import android.media.AudioManager;
+import android.media.MediaPlayer;
+import android.media.Ringtone;
+import android.media.RingtoneManager;
+import android.media.ToneGenerator;
+import android.os.SystemClock;
+
+public class RingEngine {
+	private static final String TAG = "WebCallRing";
+	private static final int toneVolume = 90;
+
+	private final Context context;
+	private MediaPlayer ringPlayer = null;
+	private boolean ringing = false;
+	private ToneGenerator toneGenerator = null;
+	private Ringtone alarmRingtone = null;
+
+	private long prepares = 0;
+	private long prepareLastMS = 0;
+	private long starts = 0;
+	private long coldStarts = 0; // startRing() had to prepare the player first
+
+	public RingEngine(Context context) {
+		this.context = context;
+	}
+
+	// prepare() creates and prepares the ringtone player, unless it is prepared already
+	public synchronized void prepare() {
+		if(ringPlayer!=null) {
+			return;
+		}
+		long startMS = SystemClock.elapsedRealtime();
+		MediaPlayer player = new MediaPlayer();
+		AudioAttributes aa = new AudioAttributes.Builder()
+				.setUsage(AudioAttributes.USAGE_NOTIFICATION_RINGTONE)
+				.setContentType(AudioAttributes.CONTENT_TYPE_MUSIC)
+				.setLegacyStreamType(AudioManager.STREAM_RING)
+				.build();
+		player.setAudioAttributes(aa);
+		player.setLooping(true);
+		player.setOnErrorListener(new MediaPlayer.OnErrorListener() {
+			@Override
+			public boolean onError(MediaPlayer mp, int what, int extra) {
+				WebCallLog.d(TAG,"# ringPlayer error what="+what+" extra="+extra);
+				synchronized(RingEngine.this) {
+					if(ringPlayer==mp) {
+						ringPlayer = null;
+						ringing = false;
+					}
+				}
+				mp.release();
+				return true;
+			}
+		});
+		try {
+			AssetFileDescriptor ad = context.getResources().openRawResourceFd(R.raw.ringing);
+			player.setDataSource(ad.getFileDescriptor(), ad.getStartOffset(), ad.getLength());
+			ad.close();
+			player.prepare();
+		} catch(Exception ex) {
+			WebCallLog.d(TAG,"# prepare ringtone ex="+ex);
+			player.release();
+			return;
+		}
+		ringPlayer = player;
+		prepares++;
+		prepareLastMS = SystemClock.elapsedRealtime() - startMS;
+		WebCallLog.d(TAG,"prepare ringtone done in "+prepareLastMS+"ms");
+	}
+
+	// startRing() starts the looping ringtone; it returns false if it is already ringing
+	public synchronized boolean startRing() {
+		if(ringing) {
+			return false;
+		}
+		if(ringPlayer==null) {
+			coldStarts++;
+			prepare();
+			if(ringPlayer==null) {
+				return false;
+			}
+		}
+		try {
+			ringPlayer.start();
+		} catch(IllegalStateException ex) {
+			WebCallLog.d(TAG,"# startRing ex="+ex);
+			ringPlayer.release();
+			ringPlayer = null;
+			return false;
+		}
+		ringing = true;
+		starts++;
+		return true;
+	}
+
+	// stopRing() stops the ringtone and rewinds it for the next call
+	public synchronized boolean stopRing() {
+		if(!ringing) {
+			return false;
+		}
+		ringing = false;
+		if(ringPlayer!=null) {
+			try {
+				ringPlayer.pause();
+				ringPlayer.seekTo(0);
+			} catch(IllegalStateException ex) {
+				WebCallLog.d(TAG,"# stopRing ex="+ex);
+				ringPlayer.release();
+				ringPlayer = null;
+			}
+		}
+		return true;
+	}
+
+	public synchronized boolean isRinging() {
+		return ringing;
+	}
+
+	// beep() plays a ToneGenerator tone (ie. ToneGenerator.TONE_SUP_CONFIRM) for durationMS
+	public synchronized void beep(int toneType, int durationMS) {
+		try {
+			if(toneGenerator==null) {
+				toneGenerator = new ToneGenerator(AudioManager.STREAM_MUSIC, toneVolume);
+			}
+			toneGenerator.startTone(toneType, durationMS);
+		} catch(RuntimeException ex) {
+			// ToneGenerator throws if no AudioTrack can be created
+			WebCallLog.d(TAG,"# beep ex="+ex);
+			toneGenerator = null;
+		}
+	}
+
+	// alarm() plays the default notification sound
+	public synchronized void alarm() {
+		if(alarmRingtone==null) {
+			alarmRingtone = RingtoneManager.getRingtone(context.getApplicationContext(),
+				RingtoneManager.getDefaultUri(RingtoneManager.TYPE_NOTIFICATION));
+			if(alarmRingtone==null) {
+				WebCallLog.d(TAG,"# alarm no ringtone");
+				return;
+			}
+		}
+		if(alarmRingtone.isPlaying()) {
+			alarmRingtone.stop();
+		}
+		alarmRingtone.play();
+	}
+
+	// release() frees all players (the ringtone is prepared again on the next startRing())
+	public synchronized void release() {
+		if(ringPlayer!=null) {
+			ringPlayer.release();
+			ringPlayer = null;
+		}
+		ringing = false;
+		if(toneGenerator!=null) {
+			toneGenerator.release();
+			toneGenerator = null;
+		}
+		if(alarmRingtone!=null) {
+			alarmRingtone.stop();
+			alarmRingtone = null;
+		}
+	}
+
+	public synchronized String stats() {
+		return "prepares="+prepares+" prepareLastMS="+prepareLastMS+" starts="+starts+
+			" coldStarts="+coldStarts+" prepared="+(ringPlayer!=null);
+	}
+}
@@ -0,0 +1,219 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// RingLog keeps the most recent WebCall log lines in process, so a log capture does not depend
+// on logcat (which is slow to spawn and restricted on some ROMs).
+//
+// The log is a fixed region of slotCount slots of slotSize bytes, allocated once off-heap
+// (ByteBuffer.allocateDirect). A writer reserves the next slot with a single atomic increment,
+// so threads never wait for each other; each thread writes through its own view of the region.
+// The oldest slot is overwritten once the ring is full. A slot holds:
+//   long seq (0 while being written), long timeMS, byte priority, byte tagLen, short msgLen,
+//   tag and msg as UTF-8 (msg is cut to fit the slot)
+// seq is written last and checked again after a slot was read, so export() skips slots that
+// were being overwritten while it read them.
+//
+// export() streams the lines (optionally only those containing a filter string) straight into
+// an OutputStream, formatted like "MM-dd HH:mm:ss.SSS D tag: msg"; the UTF-8 bytes are copied
+// as they are, so no String is created per line.
+
+package timur.webcall.callee;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RingLog implements WebCallLog.Sink {
+	private static final int slotSize = 512;
+	private static final int slotCount = 1024;
+	private static final int headerSize = 8+8+1+1+2;
+	private static final char[] priorityChars = { '?', '?', 'V', 'D', 'I', 'W', 'E', 'A' };
+
+	private final ByteBuffer region = ByteBuffer.allocateDirect(slotSize*slotCount);
+	private final AtomicLong nextSeq = new AtomicLong(1);
+	private final AtomicLong written = new AtomicLong(0);
+
+	private final ThreadLocal<ByteBuffer> views = new ThreadLocal<ByteBuffer>() {
+		@Override
+		protected ByteBuffer initialValue() {
+			return region.duplicate();
+		}
+	};
+
+	// write() is called by WebCallLog for every line that is logged
+	@Override
+	public void write(int priority, String tag, CharSequence msg) {
+		ByteBuffer buf = views.get();
+		long seq = nextSeq.getAndIncrement();
+		int base = (int)(seq % slotCount) * slotSize;
+		buf.putLong(base, 0);
+		buf.putLong(base+8, System.currentTimeMillis());
+		buf.put(base+16, (byte)priority);
+		int tagLen = putUtf8(buf, base+headerSize, tag, Math.min(64, slotSize-headerSize));
+		buf.put(base+17, (byte)tagLen);
+		int msgOffset = base+headerSize+tagLen;
+		int msgLen = putUtf8(buf, msgOffset, msg, base+slotSize-msgOffset);
+		buf.putShort(base+18, (short)msgLen);
+		buf.putLong(base, seq);
+		// publishes the slot to readers on other threads
+		written.incrementAndGet();
+	}
+
+	// export() writes the buffered lines (oldest first) to os, only those that contain filter
+	// (case insensitive) if filter is not null; it returns the number of lines written
+	public int export(OutputStream os, String filter) throws IOException {
+		// pairs with written.incrementAndGet() in write()
+		written.get();
+		ByteBuffer buf = region.duplicate();
+		long last = nextSeq.get() - 1;
+		long first = Math.max(1, last - slotCount + 1);
+		byte[] slot = new byte[slotSize];
+		byte[] line = new byte[slotSize + 32];
+		byte[] filterBytes = null;
+		if(filter!=null && !filter.equals("")) {
+			filterBytes = filter.toLowerCase(Locale.US).getBytes("UTF-8");
+		}
+		Calendar cal = Calendar.getInstance();
+		int lines = 0;
+		for(long seq=first; seq<=last; seq++) {
+			int base = (int)(seq % slotCount) * slotSize;
+			if(buf.getLong(base)!=seq) {
+				// not yet written or already overwritten
+				continue;
+			}
+			buf.position(base);
+			buf.get(slot);
+			if(buf.getLong(base)!=seq) {
+				// overwritten while we copied it
+				continue;
+			}
+			ByteBuffer slotBuf = ByteBuffer.wrap(slot);
+			long timeMS = slotBuf.getLong(8);
+			int priority = slot[16];
+			int tagLen = slot[17] & 0xff;
+			int msgLen = slotBuf.getShort(18) & 0xffff;
+			if(headerSize+tagLen+msgLen > slotSize) {
+				continue;
+			}
+			if(filterBytes!=null && !contains(slot, headerSize, tagLen+msgLen, filterBytes)) {
+				continue;
+			}
+
+			cal.setTimeInMillis(timeMS);
+			int len = 0;
+			len = put2(line, len, cal.get(Calendar.MONTH)+1);
+			line[len++] = '-';
+			len = put2(line, len, cal.get(Calendar.DAY_OF_MONTH));
+			line[len++] = ' ';
+			len = put2(line, len, cal.get(Calendar.HOUR_OF_DAY));
+			line[len++] = ':';
+			len = put2(line, len, cal.get(Calendar.MINUTE));
+			line[len++] = ':';
+			len = put2(line, len, cal.get(Calendar.SECOND));
+			line[len++] = '.';
+			int millis = cal.get(Calendar.MILLISECOND);
+			line[len++] = (byte)('0' + millis/100);
+			len = put2(line, len, millis%100);
+			line[len++] = ' ';
+			line[len++] = (byte)priorityChars[priority>=0 && priority<priorityChars.length ? priority : 0];
+			line[len++] = ' ';
+			System.arraycopy(slot, headerSize, line, len, tagLen);
+			len += tagLen;
+			line[len++] = ':';
+			line[len++] = ' ';
+			System.arraycopy(slot, headerSize+tagLen, line, len, msgLen);
+			len += msgLen;
+			line[len++] = '\n';
+			os.write(line, 0, len);
+			lines++;
+		}
+		return lines;
+	}
+
+	// oldestTimeMS() returns the time of the oldest line still held, or 0 if there is none
+	public long oldestTimeMS() {
+		written.get();
+		long last = nextSeq.get() - 1;
+		for(long seq=Math.max(1, last - slotCount + 1); seq<=last; seq++) {
+			int base = (int)(seq % slotCount) * slotSize;
+			long timeMS = region.getLong(base+8);
+			if(region.getLong(base)==seq) {
+				return timeMS;
+			}
+		}
+		return 0;
+	}
+
+	public String stats() {
+		long total = nextSeq.get() - 1;
+		return "lines="+total+" buffered="+Math.min(total, slotCount)+" bytes="+slotSize*slotCount;
+	}
+
+	// putUtf8() encodes str at offset, at most maxBytes (never splitting a char); returns the byte count
+	private static int putUtf8(ByteBuffer buf, int offset, CharSequence str, int maxBytes) {
+		int len = 0;
+		int strLen = str.length();
+		for(int i=0; i<strLen; i++) {
+			char ch = str.charAt(i);
+			if(ch < 0x80) {
+				if(len+1 > maxBytes) {
+					break;
+				}
+				buf.put(offset+len++, (byte)ch);
+			} else if(ch < 0x800) {
+				if(len+2 > maxBytes) {
+					break;
+				}
+				buf.put(offset+len++, (byte)(0xc0 | (ch >> 6)));
+				buf.put(offset+len++, (byte)(0x80 | (ch & 0x3f)));
+			} else if(Character.isHighSurrogate(ch) && i+1<strLen &&
+					Character.isLowSurrogate(str.charAt(i+1))) {
+				if(len+4 > maxBytes) {
+					break;
+				}
+				int cp = Character.toCodePoint(ch, str.charAt(++i));
+				buf.put(offset+len++, (byte)(0xf0 | (cp >> 18)));
+				buf.put(offset+len++, (byte)(0x80 | ((cp >> 12) & 0x3f)));
+				buf.put(offset+len++, (byte)(0x80 | ((cp >> 6) & 0x3f)));
+				buf.put(offset+len++, (byte)(0x80 | (cp & 0x3f)));
+			} else {
+				if(len+3 > maxBytes) {
+					break;
+				}
+				buf.put(offset+len++, (byte)(0xe0 | (ch >> 12)));
+				buf.put(offset+len++, (byte)(0x80 | ((ch >> 6) & 0x3f)));
+				buf.put(offset+len++, (byte)(0x80 | (ch & 0x3f)));
+			}
+		}
+		return len;
+	}
+
+	private static int put2(byte[] line, int len, int val) {
+		line[len++] = (byte)('0' + val/10);
+		line[len++] = (byte)('0' + val%10);
+		return len;
+	}
+
+	// contains() does an ASCII case insensitive search for lowerNeedle in data[offset..offset+len]
+	private static boolean contains(byte[] data, int offset, int len, byte[] lowerNeedle) {
+		int last = offset + len - lowerNeedle.length;
+		for(int i=offset; i<=last; i++) {
+			int j = 0;
+			for(; j<lowerNeedle.length; j++) {
+				byte b = data[i+j];
+				if(b>='A' && b<='Z') {
+					b = (byte)(b + ('a'-'A'));
+				}
+				if(b!=lowerNeedle[j]) {
+					break;
+				}
+			}
+			if(j==lowerNeedle.length) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
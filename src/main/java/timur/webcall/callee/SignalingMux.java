@@ -0,0 +1,104 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// SignalingMux carries the signaling of several callee IDs over the one WebSocket of the service.
+//
+// A multiplexed frame is the normal signaling message with a short channel tag in front:
+//   "~" + tag + "|" + message      ie. "~1|callerInfo|..."
+// Frames without the "~" prefix belong to the primary callee ID and are processed as before;
+// so are frames whose tag has no registered channel. dispatch() is only used in mux mode.
+// Tags are small base36 numbers handed out by register().
+//
+// dispatch() routes a tagged frame to the handler of its channel without copying the payload:
+// the handler gets the frame together with the offset at which the message starts
+// (use frame.startsWith(cmd, offset) and frame.substring(offset+...) for the fields it needs).
+// With multiplexing, all IDs share one TCP/TLS connection, one keepalive and one reconnect cycle.
+// This needs a signaling server that understands the channel tags (prefs "signalingMux").
+
+package timur.webcall.callee;
+
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class SignalingMux {
+	private static final String TAG = "WebCallMux";
+	public static final char tagPrefix = '~';
+
+	static {
+		// dispatch() may log for every frame
+		WebCallLog.limitRate(TAG);
+	}
+
+	public interface Handler {
+		// onFrame() receives a tagged frame; the message starts at offset
+		void onFrame(String frame, int offset);
+	}
+
+	private final HashMap<String,Handler> handlers = new HashMap<String,Handler>();
+	private int nextTag = 1;
+
+	private long frames = 0;
+	private long unrouted = 0;
+
+	// register() returns a new channel tag for handler
+	public synchronized String register(Handler handler) {
+		String tag = Integer.toString(nextTag++, 36);
+		handlers.put(tag, handler);
+		return tag;
+	}
+
+	public synchronized void unregister(String tag) {
+		if(tag!=null) {
+			handlers.remove(tag);
+		}
+	}
+
+	// dispatch() returns false for untagged frames and for frames with an unknown tag
+	// (both are processed by the primary callee)
+	public boolean dispatch(String frame) {
+		if(frame.length()<3 || frame.charAt(0)!=tagPrefix) {
+			return false;
+		}
+		int idxSep = frame.indexOf('|', 1);
+		if(idxSep<0) {
+			return false;
+		}
+		Handler handler;
+		synchronized(this) {
+			frames++;
+			// the tag is at most a few chars; look it up without building a substring per lookup
+			handler = lookup(frame, 1, idxSep);
+			if(handler==null) {
+				unrouted++;
+			}
+		}
+		if(handler==null) {
+			// not one of our channels: leave it to the primary callee
+			WebCallLog.d(TAG,"# dispatch no handler for "+frame.substring(0, idxSep));
+			return false;
+		}
+		handler.onFrame(frame, idxSep+1);
+		return true;
+	}
+
+	// frame() returns msg tagged for channel tag
+	public static String frame(String tag, String msg) {
+		StringBuilder sb = new StringBuilder(tag.length()+2+msg.length());
+		sb.append(tagPrefix).append(tag).append('|').append(msg);
+		return sb.toString();
+	}
+
+	public synchronized String stats() {
+		return "channels="+handlers.size()+" frames="+frames+" unrouted="+unrouted;
+	}
+
+	private Handler lookup(String frame, int start, int end) {
+		for(Map.Entry<String,Handler> entry : handlers.entrySet()) {
+			String tag = entry.getKey();
+			if(tag.length()==end-start && frame.startsWith(tag, start)) {
+				return entry.getValue();
+			}
+		}
+		return null;
+	}
+}
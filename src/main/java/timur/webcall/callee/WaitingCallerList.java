@@ -0,0 +1,89 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// WaitingCallerList is the service side model of the callers waiting for the callee, keyed by
+// CallerID and in the order the server lists them (the longest waiting caller first).
+// The server resends the complete list (waitingCallers|[{"CallerID":..,"CallerName":..},..])
+// on every change and periodically on busy lines. update() reads the list with
+// SignalingCore.parseWaitingCallers() (a single scan, no JSONArray/JSONObject tree is built)
+// and applies it as a diff: callers that are gone are removed, new ones are appended. It returns false if nothing was added, removed or
+// renamed, so the caller can leave the incoming-call notification alone.
+
+package timur.webcall.callee;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class WaitingCallerList {
+	private static final String TAG = "WebCallWaiting";
+
+	// CallerID -> CallerName
+	private final LinkedHashMap<String,String> callers = new LinkedHashMap<String,String>();
+
+	private long updates = 0;
+	private long unchanged = 0;
+
+	// update() applies the JSON array of a waitingCallers| payload;
+	// it returns true if the list has changed
+	public synchronized boolean update(String payload) throws IOException {
+		LinkedHashMap<String,String> newCallers = SignalingCore.parseWaitingCallers(payload);
+		updates++;
+
+		int removed = 0;
+		Iterator<Map.Entry<String,String>> it = callers.entrySet().iterator();
+		while(it.hasNext()) {
+			if(!newCallers.containsKey(it.next().getKey())) {
+				it.remove();
+				removed++;
+			}
+		}
+		int added = 0;
+		int renamed = 0;
+		for(Map.Entry<String,String> entry : newCallers.entrySet()) {
+			String oldName = callers.get(entry.getKey());
+			if(oldName==null) {
+				callers.put(entry.getKey(), entry.getValue());
+				added++;
+			} else if(!oldName.equals(entry.getValue())) {
+				callers.put(entry.getKey(), entry.getValue());
+				renamed++;
+			}
+		}
+
+		if(added==0 && removed==0 && renamed==0) {
+			unchanged++;
+			return false;
+		}
+		WebCallLog.d(TAG,"update added="+added+" removed="+removed+" renamed="+renamed+
+			" count="+callers.size());
+		return true;
+	}
+
+	public synchronized int count() {
+		return callers.size();
+	}
+
+	// firstCallerID() returns the longest waiting caller, or null
+	public synchronized String firstCallerID() {
+		for(String callerID : callers.keySet()) {
+			return callerID;
+		}
+		return null;
+	}
+
+	public synchronized String firstCallerName() {
+		for(String callerName : callers.values()) {
+			return callerName;
+		}
+		return null;
+	}
+
+	public synchronized void clear() {
+		callers.clear();
+	}
+
+	public synchronized String stats() {
+		return "count="+callers.size()+" updates="+updates+" unchanged="+unchanged;
+	}
+}
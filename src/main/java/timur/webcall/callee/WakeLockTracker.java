@@ -0,0 +1,366 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// WakeLockTracker does the accounting for keepAwakeWakeLock and the activity's wake-up screen lock.
+//
+// Every acquire is tagged with a lock name and a reason. The actual held time is measured with
+// SystemClock.elapsedRealtime() on release, or when a timed acquire has run out by itself
+// (detected lazily on the next call). Held time is added to rolling per-lock histograms
+// (last 24 hours, last 14 days) and to per-reason totals of the current day.
+// The histograms are persisted compactly in prefs ("wakeLockStats", base36 numbers)
+// and are handed to the page as JSON via dashboard().
+
+package timur.webcall.callee;
+
+import android.os.SystemClock;
+import android.os.PowerManager.WakeLock;
+import android.content.SharedPreferences;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TimeZone;
+
+import org.json.JSONObject;
+import org.json.JSONArray;
+
+public class WakeLockTracker {
+	private static final String TAG = "WebCallWakeLock";
+	private static final String prefsKey = "wakeLockStats";
+	private static final int HOURS = 24;
+	private static final int DAYS = 14;
+	private static final long hourMS = 60*60*1000;
+
+	private final SharedPreferences prefs;
+
+	private static class Holder {
+		WakeLock lock;
+		String reason;
+		long since;   // elapsedRealtime
+		long timeout; // 0 = no timeout
+	}
+	// lockName -> current holder (only while held)
+	private final LinkedHashMap<String,Holder> holders = new LinkedHashMap<String,Holder>();
+
+	// lockName -> {hour buckets..., day buckets...} indexed by absolute hour%HOURS and day%DAYS
+	private final LinkedHashMap<String,long[]> histograms = new LinkedHashMap<String,long[]>();
+	// "lockName:reason" -> {acquires, heldMS} of the current day
+	private final LinkedHashMap<String,long[]> reasons = new LinkedHashMap<String,long[]>();
+	// absolute local hour of the last histogram update
+	private long lastHour = 0;
+
+	private volatile boolean logFlag = false;
+
+	public WakeLockTracker(SharedPreferences prefs) {
+		this.prefs = prefs;
+		restore();
+	}
+
+	public void setLogFlag(boolean logFlag) {
+		this.logFlag = logFlag;
+	}
+
+	// acquire() acquires lock for timeoutMS (timeoutMS<=0: no timeout) unless it is already held
+	public synchronized boolean acquire(WakeLock lock, String lockName, String reason, long timeoutMS) {
+		settle();
+		if(lock.isHeld()) {
+			if(logFlag) {
+				Holder holder = holders.get(lockName);
+				WebCallLog.d(TAG,"acquire "+lockName+" "+reason+" already held by "+
+					(holder!=null ? holder.reason : "?"));
+			}
+			return false;
+		}
+		WebCallLog.d(TAG,"acquire "+lockName+" "+reason+" "+timeoutMS);
+		if(timeoutMS>0) {
+			lock.acquire(timeoutMS);
+		} else {
+			lock.acquire();
+		}
+		Holder holder = new Holder();
+		holder.lock = lock;
+		holder.reason = reason;
+		holder.since = SystemClock.elapsedRealtime();
+		holder.timeout = timeoutMS;
+		holders.put(lockName, holder);
+		reasonEntry(lockName+":"+reason)[0]++;
+		return true;
+	}
+
+	// release() releases lock (if held) and returns the ms it was held
+	public synchronized long release(WakeLock lock, String lockName, String who) {
+		settle();
+		if(lock==null || !lock.isHeld()) {
+			return 0;
+		}
+		lock.release();
+		Holder holder = holders.remove(lockName);
+		if(holder==null) {
+			// not acquired through us: we do not know for how long it was held
+			WebCallLog.d(TAG,"release "+lockName+" "+who+" (untracked)");
+			return 0;
+		}
+		long heldMS = SystemClock.elapsedRealtime() - holder.since;
+		WebCallLog.d(TAG,"release "+lockName+" "+who+" ("+holder.reason+") +"+heldMS);
+		account(lockName, holder.reason, heldMS);
+		return heldMS;
+	}
+
+	public synchronized boolean isHeld(String lockName) {
+		settle();
+		return holders.containsKey(lockName);
+	}
+
+	// heldMsToday() returns the ms lockName was held since midnight (including a current hold)
+	public synchronized long heldMsToday(String lockName) {
+		settle();
+		advance(currentHour());
+		long ms = 0;
+		long[] hist = histograms.get(lockName);
+		if(hist!=null) {
+			ms = hist[HOURS + (int)((lastHour/HOURS) % DAYS)];
+		}
+		Holder holder = holders.get(lockName);
+		if(holder!=null) {
+			ms += SystemClock.elapsedRealtime() - holder.since;
+		}
+		return ms;
+	}
+
+	// reasonSummary() returns today's held ms by reason, ie: "keepAwake:onClose=2/9000 ..."
+	public synchronized String reasonSummary() {
+		settle();
+		advance(currentHour());
+		StringBuilder sb = new StringBuilder();
+		for(Map.Entry<String,long[]> entry : reasons.entrySet()) {
+			if(sb.length()>0) {
+				sb.append(" ");
+			}
+			sb.append(entry.getKey()).append("=")
+			  .append(entry.getValue()[0]).append("/").append(entry.getValue()[1]);
+		}
+		return sb.toString();
+	}
+
+	// dashboard() returns the battery cost dashboard for the page:
+	// {"today":{lock:ms}, "hours":{lock:[24 values, oldest first]}, "days":{lock:[14 values, oldest first]},
+	//  "reasons":[{"lock":..,"reason":..,"count":..,"ms":..}], "held":{lock:reason}}
+	public synchronized String dashboard() {
+		settle();
+		advance(currentHour());
+		try {
+			JSONObject today = new JSONObject();
+			JSONObject hours = new JSONObject();
+			JSONObject days = new JSONObject();
+			long currentDay = lastHour / HOURS;
+			for(Map.Entry<String,long[]> entry : histograms.entrySet()) {
+				long[] hist = entry.getValue();
+				JSONArray hourArray = new JSONArray();
+				for(long h = lastHour-HOURS+1; h <= lastHour; h++) {
+					hourArray.put(hist[(int)(h % HOURS)]);
+				}
+				JSONArray dayArray = new JSONArray();
+				for(long d = currentDay-DAYS+1; d <= currentDay; d++) {
+					dayArray.put(hist[HOURS + (int)(d % DAYS)]);
+				}
+				today.put(entry.getKey(), hist[HOURS + (int)(currentDay % DAYS)]);
+				hours.put(entry.getKey(), hourArray);
+				days.put(entry.getKey(), dayArray);
+			}
+			JSONArray reasonArray = new JSONArray();
+			for(Map.Entry<String,long[]> entry : reasons.entrySet()) {
+				String key = entry.getKey();
+				int idx = key.indexOf(":");
+				JSONObject reason = new JSONObject();
+				reason.put("lock", key.substring(0,idx));
+				reason.put("reason", key.substring(idx+1));
+				reason.put("count", entry.getValue()[0]);
+				reason.put("ms", entry.getValue()[1]);
+				reasonArray.put(reason);
+			}
+			JSONObject held = new JSONObject();
+			for(Map.Entry<String,Holder> entry : holders.entrySet()) {
+				held.put(entry.getKey(), entry.getValue().reason);
+			}
+			JSONObject dash = new JSONObject();
+			dash.put("today", today);
+			dash.put("hours", hours);
+			dash.put("days", days);
+			dash.put("reasons", reasonArray);
+			dash.put("held", held);
+			return dash.toString();
+		} catch(Exception ex) {
+			WebCallLog.d(TAG,"# dashboard ex="+ex);
+			return "{}";
+		}
+	}
+
+	public synchronized void clear() {
+		histograms.clear();
+		reasons.clear();
+		save();
+	}
+
+	// settle() accounts for timed acquires that have run out by themselves
+	private void settle() {
+		if(holders.size()<=0) {
+			return;
+		}
+		long now = SystemClock.elapsedRealtime();
+		Iterator<Map.Entry<String,Holder>> iter = holders.entrySet().iterator();
+		while(iter.hasNext()) {
+			Map.Entry<String,Holder> entry = iter.next();
+			Holder holder = entry.getValue();
+			if(!holder.lock.isHeld()) {
+				long heldMS = now - holder.since;
+				if(holder.timeout>0 && heldMS > holder.timeout) {
+					heldMS = holder.timeout;
+				}
+				if(logFlag) {
+					WebCallLog.d(TAG,"settle "+entry.getKey()+" ("+holder.reason+") timed out +"+heldMS);
+				}
+				iter.remove();
+				account(entry.getKey(), holder.reason, heldMS);
+			}
+		}
+	}
+
+	// account() adds heldMS (ending now) to the histograms of lockName, split over hour boundaries
+	private void account(String lockName, String reason, long heldMS) {
+		long nowLocal = localTimeMillis();
+		advance(nowLocal / hourMS);
+		long[] hist = histograms.get(lockName);
+		if(hist==null) {
+			hist = new long[HOURS + DAYS];
+			histograms.put(lockName, hist);
+		}
+		long end = nowLocal;
+		long remaining = heldMS;
+		while(remaining>0) {
+			long hour = (end-1) / hourMS;
+			if(hour <= lastHour-HOURS) {
+				// older than the hourly window
+				break;
+			}
+			long part = Math.min(remaining, end - hour*hourMS);
+			hist[(int)(hour % HOURS)] += part;
+			if(hour/HOURS > lastHour/HOURS - DAYS) {
+				hist[HOURS + (int)((hour/HOURS) % DAYS)] += part;
+			}
+			remaining -= part;
+			end -= part;
+		}
+		reasonEntry(lockName+":"+reason)[1] += heldMS;
+		save();
+	}
+
+	// advance() moves the rolling windows forward to hour, zeroing buckets that have expired
+	private void advance(long hour) {
+		if(hour <= lastHour) {
+			return;
+		}
+		long lastDay = lastHour / HOURS;
+		long day = hour / HOURS;
+		for(long[] hist : histograms.values()) {
+			for(long h = Math.max(lastHour+1, hour-HOURS+1); h <= hour; h++) {
+				hist[(int)(h % HOURS)] = 0;
+			}
+			for(long d = Math.max(lastDay+1, day-DAYS+1); d <= day; d++) {
+				hist[HOURS + (int)(d % DAYS)] = 0;
+			}
+		}
+		if(day != lastDay && lastHour != 0) {
+			WebCallLog.d(TAG,"new day, clear reasons");
+			reasons.clear();
+		}
+		lastHour = hour;
+	}
+
+	private long[] reasonEntry(String key) {
+		advance(currentHour());
+		long[] val = reasons.get(key);
+		if(val==null) {
+			val = new long[2];
+			reasons.put(key, val);
+		}
+		return val;
+	}
+
+	// stored format: "lastHour|lock=v,v,...;lock=...|lock:reason=count,ms;..." (all numbers base36)
+	private void save() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(Long.toString(lastHour,36)).append("|");
+		for(Map.Entry<String,long[]> entry : histograms.entrySet()) {
+			sb.append(entry.getKey()).append("=");
+			long[] hist = entry.getValue();
+			for(int i=0; i<hist.length; i++) {
+				if(i>0) {
+					sb.append(",");
+				}
+				sb.append(Long.toString(hist[i],36));
+			}
+			sb.append(";");
+		}
+		sb.append("|");
+		for(Map.Entry<String,long[]> entry : reasons.entrySet()) {
+			sb.append(entry.getKey()).append("=")
+			  .append(Long.toString(entry.getValue()[0],36)).append(",")
+			  .append(Long.toString(entry.getValue()[1],36)).append(";");
+		}
+		SharedPreferences.Editor prefed = prefs.edit();
+		prefed.putString(prefsKey, sb.toString());
+		prefed.apply();
+	}
+
+	private void restore() {
+		try {
+			String stored = prefs.getString(prefsKey, "");
+			String[] parts = stored.split("\\|", -1);
+			if(parts.length!=3) {
+				return;
+			}
+			lastHour = Long.parseLong(parts[0],36);
+			for(String tok : parts[1].split(";")) {
+				int idx = tok.indexOf("=");
+				if(idx<=0) {
+					continue;
+				}
+				String[] vals = tok.substring(idx+1).split(",");
+				if(vals.length!=HOURS+DAYS) {
+					continue;
+				}
+				long[] hist = new long[HOURS+DAYS];
+				for(int i=0; i<hist.length; i++) {
+					hist[i] = Long.parseLong(vals[i],36);
+				}
+				histograms.put(tok.substring(0,idx), hist);
+			}
+			for(String tok : parts[2].split(";")) {
+				int idx = tok.indexOf("=");
+				if(idx<=0) {
+					continue;
+				}
+				String[] vals = tok.substring(idx+1).split(",");
+				if(vals.length==2) {
+					reasons.put(tok.substring(0,idx),
+						new long[] { Long.parseLong(vals[0],36), Long.parseLong(vals[1],36) });
+				}
+			}
+			advance(currentHour());
+			WebCallLog.d(TAG,"restore histograms="+histograms.size()+" reasons="+reasons.size());
+		} catch(Exception ex) {
+			WebCallLog.d(TAG,"# restore ex="+ex);
+			histograms.clear();
+			reasons.clear();
+			lastHour = 0;
+		}
+	}
+
+	private static long localTimeMillis() {
+		long now = System.currentTimeMillis();
+		return now + TimeZone.getDefault().getOffset(now);
+	}
+
+	private static long currentHour() {
+		return localTimeMillis() / hourMS;
+	}
+}
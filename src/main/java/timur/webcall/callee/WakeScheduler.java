@@ -0,0 +1,324 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// WakeScheduler owns keepAwakeWakeLock and the AlarmManager alarm.
+//
+// Callers submit wake tasks with a deadline and a slack. The alarm is only ever armed for
+// the earliest deadline. Whenever the device is awake anyway (alarm, doze change, power event,
+// server ping) every task whose slack window has opened is run in the same go. This way
+// several pieces of wake work share a single device wakeup.
+//
+// All keepAwakeWakeLock acquire/release calls go through keepAwake() and release(); the held
+// time is measured and attributed to the acquiring reason by WakeLockTracker.
+// WakeScheduler keeps a per-day report of wakeups and tasks run by reason. The counts are kept in
+// memory; they are stored on day rollover and by saveReport() (onDestroy).
+
+package timur.webcall.callee;
+
+import android.os.Build;
+import android.os.SystemClock;
+import android.os.PowerManager.WakeLock;
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class WakeScheduler {
+	private static final String TAG = "WebCallWake";
+
+	// an alarm that is this late is considered lost and will be re-armed
+	private static final long staleAlarmMS = 3*60*1000;
+
+	private final Context context;
+	private final AlarmManager alarmManager;
+	private final WakeLock keepAwakeWakeLock;
+	private final WakeLockTracker wakeLockTracker;
+	private final Intent alarmIntent;
+	private final SharedPreferences prefs;
+
+	private static class WakeTask {
+		String reason;
+		long deadline; // elapsedRealtime
+		long slack;    // the task may run this many ms before its deadline
+		long period;   // 0 = one-shot
+		Runnable runnable;
+	}
+	private final LinkedHashMap<String,WakeTask> tasks = new LinkedHashMap<String,WakeTask>();
+
+	private PendingIntent pendingAlarm = null;
+	private long alarmDeadline = 0;
+
+	// per-day report: reason -> {wakeups, tasks}
+	private final LinkedHashMap<String,long[]> report = new LinkedHashMap<String,long[]>();
+	private int reportDay = 0;
+
+	private volatile boolean logFlag = false;
+
+	public WakeScheduler(Context context, AlarmManager alarmManager, WakeLock keepAwakeWakeLock,
+			WakeLockTracker wakeLockTracker, Intent alarmIntent, SharedPreferences prefs) {
+		this.context = context;
+		this.alarmManager = alarmManager;
+		this.keepAwakeWakeLock = keepAwakeWakeLock;
+		this.wakeLockTracker = wakeLockTracker;
+		this.alarmIntent = alarmIntent;
+		this.prefs = prefs;
+		restoreReport();
+	}
+
+	public void setLogFlag(boolean logFlag) {
+		this.logFlag = logFlag;
+	}
+
+	// submit() adds (or replaces) a task with the given reason
+	// the task will run no later than delayMS from now (alarm) and no earlier than delayMS-slackMS
+	// if periodMS>0 the task is re-submitted with the same delay every time it has run
+	public synchronized void submit(String reason, long delayMS, long slackMS, long periodMS, Runnable runnable) {
+		WakeTask task = new WakeTask();
+		task.reason = reason;
+		task.deadline = SystemClock.elapsedRealtime() + delayMS;
+		task.slack = slackMS;
+		task.period = periodMS;
+		task.runnable = runnable;
+		tasks.put(reason, task);
+		if(logFlag) {
+			WebCallLog.d(TAG,"submit "+reason+" in "+delayMS+"ms slack="+slackMS+" period="+periodMS);
+		}
+		armAlarm();
+	}
+
+	public synchronized boolean isPending(String reason) {
+		return tasks.containsKey(reason);
+	}
+
+	public synchronized void cancel(String reason) {
+		if(tasks.remove(reason)!=null) {
+			WebCallLog.d(TAG,"cancel "+reason);
+			armAlarm();
+		}
+	}
+
+	// onAlarm() is called by AlarmReceiver: the device was woken up for us
+	public void onAlarm() {
+		ArrayList<WakeTask> dueTasks;
+		synchronized(this) {
+			if(pendingAlarm==null) {
+				WebCallLog.w(TAG,"onAlarm without pendingAlarm");
+			}
+			pendingAlarm = null;
+			alarmDeadline = 0;
+			count("alarm", 1, 0);
+			dueTasks = collectDueTasks(null);
+			armAlarm();
+		}
+		runTasks("alarm", dueTasks);
+	}
+
+	// wakeup() is called when the device is awake for some other reason (doze change, power event,
+	// server ping); all tasks whose slack window has opened are run now, so the alarm they would
+	// otherwise need can be skipped; forceReason (may be null) names a task to be run right away
+	public void wakeup(String trigger, String forceReason) {
+		ArrayList<WakeTask> dueTasks;
+		synchronized(this) {
+			count(trigger, 1, 0);
+			dueTasks = collectDueTasks(forceReason);
+			if(dueTasks.size()>0) {
+				armAlarm();
+			}
+		}
+		runTasks(trigger, dueTasks);
+	}
+
+	// keepAwake() acquires keepAwakeWakeLock for maxMS (unless it is already held)
+	public synchronized boolean keepAwake(String reason, long maxMS) {
+		if(!wakeLockTracker.acquire(keepAwakeWakeLock, "keepAwake", reason, maxMS)) {
+			return false;
+		}
+		count(reason, 1, 0);
+		return true;
+	}
+
+	// release() releases keepAwakeWakeLock (if held); the held time is accounted by wakeLockTracker
+	public synchronized void release(String who) {
+		wakeLockTracker.release(keepAwakeWakeLock, "keepAwake", who);
+	}
+
+	public synchronized boolean isAwake() {
+		return keepAwakeWakeLock.isHeld();
+	}
+
+	// awakeMsToday() returns the ms keepAwakeWakeLock was held since midnight
+	public long awakeMsToday() {
+		return wakeLockTracker.heldMsToday("keepAwake");
+	}
+
+	public synchronized void clear() {
+		report.clear();
+		saveReport();
+	}
+
+	// report() returns today's report, ie:
+	// "2023-182 alarm:3/0 pingcheck:0/4 onClose:1/0 awake keepAwake:onClose=1/9000"
+	// (year-dayOfYear) each reason is followed by wakeups/tasks, then awake count/ms by lock:reason
+	public synchronized String report() {
+		return reportString()+" awake "+wakeLockTracker.reasonSummary();
+	}
+
+	private String reportString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(dayString(reportDay));
+		for(Map.Entry<String,long[]> entry : report.entrySet()) {
+			long[] val = entry.getValue();
+			sb.append(" ").append(entry.getKey()).append(":").append(val[0]).append("/").append(val[1]);
+		}
+		return sb.toString();
+	}
+
+	private ArrayList<WakeTask> collectDueTasks(String forceReason) {
+		ArrayList<WakeTask> dueTasks = new ArrayList<WakeTask>();
+		long now = SystemClock.elapsedRealtime();
+		Iterator<WakeTask> iter = tasks.values().iterator();
+		while(iter.hasNext()) {
+			WakeTask task = iter.next();
+			if(now >= task.deadline - task.slack || task.reason.equals(forceReason)) {
+				dueTasks.add(task);
+				if(task.period>0) {
+					task.deadline = now + task.period;
+				} else {
+					iter.remove();
+				}
+			}
+		}
+		return dueTasks;
+	}
+
+	private void runTasks(String trigger, ArrayList<WakeTask> dueTasks) {
+		for(WakeTask task : dueTasks) {
+			if(logFlag) {
+				WebCallLog.d(TAG,"run "+task.reason+" on "+trigger);
+			}
+			synchronized(this) {
+				count(task.reason, 0, 1);
+			}
+			try {
+				task.runnable.run();
+			} catch(Exception ex) {
+				WebCallLog.d(TAG,"# run "+task.reason+" ex="+ex);
+			}
+		}
+	}
+
+	// armAlarm() makes sure the alarm is armed for the earliest task deadline (or not at all)
+	private void armAlarm() {
+		long earliest = 0;
+		for(WakeTask task : tasks.values()) {
+			if(earliest==0 || task.deadline < earliest) {
+				earliest = task.deadline;
+			}
+		}
+		if(earliest==0) {
+			if(pendingAlarm!=null) {
+				WebCallLog.d(TAG,"armAlarm no tasks, cancel alarm");
+				alarmManager.cancel(pendingAlarm);
+				pendingAlarm = null;
+				alarmDeadline = 0;
+			}
+			return;
+		}
+		long now = SystemClock.elapsedRealtime();
+		if(pendingAlarm!=null && alarmDeadline==earliest && now < alarmDeadline + staleAlarmMS) {
+			// the alarm is already armed for this deadline
+			return;
+		}
+		if(pendingAlarm!=null) {
+			alarmManager.cancel(pendingAlarm);
+		}
+		pendingAlarm = PendingIntent.getBroadcast(context, 0, alarmIntent, PendingIntent.FLAG_IMMUTABLE);
+		if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+			alarmManager.setAndAllowWhileIdle(AlarmManager.ELAPSED_REALTIME_WAKEUP, earliest, pendingAlarm);
+		} else {
+			// for Android 5 and below: many devices will do min 16min
+			alarmManager.set(AlarmManager.ELAPSED_REALTIME_WAKEUP, earliest, pendingAlarm);
+		}
+		alarmDeadline = earliest;
+		if(logFlag) {
+			WebCallLog.d(TAG,"armAlarm in "+(earliest-now)+"ms");
+		}
+	}
+
+	private void count(String reason, long wakeups, long tasksRun) {
+		int today = today();
+		if(today!=reportDay) {
+			if(reportDay!=0) {
+				String lastReport = reportString();
+				WebCallLog.d(TAG,"new day, report "+lastReport);
+				SharedPreferences.Editor prefed = prefs.edit();
+				prefed.putString("wakeReportPrev", lastReport);
+				prefed.apply();
+			}
+			report.clear();
+			reportDay = today;
+			saveReport();
+		}
+		if(reason==null) {
+			reason = "?";
+		}
+		long[] val = report.get(reason);
+		if(val==null) {
+			val = new long[2];
+			report.put(reason, val);
+		}
+		val[0] += wakeups;
+		val[1] += tasksRun;
+	}
+
+	// saveReport() stores today's counts; the report is stored compactly as:
+	// "day|reason,wakeups,tasks;reason,..."
+	public synchronized void saveReport() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(reportDay).append("|");
+		for(Map.Entry<String,long[]> entry : report.entrySet()) {
+			long[] val = entry.getValue();
+			sb.append(entry.getKey()).append(",")
+			  .append(val[0]).append(",").append(val[1]).append(";");
+		}
+		SharedPreferences.Editor prefed = prefs.edit();
+		prefed.putString("wakeReport", sb.toString());
+		prefed.apply();
+	}
+
+	private void restoreReport() {
+		reportDay = today();
+		try {
+			String stored = prefs.getString("wakeReport", "");
+			int idx = stored.indexOf("|");
+			if(idx<=0 || Integer.parseInt(stored.substring(0,idx))!=reportDay) {
+				return;
+			}
+			for(String tok : stored.substring(idx+1).split(";")) {
+				String[] fields = tok.split(",");
+				if(fields.length>=3) {
+					report.put(fields[0], new long[] { Long.parseLong(fields[1]), Long.parseLong(fields[2]) });
+				}
+			}
+			WebCallLog.d(TAG,"restoreReport "+reportString());
+		} catch(Exception ex) {
+			WebCallLog.d(TAG,"# restoreReport ex="+ex);
+			report.clear();
+		}
+	}
+
+	private static int today() {
+		Calendar cal = Calendar.getInstance();
+		return cal.get(Calendar.YEAR)*1000 + cal.get(Calendar.DAY_OF_YEAR);
+	}
+
+	private static String dayString(int day) {
+		return (day/1000)+"-"+(day%1000);
+	}
+}
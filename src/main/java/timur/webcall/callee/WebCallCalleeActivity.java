@@ -40,7 +40,6 @@ import android.webkit.DownloadListener;
 import android.webkit.CookieManager;
 import android.webkit.URLUtil;
 import android.webkit.ValueCallback;
-import android.util.Log;
 import android.content.Context;
 import android.content.IntentFilter;
 import android.content.Intent;
@@ -137,6 +136,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 	private static final int MY_PERMISSIONS_CAMERA = 2;
 	private static final int MY_PERMISSIONS_WRITE_EXTERNAL_STORAGE = 3;
 	private static final int FILE_REQ_CODE = 1341;	// onActivityResult
+	private static final long dialTimeoutMS = 15000;	// dialId() gives up if not on the main page by then
 
 	private WebCallService.WebCallServiceBinder webCallServiceBinder = null;
 
@@ -166,8 +166,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 	private int proximitySensorMode = 0; // 0=off, 1=on
 	private int proximitySensorAction = 0; // 0=screen off, 1=screen dim
 	private volatile boolean webviewBlocked = false;
-	private volatile Intent dialIdIntent = null; // set by onCreate() + getIntent() or by onNewIntent()
-	private long lastSetDialId = 0;
+	private final ReadySignal serviceBound = new ReadySignal("serviceBound");
 	private volatile boolean writeExtStoragePermissionDenied = false;
 	private volatile int callInProgress = 0;
 	private ValueCallback<Uri[]> filePath = null; // for file selector
@@ -179,7 +178,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 	@Override
 	protected void onCreate(Bundle savedInstanceState) {
 		super.onCreate(savedInstanceState);
-		Log.d(TAG, "onCreate "+BuildConfig.VERSION_NAME);
+		WebCallLog.d(TAG, "onCreate "+BuildConfig.VERSION_NAME);
 		activity = this;
 
 		// call getCurrentWebViewPackageInfo() to get webview versionName, may fail on old Android / old webview
@@ -187,16 +186,16 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 
 		webviewPackageInfo = getCurrentWebViewPackageInfo();
 		if(webviewPackageInfo != null) {
-			Log.d(TAG, "onCreate webview packageInfo "+
+			WebCallLog.d(TAG, "onCreate webview packageInfo "+
 				webviewPackageInfo.packageName+" "+webviewPackageInfo.versionName);
 		}
 
 		// the real webview test comes here and we MUST try/catch
 		try {
-			Log.d(TAG, "onCreate setContentView(R.layout.activity_main)");
+			WebCallLog.d(TAG, "onCreate setContentView(R.layout.activity_main)");
 			setContentView(R.layout.activity_main);
 		} catch(Exception ex) {
-			Log.d(TAG, "# onCreate setContentView ex="+ex);
+			WebCallLog.d(TAG, "# onCreate setContentView ex="+ex);
 			startupFail = true;
 			Toast.makeText(activity, "WebCall cannot start. No System WebView installed?",
 				Toast.LENGTH_LONG).show();
@@ -205,22 +204,22 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 
 		if(webviewPackageInfo == null) {
 			// on Android 6 + 7: reflection + getLoadedPackageInfo() will only work AFTER webview was activated
-			Log.d(TAG, "onCreate webviewPackageInfo not set");
+			WebCallLog.d(TAG, "onCreate webviewPackageInfo not set");
 			webviewPackageInfo = getCurrentWebViewPackageInfo();
 			if(webviewPackageInfo != null) {
-				Log.d(TAG, "onCreate webview packageInfo "+
+				WebCallLog.d(TAG, "onCreate webview packageInfo "+
 					webviewPackageInfo.packageName+" "+webviewPackageInfo.versionName);
 			}
 		}
 
 		if(powerManager==null) {
-			Log.d(TAG, "onCreate getSystemService(POWER_SERVICE)");
+			WebCallLog.d(TAG, "onCreate getSystemService(POWER_SERVICE)");
 			powerManager = (PowerManager)getSystemService(POWER_SERVICE);
 		} else {
-			Log.d(TAG, "onCreate powerManager!=null");
+			WebCallLog.d(TAG, "onCreate powerManager!=null");
 		}
 		if(powerManager==null) {
-			Log.d(TAG, "onCreate powerManager==null");
+			WebCallLog.d(TAG, "onCreate powerManager==null");
 			return;
 		}
 
@@ -233,19 +232,19 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		}
 
 		if(keyguardManager==null) {
-			Log.d(TAG, "onCreate getSystemService(Context.KEYGUARD_SERVICE)");
+			WebCallLog.d(TAG, "onCreate getSystemService(Context.KEYGUARD_SERVICE)");
 			keyguardManager = (KeyguardManager)getSystemService(Context.KEYGUARD_SERVICE);
 		}
 		if(keyguardManager==null) {
-			Log.d(TAG, "onCreate keyguardManager==null");
+			WebCallLog.d(TAG, "onCreate keyguardManager==null");
 			return;
 		}
 
-		Log.d(TAG, "onCreate proximitySensorEventListener");
+		WebCallLog.d(TAG, "onCreate proximitySensorEventListener");
 		proximitySensorEventListener = new SensorEventListener() {
 			@Override
 			public void onAccuracyChanged(Sensor sensor, int accuracy) {
-				Log.d(TAG, "proximitySensorEvent accuracy "+accuracy);
+				WebCallLog.d(TAG, "proximitySensorEvent accuracy "+accuracy);
 				proximityAway("accuracy");
 			}
 
@@ -253,7 +252,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 			public void onSensorChanged(SensorEvent event) {
 				if(event.sensor.getType() == Sensor.TYPE_PROXIMITY) {
 					if(extendedLogsFlag) {
-						Log.d(TAG, "proximitySensorEvent TYPE_PROXIMITY "+event.values[0]);
+						WebCallLog.d(TAG, "proximitySensorEvent TYPE_PROXIMITY "+event.values[0]);
 					}
 					if(event.values[0] < event.sensor.getMaximumRange()){
 						proximityNear();
@@ -261,47 +260,47 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 						proximityAway("sensor");
 					}
 				} else {
-					Log.d(TAG, "proximitySensorEvent unknown type="+event.sensor.getType());
+					WebCallLog.d(TAG, "proximitySensorEvent unknown type="+event.sensor.getType());
 				}
 			}
 		};
 
 		if(prefs==null) {
-			Log.d(TAG, "onCreate getDefaultSharedPreferences()");
+			WebCallLog.d(TAG, "onCreate getDefaultSharedPreferences()");
 			prefs = PreferenceManager.getDefaultSharedPreferences(this);
 		}
 		if(prefs!=null) {
 			try {
 				proximitySensorMode = prefs.getInt("proximitySensor", 1);
 			} catch(Exception ex) {
-				Log.d(TAG,"# onCreateContextMenu proximitySensorMode ex="+ex);
+				WebCallLog.d(TAG,"# onCreateContextMenu proximitySensorMode ex="+ex);
 			}
 			try {
 				proximitySensorAction = prefs.getInt("proximitySensorAction", 0);
 			} catch(Exception ex) {
-				Log.d(TAG,"# onCreateContextMenu proximitySensorAction ex="+ex);
+				WebCallLog.d(TAG,"# onCreateContextMenu proximitySensorAction ex="+ex);
 			}
 		}
 
-		Log.d(TAG, "onCreate findViewById R.id.webview");
+		WebCallLog.d(TAG, "onCreate findViewById R.id.webview");
 		View mainView = findViewById(R.id.webview);
 		if(mainView!=null) {
 			mainView.setOnTouchListener(new View.OnTouchListener() {
 				@Override
 				public boolean onTouch(View view, MotionEvent ev) {
-					//Log.d(TAG, "onTouch webviewBlocked="+webviewBlocked);
+					//WebCallLog.d(TAG, "onTouch webviewBlocked="+webviewBlocked);
 					if(webviewBlocked) {
 						return true;
 					}
 
-					//Log.d(TAG, "onCreate onTouch");
+					//WebCallLog.d(TAG, "onCreate onTouch");
 					final int pointerCount = ev.getPointerCount();
 					for(int p = 0; p < pointerCount; p++) {
-						//Log.d(TAG, "onCreate onTouch x="+ev.getX(p)+" y="+ev.getY(p));
+						//WebCallLog.d(TAG, "onCreate onTouch x="+ev.getX(p)+" y="+ev.getY(p));
 						touchX = (int)ev.getX(p);
 						touchY = (int)ev.getY(p);
 					}
-					//Log.d(TAG,"onTouch "+touchX+"/"+touchY+" will be processed");
+					//WebCallLog.d(TAG,"onTouch "+touchX+"/"+touchY+" will be processed");
 
 					// undim screen
 					// do this every time? shd only be needed once after "if(typeOfWakeup==1)"
@@ -313,13 +312,13 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 			});
 		}
 
-		Log.d(TAG, "onCreate findViewById R.id.webview");
+		WebCallLog.d(TAG, "onCreate findViewById R.id.webview");
 		myWebView = findViewById(R.id.webview);
 		myNewWebView = (WebView)findViewById(R.id.webview2);
 		myNewWebView.setVisibility(View.INVISIBLE);
 
 		if(downloadManager==null) {
-			Log.d(TAG, "onCreate getSystemService(DOWNLOAD_SERVICE)");
+			WebCallLog.d(TAG, "onCreate getSystemService(DOWNLOAD_SERVICE)");
 			downloadManager = (DownloadManager)getSystemService(DOWNLOAD_SERVICE);
 		}
 
@@ -330,25 +329,25 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 
 				String message = intent.getStringExtra("toast");
 				if(message!=null && !message.equals("")) {
-					Log.d(TAG, "broadcastReceiver toast '"+message+"'");
+					WebCallLog.d(TAG, "broadcastReceiver toast '"+message+"'");
 					Toast.makeText(context, message, Toast.LENGTH_LONG).show();
 					return;
 				}
 
 				String command = intent.getStringExtra("cmd");
 				if(command!=null && !command.equals("")) {
-					Log.d(TAG, "broadcastReceiver command "+command);
+					WebCallLog.d(TAG, "broadcastReceiver command "+command);
 					if(command.equals("shutdown")) {
 						finish();
 					} else if(command.equals("menu")) {
 						openContextMenu(mainView);
 					} else if(command.equals("screenorientlock")) {
 						// peer connect: lock the current screen orientation, aka don't allow changes
-						Log.d(TAG, "broadcastReceiver screenOrientationLock");
+						WebCallLog.d(TAG, "broadcastReceiver screenOrientationLock");
 						screenOrientationLock("service");
 					} else if(command.equals("screenorientunlock")) {
 						// peer disconnect: unlock screen orientation, aka allow changes
-						Log.d(TAG, "broadcastReceiver screenOrientationRelease");
+						WebCallLog.d(TAG, "broadcastReceiver screenOrientationRelease");
 						screenOrientationRelease("service");
 					}
 					return;
@@ -357,48 +356,33 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 				String state = intent.getStringExtra("state");
 				if(state!=null && !state.equals("")) {
 					if(state.equals("mainpage")) {
-						Log.d(TAG, "broadcastReceiver state="+state);
+						WebCallLog.d(TAG, "broadcastReceiver state="+state);
 
 					} else if(state.equals("connected")) {
 						// user is now connected as callee to webcall server
-						// if there is a dialIdIntent...
-						if(dialIdIntent!=null) {
-							// execute dialIdIntent only if set within the last 30s
-							long lastSetDialIdAge = System.currentTimeMillis() - lastSetDialId;
-							if(lastSetDialIdAge <= 30000) {
-								Log.d(TAG, "broadcastReceiver wsCon state="+state+" dialIdIntent is set");
-								newIntent(dialIdIntent,"broadcastReceiver-connected");
-							} else {
-								// too old, do not execute
-								Log.d(TAG, "broadcastReceiver wsCon state="+state+" dialIdIntent is set"+
-									" too old"+lastSetDialIdAge);
-							}
-							dialIdIntent = null;
-						} else {
-							Log.d(TAG, "broadcastReceiver wsCon state="+state);
-						}
+						WebCallLog.d(TAG, "broadcastReceiver wsCon state="+state);
 					} else if(state.equals("disconnected")) {
 						// connection to webcall server lost, possibly retrying
-						Log.d(TAG, "broadcastReceiver wsCon state="+state);
+						WebCallLog.d(TAG, "broadcastReceiver wsCon state="+state);
 					} else if(state.equals("deactivated")) {
 						// connection to webcall server deactivated, no retrying
-						Log.d(TAG, "broadcastReceiver wsCon state="+state);
+						WebCallLog.d(TAG, "broadcastReceiver wsCon state="+state);
 					} else {
-						Log.d(TAG, "! broadcastReceiver unexpected state="+state);
+						WebCallLog.d(TAG, "! broadcastReceiver unexpected state="+state);
 					}
 					return;
 				}
 
 				String url = intent.getStringExtra("browse");
 				if(url!=null && !url.equals("")) {
-					Log.d(TAG, "broadcastReceiver browse "+url);
+					WebCallLog.d(TAG, "broadcastReceiver browse "+url);
 					// if url contains "/user/" this should be catched by our manifest intent-filter
 					//   and result in onNewIntent with data=url
 					// this works well on Android 9, but on Android 12 our ACTION_VIEW intent gets
 					//   handled by an external browser
 					// this is why we take a short cut here:
 					if(url.indexOf("/user/")>0) {
-						dialId(Uri.parse(url),0);
+						dialId(Uri.parse(url),SystemClock.elapsedRealtime());
 						return;
 					}
 					Intent i = new Intent(Intent.ACTION_VIEW);
@@ -409,7 +393,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 
 				String clipText = intent.getStringExtra("clip");
 				if(clipText!=null && !clipText.equals("")) {
-					Log.d(TAG, "broadcastReceiver clipText "+clipText);
+					WebCallLog.d(TAG, "broadcastReceiver clipText "+clipText);
 					ClipData clipData = ClipData.newPlainText(null,clipText);
 					ClipboardManager clipboard =
 						(ClipboardManager)getSystemService(Context.CLIPBOARD_SERVICE);
@@ -422,7 +406,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 
 				String forResults = intent.getStringExtra("forResults");
 				if(forResults!=null && !forResults.equals("")) {
-					Log.d(TAG, "broadcastReceiver forResults "+forResults);
+					WebCallLog.d(TAG, "broadcastReceiver forResults "+forResults);
 
 					String file_type = "*/*";    // file types to be allowed for upload
 					Intent contentSelectionIntent = new Intent(Intent.ACTION_GET_CONTENT);
@@ -439,14 +423,14 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 
 				String simClick = intent.getStringExtra("simulateClick");
 				if(simClick!=null && !simClick.equals("")) {
-					//Log.d(TAG, "broadcastReceiver simulateClick string "+simClick);
+					//WebCallLog.d(TAG, "broadcastReceiver simulateClick string "+simClick);
 					simClickString(simClick);
 					return;
 				}
 
 				String filedownloadUrl = intent.getStringExtra("filedownload");
 				if(filedownloadUrl!=null && !filedownloadUrl.equals("")) {
-					Log.d(TAG, "broadcastReceiver cmd filedownloadUrl="+filedownloadUrl);
+					WebCallLog.d(TAG, "broadcastReceiver cmd filedownloadUrl="+filedownloadUrl);
 
 					if(ActivityCompat.checkSelfPermission(activity,
 						  Manifest.permission.READ_EXTERNAL_STORAGE) != PackageManager.PERMISSION_GRANTED ||
@@ -458,7 +442,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 								Manifest.permission.WRITE_EXTERNAL_STORAGE}, 1);
 					} else {
 						String myfiledownloadUrl = filedownloadUrl+"?i="+SystemClock.uptimeMillis();
-						Log.d(TAG, "broadcastReceiver request="+myfiledownloadUrl);
+						WebCallLog.d(TAG, "broadcastReceiver request="+myfiledownloadUrl);
 						DownloadManager.Request request =
 							new DownloadManager.Request(Uri.parse(myfiledownloadUrl));
 						request.setDescription("Downloading file....");
@@ -468,16 +452,16 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 						if(idx>0) {
 							filename = filename.substring(idx+1);
 						}
-						Log.d(TAG,"filename="+filename);
+						WebCallLog.d(TAG,"filename="+filename);
 						request.setTitle(filename);
 
 						String mimetype = URLConnection.guessContentTypeFromName(filename);
-						Log.d(TAG,"mimetype="+mimetype);
+						WebCallLog.d(TAG,"mimetype="+mimetype);
 						request.setMimeType(mimetype);
 
 						String userAgent = intent.getStringExtra("useragent");
 						//String userAgent = "WebCall for Android";
-						Log.d(TAG,"userAgent="+userAgent);
+						WebCallLog.d(TAG,"userAgent="+userAgent);
 						request.addRequestHeader("User-Agent",userAgent);
 
 						request.allowScanningByMediaScanner();
@@ -518,7 +502,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 //						Uri uri = Uri.fromFile(new File(getFilesDir(), "")); //filename));
 						Uri uri = Uri.fromFile(new File(Environment.getExternalStorageDirectory() + "/" +
 							Environment.DIRECTORY_DOWNLOADS + "/"+ filename));
-						Log.d(TAG, "setDestinationUri="+uri);
+						WebCallLog.d(TAG, "setDestinationUri="+uri);
 						request.setDestinationUri(uri);
 */
 
@@ -558,15 +542,15 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 								try {
 									downloadReference = downloadManager.enqueue(request);
 								} catch(Exception ex) {
-									Log.d(TAG, "download ex="+ex);
+									WebCallLog.d(TAG, "download ex="+ex);
 								}
 								if(downloadReference!=0) {
-									Log.d(TAG,"download start ref="+downloadReference);
+									WebCallLog.d(TAG,"download start ref="+downloadReference);
 									Toast.makeText(activity,"Starting download "+filenameFinal,
 										Toast.LENGTH_LONG).show();
 									// file download will trigger -> onDownloadComplete
 								} else {
-									Log.d(TAG,"download failed for ref="+downloadReference);
+									WebCallLog.d(TAG,"download failed for ref="+downloadReference);
 									Toast.makeText(activity,"Download failed "+filenameFinal,
 										Toast.LENGTH_LONG).show();
 								}
@@ -577,59 +561,59 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 					return;
 				}
 
-				//Log.d(TAG, "# broadcastReceiver unknown cmd "+intent.toString());
+				//WebCallLog.d(TAG, "# broadcastReceiver unknown cmd "+intent.toString());
 			}
 		};
-		Log.d(TAG, "onCreate registerReceiver broadcastReceiver");
+		WebCallLog.d(TAG, "onCreate registerReceiver broadcastReceiver");
 		registerReceiver(broadcastReceiver, new IntentFilter("webcall"));
 
 		onDownloadComplete = new BroadcastReceiver() {
 			public void onReceive(Context context, Intent intent) {
 				// find out if this is an apk (from timur.mobi) and if so, start install
 				// TODO Andr12 does not receive this / DownloadManager.ACTION_DOWNLOAD_COMPLETE
-				Log.d(TAG, "onDownloadComplete "+intent.getAction());
+				WebCallLog.d(TAG, "onDownloadComplete "+intent.getAction());
 				long referenceId = intent.getLongExtra(DownloadManager.EXTRA_DOWNLOAD_ID, 0);
-				Log.d(TAG, "onDownloadComplete referenceId="+referenceId);
+				WebCallLog.d(TAG, "onDownloadComplete referenceId="+referenceId);
 
 				Uri fileUri = downloadManager.getUriForDownloadedFile(referenceId);
-				Log.d(TAG,"onDownloadComplete fileUri="+fileUri);
+				WebCallLog.d(TAG,"onDownloadComplete fileUri="+fileUri);
 
 				DownloadManager.Query downloadQuery = new DownloadManager.Query();
 				downloadQuery.setFilterById(referenceId);
 				Cursor cursor = downloadManager.query(downloadQuery);
 				if(!cursor.moveToFirst()) {
-					Log.d(TAG, "# onDownloadComplete cursor empty row");
+					WebCallLog.d(TAG, "# onDownloadComplete cursor empty row");
 					return;
 				}
 				// title is filename (not filedownloadUrl)
 				String title = cursor.getString(cursor.getColumnIndex(DownloadManager.COLUMN_TITLE));
 				if(title==null) {
-					Log.d(TAG, "# onDownloadComplete title==null");
+					WebCallLog.d(TAG, "# onDownloadComplete title==null");
 					return;
 				}
-				Log.d(TAG, "onDownloadComplete title="+title);
+				WebCallLog.d(TAG, "onDownloadComplete title="+title);
 				if(/*title.indexOf("//timur.mobi/")<0 ||*/ !title.endsWith(".apk")) {
-					//Log.d(TAG, "not an apk from timur.mobi. do not install.");
-					Log.d(TAG, "not an apk - do not install");
+					//WebCallLog.d(TAG, "not an apk from timur.mobi. do not install.");
+					WebCallLog.d(TAG, "not an apk - do not install");
 					return;
 				}
 
 				// find out if download status==success
 				int status = -123;
 				int columnIndex = cursor.getColumnIndex(DownloadManager.COLUMN_STATUS);
-				Log.d(TAG, "onDownloadComplete columnIndex="+columnIndex);
+				WebCallLog.d(TAG, "onDownloadComplete columnIndex="+columnIndex);
 				try {
 					status = cursor.getInt(columnIndex);
 					//column for reason code if the download failed or paused
 					//int columnReason = cursor.getColumnIndex(DownloadManager.COLUMN_REASON);
 					//int reason = cursor.getInt(columnReason);
-					Log.d(TAG, "onDownloadComplete success="+(status==DownloadManager.STATUS_SUCCESSFUL));
+					WebCallLog.d(TAG, "onDownloadComplete success="+(status==DownloadManager.STATUS_SUCCESSFUL));
 				} catch(Exception ex) {
-					Log.d(TAG, "# onDownloadComplete ex="+ex);
+					WebCallLog.d(TAG, "# onDownloadComplete ex="+ex);
 					Toast.makeText(activity,"Starting download "+title, Toast.LENGTH_LONG).show();
 				}
 				if(status!=DownloadManager.STATUS_SUCCESSFUL) {
-					Log.d(TAG, "# onDownloadComplete status="+status+" not success");
+					WebCallLog.d(TAG, "# onDownloadComplete status="+status+" not success");
 					Toast.makeText(activity,"APK downloaded. Cannot offer install. status="+status,
 						Toast.LENGTH_LONG).show();
 					return;
@@ -642,15 +626,15 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 				installIntent.putExtra(Intent.EXTRA_NOT_UNKNOWN_SOURCE, true);
 				installIntent.setDataAndType(fileUri, downloadManager.getMimeTypeForDownloadedFile(referenceId));
 				try {
-					Log.d(TAG, "onDownloadComplete startActivity(installIntent)");
+					WebCallLog.d(TAG, "onDownloadComplete startActivity(installIntent)");
 					startActivity(installIntent);
 				} catch(Exception ex) {
-					Log.d(TAG, "# onDownloadComplete startActivity(installIntent) ex="+ex);
+					WebCallLog.d(TAG, "# onDownloadComplete startActivity(installIntent) ex="+ex);
 					Toast.makeText(activity,"APK downloaded. Cannot offer to install.", Toast.LENGTH_LONG).show();
 				}
 			}
 		};
-		Log.d(TAG, "onCreate registerReceiver onDownloadComplete");
+		WebCallLog.d(TAG, "onCreate registerReceiver onDownloadComplete");
 		registerReceiver(onDownloadComplete, new IntentFilter(DownloadManager.ACTION_DOWNLOAD_COMPLETE));
 
 		/* for testing/verification only
@@ -658,7 +642,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		final Runnable runnable2 = new Runnable() {
 			public void run() {
 				if(downloadReference==0) {
-					Log.d(TAG, "# ContentObserver RUN abort: no downloadReference");
+					WebCallLog.d(TAG, "# ContentObserver RUN abort: no downloadReference");
 					return;
 				}
 
@@ -668,7 +652,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 				int count = c.getCount();
 				if(count == 0) {
 				    c.close();
-					Log.d(TAG, "# ContentObserver RUN abort: c.getCount() == 0");
+					WebCallLog.d(TAG, "# ContentObserver RUN abort: c.getCount() == 0");
 					return;
 				}
 				if(c.moveToFirst()) {
@@ -678,7 +662,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 					int size = c.getInt(c.getColumnIndex(DownloadManager.COLUMN_TOTAL_SIZE_BYTES));
 					int downloaded = c.getInt(c.getColumnIndex(DownloadManager.COLUMN_BYTES_DOWNLOADED_SO_FAR));
 
-					Log.d(TAG, "ContentObserver RUN status="+status+" "+reason+" "+size+" "+downloaded+" "+count);
+					WebCallLog.d(TAG, "ContentObserver RUN status="+status+" "+reason+" "+size+" "+downloaded+" "+count);
 							// status
 							// DownloadManager.STATUS_PENDING 1
 							// DownloadManager.STATUS_RUNNING 2
@@ -689,7 +673,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 							// DownloadManager.ERROR_INSUFFICIENT_SPACE
 				} while(c.moveToNext());
 				}
-				Log.d(TAG, "ContentObserver RUN done");
+				WebCallLog.d(TAG, "ContentObserver RUN done");
 			}
 		};
 
@@ -697,11 +681,11 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 			true, new android.database.ContentObserver(null) {
 				@Override
 				public void onChange(boolean selfChange) {
-					Log.d(TAG, "ContentObserver selfChange="+selfChange);
+					WebCallLog.d(TAG, "ContentObserver selfChange="+selfChange);
 					super.onChange(selfChange);
 
 					if(downloadManager==null) {
-						Log.d(TAG, "# ContentObserver abort: no downloadManager");
+						WebCallLog.d(TAG, "# ContentObserver abort: no downloadManager");
 						return;
 					}
 					scheduler.schedule(runnable2, 100l, TimeUnit.MILLISECONDS);
@@ -713,26 +697,26 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		serviceIntent.putExtra("onstart", "donothing");
 		if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) { // >= 26
 			// foreground service
-			Log.d(TAG, "onCreate startForegroundService");
+			WebCallLog.d(TAG, "onCreate startForegroundService");
 			startForegroundService(serviceIntent);
 		} else {
 			// regular service
-			Log.d(TAG, "onCreate startService");
+			WebCallLog.d(TAG, "onCreate startService");
 			startService(serviceIntent);
 		}
 
 		// here we bind the service, so that we can call startWebView()
-		Log.d(TAG, "onCreate bindService");
+		WebCallLog.d(TAG, "onCreate bindService");
 		bindService(serviceIntent, serviceConnection, Context.BIND_AUTO_CREATE);
 		// onServiceConnected -> webCallServiceBinder.startWebView()
 
-		Log.d(TAG, "onCreate registerForContextMenu");
+		WebCallLog.d(TAG, "onCreate registerForContextMenu");
 		registerForContextMenu(mainView);
 
 		if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) { // >=api23
 			String packageName = activity.getPackageName();
 			boolean ignoreOpti = powerManager.isIgnoringBatteryOptimizations(packageName);
-			Log.d(TAG, "onCreate isIgnoreBattOpti="+ignoreOpti);
+			WebCallLog.d(TAG, "onCreate isIgnoreBattOpti="+ignoreOpti);
 			if(!ignoreOpti) {
 				// battery optimizations must be deactivated
 				// this allows us to use a wakelock against doze
@@ -743,7 +727,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		}
 		onCreateIntent = getIntent();
 		if(extendedLogsFlag) {
-			Log.d(TAG, "onCreate done");
+			WebCallLog.d(TAG, "onCreate done");
 		}
 	}
 
@@ -753,20 +737,20 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 			// activity is connected to service (says nothing about connectivity to webcall server)
 			webCallServiceBinder = (WebCallService.WebCallServiceBinder)service;
 			if(webCallServiceBinder==null) {
-				Log.d(TAG, "onServiceConnected bind service failed");
+				WebCallLog.d(TAG, "onServiceConnected bind service failed");
 			} else {
 				// tell service that we are visible
 				activityVisible = true;
 				sendBroadcast(new Intent("serviceCmdReceiver").putExtra("activityVisible", "true"));
 
 				// immediately start our webview
-				Log.d(TAG, "onServiceConnected startWebView");
+				WebCallLog.d(TAG, "onServiceConnected startWebView");
 				myWebView.setBackgroundColor(Color.TRANSPARENT);
 				registerForContextMenu(myWebView);
 
 				String appCachePath = getCacheDir().getAbsolutePath();
 				if(extendedLogsFlag) {
-					Log.d(TAG, "onServiceConnected appCachePath "+appCachePath);
+					WebCallLog.d(TAG, "onServiceConnected appCachePath "+appCachePath);
 				}
 				WebSettings webSettings = myWebView.getSettings();
 				webSettings.setCacheMode(WebSettings.LOAD_CACHE_ELSE_NETWORK);
@@ -776,24 +760,15 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 				webSettings.setJavaScriptCanOpenWindowsAutomatically(true);
 				webCallServiceBinder.startWebView(myWebView);
 
-				if(dialIdIntent!=null) {
-					Log.d(TAG, "onServiceConnected dialId is set");
-					// only execute if we are on the main page
-					if(webCallServiceBinder.getCurrentUrl().indexOf("/callee/")>=0) {
-						// NOTE: we may not be logged in as callee yet
-						newIntent(dialIdIntent,"onServiceConnected");
-						dialIdIntent = null;
-					} else {
-						// not on the mainpage yet
-						// will process dialIdIntent in broadcastReceiver state = "connected"
-					}
-				}
+				// run the dialId() requests that came in before we were bound
+				serviceBound.set();
 			}
 		}
 
 		@Override
 		public void onServiceDisconnected(ComponentName name) {
-			Log.d(TAG, "onServiceDisconnected");
+			WebCallLog.d(TAG, "onServiceDisconnected");
+			serviceBound.clear();
 			if(webCallServiceBinder!=null) {
 				webCallServiceBinder=null;
 				unbindService(serviceConnection);	// wrong?
@@ -827,27 +802,27 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 	public void onCreateContextMenu(ContextMenu menu, View view,
 						ContextMenu.ContextMenuInfo menuInfo) {
 		if(webCallServiceBinder==null) {
-			Log.d(TAG,"onCreateContextMenu abort: no webCallServiceBinder");
+			WebCallLog.d(TAG,"onCreateContextMenu abort: no webCallServiceBinder");
 			return;
 		}
 
 		/* TODO?
 		// prevent the context menu while in-call
 		if(webCallServiceBinder.callInProgress()>0) {
-			Log.d(TAG,"onCreateContextMenu abort on callInProgress");
+			WebCallLog.d(TAG,"onCreateContextMenu abort on callInProgress");
 			return;
 		}
 		*/
 
 	    HitTestResult result = myWebView.getHitTestResult();
 		// result.getType(); 5=IMAGE_TYPE, 7=SRC_ANCHOR_TYPE
-		Log.d(TAG,"onCreateContextMenu result="+result+" "+result.getType()+" "+result.getExtra());
+		WebCallLog.d(TAG,"onCreateContextMenu result="+result+" "+result.getType()+" "+result.getExtra());
 		if(result.getType()==HitTestResult.SRC_ANCHOR_TYPE) {
 			// longpress on a link (use result.getExtra())
 			String clipText = result.getExtra();
 			if(clipText!=null && !clipText.equals("")) {
 				// 1. copy link to clipboard
-				Log.d(TAG, "broadcastReceiver clipText "+clipText);
+				WebCallLog.d(TAG, "broadcastReceiver clipText "+clipText);
 				ClipData clipData = ClipData.newPlainText(null,clipText);
 				ClipboardManager clipboard =
 					(ClipboardManager)getSystemService(Context.CLIPBOARD_SERVICE);
@@ -878,23 +853,23 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 
 			String webviewUrl = webCallServiceBinder.getCurrentUrl();
 			if(extendedLogsFlag) {
-				Log.d(TAG,"onCreateContextMenu currentUrl="+webviewUrl+" touchY="+touchY);
+				WebCallLog.d(TAG,"onCreateContextMenu currentUrl="+webviewUrl+" touchY="+touchY);
 			}
 			if(webviewUrl.indexOf("/callee/")<0) {
 				//if(extendedLogsFlag) {
-					Log.d(TAG,"onCreateContextMenu user is not on mainpage");
+					WebCallLog.d(TAG,"onCreateContextMenu user is not on mainpage");
 				//}
 			} else 
 /*
 			if(webviewUrl.indexOf("#")>0) {
 				//if(extendedLogsFlag) {
-					Log.d(TAG,"onCreateContextMenu user has iframe open");
+					WebCallLog.d(TAG,"onCreateContextMenu user has iframe open");
 				//}
 			} else 
 */
 			{
 				if(extendedLogsFlag) {
-					Log.d(TAG,"onCreateContextMenu user is on mainpage");
+					WebCallLog.d(TAG,"onCreateContextMenu user is on mainpage");
 				}
 				menu.setHeaderTitle("WebCall Android "+BuildConfig.VERSION_NAME);
 				if(!nearbyMode) {
@@ -962,7 +937,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 				}
 
 				if(writeExtStoragePermissionDenied) {
-					Log.d(TAG,"onCreateContextMenu writeExtStoragePermissionDenied");
+					WebCallLog.d(TAG,"onCreateContextMenu writeExtStoragePermissionDenied");
 				} else {
 					menu.add(none,menuCaptureLogs,none,R.string.msg_capture_logs);
 					if(lastLogfileName!=null) {
@@ -988,12 +963,12 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 	@Override
 	public boolean onContextItemSelected(MenuItem item) {
 		if(extendedLogsFlag) {
-			Log.d(TAG, "onContextItemSelected");
+			WebCallLog.d(TAG, "onContextItemSelected");
 		}
 		AdapterContextMenuInfo info = (AdapterContextMenuInfo)item.getMenuInfo();
 		int selectedItem = item.getItemId();
 		if(selectedItem==menuNearbyOn) {
-			Log.d(TAG, "onContextItemSelected menuNearbyOn");
+			WebCallLog.d(TAG, "onContextItemSelected menuNearbyOn");
 			if(Build.VERSION.SDK_INT <= Build.VERSION_CODES.P) {
 				// for Android 5-9 use NFC to deliver webcall link
 				// we may need to turn on NFC here
@@ -1002,7 +977,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 					nfcAdapter = NfcAdapter.getDefaultAdapter(this);
 				}
 				if(nfcAdapter == null) {
-					Log.d(TAG, "onContextItemSelected NfcAdapter not available");
+					WebCallLog.d(TAG, "onContextItemSelected NfcAdapter not available");
 				} else if(!nfcAdapter.isEnabled()) {
 					// ask user: should NFC adapter be activated?
 					AlertDialog.Builder alertbox = new AlertDialog.Builder(this);
@@ -1022,7 +997,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 					alertbox.show();
 				} else {
 					// NFC adapter is on
-					Log.d(TAG, "onContextItemSelected setNdefPushMessageCallback");
+					WebCallLog.d(TAG, "onContextItemSelected setNdefPushMessageCallback");
 					nfcAdapter.setNdefPushMessageCallback(this, this);
 					// createNdefMessage() will be called when nfc device toucg
 					Toast.makeText(activity, "NFC WebCall link is ready...", Toast.LENGTH_LONG).show();
@@ -1035,7 +1010,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 			return true;
 		}
 		if(selectedItem==menuNearbyOff) {
-			Log.d(TAG, "onContextItemSelected menuNearbyOff");
+			WebCallLog.d(TAG, "onContextItemSelected menuNearbyOff");
 			if(Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
 				// deactivate createNdefMessage()
 				nfcAdapter.setNdefPushMessageCallback(null, this);
@@ -1048,7 +1023,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 			return true;
 		}
 		if(selectedItem==menuRingOnSpeakerOn) {
-			Log.d(TAG, "onContextItemSelected turn ring_on_speaker On");
+			WebCallLog.d(TAG, "onContextItemSelected turn ring_on_speaker On");
 			if(webCallServiceBinder!=null) {
 				webCallServiceBinder.audioToSpeaker(1);
 				// audioToSpeaker() will generate a toast with the result
@@ -1056,7 +1031,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 			return true;
 		}
 		if(selectedItem==menuRingOnSpeakerOff) {
-			Log.d(TAG, "onContextItemSelected turn ring_on_speaker Off");
+			WebCallLog.d(TAG, "onContextItemSelected turn ring_on_speaker Off");
 			if(webCallServiceBinder!=null) {
 				webCallServiceBinder.audioToSpeaker(0);
 				// audioToSpeaker() will generate a toast with the result
@@ -1064,7 +1039,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 			return true;
 		}
 		if(selectedItem==menuBeepOnNoNetworkOn) {
-			Log.d(TAG, "onContextItemSelected turn beepOnLostNetwork On");
+			WebCallLog.d(TAG, "onContextItemSelected turn beepOnLostNetwork On");
 			if(webCallServiceBinder!=null) {
 				webCallServiceBinder.beepOnLostNetwork(1);
 				Toast.makeText(activity, "Beep-on-no-network has been activated", Toast.LENGTH_LONG).show();
@@ -1072,7 +1047,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 			return true;
 		}
 		if(selectedItem==menuBeepOnNoNetworkOff) {
-			Log.d(TAG, "onContextItemSelected turn beepOnLostNetwork Off");
+			WebCallLog.d(TAG, "onContextItemSelected turn beepOnLostNetwork Off");
 			if(webCallServiceBinder!=null) {
 				webCallServiceBinder.beepOnLostNetwork(0);
 				Toast.makeText(activity, "Beep-on-no-network has been deactivated", Toast.LENGTH_LONG).show();
@@ -1081,7 +1056,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		}
 
 		if(selectedItem==menuStartOnBootOn) {
-			Log.d(TAG, "onContextItemSelected turn startOnBoot On");
+			WebCallLog.d(TAG, "onContextItemSelected turn startOnBoot On");
 			if(webCallServiceBinder!=null) {
 				webCallServiceBinder.startOnBoot(1);
 				Toast.makeText(activity, "Start-on-boot has been activated", Toast.LENGTH_LONG).show();
@@ -1089,7 +1064,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 			return true;
 		}
 		if(selectedItem==menuStartOnBootOff) {
-			Log.d(TAG, "onContextItemSelected turn startOnBoot Off");
+			WebCallLog.d(TAG, "onContextItemSelected turn startOnBoot Off");
 			if(webCallServiceBinder!=null) {
 				webCallServiceBinder.startOnBoot(0);
 				Toast.makeText(activity, "Start-on-boot has been deactivated", Toast.LENGTH_LONG).show();
@@ -1098,7 +1073,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		}
 
 		if(selectedItem==menuWifiLockOn) {
-			Log.d(TAG, "onContextItemSelected turn WifiLock On");
+			WebCallLog.d(TAG, "onContextItemSelected turn WifiLock On");
 			if(webCallServiceBinder!=null) {
 				webCallServiceBinder.setWifiLock(1);
 				Toast.makeText(activity, "WifiLock has been activated", Toast.LENGTH_LONG).show();
@@ -1106,7 +1081,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 			return true;
 		}
 		if(selectedItem==menuWifiLockOff) {
-			Log.d(TAG, "onContextItemSelected turn WifiLock Off");
+			WebCallLog.d(TAG, "onContextItemSelected turn WifiLock Off");
 			if(webCallServiceBinder!=null) {
 				webCallServiceBinder.setWifiLock(0);
 				Toast.makeText(activity, "WifiLock has been deactivated", Toast.LENGTH_LONG).show();
@@ -1115,7 +1090,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		}
 
 		if(selectedItem==menuScreenForWifiOn) {
-			Log.d(TAG, "onContextItemSelected screenForWifiOn");
+			WebCallLog.d(TAG, "onContextItemSelected screenForWifiOn");
 			if(webCallServiceBinder!=null) {
 				webCallServiceBinder.screenForWifi(1);
 				Toast.makeText(activity, "Screen-for-WIFI has been activated", Toast.LENGTH_LONG).show();
@@ -1123,7 +1098,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 			return true;
 		}
 		if(selectedItem==menuScreenForWifiOff) {
-			Log.d(TAG, "onContextItemSelected screenForWifiOff");
+			WebCallLog.d(TAG, "onContextItemSelected screenForWifiOff");
 			if(webCallServiceBinder!=null) {
 				webCallServiceBinder.screenForWifi(0);
 				Toast.makeText(activity, "Screen-for-WIFI has been deactivated", Toast.LENGTH_LONG).show();
@@ -1132,7 +1107,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		}
 
 		if(selectedItem==menuProximitySensorOn) {
-			Log.d(TAG, "onContextItemSelected proximitySensorOn");
+			WebCallLog.d(TAG, "onContextItemSelected proximitySensorOn");
 			if(proximitySensorMode==0) {
 				if(proximitySensor!=null && sensorManager!=null) {
 					proximitySensorMode = 1;
@@ -1147,7 +1122,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 			return true;
 		}
 		if(selectedItem==menuProximitySensorOff) {
-			Log.d(TAG, "onContextItemSelected proximitySensorOff");
+			WebCallLog.d(TAG, "onContextItemSelected proximitySensorOff");
 			if(proximitySensorMode!=0) {
 				proximitySensorMode = 0;
 				if(proximitySensorEventListener!=null && sensorManager!=null) {
@@ -1163,7 +1138,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		}
 
 		if(selectedItem==menuProximityActionDim) {
-			Log.d(TAG, "onContextItemSelected menuProximityActionDim");
+			WebCallLog.d(TAG, "onContextItemSelected menuProximityActionDim");
 			if(proximitySensorAction==0) {
 				proximitySensorAction = 1;
 				SharedPreferences.Editor prefed = prefs.edit();
@@ -1174,7 +1149,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 			return true;
 		}
 		if(selectedItem==menuProximityActionOff) {
-			Log.d(TAG, "onContextItemSelected menuProximityActionOff");
+			WebCallLog.d(TAG, "onContextItemSelected menuProximityActionOff");
 			if(proximitySensorAction!=0) {
 				proximitySensorAction = 0;
 				SharedPreferences.Editor prefed = prefs.edit();
@@ -1187,23 +1162,23 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 
 		if(selectedItem==menuCaptureLogs) {
 			if(webCallServiceBinder==null) {
-				Log.d(TAG, "onContextItemSelected captureLogs, no webCallServiceBinder");
+				WebCallLog.d(TAG, "onContextItemSelected captureLogs, no webCallServiceBinder");
 				return true;
 			}
-			Log.d(TAG, "onContextItemSelected captureLogs");
+			WebCallLog.d(TAG, "onContextItemSelected captureLogs");
 			lastLogfileName = webCallServiceBinder.captureLogs();
-			Log.d(TAG, "onContextItemSelected captureLogs ("+lastLogfileName+")");
+			WebCallLog.d(TAG, "onContextItemSelected captureLogs ("+lastLogfileName+")");
 			//Toast.makeText(activity, "Logs were captured", Toast.LENGTH_LONG).show();
 			return true;
 		}
 		if(selectedItem==menuOpenLogs) {
-			Log.d(TAG, "onContextItemSelected menuOpenLogs");
+			WebCallLog.d(TAG, "onContextItemSelected menuOpenLogs");
 			if(lastLogfileName!=null) {
 				File file = new File(Environment.getExternalStorageDirectory() + "/" +
 					Environment.DIRECTORY_DOWNLOADS + "/"+ lastLogfileName);
 				Uri fileUri = FileProvider.getUriForFile(activity,
 					activity.getApplicationContext().getPackageName() + ".provider", file);
-				Log.d(TAG, "onContextItemSelected menuOpenLogs "+fileUri);
+				WebCallLog.d(TAG, "onContextItemSelected menuOpenLogs "+fileUri);
 				Intent intent = new Intent(Intent.ACTION_VIEW);
 				//intent.addCategory(Intent.CATEGORY_OPENABLE);
 				intent.setDataAndType(fileUri, "text/plain");
@@ -1214,10 +1189,10 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		}
 		if(selectedItem==menuExtendedLogsOn) { // not being used at this time
 			if(webCallServiceBinder==null) {
-				Log.d(TAG, "onContextItemSelected extended logs on, no webCallServiceBinder");
+				WebCallLog.d(TAG, "onContextItemSelected extended logs on, no webCallServiceBinder");
 				return true;
 			}
-			Log.d(TAG, "onContextItemSelected extended logs On");
+			WebCallLog.d(TAG, "onContextItemSelected extended logs On");
 			if(webCallServiceBinder.extendedLogs(1)) {
 				extendedLogsFlag = true;
 				Toast.makeText(activity, "Extended logs are on", Toast.LENGTH_LONG).show();
@@ -1226,10 +1201,10 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		}
 		if(selectedItem==menuExtendedLogsOff) { // not being used at this time
 			if(webCallServiceBinder==null) {
-				Log.d(TAG, "onContextItemSelected extended logs on, no webCallServiceBinder");
+				WebCallLog.d(TAG, "onContextItemSelected extended logs on, no webCallServiceBinder");
 				return true;
 			}
-			Log.d(TAG, "onContextItemSelected extended logs Off");
+			WebCallLog.d(TAG, "onContextItemSelected extended logs Off");
 			if(!webCallServiceBinder.extendedLogs(0)) {
 				extendedLogsFlag = false;
 				Toast.makeText(activity, "Extended logs are off", Toast.LENGTH_LONG).show();
@@ -1242,7 +1217,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 
 	@Override
 	public NdefMessage createNdefMessage(NfcEvent event) {
-		Log.d(TAG, "onCreate createNdefMessage");
+		WebCallLog.d(TAG, "onCreate createNdefMessage");
 		if(prefs==null) {
 			return null;
 		}
@@ -1255,7 +1230,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 
 	@Override
 	public void onRestart() {
-		Log.d(TAG, "onRestart");
+		WebCallLog.d(TAG, "onRestart");
 		super.onRestart();
 	}
 
@@ -1263,10 +1238,10 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 	public void onStart() {
 		super.onStart();
 		if(startupFail) {
-			Log.d(TAG, "onStart abort on startupFail");
+			WebCallLog.d(TAG, "onStart abort on startupFail");
 			return;
 		}
-		Log.d(TAG, "onStart");
+		WebCallLog.d(TAG, "onStart");
 
 		activityVisible = true;
 
@@ -1294,14 +1269,14 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 	@Override
 	public void onNewIntent(Intent intent) {
 		// this is needed if the activity is running already when the request comes in (most usual scenario)
-		Log.d(TAG, "onNewIntent");
+		WebCallLog.d(TAG, "onNewIntent");
 		newIntent(intent,"onNewIntent");
 	}
 
 	@Override
 	public void onPause() {
 		if(extendedLogsFlag) {
-			Log.d(TAG, "onPause");
+			WebCallLog.d(TAG, "onPause");
 		}
 		activityVisible = false;
 		// tell service that we are not visible
@@ -1310,11 +1285,11 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 
 		if(proximitySensorMode>0) {
 			if(sensorManager!=null && proximitySensorEventListener!=null) {
-				Log.d(TAG, "onPause sensorManager.unregisterListener");
+				WebCallLog.d(TAG, "onPause sensorManager.unregisterListener");
 				proximityAway("onPause");
 				sensorManager.unregisterListener(proximitySensorEventListener);
 			} else {
-				Log.d(TAG, "onPause no unregisterListener");
+				WebCallLog.d(TAG, "onPause no unregisterListener");
 			}
 		}
 	}
@@ -1322,7 +1297,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 	@Override
 	public void onResume() {
 		if(extendedLogsFlag) {
-			Log.d(TAG, "onResume");
+			WebCallLog.d(TAG, "onResume");
 		}
 		super.onResume();
 
@@ -1331,35 +1306,35 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		sendBroadcast(new Intent("serviceCmdReceiver").putExtra("activityVisible", "true"));
 
 		if(powerManager==null) {
-			Log.d(TAG, "onResume powerManager==null");
+			WebCallLog.d(TAG, "onResume powerManager==null");
 			return;
 		}
 		if(wakeLockProximity==null) {
 			wakeLockProximity = powerManager.newWakeLock(PowerManager.PROXIMITY_SCREEN_OFF_WAKE_LOCK, TAG);
 		}
 		if(wakeLockProximity==null) {
-			Log.d(TAG, "onResume wakeLockProximity==null");
+			WebCallLog.d(TAG, "onResume wakeLockProximity==null");
 			return;
 		}
 
 		if(proximitySensorMode==0) {
-			//Log.d(TAG,"onResume proximitySensorEventListener not registered: proximitySensorMode==0");
+			//WebCallLog.d(TAG,"onResume proximitySensorEventListener not registered: proximitySensorMode==0");
 		} else if(proximitySensor==null) {
-			Log.d(TAG,"onResume proximitySensorEventListener not registered: proximitySensor==null");
+			WebCallLog.d(TAG,"onResume proximitySensorEventListener not registered: proximitySensor==null");
 		} else if(sensorManager==null) {
-			Log.d(TAG,"onResume proximitySensorEventListener not registered: sensorManager==null");
+			WebCallLog.d(TAG,"onResume proximitySensorEventListener not registered: sensorManager==null");
 		} else if(proximitySensorEventListener==null) {
-			Log.d(TAG,"onResume proximitySensorEventListener not registered: proximitySensorEventListener==null");
+			WebCallLog.d(TAG,"onResume proximitySensorEventListener not registered: proximitySensorEventListener==null");
 		} else {
 			sensorManager.registerListener(proximitySensorEventListener, proximitySensor,
 				SensorManager.SENSOR_DELAY_NORMAL);
-			Log.d(TAG,"onResume proximitySensorEventListener registered");
+			WebCallLog.d(TAG,"onResume proximitySensorEventListener registered");
 		}
 	}
 
 	@Override
 	public void onStop() {
-		Log.d(TAG, "onStop");
+		WebCallLog.d(TAG, "onStop");
 
 		activityVisible = false;
 		// tell service that we are not visible
@@ -1370,31 +1345,35 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 
 	@Override
 	protected void onDestroy() {
-		Log.d(TAG,"onDestroy");
+		WebCallLog.d(TAG,"onDestroy");
 
 		activityVisible = false;
 		// tell service that we are not visible
 		sendBroadcast(new Intent("serviceCmdReceiver").putExtra("activityVisible", "false"));
 
 		if(onDownloadComplete!=null) {
-			Log.d(TAG, "onDestroy unregisterReceiver onDownloadComplete");
+			WebCallLog.d(TAG, "onDestroy unregisterReceiver onDownloadComplete");
 			if(onDownloadComplete!=null) unregisterReceiver(onDownloadComplete);
 		}
 		if(broadcastReceiver!=null) {
-			Log.d(TAG, "onDestroy unregisterReceiver broadcastReceiver");
+			WebCallLog.d(TAG, "onDestroy unregisterReceiver broadcastReceiver");
 			unregisterReceiver(broadcastReceiver);
 			broadcastReceiver = null;
 			// -> WebCallService: activityDestroyed exitService()
 		}
+		// pending dialId() steps must not run on this activity any more
+		serviceBound.cancelWaiters();
 		if(webCallServiceBinder!=null) {
+			webCallServiceBinder.cancelWaiters();
 			// tell our service that the activity is being destroyed
 			webCallServiceBinder.activityDestroyed();
 			webCallServiceBinder = null;
-			Log.d(TAG, "onDestroy unbindService");
+			serviceBound.clear();
+			WebCallLog.d(TAG, "onDestroy unbindService");
 			unbindService(serviceConnection);
 		}
 		if(myNewWebView!=null) {
-			Log.d(TAG, "onDestroy myNewWebView.destroy()");
+			WebCallLog.d(TAG, "onDestroy myNewWebView.destroy()");
 			try {
 				myNewWebView.stopLoading();
 				myNewWebView.clearCache(true);
@@ -1408,12 +1387,12 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 				//myNewWebView.clearCache(true);
 				myNewWebView.destroy();
 			} catch(Exception ex) {
-				Log.d(TAG, "onDestroy myNewWebView.destroy ex="+ex);
+				WebCallLog.d(TAG, "onDestroy myNewWebView.destroy ex="+ex);
 			}
 			myNewWebView=null;
 		}
 		if(myWebView!=null) {
-			Log.d(TAG, "onDestroy myWebView.destroy()");
+			WebCallLog.d(TAG, "onDestroy myWebView.destroy()");
 			try {
 				myWebView.stopLoading();
 				myWebView.clearCache(true);
@@ -1427,7 +1406,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 				//myWebView.clearCache(true);
 				myWebView.destroy();
 			} catch(Exception ex) {
-				Log.d(TAG, "onDestroy myWebView.destroy ex="+ex);
+				WebCallLog.d(TAG, "onDestroy myWebView.destroy ex="+ex);
 			}
 			myWebView=null;
 			// TODO -> WebCallService: # serviceCmdReceiver skip on stopSelfFlag Intent { act=serviceCmdReceiver flg=0x10 (has extras) }
@@ -1454,7 +1433,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 
 		// we are using onBackPressed() below
 		//if(keyCode == KeyEvent.KEYCODE_BACK) {
-		//	Log.d(TAG, "onKeyDown KEYCODE_BACK");
+		//	WebCallLog.d(TAG, "onKeyDown KEYCODE_BACK");
 		//}
 
 		return super.onKeyDown(keyCode, event);
@@ -1462,7 +1441,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 
 	@Override
 	public boolean onKeyLongPress(int keyCode, KeyEvent event) {
-		Log.d(TAG, "onKeyLongPress");
+		WebCallLog.d(TAG, "onKeyLongPress");
 		if(keyCode != KeyEvent.KEYCODE_POWER) {
 			// any key other than power will un-dim the screen (if it was dimmed)
 			mParams.screenBrightness = -1f;
@@ -1475,9 +1454,9 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 
 	@Override
 	public void onBackPressed() {
-		Log.d(TAG, "onBackPressed");
+		WebCallLog.d(TAG, "onBackPressed");
 		if(myNewWebView!=null && myNewWebView.getVisibility()==View.VISIBLE) {
-			Log.d(TAG, "onBackPressed switch back to myWebView");
+			WebCallLog.d(TAG, "onBackPressed switch back to myWebView");
 			myWebView.setVisibility(View.VISIBLE);
 			myNewWebView.setVisibility(View.INVISIBLE);
 			myNewWebView.loadUrl("about:blank");
@@ -1485,14 +1464,14 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		}
 		if(webCallServiceBinder!=null) {
 			String webviewUrl = webCallServiceBinder.getCurrentUrl();
-			Log.d(TAG, "onBackPressed currentUrl="+webviewUrl);
+			WebCallLog.d(TAG, "onBackPressed currentUrl="+webviewUrl);
 			// we ONLY allow history.back() if the user is NOT on the basepage or the mainpage
 			// except there is a '#' in webviewUrl
 			if(webviewUrl!=null) {
 				if(webviewUrl.indexOf("#")>=0 || webviewUrl.indexOf("/callee/register")>=0 ||
 						webviewUrl.indexOf("/callee/mastodon")>=0 ||
 						(webviewUrl.indexOf("/callee/")<0 && webviewUrl.indexOf("/android_asset/")<0)) {
-					Log.d(TAG, "onBackPressed -> history.back()");
+					WebCallLog.d(TAG, "onBackPressed -> history.back()");
 					webCallServiceBinder.runJScode("history.back()");
 					return;
 				}
@@ -1504,21 +1483,21 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 
 				// isRinging() is set by callee.js via JS ringStart()
 				if(webCallServiceBinder.isRinging()) {
-					Log.d(TAG, "onBackPressed connectType="+connectType+" + isRinging -> deny moveTaskToBack()");
+					WebCallLog.d(TAG, "onBackPressed connectType="+connectType+" + isRinging -> deny moveTaskToBack()");
 					return;
 				}
 
-				Log.d(TAG, "onBackPressed connectType="+connectType+" -> moveTaskToBack()");
+				WebCallLog.d(TAG, "onBackPressed connectType="+connectType+" -> moveTaskToBack()");
 				moveTaskToBack(true);
 				return;
 			}
 
 			// service is NOT connected to webcall server: close activity
 			// (this will end our service as well)
-			Log.d(TAG, "onBackPressed connectType="+connectType+" -> destroy activity");
+			WebCallLog.d(TAG, "onBackPressed connectType="+connectType+" -> destroy activity");
 			finish();
 		} else {
-			Log.d(TAG, "onBackPressed webCallServiceBinder==null -> destroy activity");
+			WebCallLog.d(TAG, "onBackPressed webCallServiceBinder==null -> destroy activity");
 			finish();
 		}
 		// service is idle (not connected and not reconnecting)
@@ -1531,13 +1510,13 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 	public void onConfigurationChanged(Configuration newConfig) {
 		// accept all changes without restarting the activity
 		super.onConfigurationChanged(newConfig);
-		Log.d(TAG, "onConfigurationChanged "+newConfig+" "+getScreenOrientation());
+		WebCallLog.d(TAG, "onConfigurationChanged "+newConfig+" "+getScreenOrientation());
 	}
 
 	@Override
 	public void onActivityResult(int requestCode, int resultCode, Intent data) {
 		super.onActivityResult(requestCode, resultCode, data);
-		Log.d(TAG, "onActivityResult "+requestCode+" "+resultCode);
+		WebCallLog.d(TAG, "onActivityResult "+requestCode+" "+resultCode);
 		if(requestCode==FILE_REQ_CODE) {
 			Uri[] results = null;
 			if(resultCode == Activity.RESULT_OK) {
@@ -1552,14 +1531,14 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 				}
 
 				if(clipData != null) { // checking if multiple files selected or not
-					Log.d(TAG, "onActivityResult clipData+"+clipData);
+					WebCallLog.d(TAG, "onActivityResult clipData+"+clipData);
 					final int numSelectedFiles = clipData.getItemCount();
 					results = new Uri[numSelectedFiles];
 					for (int i = 0; i < clipData.getItemCount(); i++) {
 						results[i] = clipData.getItemAt(i).getUri();
 					}
 				} else {
-					Log.d(TAG, "onActivityResult stringData="+stringData);
+					WebCallLog.d(TAG, "onActivityResult stringData="+stringData);
 					try {
 						Bitmap cam_photo = (Bitmap) data.getExtras().get("data");
 						ByteArrayOutputStream bytes = new ByteArrayOutputStream();
@@ -1571,23 +1550,23 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 					Bundle bundle = data.getExtras();
 					if(bundle != null) {
 						for (String key : bundle.keySet()) {
-							Log.w("ExtraData",
+							WebCallLog.w("ExtraData",
 								key + " : " + (bundle.get(key) != null ? bundle.get(key) : "NULL"));
 						}
 					}*/
-					Log.d(TAG, "onActivityResult stringData2="+stringData);
+					WebCallLog.d(TAG, "onActivityResult stringData2="+stringData);
 					results = new Uri[]{Uri.parse(stringData)};
 				}
 			}
 
 			if(filePath!=null) {
 				// from activity WebChromeClient
-				Log.d(TAG, "onActivityResult onReceiveValue activity");
+				WebCallLog.d(TAG, "onActivityResult onReceiveValue activity");
 				filePath.onReceiveValue(results);
 				filePath = null;
 			} else {
 				// from service WebChromeClient
-				Log.d(TAG, "onActivityResult onReceiveValue service");
+				WebCallLog.d(TAG, "onActivityResult onReceiveValue service");
 				webCallServiceBinder.fileSelect(results);
 			}
 		}
@@ -1598,11 +1577,11 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 
 	private void newIntent(Intent intent, String comment) {
 		if(intent==null) {
-			Log.d(TAG, "newIntent ("+comment+") no intent");
+			WebCallLog.d(TAG, "newIntent ("+comment+") no intent");
 			return;
 		}
 
-		Log.d(TAG, "newIntent ("+comment+") ("+intent.getData()+") <"+intent.toString()+">");
+		WebCallLog.d(TAG, "newIntent ("+comment+") ("+intent.getData()+") <"+intent.toString()+">");
 		String wakeup = intent.getStringExtra("wakeup");
 		if(wakeup!=null) {
 			Date currentDate = new Date();
@@ -1612,11 +1591,12 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 			int ageSecs = (int)((ageMS+500)/1000);
 			if(ageSecs > 120) {
 				// wakeup intent denied based on age
-				Log.d(TAG, "! newIntent wakeup="+wakeup+" eventMS="+eventMS+" curMS="+currentMS+
+				WebCallLog.d(TAG, "! newIntent wakeup="+wakeup+" eventMS="+eventMS+" curMS="+currentMS+
 					" ageMS="+ageMS+" ageSecs="+ageSecs+" TOO OLD ("+comment+")");
 			} else {
 				// wakeup intent accepted
-				Log.d(TAG, "newIntent wakeup="+wakeup+" ageMS="+ageMS+" ageSecs="+ageSecs+" ("+comment+")");
+				WebCallLog.d(TAG, "newIntent wakeup="+wakeup+" ageMS="+ageMS+" ageSecs="+ageSecs+" ("+comment+")");
+				CallTracer.instant("newIntent wakeup");
 				activityWake(wakeup);
 			}
 			return;
@@ -1625,20 +1605,13 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		Uri uri = intent.getData();
 		if(uri!=null) {
 			String path = uri.getPath();
-			Log.d(TAG, "newIntent ("+comment+") path=("+path+")");
+			WebCallLog.d(TAG, "newIntent ("+comment+") path=("+path+")");
 
-			dialIdIntent = null;
 			int idxUser = path.indexOf("/user/");
 			if(idxUser>=0) {
-				if(webCallServiceBinder==null) {
-					Log.d(TAG, "newIntent dialId uri="+uri+" !webCallServiceBinder ("+comment+")");
-					dialIdIntent = intent;
-					lastSetDialId = System.currentTimeMillis();
-					// dialIdIntent will be executed in onServiceConnected
-				} else {
-					Log.d(TAG, "newIntent dialId uri="+uri+" webCallServiceBinder ("+comment+")");
-					dialId(uri,0);
-				}
+				// if we are not bound to the service yet, dialId() waits for onServiceConnected
+				WebCallLog.d(TAG, "newIntent dialId uri="+uri+" bound="+(webCallServiceBinder!=null)+" ("+comment+")");
+				dialId(uri,SystemClock.elapsedRealtime());
 				return;
 			}
 
@@ -1646,43 +1619,43 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 			if(idxCallee>=0) {
 				//if(path.endsWith("/callee/") || path.substring(idxCallee+8).indexOf("/")<0) {
 				//	// do NOT waitForBrowser (only bring activity to front)
-				//	Log.d(TAG, "newIntent no render path="+path);
+				//	WebCallLog.d(TAG, "newIntent no render path="+path);
 				//} else {
-				//	Log.d(TAG, "newIntent render path="+path);
-				//	waitForBrowser(uri,0);
+				//	WebCallLog.d(TAG, "newIntent render path="+path);
+				//	waitForBrowser(uri);
 				//	return;
 				//}
 
 				// /callee links only start the app, are not rendered
-				Log.d(TAG, "# newIntent ignore /callee/ path="+path);
+				WebCallLog.d(TAG, "# newIntent ignore /callee/ path="+path);
 				return;
 			}
 
-			Log.d(TAG, "# newIntent uri="+uri+" not processed ("+comment+")");
+			WebCallLog.d(TAG, "# newIntent uri="+uri+" not processed ("+comment+")");
 			return;
 		}
 
 		String action = intent.getAction();
 		String type = intent.getType();
 		if(Intent.ACTION_SEND.equals(action) && type != null) {
-			Log.d(TAG, "newIntent ACTION_SEND type="+type);
+			WebCallLog.d(TAG, "newIntent ACTION_SEND type="+type);
 			if("text/plain".equals(type)) {
 				String sharedText = intent.getStringExtra(Intent.EXTRA_TEXT);
 				if(sharedText != null) {
-					Log.d(TAG, "newIntent ACTION_SEND sharedText="+sharedText);
+					WebCallLog.d(TAG, "newIntent ACTION_SEND sharedText="+sharedText);
 					if(sharedText.startsWith("https://")) {
 						uri = Uri.parse(sharedText);
 						if(uri.getPath().startsWith("/callee/")) {
-							//Log.d(TAG, "newIntent ACTION_SEND browse path="+uri);
-							//waitForBrowser(uri,0);
+							//WebCallLog.d(TAG, "newIntent ACTION_SEND browse path="+uri);
+							//waitForBrowser(uri);
 
 							// /callee links only start the app, are not rendered
-							Log.d(TAG, "# newIntent ACTION_SEND ignore /callee path="+uri);
+							WebCallLog.d(TAG, "# newIntent ACTION_SEND ignore /callee path="+uri);
 						} else if(uri.getPath().startsWith("/user/")) {
-							Log.d(TAG, "newIntent ACTION_SEND dialId path="+uri);
-							dialId(uri,0);
+							WebCallLog.d(TAG, "newIntent ACTION_SEND dialId path="+uri);
+							dialId(uri,SystemClock.elapsedRealtime());
 						} else {
-							Log.d(TAG, "# newIntent ACTION_SEND ignore path="+uri.getPath());
+							WebCallLog.d(TAG, "# newIntent ACTION_SEND ignore path="+uri.getPath());
 						}
 					}
 				}
@@ -1690,32 +1663,30 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 			return;
 		}
 
-		Log.d(TAG, "newIntent done "+action+" "+type);
+		WebCallLog.d(TAG, "newIntent done "+action+" "+type);
 	}
 
-	private void waitForBrowser(Uri uri, int counter) {
+	private void waitForBrowser(final Uri uri) {
 		// webCallServiceBinder can be null, while connection to service is not established
-		Log.d(TAG, "waitForBrowser counter="+counter+" uri="+uri);
-		// if not connected to service or not connected to webcall server: delay
-
-		if(myWebView==null || myNewWebView==null || webCallServiceBinder==null) {
-			if(counter>=15) {
-				// after 15s give up
-				Log.d(TAG, "# waitForBrowser give up");
-			} else {
-				final Handler handler = new Handler(Looper.getMainLooper());
-				handler.postDelayed(new Runnable() {
-					@Override
-					public void run() {
-						waitForBrowser(uri,counter+1);
-					}
-				}, 1000);
+		WebCallLog.d(TAG, "waitForBrowser uri="+uri);
+		// if not connected to service: render once onServiceConnected is done
+		serviceBound.whenReady(new Runnable() {
+			@Override
+			public void run() {
+				if(myWebView==null || myNewWebView==null || webCallServiceBinder==null) {
+					WebCallLog.d(TAG, "# waitForBrowser no webview");
+					return;
+				}
+				WebCallLog.d(TAG, "waitForBrowser render="+uri.toString());
+				// open via myNewWebView
+				render(uri);
 			}
-		} else {
-			Log.d(TAG, "waitForBrowser render="+uri.toString());
-			// open via myNewWebView
-			render(uri);
-		}
+		}, dialTimeoutMS, new Runnable() {
+			@Override
+			public void run() {
+				WebCallLog.d(TAG, "# waitForBrowser give up");
+			}
+		});
 	}
 
 	private void storeByteArrayToFile(byte[] blobAsBytes, String filename) {
@@ -1731,12 +1702,12 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 			mimeType = "image/png";
 		}
 		*/
-		Log.d(TAG,"storeByteArrayToFile filename="+filename+" folder="+androidFolder+" mime="+mimeType);
+		WebCallLog.d(TAG,"storeByteArrayToFile filename="+filename+" folder="+androidFolder+" mime="+mimeType);
 
 		if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) { // <10 <api29
 			final File dwldsPath = new File(Environment.getExternalStoragePublicDirectory(
 				Environment.DIRECTORY_DOWNLOADS) + "/"+ filename);
-			Log.d(TAG,"store to "+dwldsPath+" (andr "+Build.VERSION.SDK_INT+" <28)");
+			WebCallLog.d(TAG,"store to "+dwldsPath+" (andr "+Build.VERSION.SDK_INT+" <28)");
 			int hasWriteStoragePermission = 0;
 			try {
 				FileOutputStream os = new FileOutputStream(dwldsPath, false);
@@ -1749,7 +1720,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 				sendBroadcast(intent);
 			} catch(Exception ex) {
 				// should never happen: activity fetches WRITE_EXTERNAL_STORAGE permission up front
-				Log.d(TAG,"store to ex="+ex);
+				WebCallLog.d(TAG,"store to ex="+ex);
 				Intent intent = new Intent("webcall");
 				intent.putExtra("toast", "exception "+ex);
 				sendBroadcast(intent);
@@ -1768,17 +1739,17 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 
 			try {
 				final Uri contentUri = MediaStore.Downloads.EXTERNAL_CONTENT_URI;
-				Log.d(TAG,"B store to "+contentUri+" (andr "+Build.VERSION.SDK_INT+" >=29)");
+				WebCallLog.d(TAG,"B store to "+contentUri+" (andr "+Build.VERSION.SDK_INT+" >=29)");
 				try {
 					uri = resolver.insert(contentUri, values);
 				} catch(Exception ex) {
-					Log.d(TAG,"resolver.insert ex="+ex);
+					WebCallLog.d(TAG,"resolver.insert ex="+ex);
 				}
 
 				if (uri == null)
 					throw new IOException("Failed to create new MediaStore record.");
 
-				Log.d(TAG,"C uri="+uri);
+				WebCallLog.d(TAG,"C uri="+uri);
 				try (final OutputStream os = resolver.openOutputStream(uri)) {
 					if (os == null) {
 						throw new IOException("Failed to open output stream.");
@@ -1794,7 +1765,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 				sendBroadcast(intent);
 			}
 			catch (IOException ex) {
-				Log.d(TAG,"storeByteArrayToFile ex="+ex);
+				WebCallLog.d(TAG,"storeByteArrayToFile ex="+ex);
 				if (uri != null) {
 					// Don't leave an orphan entry in the MediaStore
 					resolver.delete(uri, null, null);
@@ -1808,7 +1779,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 	}
 
 	private void simClickString(String simClick) {
-		Log.d(TAG, "simClick="+simClick);
+		WebCallLog.d(TAG, "simClick="+simClick);
 		String[] tokens = simClick.split(" ");
 		float leftFloat = Float.parseFloat(tokens[0]);	// left of input form
 		leftFloat += Float.parseFloat(tokens[4]);		// left of iframe
@@ -1816,7 +1787,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		topFloat += Float.parseFloat(tokens[5]);		// top of iframe
 		float webWidth = Float.parseFloat(tokens[6]);	// width of screen in web pixel
 		float webHeight = Float.parseFloat(tokens[7]);	// height of screen in web pixel
-		Log.d(TAG, "simClick "+leftFloat+" "+topFloat+" "+webWidth+" "+webHeight);
+		WebCallLog.d(TAG, "simClick "+leftFloat+" "+topFloat+" "+webWidth+" "+webHeight);
 
 		Rect rectangle = new Rect();
 		Window window = getWindow();
@@ -1826,14 +1797,14 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		Display mdisp = getWindowManager().getDefaultDisplay();
 		int maxX = mdisp.getWidth();
 		int maxY = mdisp.getHeight() + statusBarHeight;  // without height of statusbar
-		Log.d(TAG, "simClick screen width="+maxX+" height="+maxY+" statusBarHeight="+statusBarHeight);
+		WebCallLog.d(TAG, "simClick screen width="+maxX+" height="+maxY+" statusBarHeight="+statusBarHeight);
 
 		if(webHeight>0 && webWidth>0) {
-			Log.d(TAG, "simClick factor"+
+			WebCallLog.d(TAG, "simClick factor"+
 				" x="+(maxX / webWidth)+" y="+(maxY / webHeight));
 			leftFloat = leftFloat * (maxX / webWidth) + 10;
 			topFloat = topFloat * (maxY / webHeight) + statusBarHeight + 10;
-			Log.d(TAG, "simClick corrected left="+leftFloat+" top="+topFloat);
+			WebCallLog.d(TAG, "simClick corrected left="+leftFloat+" top="+topFloat);
 			simulateClick(leftFloat, topFloat);
 		}
 	}
@@ -1853,11 +1824,11 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		pc1.pressure = 1;
 		pc1.size = 1;
 		pointerCoords[0] = pc1;
-		//Log.d(TAG, "simulateClick pointerCoords="+pointerCoords);
+		//WebCallLog.d(TAG, "simulateClick pointerCoords="+pointerCoords);
 		MotionEvent motionEvent = MotionEvent.obtain(downTime, eventTime,
 		        MotionEvent.ACTION_DOWN, 1, properties,
 		        pointerCoords, 0,  0, 1, 1, 0, 0, 0, 0 );
-		Log.d(TAG, "simulateClick motionEvent="+motionEvent);
+		WebCallLog.d(TAG, "simulateClick motionEvent="+motionEvent);
 		dispatchTouchEvent(motionEvent);
 
 		motionEvent = MotionEvent.obtain(downTime, eventTime,
@@ -1867,10 +1838,10 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 	}
 
 	private void checkPermissions() {
-		Log.d(TAG, "checkPermissions");
+		WebCallLog.d(TAG, "checkPermissions");
 		if(ContextCompat.checkSelfPermission(this, Manifest.permission.RECORD_AUDIO)
 				!= PackageManager.PERMISSION_GRANTED) {
-			Log.d(TAG, "checkPermissions RECORD_AUDIO not yet granted");
+			WebCallLog.d(TAG, "checkPermissions RECORD_AUDIO not yet granted");
 			if(ActivityCompat.shouldShowRequestPermissionRationale(this, Manifest.permission.RECORD_AUDIO)) {
 				Toast.makeText(this, "Please grant permissions to record audio", Toast.LENGTH_LONG).show();
 			}
@@ -1881,7 +1852,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 
 		if(ContextCompat.checkSelfPermission(this, Manifest.permission.CAMERA)
 				!= PackageManager.PERMISSION_GRANTED) {
-			Log.d(TAG, "checkPermissions CAMERA not yet granted");
+			WebCallLog.d(TAG, "checkPermissions CAMERA not yet granted");
 			if(ActivityCompat.shouldShowRequestPermissionRationale(this, Manifest.permission.CAMERA)) {
 				Toast.makeText(this, "Please grant permissions to use camera", Toast.LENGTH_LONG).show();
 			}
@@ -1893,7 +1864,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		// get runtime permissions (will be executed only once)
 		if(ContextCompat.checkSelfPermission(this, Manifest.permission.WRITE_EXTERNAL_STORAGE)
 				!= PackageManager.PERMISSION_GRANTED) {
-			Log.d(TAG, "checkPermissions WRITE_EXTERNAL_STORAGE not yet granted");
+			WebCallLog.d(TAG, "checkPermissions WRITE_EXTERNAL_STORAGE not yet granted");
 			if(ActivityCompat.shouldShowRequestPermissionRationale(this,
 					Manifest.permission.WRITE_EXTERNAL_STORAGE)) {
 				Toast.makeText(this, "Please grant permissions to use ext storage", Toast.LENGTH_LONG).show();
@@ -1908,7 +1879,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		if(proximitySensorMode==0) {
 			return;
 		}
-		//Log.d(TAG, "proximityNear "+proximityNearFlag);
+		//WebCallLog.d(TAG, "proximityNear "+proximityNearFlag);
 		if(proximityNearFlag) {
 			return;
 		}
@@ -1917,13 +1888,13 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		if(webCallServiceBinder!=null) {
 			callInProgress = webCallServiceBinder.callInProgress();
 		}
-		//Log.d(TAG, "proximityNear "+proximityNearFlag+" callInProgress="+callInProgress);
+		//WebCallLog.d(TAG, "proximityNear "+proximityNearFlag+" callInProgress="+callInProgress);
 		if(callInProgress>0) {
-			Log.d(TAG, "SensorEvent near callInProgress="+callInProgress);
+			WebCallLog.d(TAG, "SensorEvent near callInProgress="+callInProgress);
 		}
 		if(callInProgress>1) {
 			// device is in-a-call: shut the screen on proximity
-			Log.d(TAG, "SensorEvent near, block screen");
+			WebCallLog.d(TAG, "SensorEvent near, block screen");
 			webviewBlocked = true;
 			screenOrientationLock("near");
 
@@ -1935,11 +1906,11 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 
 			if(proximitySensorAction==0) {
 				if(wakeLockProximity!=null && !wakeLockProximity.isHeld()) {
-					Log.d(TAG, "SensorEvent near, wakeLockProximity.acquire");
+					WebCallLog.d(TAG, "SensorEvent near, wakeLockProximity.acquire");
 					wakeLockProximity.acquire();
 				}
 			} else {
-				Log.d(TAG, "SensorEvent near, dim screen");
+				WebCallLog.d(TAG, "SensorEvent near, dim screen");
 				mParams.screenBrightness = 0.01f;
 				getWindow().setAttributes(mParams);
 			}
@@ -1953,7 +1924,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 				keyguardLock.disableKeyguard();
 			}
 		} else {
-			//Log.d(TAG, "SensorEvent near, but NO callInProgress");
+			//WebCallLog.d(TAG, "SensorEvent near, but NO callInProgress");
 		}
 	}
 
@@ -1961,7 +1932,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		if(proximitySensorMode==0) {
 			return;
 		}
-		//Log.d(TAG, "proximityAway "+proximityNearFlag+" "+from);
+		//WebCallLog.d(TAG, "proximityAway "+proximityNearFlag+" "+from);
 		if(!proximityNearFlag) {
 			return;
 		}
@@ -1971,16 +1942,16 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		if(webCallServiceBinder!=null) {
 			callInProgress = webCallServiceBinder.callInProgress();
 		}
-		//Log.d(TAG, "proximityAway "+proximityNearFlag+" "+from+" callInProgress="+callInProgress);
+		//WebCallLog.d(TAG, "proximityAway "+proximityNearFlag+" "+from+" callInProgress="+callInProgress);
 
 		if(wakeLockProximity!=null && wakeLockProximity.isHeld()) {
 			if(callInProgress>0) {
-				Log.d(TAG, "SensorEvent away from="+from+" wakeLockProximity.release");
+				WebCallLog.d(TAG, "SensorEvent away from="+from+" wakeLockProximity.release");
 			}
 			wakeLockProximity.release(PowerManager.RELEASE_FLAG_WAIT_FOR_NO_PROXIMITY);
 		} else {
 			if(callInProgress>0) {
-				Log.d(TAG, "SensorEvent away from="+from+", un-dim screen");
+				WebCallLog.d(TAG, "SensorEvent away from="+from+", un-dim screen");
 			}
 			mParams.screenBrightness = -1f;
 			getWindow().setAttributes(mParams);
@@ -1997,7 +1968,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		}
 
 		if(callInProgress>0) {
-			Log.d(TAG, "SensorEvent away from="+from+", unblock screen");
+			WebCallLog.d(TAG, "SensorEvent away from="+from+", unblock screen");
 		}
 
 		// do this with a little delay to avoid immediate touch events and screenOrientation change
@@ -2020,18 +1991,18 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		Display display = getWindowManager().getDefaultDisplay();
 		if(display.getWidth() < display.getHeight())
 			orientation = 1; // portrait
-		Log.d(TAG, "getScreenOrientation "+orientation);
+		WebCallLog.d(TAG, "getScreenOrientation "+orientation);
 		return orientation;
 	}
 
 	private void screenOrientationLock(String from) {
 		int currOrient = getScreenOrientation();
-		Log.d(TAG, "screenOrientationLock "+from+" currOrient="+currOrient);
+		WebCallLog.d(TAG, "screenOrientationLock "+from+" currOrient="+currOrient);
 		setRequestedOrientation(currOrient);
 	}
 
 	private void screenOrientationRelease(String from) {
-		Log.d(TAG, "screenOrientationRelease "+from);
+		WebCallLog.d(TAG, "screenOrientationRelease "+from);
 		setRequestedOrientation(ActivityInfo.SCREEN_ORIENTATION_UNSPECIFIED);
 	}
 
@@ -2073,11 +2044,11 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 	}
 
 	private void activityWake(String typeOfWakeup) {
-		Log.d(TAG, "activityWake typeOfWakeup="+typeOfWakeup);
+		WebCallLog.d(TAG, "activityWake typeOfWakeup="+typeOfWakeup);
 		if(typeOfWakeup.equals("wake")) {
 			// service detected a disconnected from webcall server
 			// put screen on + bring webcall activity to front (to help reconnect)
-			Log.d(TAG, "activityWake screen on + webcall to front");
+			WebCallLog.d(TAG, "activityWake screen on + webcall to front");
 			mParams.screenBrightness = 0.01f;
 			getWindow().setAttributes(mParams);
 			lastSetLowBrightness = System.currentTimeMillis();
@@ -2089,10 +2060,10 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 				@Override
 				public void run() {
 					if(webCallServiceBinder!=null) {
-						Log.d(TAG, "activityWake releaseWakeUpWakeLock");
+						WebCallLog.d(TAG, "activityWake releaseWakeUpWakeLock");
 						webCallServiceBinder.releaseWakeUpWakeLock();
 					} else {
-						Log.d(TAG, "activityWake releaseWakeUpWakeLock, no boundService");
+						WebCallLog.d(TAG, "activityWake releaseWakeUpWakeLock, no boundService");
 					}
 				}
 			}, 3000);
@@ -2100,18 +2071,24 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		} else if(typeOfWakeup.equals("call") || typeOfWakeup.equals("pickup")) {
 			// incoming call
 			if(wakeLockScreen!=null) {
-				Log.d(TAG, "activityWake type="+typeOfWakeup+" wakeLockScreen already held");
+				WebCallLog.d(TAG, "activityWake type="+typeOfWakeup+" wakeLockScreen already held");
 				// this can happen when we receive onStart, onStop, onStart in quick order
 				return;
 			}
-			Log.d(TAG, "activityWake type="+typeOfWakeup);
+			WebCallLog.d(TAG, "activityWake type="+typeOfWakeup);
+			long traceStartNS = CallTracer.now();
 			mParams.screenBrightness = -1f;
 			getWindow().setAttributes(mParams);
 
 			PowerManager powerManager = (PowerManager)getSystemService(Context.POWER_SERVICE);
 			wakeLockScreen = powerManager.newWakeLock(
 			  PowerManager.FULL_WAKE_LOCK|PowerManager.ACQUIRE_CAUSES_WAKEUP, "WebCall:WakelockScreen");
-			wakeLockScreen.acquire(3000);
+			if(webCallServiceBinder!=null) {
+				// the service tracks the held time of this lock (battery dashboard)
+				webCallServiceBinder.acquireWakeUpLock(wakeLockScreen, typeOfWakeup, 3000);
+			} else {
+				wakeLockScreen.acquire(3000);
+			}
 
 			if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.O_MR1) { // >= 27
 				setShowWhenLocked(true); // show activity on top of the lock screen
@@ -2131,36 +2108,109 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 				public void run() {
 					if(wakeLockScreen.isHeld()) {
 						if(extendedLogsFlag) {
-							Log.d(TAG, "activityWake delayed wakeLockScreen.release");
+							WebCallLog.d(TAG, "activityWake delayed wakeLockScreen.release");
+						}
+						if(webCallServiceBinder!=null) {
+							webCallServiceBinder.releaseWakeUpLock(wakeLockScreen, "activityWake");
+						} else {
+							wakeLockScreen.release();
 						}
-						wakeLockScreen.release();
 						wakeLockScreen = null;
 					}
 				}
 			}, 500);
 
 			if(typeOfWakeup.equals("pickup")) {
-				Log.d(TAG, "activityWake acceptCall");
+				WebCallLog.d(TAG, "activityWake acceptCall");
 				Intent intent = new Intent("serviceCmdReceiver");
 				intent.putExtra("acceptCall", "true");
 				sendBroadcast(intent);
 			} else { // type "call"
 				// switch to activity but do NOT pickup
 				// on Android10+ this will kick-start processWebRtcMessages()
-				Log.d(TAG, "activityWake showCall");
+				WebCallLog.d(TAG, "activityWake showCall");
 				Intent intent = new Intent("serviceCmdReceiver");
 				intent.putExtra("showCall", "true");
 				sendBroadcast(intent);
 			}
 
-			Log.d(TAG, "activityWake dismiss notification");
+			WebCallLog.d(TAG, "activityWake dismiss notification");
 			Intent intent = new Intent("serviceCmdReceiver");
 			intent.putExtra("dismissNotification", "true");
 			sendBroadcast(intent);
+			CallTracer.span("activityWake", traceStartNS);
 		}
 	}
 
-	private void dialId(final Uri uri, int counter) {
+	// whenOnMainPage() runs task as soon as we are bound to the service, its webview shows
+	// the callee main page and (if the callee wants to be online) the callee is logged in
+	// (right away if this is the case already);
+	// it gives up if we are not on the main page within dialTimeoutMS of intentAtMS;
+	// if only the login is missing by then, task runs anyway
+	private void whenOnMainPage(final long intentAtMS, final String what, final Runnable task) {
+		final Runnable giveUp = new Runnable() {
+			@Override
+			public void run() {
+				WebCallLog.d(TAG, "# "+what+" not on the main page, give up");
+			}
+		};
+		final Runnable onConnected = new Runnable() {
+			@Override
+			public void run() {
+				if(webCallServiceBinder==null) {
+					giveUp.run();
+					return;
+				}
+				task.run();
+			}
+		};
+		final Runnable onMainPage = new Runnable() {
+			@Override
+			public void run() {
+				if(webCallServiceBinder==null) {
+					giveUp.run();
+					return;
+				}
+				if(!webCallServiceBinder.connectToServerIsWanted()) {
+					task.run();
+					return;
+				}
+				// the page is there, but it may still be logging in (this replaces
+				// the former hand-over on the "connected" state broadcast)
+				long remainMS = intentAtMS + dialTimeoutMS - SystemClock.elapsedRealtime();
+				webCallServiceBinder.whenCalleeConnected(onConnected, remainMS, new Runnable() {
+					@Override
+					public void run() {
+						WebCallLog.d(TAG, "# "+what+" not logged in, dial anyway");
+						onConnected.run();
+					}
+				});
+			}
+		};
+		serviceBound.whenReady(new Runnable() {
+			@Override
+			public void run() {
+				if(webCallServiceBinder==null) {
+					giveUp.run();
+					return;
+				}
+				long remainMS = intentAtMS + dialTimeoutMS - SystemClock.elapsedRealtime();
+				webCallServiceBinder.whenMainPageLoaded(onMainPage, remainMS, giveUp);
+			}
+		}, intentAtMS + dialTimeoutMS - SystemClock.elapsedRealtime(), giveUp);
+	}
+
+	// dialDone() reports the time from the dial intent to the dial
+	private void dialDone(long intentAtMS) {
+		long ms = SystemClock.elapsedRealtime() - intentAtMS;
+		WebCallLog.d(TAG, "dialId done "+ms+"ms after intent");
+		if(webCallServiceBinder!=null) {
+			webCallServiceBinder.dialDone(ms);
+		}
+	}
+
+	private void dialId(final Uri uri, final long intentAtMS) {
+		// intentAtMS = SystemClock.elapsedRealtime() when the dial intent came in
 		// example uri (as string):
 		// https://timur.mobi/user/id?callerId=id&callerName=username&ds=false
 		String webcalldomain = prefs.getString("webcalldomain", "").toLowerCase(Locale.getDefault());
@@ -2174,12 +2224,11 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		String path = uri.getPath();
 		int idxUser = path.indexOf("/user/");
 		if(idxUser<0) {
-			Log.d(TAG, "# dialId no /user/ in uri");
+			WebCallLog.d(TAG, "# dialId no /user/ in uri");
 			return;
 		}
 
-		String dialId = path.substring(idxUser+6);
-		lastSetDialId = System.currentTimeMillis();	// ???
+		final String dialId = path.substring(idxUser+6);
 
 		// if uri points to the local server
 		if(hostport.equals(webcalldomain) || host.equals(webcalldomain)) {
@@ -2187,23 +2236,14 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 			// we can run caller-widget in an iframe via: runJScode(openDialId(dialId))
 			// we only hand over the target ID (aka dialId)
 			// note: only run this if we are on the main page
-			if(webCallServiceBinder==null || webCallServiceBinder.getCurrentUrl().indexOf("/callee/")<0) {
-				if(counter>=15) {
-					// after 15s give up
-					Log.d(TAG, "# dialId not on the main page give up, local uri="+uri);
-				} else {
-					final Handler handler = new Handler(Looper.getMainLooper());
-					handler.postDelayed(new Runnable() {
-						@Override
-						public void run() {
-							dialId(uri,counter+1);
-						}
-					}, 1000);
+			whenOnMainPage(intentAtMS, "dialId local uri="+uri, new Runnable() {
+				@Override
+				public void run() {
+					WebCallLog.d(TAG, "dialId openDialId local uri="+uri);
+					webCallServiceBinder.runJScode("openDialId('"+dialId+"')");
+					dialDone(intentAtMS);
 				}
-				return;
-			}
-			Log.d(TAG, "dialId openDialId local uri="+uri);
-			webCallServiceBinder.runJScode("openDialId('"+dialId+"')");
+			});
 			return;
 		}
 
@@ -2232,7 +2272,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 			iParamValue = (String)params.get("i");
 		}
 
-		Log.d(TAG, "dialId="+dialId+" host="+hostport+" iParam="+iParamValue+" own webcalldomain="+webcalldomain);
+		WebCallLog.d(TAG, "dialId="+dialId+" host="+hostport+" iParam="+iParamValue+" own webcalldomain="+webcalldomain);
 
 		/////////////////////////////////////////////////////////////
 		// STEP 1: if parameter "i" is NOT set -> open dial-id-dialog with callerId=select
@@ -2251,52 +2291,28 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 				}
 			}
 			uri = builder.build();
-			Log.d(TAG, "dialId remote "+uri.toString());
+			WebCallLog.d(TAG, "dialId remote "+uri.toString());
 			*/
-			if(webCallServiceBinder==null) {
-				// open dial-id-dialog only if service is running
-				if(counter>=15) {
-					// after 15s give up
-					Log.d(TAG, "# dialId no webCallServiceBinder give up");
-				} else {
-					final Handler handler = new Handler(Looper.getMainLooper());
-					handler.postDelayed(new Runnable() {
-						@Override
-						public void run() {
-							dialId(uri,counter+1);
-						}
-					}, 1000);
-				}
-				return;
-			}
-			if(webCallServiceBinder.getCurrentUrl().indexOf("/callee/")<0) {
-				// open dial-id-dialog only if we are on the main page
-				if(counter>=15) {
-					// after 15s give up
-					Log.d(TAG, "# dialId not on the main page give up "+webCallServiceBinder.getCurrentUrl());
-				} else {
-					final Handler handler = new Handler(Looper.getMainLooper());
-					handler.postDelayed(new Runnable() {
-						@Override
-						public void run() {
-							dialId(uri,counter+1);
-						}
-					}, 1000);
-				}
-				return;
-			}
+			// open dial-id-dialog only if service is running and we are on the main page
 			// dial-id-dialog does NOT require callerID=...
-			String newUrl = "/user/"+dialId +
+			final String newUrl = "/user/"+dialId +
 				"?targetHost="+hostport +
 				"&callerName="+(String)params.get("callerName") +
 				"&ds="+(String)params.get("ds") +
 				"&callerId=select";
-			Log.d(TAG, "dialId iframeWindowOpen "+newUrl);
-			webCallServiceBinder.runJScode("iframeWindowOpen('"+newUrl+"',false,'',false)");
+			whenOnMainPage(intentAtMS, "dialId remote uri="+uri, new Runnable() {
+				@Override
+				public void run() {
+					WebCallLog.d(TAG, "dialId iframeWindowOpen "+newUrl);
+					webCallServiceBinder.runJScode("iframeWindowOpen('"+newUrl+"',false,'',false)");
+					dialDone(intentAtMS);
+				}
+			});
 			// when uri comes back (sanitized) it will have &i= set
 			return;
 		}
 		render(uri);
+		dialDone(intentAtMS);
 	}
 
 	private void render(Uri uri) {
@@ -2306,7 +2322,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 		if(port>0) {
 			hostport += ":"+port;
 		}
-		Log.d(TAG, "render uri hostport="+hostport);
+		WebCallLog.d(TAG, "render uri hostport="+hostport);
 
 		// if iParamValue is non-empty, it is coming from dial-id (idSelect)
 		// STEP 2: open remote caller-widget in webview2 (aka myNewWebView)
@@ -2327,7 +2343,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
                 @Override
                 public void onDownloadStart(String url, String userAgent,
 						String contentDisposition, String mimetype, long contentLength) {
-					Log.d(TAG,"DownloadListener url="+url+" mime="+mimetype);
+					WebCallLog.d(TAG,"DownloadListener url="+url+" mime="+mimetype);
 					if(url.startsWith("blob:")) {
 						// this is for "downloading" files to disk, that were previously received from peer
 						String fetchBlobJS =
@@ -2355,7 +2371,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 							"    }" +
 							"};" +
 							"xhr.send();";
-						//Log.d(TAG,"DownloadListener fetchBlobJS="+fetchBlobJS);
+						//WebCallLog.d(TAG,"DownloadListener fetchBlobJS="+fetchBlobJS);
 						myNewWebView.loadUrl(fetchBlobJS);
 						// file will be stored in getBase64FromBlobData()
 					} else {
@@ -2364,7 +2380,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 						request.addRequestHeader("cookie",cookies);
 						request.addRequestHeader("User-Agent",userAgent);
 						String filename = URLUtil.guessFileName(url,contentDisposition,mimetype);
-						Log.d(TAG,"Downloading file="+filename);
+						WebCallLog.d(TAG,"Downloading file="+filename);
 						request.setDescription("Downloading File "+filename);
 						request.setTitle(filename);
 						request.setVisibleInDownloadsUi(true);
@@ -2389,7 +2405,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 				@Override
 				public boolean onConsoleMessage(ConsoleMessage cm) {
 					String msg = cm.message();
-					Log.d(TAG,"console: "+msg + " L"+cm.lineNumber());
+					WebCallLog.d(TAG,"console: "+msg + " L"+cm.lineNumber());
 					if(msg.startsWith("showNumberForm pos")) {
 						// showNumberForm pos 95.0390625 52.1953125 155.5859375 83.7421875 L1590
 						String simClick = msg.substring(19).trim();
@@ -2404,14 +2420,14 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 				public void onPermissionRequest(PermissionRequest request) {
 					String[] strArray = request.getResources();
 					for(int i=0; i<strArray.length; i++) {
-						Log.w(TAG, "onPermissionRequest "+i+" ("+strArray[i]+")");
+						WebCallLog.w(TAG, "onPermissionRequest "+i+" ("+strArray[i]+")");
 						// we only grant the permission we want to grant
 						if(strArray[i].equals("android.webkit.resource.AUDIO_CAPTURE") ||
 						   strArray[i].equals("android.webkit.resource.VIDEO_CAPTURE")) {
 							request.grant(strArray);
 							break;
 						}
-						Log.w(TAG, "onPermissionRequest unexpected "+strArray[i]);
+						WebCallLog.w(TAG, "onPermissionRequest unexpected "+strArray[i]);
 					}
 				}
 
@@ -2430,7 +2446,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 						FileChooserParams fileChooserParams) {
 					// ValueCallback filePath will be set from fileSelect()
 					filePath = filePathCallback;
-					Log.d(TAG, "onShowFileChooser filePath="+filePath+" (from input[type='file'])");
+					WebCallLog.d(TAG, "onShowFileChooser filePath="+filePath+" (from input[type='file'])");
 
 					// tell activity to open file selector
 					Intent intent = new Intent("webcall");
@@ -2448,7 +2464,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 				public boolean shouldOverrideUrlLoading(WebView view, String url) {
 					final Uri uri = Uri.parse(url);
 					boolean override = handleUri(uri);
-					Log.d(TAG, "! shouldOverrideUrlA "+url+" override="+override);
+					WebCallLog.d(TAG, "! shouldOverrideUrlA "+url+" override="+override);
 					return override;
 				}
 
@@ -2457,22 +2473,22 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 				public boolean shouldOverrideUrlLoading(WebView view, WebResourceRequest request) {
 					final Uri uri = request.getUrl();
 					boolean override = handleUri(uri);
-					Log.d(TAG, "! shouldOverrideUrlA "+uri+" override="+override);
+					WebCallLog.d(TAG, "! shouldOverrideUrlA "+uri+" override="+override);
 					return override;
 				}
 
 				private boolean handleUri(final Uri uri) {
-					//Log.i(TAG, "handleUri " + uri);
+					//WebCallLog.i(TAG, "handleUri " + uri);
 					//final String host = uri.getHost();
 					//final String scheme = uri.getScheme();
 					final String path = uri.getPath();
-					Log.d(TAG, "handleUri path="+path+" scheme="+uri.getScheme());
+					WebCallLog.d(TAG, "handleUri path="+path+" scheme="+uri.getScheme());
 
 					if(uri.getScheme().startsWith("file") ||
 							(uri.getScheme().startsWith("http") && path.indexOf("/callee/")>=0) ||
 							(uri.getScheme().startsWith("http") && path.indexOf("/webcall/update")>=0)) {
 						// "file:" and "http*://(anydomain)/callee/*" urls are processed in webview1
-						Log.d(TAG, "switch back to myWebView");
+						WebCallLog.d(TAG, "switch back to myWebView");
 			            // we want, for instance, /callee/contacts/store/ from a remote-host caller app
 						// to be processed locally in myWebView
 
@@ -2483,13 +2499,13 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 						// uri MUST NOT contain apostrophe
 						String encodedUrl = uri.toString().replace("'", "&#39;");
 						String jsStr = "iframeWindowOpen('"+encodedUrl+"',false,'height:95%;max-height:780px;',true);";
-						Log.d(TAG, "runJScode("+jsStr+")");
+						WebCallLog.d(TAG, "runJScode("+jsStr+")");
 						webCallServiceBinder.runJScode(jsStr);
 						return true; // do not load this url into myNewWebView
 					}
 
 					// uri NOT for webview1: ask activity to forward to ext browser (or our intent-filter)
-					Log.i(TAG, "handleUri uri not for myNewWebView; open in external browser ("+uri+")");
+					WebCallLog.i(TAG, "handleUri uri not for myNewWebView; open in external browser ("+uri+")");
 					Intent i = new Intent(Intent.ACTION_VIEW);
 					i.setData(uri);
 					startActivity(i);
@@ -2500,7 +2516,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 				@Override
 				public WebResourceResponse shouldInterceptRequest(WebView view, WebResourceRequest request) {
 					final Uri uri = request.getUrl();
-					//Log.i(TAG, "handleUri " + uri);
+					//WebCallLog.i(TAG, "handleUri " + uri);
 					//final String host = uri.getHost();
 					//final String scheme = uri.getScheme();
 					final String path = uri.getPath();
@@ -2508,56 +2524,20 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 						return null;
 					}
 
-					Log.d(TAG, "intercept "+uri.toString());
+					WebCallLog.d(TAG, "intercept "+uri.toString());
 					try {
 						URL url = new URL(uri.toString());
 
 						boolean insecureTlsFlag = webCallServiceBinder.getInsecureTlsFlag();
-						if(insecureTlsFlag) {
-							//Log.d(TAG,"intercept allow insecure https");
-							try {
-								TrustManager[] trustAllCerts = new TrustManager[] {
-									new X509TrustManager() {
-										public X509Certificate[] getAcceptedIssuers() {
-											X509Certificate[] myTrustedAnchors = new X509Certificate[0];
-											return myTrustedAnchors;
-										}
-										@Override
-										public void checkClientTrusted(X509Certificate[] certs, String authType) {}
-
-										@Override
-										public void checkServerTrusted(X509Certificate[] certs, String authType) {}
-									}
-								};
-								SSLContext sslContext = SSLContext.getInstance("TLS");
-								sslContext.init(null, trustAllCerts, new SecureRandom());
-								SSLSocketFactory factory = sslContext.getSocketFactory();
-								HttpsURLConnection.setDefaultSSLSocketFactory(factory);
-							} catch(Exception ex) {
-								Log.w(TAG,"# intercept allow insecure https ex="+ex);
-							}
-						}
-
-						//Log.d(TAG,"intercept openCon("+url+")");
+						//WebCallLog.d(TAG,"intercept openCon("+url+")");
 						HttpsURLConnection con = (HttpsURLConnection)url.openConnection();
 						con.setConnectTimeout(22000);
 						con.setReadTimeout(10000);
 						con.setRequestProperty("X-WcVer", BuildConfig.VERSION_NAME);
 						//con.setRequestProperty("X-WvVer", webCallServiceBinder.getWebviewVersion());
 
-						if(insecureTlsFlag) {
-							// avoid: "javax.net.ssl.SSLPeerUnverifiedException: Hostname 192.168.0.161 not verified"
-							// on reconnect on LineageOS
-							con.setHostnameVerifier(new HostnameVerifier() {
-								@Override
-								public boolean verify(String hostname, SSLSession session) {
-									//HostnameVerifier hv = new org.apache.http.conn.ssl.StrictHostnameVerifier();
-									//boolean ret = hv.verify("192.168.0.161", session);
-									//Log.d(TAG,"intercept HostnameVerifier accept "+hostname);
-									return true;
-								}
-							});
-						}
+						// shared tls factory (session resumption); insecureTlsFlag also accepts any hostname
+						WebCallTls.getInstance().prepare(con, insecureTlsFlag);
 						/*
 						if(myWebView!=null) {
 							// avoid Mulch webview crash
@@ -2567,20 +2547,20 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 							}
 						}
 						if(webviewCookies!=null) {
-							//Log.d(TAG,"intercept con.setRequestProperty(webviewCookies)");
+							//WebCallLog.d(TAG,"intercept con.setRequestProperty(webviewCookies)");
 							con.setRequestProperty("Cookie", webviewCookies);
 							storePrefsString("cookies", webviewCookies);
 						} else {
 							String newWebviewCookies = prefs.getString("cookies", "");
-							//Log.d(TAG,"intercept con.setRequestProperty(prefs:cookies)");
+							//WebCallLog.d(TAG,"intercept con.setRequestProperty(prefs:cookies)");
 							con.setRequestProperty("Cookie", newWebviewCookies);
 						}
 						*/
-						//Log.d(TAG,"intercept con.connect()");
+						//WebCallLog.d(TAG,"intercept con.connect()");
 						con.connect();
 						int status = con.getResponseCode();
 						if(status!=200) {
-							Log.d(TAG,"# intercept http login statusCode="+status+" fail");
+							WebCallLog.d(TAG,"# intercept http login statusCode="+status+" fail");
 						} else {
 							//Map<String,List<String>> headers = con.getHeaderFields();
 							String mime = con.getHeaderField("content-type"); // "text/plain; charset=utf-8"
@@ -2588,11 +2568,11 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 							int idxSemicolon = mime.indexOf(";");
 							if(idxSemicolon>=0) mime = mime.substring(0,idxSemicolon);
 							if(encoding==null) encoding="utf-8";
-							//Log.d(TAG,"intercept 200 ("+ mime+ ") ("+ encoding+")");
+							//WebCallLog.d(TAG,"intercept 200 ("+ mime+ ") ("+ encoding+")");
 							return new WebResourceResponse(mime, encoding, con.getInputStream());
 						}
 					} catch(Exception ex) {
-						Log.d(TAG, "# intercept "+uri+" Exception="+ex);
+						WebCallLog.d(TAG, "# intercept "+uri+" Exception="+ex);
 					}
 					//return null to tell WebView we failed to fetch it WebView should try again.
 					return null;
@@ -2613,7 +2593,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 
 					// only proceed if 1) InsecureTlsFlag is set
 					if(webCallServiceBinder.getInsecureTlsFlag()) {
-						Log.d(TAG, "onReceivedSslError (proceed) "+error);
+						WebCallLog.d(TAG, "onReceivedSslError (proceed) "+error);
 						handler.proceed();
 						return;
 					}
@@ -2641,14 +2621,14 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 					builder.setPositiveButton("continue", new DialogInterface.OnClickListener() {
 						@Override
 						public void onClick(DialogInterface dialog, int which) {
-							Log.d(TAG, "onReceivedSslError confirmed by user "+error);
+							WebCallLog.d(TAG, "onReceivedSslError confirmed by user "+error);
 							handler.proceed();
 						}
 					});
 					builder.setNegativeButton("cancel", new DialogInterface.OnClickListener() {
 						@Override
 						public void onClick(DialogInterface dialog, int which) {
-							Log.d(TAG, "# onReceivedSslError user canceled "+error);
+							WebCallLog.d(TAG, "# onReceivedSslError user canceled "+error);
 							handler.cancel();
 							//super.onReceivedSslError(view, handler, error);
 							// abort loading page: mimic onBackPressed()
@@ -2672,7 +2652,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 
 			// first, load local busy.html with running spinner (loads fast)
 			String urlString = uri.toString();
-			Log.d(TAG, "render load busy.html disp="+urlString);
+			WebCallLog.d(TAG, "render load busy.html disp="+urlString);
 			// display urlString with args cut off
 			int idxArgs = urlString.indexOf("?");
 			if(idxArgs>=0) {
@@ -2688,7 +2668,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 			handler.postDelayed(new Runnable() {
 				@Override
 				public void run() {
-					Log.d(TAG, "render load "+finalUrl.toString());
+					WebCallLog.d(TAG, "render load "+finalUrl.toString());
 					myNewWebView.loadUrl(finalUrl.toString());
 
 					handler.postDelayed(new Runnable() {
@@ -2707,7 +2687,7 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 			// myNewWebView will be closed in onBackPressed()
 		} catch(Exception ex) {
 			if(myWebView!=null) {
-				Log.d(TAG, "# dialId myNewWebView ex="+ex);
+				WebCallLog.d(TAG, "# dialId myNewWebView ex="+ex);
 				myWebView.setVisibility(View.VISIBLE);
 			}
 		}
@@ -2717,79 +2697,79 @@ public class WebCallCalleeActivity extends Activity implements CreateNdefMessage
 	private PackageInfo getCurrentWebViewPackageInfo() {
 		PackageInfo pInfo = null;
 		if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-			Log.d(TAG, "getCurrentWebViewPackageInfo for O+");
+			WebCallLog.d(TAG, "getCurrentWebViewPackageInfo for O+");
 			pInfo = WebView.getCurrentWebViewPackage();
 		} else {
 			try {
-				Log.d(TAG, "getCurrentWebViewPackageInfo for M+");
+				WebCallLog.d(TAG, "getCurrentWebViewPackageInfo for M+");
 				Class webViewFactory = Class.forName("android.webkit.WebViewFactory");
 				Method method = webViewFactory.getMethod("getLoadedPackageInfo");
 				pInfo = (PackageInfo)method.invoke(null);
 			} catch(Exception e) {
-				//Log.d(TAG, "getCurrentWebViewPackageInfo for M+ ex="+e);
+				//WebCallLog.d(TAG, "getCurrentWebViewPackageInfo for M+ ex="+e);
 			}
 			if(pInfo==null) {
 				try {
-					Log.d(TAG, "getCurrentWebViewPackageInfo for M+ (2)");
+					WebCallLog.d(TAG, "getCurrentWebViewPackageInfo for M+ (2)");
 					Class webViewFactory = Class.forName("com.google.android.webview.WebViewFactory");
 					Method method = webViewFactory.getMethod("getLoadedPackageInfo");
 					pInfo = (PackageInfo) method.invoke(null);
 				} catch(Exception e2) {
-					//Log.d(TAG, "getCurrentWebViewPackageInfo for M+ (2) ex="+e2);
+					//WebCallLog.d(TAG, "getCurrentWebViewPackageInfo for M+ (2) ex="+e2);
 				}
 			}
 			if(pInfo==null) {
 				try {
-					Log.d(TAG, "getCurrentWebViewPackageInfo for M+ (3)");
+					WebCallLog.d(TAG, "getCurrentWebViewPackageInfo for M+ (3)");
 					Class webViewFactory = Class.forName("com.android.webview.WebViewFactory");
 					Method method = webViewFactory.getMethod("getLoadedPackageInfo");
 					pInfo = (PackageInfo)method.invoke(null);
 				} catch(Exception e2) {
-					//Log.d(TAG, "getCurrentWebViewPackageInfo for M+ (3) ex="+e2);
+					//WebCallLog.d(TAG, "getCurrentWebViewPackageInfo for M+ (3) ex="+e2);
 				}
 			}
 		}
 		if(pInfo!=null) {
-			Log.d(TAG, "getCurrentWebViewPackageInfo pInfo set");
+			WebCallLog.d(TAG, "getCurrentWebViewPackageInfo pInfo set");
 		}
 		return pInfo;
 	}
 
 	@Override
 	public void onRequestPermissionsResult(int requestCode, String permissions[], int[] grantResults) {
-		Log.d(TAG, "onRequestPermissionsResult "+requestCode);
+		WebCallLog.d(TAG, "onRequestPermissionsResult "+requestCode);
 		switch(requestCode) {
 			case MY_PERMISSIONS_RECORD_AUDIO:
 				if(grantResults.length > 0 && grantResults[0] == PackageManager.PERMISSION_GRANTED) {
-					Log.d(TAG, "onRequestPermissionsResult RECORD_AUDIO granted "+grantResults.length);
+					WebCallLog.d(TAG, "onRequestPermissionsResult RECORD_AUDIO granted "+grantResults.length);
 					Toast.makeText(this, "Permission RECORD_AUDIO granted", Toast.LENGTH_SHORT).show();
 					checkPermissions();
 				} else {
-					Log.d(TAG, "onRequestPermissionsResult RECORD_AUDIO denied "+grantResults.length);
+					WebCallLog.d(TAG, "onRequestPermissionsResult RECORD_AUDIO denied "+grantResults.length);
 					Toast.makeText(this, "Permission RECORD_AUDIO denied", Toast.LENGTH_SHORT).show();
 				}
 				break;
 			case MY_PERMISSIONS_CAMERA:
 				if(grantResults.length > 0 && grantResults[0] == PackageManager.PERMISSION_GRANTED) {
-					Log.d(TAG, "onRequestPermissionsResult CAMERA granted");
+					WebCallLog.d(TAG, "onRequestPermissionsResult CAMERA granted");
 					Toast.makeText(this, "Permission CAMERA granted", Toast.LENGTH_SHORT).show();
 					checkPermissions();
 				} else {
-					Log.d(TAG, "onRequestPermissionsResult CAMERA denied");
+					WebCallLog.d(TAG, "onRequestPermissionsResult CAMERA denied");
 					Toast.makeText(this, "Permission CAMERA denied", Toast.LENGTH_SHORT).show();
 				}
 				break;
 			case MY_PERMISSIONS_WRITE_EXTERNAL_STORAGE:
-				Log.d(TAG, "grantResults.length="+grantResults.length);
+				WebCallLog.d(TAG, "grantResults.length="+grantResults.length);
 				if(grantResults.length > 0) {
-					Log.d(TAG, "grantResults[0]="+grantResults[0]+" "+PackageManager.PERMISSION_GRANTED);
+					WebCallLog.d(TAG, "grantResults[0]="+grantResults[0]+" "+PackageManager.PERMISSION_GRANTED);
 				}
 				if(grantResults.length > 0 && grantResults[0] == PackageManager.PERMISSION_GRANTED) {
-					Log.d(TAG, "onRequestPermissionsResult WRITE_EXTERNAL_STORAGE granted");
+					WebCallLog.d(TAG, "onRequestPermissionsResult WRITE_EXTERNAL_STORAGE granted");
 					Toast.makeText(this, "Permission WRITE_EXTERNAL_STORAGE granted", Toast.LENGTH_SHORT).show();
 					checkPermissions();
 				} else {
-					Log.d(TAG, "# onRequestPermissionsResult WRITE_EXTERNAL_STORAGE denied");
+					WebCallLog.d(TAG, "# onRequestPermissionsResult WRITE_EXTERNAL_STORAGE denied");
 					//Toast.makeText(this, "Permission WRITE_EXTERNAL_STORAGE denied", Toast.LENGTH_SHORT).show();
 					// when we get this, we should NOT offer "Capture logs now"
 					writeExtStoragePermissionDenied = true;
@@ -0,0 +1,278 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// WebCallLog is the logging facade for all WebCall classes (in place of android.util.Log).
+//
+// Levels are checked twice: compileLevel is a constant, so code guarded by "if(WebCallLog.V)" or
+// "if(WebCallLog.D)" is removed by the compiler for release builds that raise it; the runtime
+// level (setLevel(): VERBOSE with extendedLogsFlag, else DEBUG) is checked before any formatting is done.
+//
+// The parameterized methods only format when the line will actually be logged. "{}" is
+// replaced by the next argument, "{.n}" by its first n chars. Formatting goes into a per-thread
+// StringBuilder that is reused, so a suppressed line costs no allocation at all, and a logged
+// line only allocates the final String handed to the platform. Numeric arguments have long
+// overloads to avoid boxing.
+//
+// VERBOSE lines, and lines below WARN of the hot-path tags registered with limitRate(), are rate
+// limited to maxLinesPerSec per tag; suppressed lines are counted and reported with the next line
+// that passes. Other DEBUG and INFO lines are never dropped. Lines that pass are also handed to
+// the sink (if set).
+
+package timur.webcall.callee;
+
+import android.util.Log;
+
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class WebCallLog {
+	public static final int VERBOSE = Log.VERBOSE;
+	public static final int DEBUG = Log.DEBUG;
+	public static final int INFO = Log.INFO;
+	public static final int WARN = Log.WARN;
+	public static final int ERROR = Log.ERROR;
+
+	// raise compileLevel to drop guarded debug code from the build
+	public static final int compileLevel = DEBUG;
+	public static final boolean V = compileLevel <= VERBOSE;
+	public static final boolean D = compileLevel <= DEBUG;
+
+	private static final int maxLinesPerSec = 30;
+
+	public interface Sink {
+		// write() receives every line that is logged (msg is only valid during the call)
+		void write(int priority, String tag, CharSequence msg);
+	}
+
+	private static volatile int level = DEBUG;
+	private static volatile Sink sink = null;
+
+	private static final ThreadLocal<StringBuilder> buffers = new ThreadLocal<StringBuilder>() {
+		@Override
+		protected StringBuilder initialValue() {
+			return new StringBuilder(256);
+		}
+	};
+
+	// per tag: {second, lines in that second, suppressed lines}
+	private static final HashMap<String,long[]> rates = new HashMap<String,long[]>();
+	// tags whose DEBUG and INFO lines are rate limited as well
+	private static final ConcurrentHashMap<String,Boolean> limitedTags = new ConcurrentHashMap<String,Boolean>();
+
+	private WebCallLog() {
+	}
+
+	public static void setLevel(int newLevel) {
+		level = newLevel;
+	}
+
+	public static int getLevel() {
+		return level;
+	}
+
+	public static void setSink(Sink newSink) {
+		sink = newSink;
+	}
+
+	// limitRate() rate limits the DEBUG and INFO lines of tag (for tags that log per frame or per packet)
+	public static void limitRate(String tag) {
+		limitedTags.put(tag, Boolean.TRUE);
+	}
+
+	public static boolean isLoggable(int priority) {
+		return priority >= compileLevel && priority >= level;
+	}
+
+	// plain messages (the string is already built by the caller)
+
+	public static void v(String tag, String msg) {
+		if(isLoggable(VERBOSE)) {
+			emit(VERBOSE, tag, msg);
+		}
+	}
+
+	public static void d(String tag, String msg) {
+		if(isLoggable(DEBUG)) {
+			emit(DEBUG, tag, msg);
+		}
+	}
+
+	public static void i(String tag, String msg) {
+		if(isLoggable(INFO)) {
+			emit(INFO, tag, msg);
+		}
+	}
+
+	public static void w(String tag, String msg) {
+		if(isLoggable(WARN)) {
+			emit(WARN, tag, msg);
+		}
+	}
+
+	public static void e(String tag, String msg) {
+		if(isLoggable(ERROR)) {
+			emit(ERROR, tag, msg);
+		}
+	}
+
+	public static void e(String tag, String msg, Throwable tr) {
+		if(isLoggable(ERROR)) {
+			emit(ERROR, tag, msg+"\n"+Log.getStackTraceString(tr));
+		}
+	}
+
+	// parameterized messages (formatted only if logged)
+
+	public static void d(String tag, String fmt, Object a) {
+		if(isLoggable(DEBUG)) {
+			format(DEBUG, tag, fmt, 1, a, null, null, null, false, 0);
+		}
+	}
+
+	public static void d(String tag, String fmt, Object a, Object b) {
+		if(isLoggable(DEBUG)) {
+			format(DEBUG, tag, fmt, 2, a, b, null, null, false, 0);
+		}
+	}
+
+	public static void d(String tag, String fmt, Object a, Object b, Object c) {
+		if(isLoggable(DEBUG)) {
+			format(DEBUG, tag, fmt, 3, a, b, c, null, false, 0);
+		}
+	}
+
+	public static void d(String tag, String fmt, Object a, Object b, Object c, Object d) {
+		if(isLoggable(DEBUG)) {
+			format(DEBUG, tag, fmt, 4, a, b, c, d, false, 0);
+		}
+	}
+
+	// numeric variants: the long is the last argument and fills the placeholder after the objects
+	public static void d(String tag, String fmt, long n) {
+		if(isLoggable(DEBUG)) {
+			format(DEBUG, tag, fmt, 0, null, null, null, null, true, n);
+		}
+	}
+
+	public static void d(String tag, String fmt, Object a, long n) {
+		if(isLoggable(DEBUG)) {
+			format(DEBUG, tag, fmt, 1, a, null, null, null, true, n);
+		}
+	}
+
+	public static void d(String tag, String fmt, Object a, Object b, long n) {
+		if(isLoggable(DEBUG)) {
+			format(DEBUG, tag, fmt, 2, a, b, null, null, true, n);
+		}
+	}
+
+	public static void v(String tag, String fmt, Object a) {
+		if(isLoggable(VERBOSE)) {
+			format(VERBOSE, tag, fmt, 1, a, null, null, null, false, 0);
+		}
+	}
+
+	public static void v(String tag, String fmt, Object a, Object b) {
+		if(isLoggable(VERBOSE)) {
+			format(VERBOSE, tag, fmt, 2, a, b, null, null, false, 0);
+		}
+	}
+
+	public static void v(String tag, String fmt, Object a, Object b, Object c) {
+		if(isLoggable(VERBOSE)) {
+			format(VERBOSE, tag, fmt, 3, a, b, c, null, false, 0);
+		}
+	}
+
+	// format() replaces the placeholders of fmt with the objArgs object arguments a,b,c,d and then
+	// (if hasN) with n; placeholders without argument are dropped
+	private static void format(int priority, String tag, String fmt, int objArgs,
+			Object a, Object b, Object c, Object d, boolean hasN, long n) {
+		StringBuilder sb = buffers.get();
+		sb.setLength(0);
+		int argIdx = 0;
+		int len = fmt.length();
+		for(int i=0; i<len; i++) {
+			char ch = fmt.charAt(i);
+			if(ch=='{' && i+1<len) {
+				int close = fmt.indexOf('}', i+1);
+				if(close>0 && (close==i+1 || fmt.charAt(i+1)=='.')) {
+					int maxChars = -1;
+					if(close>i+2) {
+						maxChars = parseInt(fmt, i+2, close);
+					}
+					if(argIdx<objArgs) {
+						Object arg = argIdx==0 ? a : argIdx==1 ? b : argIdx==2 ? c : d;
+						appendArg(sb, arg, maxChars);
+					} else if(argIdx==objArgs && hasN) {
+						sb.append(n);
+					}
+					argIdx++;
+					i = close;
+					continue;
+				}
+			}
+			sb.append(ch);
+		}
+		emit(priority, tag, sb);
+	}
+
+	private static void appendArg(StringBuilder sb, Object arg, int maxChars) {
+		if(arg instanceof CharSequence) {
+			CharSequence cs = (CharSequence)arg;
+			int end = cs.length();
+			if(maxChars>=0 && end>maxChars) {
+				end = maxChars;
+			}
+			sb.append(cs, 0, end);
+		} else {
+			sb.append(arg);
+		}
+	}
+
+	private static int parseInt(String str, int start, int end) {
+		int val = 0;
+		for(int i=start; i<end; i++) {
+			char ch = str.charAt(i);
+			if(ch<'0' || ch>'9') {
+				return -1;
+			}
+			val = val*10 + (ch-'0');
+		}
+		return val;
+	}
+
+	private static void emit(int priority, String tag, CharSequence msg) {
+		long suppressed = 0;
+		if(priority==VERBOSE || (priority < WARN && limitedTags.containsKey(tag))) {
+			long second = System.currentTimeMillis()/1000;
+			synchronized(rates) {
+				long[] rate = rates.get(tag);
+				if(rate==null) {
+					rate = new long[3];
+					rates.put(tag, rate);
+				}
+				if(rate[0]!=second) {
+					rate[0] = second;
+					rate[1] = 0;
+				}
+				if(++rate[1] > maxLinesPerSec) {
+					rate[2]++;
+					return;
+				}
+				suppressed = rate[2];
+				rate[2] = 0;
+			}
+		}
+		String line;
+		if(suppressed>0) {
+			line = msg+" (+"+suppressed+" suppressed)";
+		} else {
+			line = msg.toString();
+		}
+		Log.println(priority, tag, line);
+		Sink currentSink = sink;
+		if(currentSink!=null) {
+			currentSink.write(priority, tag, line);
+		}
+	}
+}
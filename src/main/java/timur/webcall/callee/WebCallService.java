@@ -54,7 +54,6 @@ import android.os.BatteryManager;
 import android.os.Build;
 import android.os.Environment;
 import android.os.SystemClock;
-import android.util.Log;
 import android.util.Base64;
 import android.view.View;
 import android.view.WindowManager;
@@ -101,11 +100,8 @@ import android.graphics.Color;
 import android.provider.MediaStore;
 import android.provider.Settings;
 import android.media.RingtoneManager;
-import android.media.Ringtone;
 import android.media.ToneGenerator;
 import android.media.AudioManager;
-import android.media.MediaPlayer;
-import android.media.AudioAttributes;
 import android.Manifest;
 import android.annotation.SuppressLint;
 
@@ -138,6 +134,9 @@ import java.util.TimeZone;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.net.URI;
+import java.net.Socket;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.URISyntaxException;
@@ -149,16 +148,16 @@ import java.io.InputStream;
 import java.io.FileInputStream;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
+import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
 import java.io.IOException;
 import java.io.FileOutputStream;
 import java.io.OutputStream;
 import java.io.DataOutputStream;
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.ByteArrayInputStream;
-import java.util.LinkedList;
-import java.util.Queue;
 import java.lang.reflect.Method;
 
 import java.security.GeneralSecurityException;
@@ -181,11 +180,12 @@ import javax.net.ssl.SSLSocketFactory;
 // https://github.com/TooTallNate/Java-WebSocket
 import org.java_websocket.WebSocket;
 import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.client.DnsResolver;
 import org.java_websocket.drafts.Draft;
 import org.java_websocket.handshake.ServerHandshake;
 import org.java_websocket.framing.Framedata;
+import org.java_websocket.framing.PingFrame;
 import org.json.JSONObject;
-import org.json.JSONArray;
 
 import okhttp3.Call;
 import okhttp3.Callback;
@@ -206,6 +206,7 @@ public class WebCallService extends Service {
 	// on O+ NOTIF_ID* determines the priority, not PRIORITY_HIGH/LOW
 	private final static int NOTIF_ID1 = 1;  // -> NOTIF_LOW
 	private final static int NOTIF_ID2 = 2;  // -> NOTIF_HIGH
+	private final static int NOTIF_ID3 = 3;  // -> NOTIF_HIGH (incoming call for an extra identity)
 	private final static String NOTIF_LOW = "123";
 	private final static String NOTIF_HIGH = "124";
 
@@ -247,7 +248,12 @@ public class WebCallService extends Service {
 	private static PowerManager powerManager = null;
 	private static WifiManager wifiManager = null;
 	private static WifiManager.WifiLock wifiLock = null; // if connected and haveNetworkInt=2
-	private static Queue stringMessageQueue = new LinkedList<String>();
+	// signaling messages waiting for callee.js (candidates grouped per call)
+	private static final SignalingQueue signalingQueue = new SignalingQueue();
+	// the callers waiting for us (from waitingCallers|), keyed by CallerID
+	private static final WaitingCallerList waitingCallerList = new WaitingCallerList();
+	// the waiting caller NOTIF_ID2 currently shows (callerID, name, text), null if it shows none
+	private static volatile String waitingNotifKey = null;
 	private static ScheduledExecutorService scheduler = null;
 	private static Runnable reconnecter = null;
 	private static SharedPreferences prefs;
@@ -257,6 +263,8 @@ public class WebCallService extends Service {
 	private static ConnectivityManager connectivityManager = null;
 	private static ConnectivityManager.NetworkCallback myNetworkCallback = null;
 	private static NotificationManager notificationManager = null;
+	// posts the NOTIF_ID1 service notification (coalesced)
+	private static NotificationPresenter notificationPresenter = null;
 	private static DisplayManager displayManager = null;
 	private static String userAgentString = null;
 	private static AudioManager audioManager = null;
@@ -273,6 +281,26 @@ public class WebCallService extends Service {
 	// the websocket URL provided by the login service
 	private static volatile String wsAddr = "";
 
+	// fastWsAddr caches the last wsAddr handed out by the login service (and the cookie used for it)
+	// the reconnecter first tries to resume the WebSocket on it directly, without a login request
+	private static volatile String fastWsAddr = "";
+	private static volatile String fastWsCookie = "";
+	private static volatile long fastWsAddrTime = 0; // elapsedRealtime
+	private static volatile long fastResumeTime = 0; // elapsedRealtime of the last fast resume
+	private final static long fastWsAddrMaxAgeMS = 30*60*1000;
+	// a connection closed by the server this soon after a fast resume counts as rejection
+	private final static long fastResumeGraceMS = 5000;
+	private static volatile int fastReconnectFails = 0;
+	// reconnect latency per path (from reconnecter start)
+	private final static LatencyStats fastReconnectLatency = new LatencyStats("fast");
+	private final static LatencyStats loginReconnectLatency = new LatencyStats("login");
+	// time-to-reconnect: from losing the server connection until it is back
+	private final static LatencyStats outageLatency = new LatencyStats("outage");
+	// time-to-ring: from callerInfo|/callerOffer| until the ringtone plays
+	private final static LatencyStats ringLatency = new LatencyStats("ring");
+	private static volatile long disconnectedAtMS = 0; // elapsedRealtime, 0 = connected or offline
+	private static volatile long callerInfoAtMS = 0;   // elapsedRealtime of the last call arrival
+
 	// all ws-communications with and from the signalling server go through wsClient
 	protected static volatile WebSocketClient wsClient = null;
 
@@ -285,6 +313,12 @@ public class WebCallService extends Service {
 	// webviewMainPageLoaded is set true if currentUrl is pointing to the main page
 	private static volatile boolean webviewMainPageLoaded = false;
 
+	// readiness signals the activity can wait for (instead of polling getCurrentUrl())
+	private final static ReadySignal mainPageSignal = new ReadySignal("mainPage");
+	private final static ReadySignal calleeConnectedSignal = new ReadySignal("calleeConnected");
+	// from a deep-link dial intent to openDialId() or iframeWindowOpen() (reported by the activity)
+	private final static LatencyStats dialLatency = new LatencyStats("dial");
+
 	private static volatile boolean rtcConnectFlag = false;
 
 	// callPickedUpFlag is set from pickup until peerConnect, activates proximitySensor
@@ -329,17 +363,44 @@ public class WebCallService extends Service {
 
 	private static volatile boolean charging = false;
 
-	// alarmPendingDate holds the last time a (pending) alarm was scheduled
-	private static volatile Date alarmPendingDate = null;
-	private static volatile PendingIntent pendingAlarm = null;
+	// wakeScheduler owns keepAwakeWakeLock and the alarm; it coalesces wake work into few wakeups
+	private static volatile WakeScheduler wakeScheduler = null;
+	// wakeLockTracker measures held time of keepAwakeWakeLock and the activity's wake-up screen lock by reason
+	private static volatile WakeLockTracker wakeLockTracker = null;
+	// dnsCache resolves the login and websocket hosts (per network, with prefetch and stale-on-error)
+	private static volatile DnsCache dnsCache = null;
+	// endpointSelector picks the signaling server (webcalldomains) for each login, with failover
+	private static volatile EndpointSelector endpointSelector = null;
+	// the domain of the current loginUrl (selected by endpointSelector)
+	private static volatile String loginDomain = null;
+	// linkQuality measures rtt from our ws pings, detects missing pongs and server ping gaps
+	private static volatile LinkQualityEstimator linkQuality = null;
+	private static volatile long lastOwnPingMS = 0;
+	// on a healthy link, a server ping triggers an rtt sample at most every ownPingIntervalMS
+	// (stall detection does not wait for this: see scheduleLinkProbe())
+	private static final long ownPingIntervalMS = 5*60*1000;
+	private static volatile ScheduledFuture<?> linkProbeFuture = null;
+	// a link probe is not repeated sooner than this (ie. while a server ping stays overdue)
+	private static final long linkProbeRepeatMS = 20*1000;
+	// calleeIdentities keeps the extra callee IDs (prefs "extraIdentities") registered
+	private static volatile CalleeIdentities calleeIdentities = null;
+	// signalingMux routes tagged frames of the extra identities (prefs "signalingMux")
+	private static final SignalingMux signalingMux = new SignalingMux();
+	// the in-process log that captureLogs() exports
+	private static final RingLog ringLog = new RingLog();
+	// connectionRacer makes dual-stack (happy eyeballs) connects for the login and the websocket
+	private static volatile ConnectionRacer connectionRacer = null;
+	// pingCheckPeriodMS is the wake period of the "pingcheck" task; it may run pingCheckSlackMS early
+	private final static long pingCheckPeriodMS = 15*60*1000;
+	private final static long pingCheckSlackMS = 5*60*1000;
+	// a "reconnect" wake task may run this fraction of its delay early (if the device is awake anyway)
+	private final static int reconnectSlackDiv = 4;
 
 	private static volatile String webcallCookie = null;
 	private static volatile boolean soundNotificationPlayed = false;
 	private static volatile boolean extendedLogsFlag = false;
 	private static volatile boolean connectToServerIsWanted = false;
 	private static volatile long wakeUpFromDozeSecs = 0; // last wakeUpFromDoze() time
-	private static volatile long keepAwakeWakeLockStartTime = 0;
-	private static volatile int lastMinuteOfDay = 0;
 	private static volatile int proximityNear = -1;
 	private static volatile boolean insecureTlsFlag = false;
 
@@ -349,8 +410,6 @@ public class WebCallService extends Service {
 	private static volatile int setWifiLockMode = 0;
 	private static volatile int audioToSpeakerMode = 0;
 	private static volatile int screenForWifiMode = 0;
-	// keepAwakeWakeLockMS holds the sum of MS while keepAwakeWakeLock was held since midnight
-	private static volatile long keepAwakeWakeLockMS = 0;
 
 	private static volatile Lock lock = new ReentrantLock();
 
@@ -359,7 +418,22 @@ public class WebCallService extends Service {
 	private static volatile boolean activityVisible = false;
 	private static volatile boolean activityTerminated = true;	// TODO maybe it is (on start by tile)
 	private static volatile boolean autoPickup = false;
-	private static volatile MediaPlayer ringPlayer = null;
+	private static volatile RingEngine ringEngine = null;
+	// the last missedCalls| list, kept on disk for the page
+	private static MissedCallStore missedCallStore = null;
+	// the text chat history (handed over by the page); onDestroy() drops it while a JS interface
+	// thread may still use it, so it is read once into a local
+	private static volatile ChatStore chatStore = null;
+	// the incoming calls with per-caller aggregates (read once into a local, like chatStore)
+	private static volatile CallHistory callHistory = null;
+	// CallerID -> name from the callee's contacts, for the incoming call notification
+	private static ContactCache contactCache = null;
+	// pickup-to-audio: from the user accepting the call until peerConnect()
+	// There is no pre-warmed WebView to shorten this: the service drives exactly one page
+	// (myWebView, inflated by the activity and handed over via startWebView()); a second, parked
+	// callee page would run callee.js against the same WebSocket and JS interface.
+	private final static LatencyStats pickupLatency = new LatencyStats("pickup");
+	private static volatile long pickupAtMS = 0;       // elapsedRealtime
 	private static volatile boolean calleeIsReady = false;
 	private static volatile boolean calleeIsConnectedFlag = false;
 	private static volatile boolean stopSelfFlag = false;
@@ -376,6 +450,8 @@ public class WebCallService extends Service {
 	private Context context = null;
 	private static volatile boolean micMuteState = false;
 	private static volatile boolean processWebRtcMessagesRunning = false;
+	// set while CallTracer has an open "processWebRtcMessages" span
+	private static volatile boolean processWebRtcMessagesTraced = false;
 	private static volatile String postData = null;
 	private static volatile ServiceWorkerController serviceWorkerController = null;
 	private static volatile String contentSecurityPolicy = "";
@@ -399,23 +475,23 @@ public class WebCallService extends Service {
 		stopSelfFlag = false;
 		Binder mBinder = new WebCallServiceBinder();
 		boundServiceClients++;
-		Log.d(TAG,"onBind "+boundServiceClients+" "+intent.toString());
+		WebCallLog.d(TAG,"onBind "+boundServiceClients+" "+intent.toString());
 		return mBinder;
 	}
 
 	@Override
 	public boolean onUnbind(Intent intent) {
 		boundServiceClients--;
-		Log.d(TAG, "onUnbind "+boundServiceClients+" "+intent.toString());
+		WebCallLog.d(TAG, "onUnbind "+boundServiceClients+" "+intent.toString());
 		if(boundServiceClients>0) {
 			return true; // true: call onRebind(Intent) later when new clients bind
 		}
 		activityTerminated = true;
 		if(wsClient==null && !connectToServerIsWanted && !peerConnectFlag && !callPickedUpFlag) {
-			Log.d(TAG, "onUnbind: not connected, serverNotWanted -> exitService() ");
+			WebCallLog.d(TAG, "onUnbind: not connected, serverNotWanted -> exitService() ");
 			exitService();
 		} else {
-			Log.d(TAG, "onUnbind no exitService() wsClient="+(wsClient!=null));
+			WebCallLog.d(TAG, "onUnbind no exitService() wsClient="+(wsClient!=null));
 		}
 		return true; // true: call onRebind(Intent) later when new clients bind
 	}
@@ -425,29 +501,29 @@ public class WebCallService extends Service {
 		context = this;
 		boundServiceClients++;
 		stopSelfFlag = false;
-		Log.d(TAG,"onRebind "+boundServiceClients+" "+intent.toString());
+		WebCallLog.d(TAG,"onRebind "+boundServiceClients+" "+intent.toString());
 	}
 
 	@Override
 	public void onDestroy() {
-		Log.d(TAG, "---------- onDestroy wsClient="+(wsClient!=null));
+		WebCallLog.d(TAG, "---------- onDestroy wsClient="+(wsClient!=null));
 		if(alarmReceiver!=null) {
-			Log.d(TAG, "onDestroy unregisterReceiver alarmReceiver");
+			WebCallLog.d(TAG, "onDestroy unregisterReceiver alarmReceiver");
 			unregisterReceiver(alarmReceiver);
 			alarmReceiver = null;
 		}
 		if(powerConnectionReceiver!=null) {
-			Log.d(TAG, "onDestroy unregisterReceiver powerConnectionReceiver");
+			WebCallLog.d(TAG, "onDestroy unregisterReceiver powerConnectionReceiver");
 			unregisterReceiver(powerConnectionReceiver);
 			powerConnectionReceiver = null;
 		}
 		if(networkStateReceiver!=null) {
-			Log.d(TAG, "onDestroy unregisterReceiver networkStateReceiver");
+			WebCallLog.d(TAG, "onDestroy unregisterReceiver networkStateReceiver");
 			unregisterReceiver(networkStateReceiver);
 			networkStateReceiver = null;
 		}
 		if(dozeStateReceiver!=null) {
-			Log.d(TAG, "onDestroy unregisterReceiver dozeStateReceiver");
+			WebCallLog.d(TAG, "onDestroy unregisterReceiver dozeStateReceiver");
 			if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
 				unregisterReceiver(dozeStateReceiver);
 			}
@@ -455,29 +531,49 @@ public class WebCallService extends Service {
 		}
 		if(serviceCmdReceiver!=null) {
 			// java.lang.IllegalArgumentException: Receiver not registered: timur.webcall.callee.WebCallService
-			Log.d(TAG,"onDestroy unregisterReceiver serviceCmdReceiver");
+			WebCallLog.d(TAG,"onDestroy unregisterReceiver serviceCmdReceiver");
 			unregisterReceiver(serviceCmdReceiver);
 			serviceCmdReceiver = null;
 		}
+		if(calleeIdentities!=null) {
+			calleeIdentities.disconnectAll();
+		}
 		if(connectivityManager!=null && myNetworkCallback!=null) {
 			if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) { // >=api24
-				Log.d(TAG,"onDestroy unregisterNetworkCallback");
+				WebCallLog.d(TAG,"onDestroy unregisterNetworkCallback");
 				connectivityManager.unregisterNetworkCallback(myNetworkCallback);
 			}
 			myNetworkCallback = null;		// TODO no unregister?
 			connectivityManager = null;
 		}
 		if(wifiLock!=null && wifiLock.isHeld()) {
-			Log.d(TAG,"onDestroy wifiLock.release()");
+			WebCallLog.d(TAG,"onDestroy wifiLock.release()");
 			wifiLock.release();
 		}
 		connectToServerIsWanted = false; // to stop reconnecter
 		if(wsClient!=null) {
 			closeWsClient(false, "onDestroy");
 		}
-		if(keepAwakeWakeLock!=null && keepAwakeWakeLock.isHeld()) {
-			Log.d(TAG,"onDestroy keepAwakeWakeLock.release");
-			keepAwakeWakeLock.release();
+		if(wakeScheduler!=null) {
+			wakeScheduler.release("onDestroy");
+			wakeScheduler.saveReport();
+		}
+		if(ringEngine!=null) {
+			// ringEngine is kept (not nulled): a late startRinging(), beep or alarm from another
+			// thread may still use it, it will simply prepare its players again
+			ringEngine.release();
+		}
+		ChatStore oldChatStore = chatStore;
+		chatStore = null;
+		if(oldChatStore!=null) {
+			// writes the messages not yet stored
+			oldChatStore.close();
+		}
+		CallHistory oldCallHistory = callHistory;
+		callHistory = null;
+		if(oldCallHistory!=null) {
+			oldCallHistory.ended(false);
+			oldCallHistory.close();
 		}
 
 		//statusMessage("Service terminated",-1,true,false);
@@ -486,12 +582,12 @@ public class WebCallService extends Service {
 		postStatus("state", "deactivated");
 		currentUrl = null;
 		serviceDestroyed = true;
-		Log.d(TAG, "onDestroy done");
+		WebCallLog.d(TAG, "onDestroy done");
 	}
 
 	@Override
 	public void onTrimMemory(int level) {
-		Log.d(TAG, "onTrimMemory level="+level);
+		WebCallLog.d(TAG, "onTrimMemory level="+level);
 		// level==20 when activity moves to the background
 		super.onTrimMemory(level);
 	}
@@ -500,22 +596,23 @@ public class WebCallService extends Service {
 	public void onTaskRemoved(Intent rootIntent) {
 		// activity killed (webview gone), service still alive
 		super.onTaskRemoved(rootIntent);
-		Log.d(TAG, "onTaskRemoved "+rootIntent.toString()+" wsClient="+(wsClient!=null));
+		WebCallLog.d(TAG, "onTaskRemoved "+rootIntent.toString()+" wsClient="+(wsClient!=null));
 		closeWebView("onTaskRemoved");
 		activityVisible = false;
 		activityTerminated = true;
 		currentUrl = null;
 		System.gc();
 		if(wsClient==null && !connectToServerIsWanted && activityTerminated && !peerConnectFlag && !callPickedUpFlag) {
-			Log.d(TAG,"JS onTaskRemoved(), wsClient==null + serverNotWanted + activityKilled -> exitService()");
+			WebCallLog.d(TAG,"JS onTaskRemoved(), wsClient==null + serverNotWanted + activityKilled -> exitService()");
 			exitService();
 		}
-		Log.d(TAG, "onTaskRemoved done wsClient="+(wsClient!=null));
+		WebCallLog.d(TAG, "onTaskRemoved done wsClient="+(wsClient!=null));
 	}
 
 	@Override
 	public void onCreate() {
-		Log.d(TAG,"onCreate "+BuildConfig.VERSION_NAME+" "+Build.VERSION.SDK_INT+" wsClient="+(wsClient!=null));
+		WebCallLog.setSink(ringLog);
+		WebCallLog.d(TAG,"onCreate "+BuildConfig.VERSION_NAME+" "+Build.VERSION.SDK_INT+" wsClient="+(wsClient!=null));
 		stopSelfFlag = false;
 
 		alarmReceiver = new AlarmReceiver();
@@ -533,17 +630,17 @@ public class WebCallService extends Service {
 		serviceCmdReceiver = new BroadcastReceiver() {
 			@Override
 			public void onReceive(Context context, Intent intent) {
-				//Log.d(TAG, "serviceCmdReceiver intent="+intent.toUri(0));
+				//WebCallLog.d(TAG, "serviceCmdReceiver intent="+intent.toUri(0));
 				// list all extras
 				Bundle bundle = intent.getExtras();
 				if(bundle != null) {
 					for(String key : bundle.keySet()) {
-						Log.d(TAG,"serviceCmdReceiver key="+key+" val="+(bundle.get(key)!=null ? bundle.get(key) : "-"));
+						WebCallLog.v(TAG,"serviceCmdReceiver key={} val={}", key, bundle.get(key)!=null ? bundle.get(key) : "-");
 					}
 				}
 
 				if(stopSelfFlag) {
-					Log.d(TAG,"! serviceCmdReceiver skip on stopSelfFlag "+intent.toString());
+					WebCallLog.d(TAG,"! serviceCmdReceiver skip on stopSelfFlag "+intent.toString());
 					return;
 				}
 
@@ -554,7 +651,7 @@ public class WebCallService extends Service {
 						if(!activityVisible) {
 							activityVisible = true;
 							activityTerminated = false;
-							Log.d(TAG, "serviceCmdReceiver activityVisible true wsClient="+(wsClient!=null));
+							WebCallLog.d(TAG, "serviceCmdReceiver activityVisible true wsClient="+(wsClient!=null));
 							if(dozeIdleCounter>0) {
 								postDozeAction();
 							}
@@ -567,39 +664,66 @@ public class WebCallService extends Service {
 						}
 					} else {
 						if(activityVisible) {
-							Log.d(TAG, "serviceCmdReceiver activityVisible false wsClient="+(wsClient!=null));
+							WebCallLog.d(TAG, "serviceCmdReceiver activityVisible false wsClient="+(wsClient!=null));
 							activityVisible = false;
 						}
 					}
 					return;
 				}
 
+				message = intent.getStringExtra("switchIdentity");
+				if(message!=null && message!="") {
+					// user wants to pick up a call for an extra identity
+					WebCallLog.d(TAG, "serviceCmdReceiver switchIdentity "+message);
+					notificationManager.cancel(NOTIF_ID3);
+					stopRinging("switchIdentity");
+					switchIdentity(message);
+					return;
+				}
+
+				message = intent.getStringExtra("denyIdentityCall");
+				if(message!=null && message!="") {
+					// user rejected a call for an extra identity
+					WebCallLog.d(TAG, "serviceCmdReceiver denyIdentityCall "+message);
+					notificationManager.cancel(NOTIF_ID3);
+					stopRinging("denyIdentityCall");
+					calleeIdentities.send(message, "cancel|disconnect");
+					// become callee for the next caller
+					calleeIdentities.send(message, "init|");
+					return;
+				}
+
 				message = intent.getStringExtra("denyCall");
 				if(message!=null && message!="") {
 					// user responded to the call-notification dialog by rejecting the call
-					Log.d(TAG, "serviceCmdReceiver denyCall "+message);
+					WebCallLog.d(TAG, "serviceCmdReceiver denyCall "+message);
 
 					// stop secondary wakeIntents from rtcConnect()
 					peerDisconnnectFlag = true;
 
+					CallHistory history = callHistory;
+					if(history!=null) {
+						history.ended(true);
+					}
+
 					String deniedCallerID = intent.getStringExtra("denyID");
 					if(deniedCallerID!=null && deniedCallerID!="") {
-						Log.d(TAG, "serviceCmdReceiver deniedCallerID="+deniedCallerID);
+						WebCallLog.d(TAG, "serviceCmdReceiver deniedCallerID="+deniedCallerID);
 						// TODO add deniedCallerID to a list of rejected IDs
-						notificationManager.cancel(NOTIF_ID2);
+						cancelIncomingNotification();
 						return;
 					}
 
 					// disconnect caller / stop ringing
 					if(wsClient==null) {
-						Log.w(TAG,"# serviceCmdReceiver denyCall wsClient==null");
+						WebCallLog.w(TAG,"# serviceCmdReceiver denyCall wsClient==null");
 					} else if(myWebView!=null && webviewMainPageLoaded) {
-						Log.w(TAG,"serviceCmdReceiver denyCall runJS('hangup(musthangup,,userReject)')");
+						WebCallLog.w(TAG,"serviceCmdReceiver denyCall runJS('hangup(musthangup,,userReject)')");
 						runJS("hangup(true,true,'userReject')",null);
 					} else {
 						try {
 							// stop the caller
-							Log.w(TAG,"serviceCmdReceiver denyCall send cancel|disconnect");
+							WebCallLog.w(TAG,"serviceCmdReceiver denyCall send cancel|disconnect");
 							wsClient.send("cancel|disconnect");
 
 							stopRinging("serviceCmdReceiver denyCall");
@@ -607,22 +731,20 @@ public class WebCallService extends Service {
 							final Runnable runnable2 = new Runnable() {
 								public void run() {
 									// become callee for next caller
-									Log.w(TAG,"serviceCmdReceiver denyCall send init|");
+									WebCallLog.w(TAG,"serviceCmdReceiver denyCall send init|");
 									wsClient.send("init|");
 								}
 							};
 							scheduler.schedule(runnable2, 500l, TimeUnit.MILLISECONDS);
 
 						} catch(Exception ex) {
-							Log.w(TAG,"# serviceCmdReceiver denyCall ex="+ex);
+							WebCallLog.w(TAG,"# serviceCmdReceiver denyCall ex="+ex);
 						}
 					}
 
-					// clear queueWebRtcMessage / stringMessageQueue
-					Log.w(TAG,"serviceCmdReceiver denyCall clear stringMessageQueue");
-					while(!stringMessageQueue.isEmpty()) {
-						stringMessageQueue.poll();
-					}
+					// clear queueWebRtcMessage / signalingQueue
+					WebCallLog.w(TAG,"serviceCmdReceiver denyCall clear signalingQueue");
+					signalingQueue.clear();
 					return;
 				}
 
@@ -630,27 +752,28 @@ public class WebCallService extends Service {
 				if(message!=null && message!="") {
 					// user responded to the 3-button call-notification dialog by accepting the call
 					// this intent is coming from the started activity
+					pickupAtMS = SystemClock.elapsedRealtime();
 					if(myWebView!=null && webviewMainPageLoaded) {
 						if(currentUrl!=null && currentUrl.indexOf("#")>=0) {
-							Log.d(TAG, "serviceCmdReceiver close iframe");
+							WebCallLog.d(TAG, "serviceCmdReceiver close iframe");
 							runJS("history.back()",null);
 							// TODO what if multiple iframes are open
 						}
 						// autoPickup now
 //						if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
-//							Log.d(TAG, "serviceCmdReceiver processWebRtcMessages() + autoPickup on rtcConnect");
+//							WebCallLog.d(TAG, "serviceCmdReceiver processWebRtcMessages() + autoPickup on rtcConnect");
 //							processWebRtcMessages();
 //							stopRinging("serviceCmdReceiver acceptCall");
 //							autoPickup = true; // evaluated by JS rtcConnect()
 //                          // TODO autoPickup comes too late, rtcConnect may have already take place
 //						} else {
-							Log.d(TAG, "serviceCmdReceiver auto-pickup() now");
+							WebCallLog.d(TAG, "serviceCmdReceiver auto-pickup() now");
 							runJS("pickup()",null);
 //						}
 					} else {
 						// autoPickup when we get connected as callee
 						// if the next connect fails, we must reset this flag
-						Log.d(TAG, "serviceCmdReceiver autoPickup delayed");
+						WebCallLog.d(TAG, "serviceCmdReceiver autoPickup delayed");
 						autoPickup = true;
 					}
 					return;
@@ -662,13 +785,13 @@ public class WebCallService extends Service {
 					// this intent is coming from the started activity
 					if(myWebView!=null && webviewMainPageLoaded) {
 						if(currentUrl!=null && currentUrl.indexOf("#")>=0) {
-							Log.d(TAG, "serviceCmdReceiver close iframe");
+							WebCallLog.d(TAG, "serviceCmdReceiver close iframe");
 							runJS("history.back()",null);
 							// TODO what if multiple iframes are open
 						}
 						if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
 							// kickstart processWebRtcMessages()
-							Log.d(TAG, "serviceCmdReceiver showCall -> processWebRtcMessages "+message);
+							WebCallLog.d(TAG, "serviceCmdReceiver showCall -> processWebRtcMessages "+message);
 							processWebRtcMessages();
 						}
 					}
@@ -680,10 +803,10 @@ public class WebCallService extends Service {
 					// user responded to the call-notification dialog and it needs to be closed
 					// this intent is coming from the started activity
 					// message should be "true"
-					Log.d(TAG, "serviceCmdReceiver dismissNotification "+message);
+					WebCallLog.d(TAG, "serviceCmdReceiver dismissNotification "+message);
 
 					// we can later close this notification by sending a new not-high priority notification
-					notificationManager.cancel(NOTIF_ID2);
+					cancelIncomingNotification();
 					return;
 				}
 
@@ -692,11 +815,11 @@ public class WebCallService extends Service {
 					// user responded to the call-notification dialog and it needs to be closed
 					// this intent is coming from the started activity
 					if(myWebView!=null && webviewMainPageLoaded) {
-						Log.d(TAG, "serviceCmdReceiver muteMic");
+						WebCallLog.d(TAG, "serviceCmdReceiver muteMic");
 						runJS("muteMicElement.checked = !muteMicElement.checked; muteMic(muteMicElement.checked);",null);
 						// will call muteStateChange(flag)
 					} else {
-						Log.d(TAG, "# serviceCmdReceiver muteMic but no webview");
+						WebCallLog.d(TAG, "# serviceCmdReceiver muteMic but no webview");
 					}
 					return;
 				}
@@ -705,7 +828,7 @@ public class WebCallService extends Service {
 				if(message!=null && message!="") {
 					// user responded to the call-notification dialog and it needs to be closed
 					// this intent is coming from the started activity
-					Log.d(TAG, "serviceCmdReceiver hangup "+message);
+					WebCallLog.d(TAG, "serviceCmdReceiver hangup "+message);
 					// will set disconnectCaller=true
 					// and call runJS('endWebRtcSession(true,connectToServerIsWanted)
 					endWebRtcSession(true);
@@ -714,20 +837,20 @@ public class WebCallService extends Service {
 
 				message = intent.getStringExtra("dummy");
 				if(message!=null && message!="") {
-					Log.d(TAG, "serviceCmdReceiver dummy "+message);
+					WebCallLog.d(TAG, "serviceCmdReceiver dummy "+message);
 					return;
 				}
 
-				Log.d(TAG, "serviceCmdReceiver no match");
+				WebCallLog.d(TAG, "serviceCmdReceiver no match");
 			}
 		};
 		registerReceiver(serviceCmdReceiver, new IntentFilter("serviceCmdReceiver"));
-		Log.d(TAG,"onCreate done wsClient="+(wsClient!=null));
+		WebCallLog.d(TAG,"onCreate done wsClient="+(wsClient!=null));
 	}
 
 	@Override
 	public int onStartCommand(Intent onStartIntent, int flags, int startId) {
-		Log.d(TAG,"onStartCommand loginUrl="+loginUrl+" wsClient="+(wsClient!=null)+" activityTerm="+activityTerminated);
+		WebCallLog.d(TAG,"onStartCommand loginUrl="+loginUrl+" wsClient="+(wsClient!=null)+" activityTerm="+activityTerminated);
 		context = this;
 
 		if(prefs==null) {
@@ -737,23 +860,23 @@ public class WebCallService extends Service {
 		boolean autoCalleeConnect = false;
 		try {
 			boolean connectWanted = prefs.getBoolean("connectWanted", false);
-				//Log.d(TAG,"onStartCommand connectWanted force false");
+				//WebCallLog.d(TAG,"onStartCommand connectWanted force false");
 				// connectWanted = false
-			//Log.d(TAG,"onStartCommand connectWanted="+connectWanted);
+			//WebCallLog.d(TAG,"onStartCommand connectWanted="+connectWanted);
 			autoCalleeConnect = connectWanted;
 		} catch(Exception ex) {
-			Log.d(TAG,"onStartCommand connectWanted=? ex="+ex);
+			WebCallLog.d(TAG,"onStartCommand connectWanted=? ex="+ex);
 		}
-		Log.d(TAG,"----- onStartCommand autoCalleeConnect="+autoCalleeConnect+" onStartIntent="+onStartIntent);
+		WebCallLog.d(TAG,"----- onStartCommand autoCalleeConnect="+autoCalleeConnect+" onStartIntent="+onStartIntent);
 
 		if(onStartIntent==null && autoCalleeConnect==false) {
-			Log.d(TAG,"onStartCommand onStartIntent==null autoCalleeConnect==false removeNotification");
+			WebCallLog.d(TAG,"onStartCommand onStartIntent==null autoCalleeConnect==false removeNotification");
 			// service restart after crash but autoCalleeConnect not needed
 
 			if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) { // >= 26
 				// create notificationChannel to start service in foreground
 				String msg = "exiting";
-				Log.d(TAG,"onStartCommand startForeground: "+msg);
+				WebCallLog.d(TAG,"onStartCommand startForeground: "+msg);
 				startForeground(NOTIF_ID1,buildServiceNotification(msg, NOTIF_LOW, NotificationCompat.PRIORITY_LOW));
 			}
 			exitService();
@@ -761,31 +884,31 @@ public class WebCallService extends Service {
 		}
 
 		if(connectivityManager==null) {
-			Log.d(TAG,"onStartCommand connectivityManager init...");
+			WebCallLog.d(TAG,"onStartCommand connectivityManager init...");
 			connectivityManager = (ConnectivityManager)getSystemService(Context.CONNECTIVITY_SERVICE);
 		} else {
-			Log.d(TAG,"onStartCommand connectivityManager!=null");
+			WebCallLog.d(TAG,"onStartCommand connectivityManager!=null");
 		}
 		if(connectivityManager==null) {
-			Log.d(TAG,"# onStartCommand fatal cannot get connectivityManager");
+			WebCallLog.d(TAG,"# onStartCommand fatal cannot get connectivityManager");
 			return 0;
 		}
 
 		if(notificationManager==null) {
-			Log.d(TAG,"onStartCommand notificationManager init...");
+			WebCallLog.d(TAG,"onStartCommand notificationManager init...");
 			notificationManager = (NotificationManager)getSystemService(Context.NOTIFICATION_SERVICE);
 		} else {
-			Log.d(TAG,"onStartCommand notificationManager!=null");
+			WebCallLog.d(TAG,"onStartCommand notificationManager!=null");
 		}
 		if(notificationManager==null) {
-			Log.d(TAG,"# onStartCommand fatal cannot get notificationManager");
+			WebCallLog.d(TAG,"# onStartCommand fatal cannot get notificationManager");
 			return 0;
 		}
 
 		// note: haveNetworkInt keeps its old value through exitService() !!!
 		int oldHaveNetworkInt = haveNetworkInt;
 		checkNetworkState(false); // will set haveNetworkInt
-		Log.d(TAG,"onStartCommand haveNetworkInt="+haveNetworkInt+" (old="+oldHaveNetworkInt+")");
+		WebCallLog.d(TAG,"onStartCommand haveNetworkInt="+haveNetworkInt+" (old="+oldHaveNetworkInt+")");
 
 		if(batteryStatusfilter==null) {
 			batteryStatusfilter = new IntentFilter(Intent.ACTION_BATTERY_CHANGED);
@@ -793,19 +916,23 @@ public class WebCallService extends Service {
 		}
 
 		if(scheduler==null) {
-			Log.d(TAG,"onStartCommand Executors.newScheduledThreadPool(10)");
+			WebCallLog.d(TAG,"onStartCommand Executors.newScheduledThreadPool(10)");
 			scheduler = Executors.newScheduledThreadPool(10);
 		}
 		if(scheduler==null) {
-			Log.d(TAG,"# onStartCommand fatal cannot create scheduledThreadPool");
+			WebCallLog.d(TAG,"# onStartCommand fatal cannot create scheduledThreadPool");
 			return 0;
 		}
+		if(notificationPresenter==null && notificationManager!=null) {
+			notificationPresenter = new NotificationPresenter(context, notificationManager, scheduler,
+				NOTIF_LOW, NOTIF_ID1);
+		}
 
 		if(powerManager==null) {
 			powerManager = (PowerManager)context.getSystemService(Context.POWER_SERVICE);
 		}
 		if(powerManager==null) {
-			Log.d(TAG,"# onStartCommand fatal no access to PowerManager");
+			WebCallLog.d(TAG,"# onStartCommand fatal no access to PowerManager");
 			return 0;
 		}
 
@@ -813,7 +940,7 @@ public class WebCallService extends Service {
 			displayManager = (DisplayManager)context.getSystemService(Context.DISPLAY_SERVICE);
 		}
 		if(displayManager==null) {
-			Log.d(TAG,"# onStartCommand fatal no access to DisplayManager");
+			WebCallLog.d(TAG,"# onStartCommand fatal no access to DisplayManager");
 			return 0;
 		}
 
@@ -821,7 +948,7 @@ public class WebCallService extends Service {
 			audioManager = (AudioManager)getSystemService(Context.AUDIO_SERVICE);
 		}
 		if(audioManager==null) {
-			Log.d(TAG,"# onStartCommand fatal no access to AudioManager");
+			WebCallLog.d(TAG,"# onStartCommand fatal no access to AudioManager");
 			return 0;
 		}
 
@@ -830,7 +957,7 @@ public class WebCallService extends Service {
 				// check with isIgnoringBatteryOptimizations()
 				String packageName = context.getPackageName();
 				boolean isIgnoringBatteryOpti = powerManager.isIgnoringBatteryOptimizations(packageName);
-				Log.d(TAG, "onStartCommand ignoringBattOpt="+isIgnoringBatteryOpti);
+				WebCallLog.d(TAG, "onStartCommand ignoringBattOpt="+isIgnoringBatteryOpti);
 			}
 		}
 
@@ -844,14 +971,14 @@ public class WebCallService extends Service {
 			keepAwakeWakeLock = powerManager.newWakeLock(PowerManager.PARTIAL_WAKE_LOCK, logKey);
 		}
 		if(keepAwakeWakeLock==null) {
-			Log.d(TAG,"# onStartCommand fatal no access to keepAwakeWakeLock");
+			WebCallLog.d(TAG,"# onStartCommand fatal no access to keepAwakeWakeLock");
 			return 0;
 		}
 
 		if(powerConnectionReceiver==null) {
 			// set initial charging state
 			charging = isPowerConnected(context);
-			Log.d(TAG,"onStartCommand charging="+charging);
+			WebCallLog.d(TAG,"onStartCommand charging="+charging);
 
 			powerConnectionReceiver = new PowerConnectionReceiver();
 			IntentFilter ifilter = new IntentFilter();
@@ -865,7 +992,7 @@ public class WebCallService extends Service {
 				context.getApplicationContext().getSystemService(Context.WIFI_SERVICE);
 		}
 		if(wifiManager==null) {
-			Log.d(TAG,"# onStartCommand fatal no access to WifiManager");
+			WebCallLog.d(TAG,"# onStartCommand fatal no access to WifiManager");
 			return 0;
 		}
 
@@ -876,7 +1003,7 @@ public class WebCallService extends Service {
 			wifiLock = wifiManager.createWifiLock(WifiManager.WIFI_MODE_FULL_HIGH_PERF, logKey);
 		}
 		if(wifiLock==null) {
-			Log.d(TAG,"# onStartCommand fatal no access to wifiLock");
+			WebCallLog.d(TAG,"# onStartCommand fatal no access to wifiLock");
 			return 0;
 		}
 
@@ -884,15 +1011,87 @@ public class WebCallService extends Service {
 			alarmManager = (AlarmManager)context.getSystemService(Context.ALARM_SERVICE);
 		}
 		if(alarmManager==null) {
-			Log.d(TAG,"# onStartCommand fatal no access to alarmManager");
+			WebCallLog.d(TAG,"# onStartCommand fatal no access to alarmManager");
 			return 0;
 		}
 
+		if(wakeLockTracker==null) {
+			wakeLockTracker = new WakeLockTracker(prefs);
+		}
+		wakeLockTracker.setLogFlag(extendedLogsFlag);
+		if(wakeScheduler==null) {
+			wakeScheduler = new WakeScheduler(context, alarmManager, keepAwakeWakeLock, wakeLockTracker,
+				startAlarmIntent, prefs);
+		}
+		wakeScheduler.setLogFlag(extendedLogsFlag);
+
+		if(ringEngine==null) {
+			ringEngine = new RingEngine(context);
+		}
+		// prepare the ringtone now, so that an incoming call only needs to start it
+		// (also after onDestroy() has released it; prepare() does nothing if it is prepared)
+		final RingEngine engine = ringEngine;
+		scheduler.execute(new Runnable() {
+			public void run() {
+				engine.prepare();
+			}
+		});
+		if(missedCallStore==null) {
+			missedCallStore = new MissedCallStore(context);
+		}
+		if(chatStore==null) {
+			chatStore = new ChatStore(context);
+		}
+		if(callHistory==null) {
+			callHistory = new CallHistory(context);
+		}
+		if(contactCache==null) {
+			contactCache = new ContactCache(context);
+		}
+		if(endpointSelector==null) {
+			endpointSelector = new EndpointSelector(prefs);
+		}
+		if(dnsCache==null) {
+			dnsCache = new DnsCache(context);
+		}
+		dnsCache.setLogFlag(extendedLogsFlag);
+		if(linkQuality==null) {
+			linkQuality = new LinkQualityEstimator(dnsCache);
+		}
+		if(connectionRacer==null) {
+			connectionRacer = new ConnectionRacer(dnsCache, prefs);
+		}
+		connectionRacer.setLogFlag(extendedLogsFlag);
+		WebCallLog.setLevel(extendedLogsFlag ? WebCallLog.VERBOSE : WebCallLog.DEBUG);
+		if(calleeIdentities==null) {
+			calleeIdentities = new CalleeIdentities(newIdentitiesHost(), scheduler, connectionRacer, prefs);
+		}
+		if(prefs.getBoolean("signalingMux", false)) {
+			// extra identities share the one WebSocket of the service
+			calleeIdentities.setMux(signalingMux, new CalleeIdentities.MuxSender() {
+				public boolean send(String frame) {
+					WebSocketClient client = wsClient;
+					if(client==null || !client.isOpen()) {
+						return false;
+					}
+					try {
+						client.send(frame);
+						return true;
+					} catch(Exception ex) {
+						WebCallLog.d(TAG,"# mux send ex="+ex);
+						return false;
+					}
+				}
+			});
+		} else {
+			calleeIdentities.setMux(null, null);
+		}
+
 		if(reconnecter==null) {
 			reconnecter = newReconnecter();
 		}
 		if(reconnecter==null) {
-			Log.d(TAG,"# onStartCommand fatal cannot create reconnecter");
+			WebCallLog.d(TAG,"# onStartCommand fatal cannot create reconnecter");
 			return 0;
 		}
 
@@ -907,7 +1106,7 @@ public class WebCallService extends Service {
 					msg = "Incoming call...";
 				}
 			}
-			Log.d(TAG,"onStartCommand startForeground: "+msg);
+			WebCallLog.d(TAG,"onStartCommand startForeground: "+msg);
 			startForeground(NOTIF_ID1,buildServiceNotification(msg, NOTIF_LOW, NotificationCompat.PRIORITY_LOW));
 			statusMessage(msg,-1,true,true);
 		}
@@ -917,65 +1116,60 @@ public class WebCallService extends Service {
 
 		try {
 			audioToSpeakerMode = prefs.getInt("audioToSpeaker", 0);
-			Log.d(TAG,"onStartCommand audioToSpeakerMode="+audioToSpeakerMode);
+			WebCallLog.d(TAG,"onStartCommand audioToSpeakerMode="+audioToSpeakerMode);
 		} catch(Exception ex) {
-			Log.d(TAG,"# onStartCommand audioToSpeakerMode ex="+ex);
+			WebCallLog.d(TAG,"# onStartCommand audioToSpeakerMode ex="+ex);
 		}
 
 		try {
 			beepOnLostNetworkMode = prefs.getInt("beepOnLostNetwork", 0);
-			Log.d(TAG,"onStartCommand beepOnLostNetworkMode="+beepOnLostNetworkMode);
+			WebCallLog.d(TAG,"onStartCommand beepOnLostNetworkMode="+beepOnLostNetworkMode);
 		} catch(Exception ex) {
-			Log.d(TAG,"# onStartCommand beepOnLostNetworkMode ex="+ex);
+			WebCallLog.d(TAG,"# onStartCommand beepOnLostNetworkMode ex="+ex);
 		}
 
 		setLoginUrl();
 
 		try {
 			startOnBootMode = prefs.getInt("startOnBoot", 0);
-			Log.d(TAG,"onStartCommand startOnBootMode="+startOnBootMode);
+			WebCallLog.d(TAG,"onStartCommand startOnBootMode="+startOnBootMode);
 		} catch(Exception ex) {
-			Log.d(TAG,"# onStartCommand startOnBootMode ex="+ex);
+			WebCallLog.d(TAG,"# onStartCommand startOnBootMode ex="+ex);
 		}
 
 		try {
 			setWifiLockMode = prefs.getInt("setWifiLockMode", 1);
-			Log.d(TAG,"onStartCommand setWifiLockMode="+setWifiLockMode);
+			WebCallLog.d(TAG,"onStartCommand setWifiLockMode="+setWifiLockMode);
 		} catch(Exception ex) {
-			Log.d(TAG,"# onStartCommand setWifiLockMode ex="+ex);
+			WebCallLog.d(TAG,"# onStartCommand setWifiLockMode ex="+ex);
 		}
 
 		try {
 			screenForWifiMode = prefs.getInt("screenForWifi", 0);
-			Log.d(TAG,"onStartCommand screenForWifiMode="+screenForWifiMode);
+			WebCallLog.d(TAG,"onStartCommand screenForWifiMode="+screenForWifiMode);
 		} catch(Exception ex) {
-			Log.d(TAG,"# onStartCommand screenForWifiMode ex="+ex);
+			WebCallLog.d(TAG,"# onStartCommand screenForWifiMode ex="+ex);
 		}
 
-		try {
-			keepAwakeWakeLockMS = prefs.getLong("keepAwakeWakeLockMS", 0);
-			Log.d(TAG,"onStartCommand keepAwakeWakeLockMS="+keepAwakeWakeLockMS);
-		} catch(Exception ex) {
-			Log.d(TAG,"# onStartCommand keepAwakeWakeLockMS ex="+ex);
-		}
+		WebCallLog.d(TAG,"onStartCommand wake report "+wakeScheduler.report());
 
 		try {
 			insecureTlsFlag = prefs.getBoolean("insecureTlsFlag", false);
-			Log.d(TAG,"onStartCommand insecureTlsFlag="+insecureTlsFlag);
+			WebCallLog.d(TAG,"onStartCommand insecureTlsFlag="+insecureTlsFlag);
 		} catch(Exception ex) {
-			Log.d(TAG,"# onStartCommand insecureTlsFlag ex="+ex);
+			WebCallLog.d(TAG,"# onStartCommand insecureTlsFlag ex="+ex);
 		}
 
 		try {
 			String lastUsedVersionName = prefs.getString("versionName", "");
-			Log.d(TAG,"onStartCommand lastUsed versionName="+lastUsedVersionName);
+			WebCallLog.d(TAG,"onStartCommand lastUsed versionName="+lastUsedVersionName);
  			if(!lastUsedVersionName.equals(BuildConfig.VERSION_NAME)) {
-				keepAwakeWakeLockMS = 0;
-				storePrefsLong("keepAwakeWakeLockMS", keepAwakeWakeLockMS);
-				Log.d(TAG,"onStartCommand version change, clear keepAwakeWakeLockMS");
+				wakeScheduler.clear();
+				wakeLockTracker.clear();
+				WebCallLog.d(TAG,"onStartCommand version change, clear wake report");
 			}
 		} catch(Exception ex) {
-			Log.d(TAG,"# onStartCommand versionName ex="+ex);
+			WebCallLog.d(TAG,"# onStartCommand versionName ex="+ex);
 		}
 
 		/*
@@ -999,7 +1193,7 @@ public class WebCallService extends Service {
 						NetworkInfo netInfo = connectivityManager.getNetworkInfo(network);
 						if(netInfo != null) {
 							// getType() 1=wifi, 0=mobile (extra="internet.eplus.de")
-							Log.d(TAG,"networkCallback onAvailable avail="+netInfo.getType()+" "+netInfo.getExtraInfo());
+							WebCallLog.d(TAG,"networkCallback onAvailable avail="+netInfo.getType()+" "+netInfo.getExtraInfo());
 	/*
 	// TODO is bindProcessToNetwork() supported on Build.VERSION_CODES.N (api24) or Build.VERSION_CODES.M (api25) ?
 	//							if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
@@ -1012,10 +1206,10 @@ public class WebCallService extends Service {
 	// TODO do we need to bindProcessToNetwork(null) on unregister?
 	*/
 						} else {
-							Log.d(TAG,"# networkCallback onAvailable netInfo==null");
+							WebCallLog.d(TAG,"# networkCallback onAvailable netInfo==null");
 						}
 					} else {
-						Log.d(TAG,"# networkCallback onAvailable network==null");
+						WebCallLog.d(TAG,"# networkCallback onAvailable network==null");
 					}
 
 					// sometimes after onAvailable() we get onCapabilitiesChanged(), sometimes (on P9 in doze) we don't
@@ -1063,7 +1257,7 @@ public class WebCallService extends Service {
 					haveNetworkInt = newNetworkInt;
 
 					if(haveNetworkInt!=oldNetworkInt) {
-						Log.d(TAG,"networkCallback capabChange: " + oldNetworkInt+" -> "+haveNetworkInt+" "+
+						WebCallLog.d(TAG,"networkCallback capabChange: " + oldNetworkInt+" -> "+haveNetworkInt+" "+
 							" conWanted="+connectToServerIsWanted+
 							" wsClient="+(wsClient!=null)+
 							" wifi="+networkCapabi.hasTransport(NetworkCapabilities.TRANSPORT_WIFI)+
@@ -1082,23 +1276,23 @@ public class WebCallService extends Service {
 
 				//@Override
 				//public void onLinkPropertiesChanged(Network network, LinkProperties linkProperties) {
-				//	Log.d(TAG, "The default network changed link properties: " + linkProperties);
+				//	WebCallLog.d(TAG, "The default network changed link properties: " + linkProperties);
 				//}
 			};
 
-			Log.d(TAG, "networkCallback init registerDefaultNetworkCallback");
+			WebCallLog.d(TAG, "networkCallback init registerDefaultNetworkCallback");
 			connectivityManager.registerDefaultNetworkCallback(myNetworkCallback);
 			/*
-			Log.d(TAG, "networkCallback init requestForCellular");
+			WebCallLog.d(TAG, "networkCallback init requestForCellular");
 			connectivityManager.requestNetwork(requestForCellular, myNetworkCallback);
 
-			Log.d(TAG, "networkCallback init requestForWifi");
+			WebCallLog.d(TAG, "networkCallback init requestForWifi");
 			connectivityManager.requestNetwork(requestForWifi, myNetworkCallback);
 
-			Log.d(TAG, "networkCallback init requestForEthernet");
+			WebCallLog.d(TAG, "networkCallback init requestForEthernet");
 			connectivityManager.requestNetwork(requestForEthernet, myNetworkCallback);
 
-			Log.d(TAG, "networkCallback init requestForUSB");
+			WebCallLog.d(TAG, "networkCallback init requestForUSB");
 			connectivityManager.requestNetwork(requestForUSB, myNetworkCallback);
 			*/
 		} else {
@@ -1120,26 +1314,14 @@ public class WebCallService extends Service {
 						    // the device is now in doze mode
 							dozeIdle = true;
 							dozeIdleCounter++;
-							Log.d(TAG,"dozeState idle");
-							if(keepAwakeWakeLock!=null && !keepAwakeWakeLock.isHeld()) {
-								Log.d(TAG,"dozeState idle keepAwakeWakeLock.acquire");
-								// stay awake 2s to defend against doze
-								keepAwakeWakeLock.acquire(2000);
-								keepAwakeWakeLockMS += 2000;
-								storePrefsLong("keepAwakeWakeLockMS", keepAwakeWakeLockMS);
-								keepAwakeWakeLockStartTime = (new Date()).getTime();
-							}
+							WebCallLog.d(TAG,"dozeState idle");
+							// stay awake 2s to defend against doze
+							wakeScheduler.keepAwake("doze idle", 2000);
 							// this is a good situation to send a ping
 							// if the connection is bad we will know much quicker
-							if(wsClient!=null) {
-								try {
-									Log.d(TAG,"dozeState idle sendPing");
-									wsClient.sendPing();
-								} catch(Exception ex) {
-									Log.d(TAG,"# dozeState idle sendPing ex="+ex);
-									closeWsClient(false, "dozeState");
-								}
-							}
+							// we run pingcheck now (together with any other due wake tasks)
+							// which moves the next pingcheck alarm out by a full period
+							wakeScheduler.wakeup("doze idle", "pingcheck");
 							if(wsClient==null && connectToServerIsWanted) {
 								// let's go straight to reconnecter
 								statusMessage(offlineMessage,-1,true,false);
@@ -1149,14 +1331,14 @@ public class WebCallService extends Service {
 									// schedule a new reconnecter right away
 									setLoginUrl();
 									if(loginUrl!="") {
-										Log.d(TAG,"dozeState idle re-login now url="+loginUrl);
+										WebCallLog.d(TAG,"dozeState idle re-login now url="+loginUrl);
 										// hopefully network is avilable
 										reconnectSchedFuture =
-											scheduler.schedule(reconnecter,0,TimeUnit.SECONDS);
+											scheduleReconnecter(0);
 									}
 
 								} else {
-									Log.d(TAG,"dozeState idle no reconnecter: reconnectBusy="+reconnectBusy);
+									WebCallLog.d(TAG,"dozeState idle no reconnecter: reconnectBusy="+reconnectBusy);
 								}
 							}
 
@@ -1164,7 +1346,7 @@ public class WebCallService extends Service {
 							// the device just woke up from doze mode
 							// most likely it will go to idle in about 30s
 							boolean screenOn = isScreenOn();
-							Log.d(TAG,"dozeState awake screenOn="+screenOn+" doze="+dozeIdle);
+							WebCallLog.d(TAG,"dozeState awake screenOn="+screenOn+" doze="+dozeIdle);
 							dozeIdle = false;
 
 							// TODO: wd it be enough to calls this only from 'serviceCmdReceiver activityVisible true'?
@@ -1174,20 +1356,15 @@ public class WebCallService extends Service {
 								return;
 							}
 
-							if(keepAwakeWakeLock!=null && !keepAwakeWakeLock.isHeld()) {
-								Log.d(TAG,"dozeState awake keepAwakeWakeLock.acquire");
-								// stay awake 2s to defend against doze
-								keepAwakeWakeLock.acquire(2000);
-								keepAwakeWakeLockMS += 2000;
-								storePrefsLong("keepAwakeWakeLockMS", keepAwakeWakeLockMS);
-								keepAwakeWakeLockStartTime = (new Date()).getTime();
-							}
+							// stay awake 2s to defend against doze
+							wakeScheduler.keepAwake("doze awake", 2000);
+							wakeScheduler.wakeup("doze awake", null);
 
 							if(wsClient!=null) {
 								// close a prev connection
 								closeWsClient(true, "dozeState awake");
 							} else {
-								Log.d(TAG,"dozeState awake wsClient==null");
+								WebCallLog.d(TAG,"dozeState awake wsClient==null");
 							}
 
 							if(reconnectSchedFuture==null && !reconnectBusy) {
@@ -1196,18 +1373,18 @@ public class WebCallService extends Service {
 								// in 8s to give server some time to detect the discon
 								setLoginUrl();
 								if(loginUrl!="") {
-									Log.d(TAG,"dozeState awake re-login in 2s url="+loginUrl);
+									WebCallLog.d(TAG,"dozeState awake re-login in 2s url="+loginUrl);
 									// hopefully network is avilable
 									reconnectSchedFuture =
-										scheduler.schedule(reconnecter,2,TimeUnit.SECONDS);
+										scheduleReconnecter(2);
 								}
 							} else {
-								Log.d(TAG,"dozeState awake no reconnecter: reconnectBusy="+reconnectBusy);
+								WebCallLog.d(TAG,"dozeState awake no reconnecter: reconnectBusy="+reconnectBusy);
 							}
 
 						} else if(powerManager.isPowerSaveMode()) {
 							// dozeIdle = ??? this never fires
-							Log.d(TAG,"dozeState powerSave mode");
+							WebCallLog.d(TAG,"dozeState powerSave mode");
 						}
 					}
 				};
@@ -1217,61 +1394,61 @@ public class WebCallService extends Service {
 		}
 
 		if(wsClient!=null) {
-			Log.d(TAG,"! onStartCommand got wsClient");
+			WebCallLog.d(TAG,"! onStartCommand got wsClient");
 			// probably activity was discarded, got restarted, and now we see service is still connected
 			//storePrefsBoolean("connectWanted",false); // used in case of service crash + restart
 		} else if(reconnectBusy) {
-			Log.d(TAG,"! onStartCommand got reconnectBusy");
+			WebCallLog.d(TAG,"! onStartCommand got reconnectBusy");
 			// TODO not sure about this
 			//storePrefsBoolean("connectWanted",false); // used in case of service crash + restart
 		} else {
-			Log.d(TAG,"onStartCommand !wsClient !reconnectBusy activityTerminated="+activityTerminated);
+			WebCallLog.d(TAG,"onStartCommand !wsClient !reconnectBusy activityTerminated="+activityTerminated);
 			String webcalldomain = null;
 			String username = null;
 			try {
 				webcalldomain = prefs.getString("webcalldomain", "").toLowerCase(Locale.getDefault());
-				Log.d(TAG,"onStartCommand webcalldomain="+webcalldomain);
+				WebCallLog.d(TAG,"onStartCommand webcalldomain="+webcalldomain);
 			} catch(Exception ex) {
-				Log.d(TAG,"onStartCommand webcalldomain ex="+ex);
+				WebCallLog.d(TAG,"onStartCommand webcalldomain ex="+ex);
 			}
 			try {
 				username = prefs.getString("username", "");
-				Log.d(TAG,"onStartCommand username="+username);
+				WebCallLog.d(TAG,"onStartCommand username="+username);
 			} catch(Exception ex) {
-				Log.d(TAG,"onStartCommand username ex="+ex);
+				WebCallLog.d(TAG,"onStartCommand username ex="+ex);
 			}
 
 			if(webcalldomain==null || webcalldomain.equals("")) {
-				Log.d(TAG,"onStartCommand webcalldomain undefined");
+				WebCallLog.d(TAG,"onStartCommand webcalldomain undefined");
 				storePrefsBoolean("connectWanted",false); // used in case of service crash + restart
 			} else if(username==null || username.equals("")) {
-				Log.d(TAG,"onStartCommand username undefined");
+				WebCallLog.d(TAG,"onStartCommand username undefined");
 				storePrefsBoolean("connectWanted",false); // used in case of service crash + restart
 			} else {
 				setLoginUrl();
-				Log.d(TAG,"onStartCommand loginUrl="+loginUrl);
+				WebCallLog.d(TAG,"onStartCommand loginUrl="+loginUrl);
 				int autoCalleeStartDelay = 16; // seconds, default value for start from boot
 				if(onStartIntent==null) {
-					Log.d(TAG,"onStartCommand onStartIntent==null");
+					WebCallLog.d(TAG,"onStartCommand onStartIntent==null");
 					// service restart after crash
 					// autoCalleeConnect to webcall server if extraCommand.equals("connect")
 					autoCalleeStartDelay = 3; // seconds, value for start from tile
 				} else {
-					Log.d(TAG,"onStartCommand onStartIntent!=null "+onStartIntent.toString());
+					WebCallLog.d(TAG,"onStartCommand onStartIntent!=null "+onStartIntent.toString());
 					// let's see if service was started by boot...
 					Bundle extras = onStartIntent.getExtras();
 					if(extras==null) {
 						// started from tile
-						Log.d(TAG,"onStartCommand extras==null");
+						WebCallLog.d(TAG,"onStartCommand extras==null");
 						autoCalleeStartDelay = 1; // seconds, value for start from tile
 						try {
 							boolean connectWanted = prefs.getBoolean("connectWanted", false);
-								//Log.d(TAG,"onStartCommand connectWanted force false");
+								//WebCallLog.d(TAG,"onStartCommand connectWanted force false");
 								// connectWanted = false
-							Log.d(TAG,"onStartCommand connectWanted="+connectWanted);
+							WebCallLog.d(TAG,"onStartCommand connectWanted="+connectWanted);
 							autoCalleeConnect = connectWanted;
 						} catch(Exception ex) {
-							Log.d(TAG,"onStartCommand connectWanted ex="+ex);
+							WebCallLog.d(TAG,"onStartCommand connectWanted ex="+ex);
 						}
 						// if started from tile, we go directly into connect mode
 						// independent of pref "connectWanted"
@@ -1279,12 +1456,12 @@ public class WebCallService extends Service {
 					} else {
 						String extraCommand = extras.getString("onstart");
 						if(extraCommand==null) {
-							Log.d(TAG,"onStartCommand extraCommand==null");
+							WebCallLog.d(TAG,"onStartCommand extraCommand==null");
 							storePrefsBoolean("connectWanted",false); // used in case of service crash + restart
 						} else {
 							// service was started by boot (by WebCallServiceReceiver.java)
 							if(!extraCommand.equals("") /*&& !extraCommand.equals("donothing")*/) {
-								Log.d(TAG,"onStartCommand extraCommand="+extraCommand);
+								WebCallLog.d(TAG,"onStartCommand extraCommand="+extraCommand);
 							}
 							if(extraCommand.equals("connect")) {
 								// auto-connect (login) to webcall server is requested
@@ -1295,7 +1472,7 @@ public class WebCallService extends Service {
 				}
 
 				if(!autoCalleeConnect) {
-					Log.d(TAG,"onStartCommand no autoCalleeConnect");
+					WebCallLog.d(TAG,"onStartCommand no autoCalleeConnect");
 					connectToServerIsWanted = false;
 					storePrefsBoolean("connectWanted",false); // used in case of service crash + restart
 					// autoCalleeConnect is only being used on boot and for restart of a crashed service
@@ -1303,18 +1480,18 @@ public class WebCallService extends Service {
 				} else {
 					// this is like the user clicking goOnline
 					if(reconnectBusy) {
-						Log.d(TAG,"onStartCommand autoCalleeConnect but reconnectBusy");
+						WebCallLog.d(TAG,"onStartCommand autoCalleeConnect but reconnectBusy");
 					} else {
 						connectToServerIsWanted = true;
 						storePrefsBoolean("connectWanted",true); // used in case of service crash + restart
-						Log.d(TAG,"onStartCommand autoCalleeConnect loginUrl="+loginUrl);
+						WebCallLog.d(TAG,"onStartCommand autoCalleeConnect loginUrl="+loginUrl);
 
 						if(reconnectSchedFuture!=null && !reconnectSchedFuture.isDone()) {
-							Log.d(TAG,"onStartCommand autoCalleeConnect cancel reconnectSchedFuture");
+							WebCallLog.d(TAG,"onStartCommand autoCalleeConnect cancel reconnectSchedFuture");
 							reconnectSchedFuture.cancel(false);
 							reconnectSchedFuture = null;
 						}
-						reconnectSchedFuture = scheduler.schedule(reconnecter, autoCalleeStartDelay, TimeUnit.SECONDS);
+						reconnectSchedFuture = scheduleReconnecter(autoCalleeStartDelay);
 					}
 				}
 			}
@@ -1335,13 +1512,13 @@ public class WebCallService extends Service {
 		public void startWebView(View view) {
 			activityTerminated = false;
 			String username = prefs.getString("username", "");
-			Log.d(TAG, "startWebView creating myWebView for user="+username);
+			WebCallLog.d(TAG, "startWebView creating myWebView for user="+username);
 
 			myWebView = (WebView)view;
 
 			webSettings = myWebView.getSettings();
 			userAgentString = webSettings.getUserAgentString();
-			Log.d(TAG, "startWebView ua="+userAgentString);
+			WebCallLog.d(TAG, "startWebView ua="+userAgentString);
 
 			webSettings.setJavaScriptEnabled(true);
 			webSettings.setJavaScriptCanOpenWindowsAutomatically(true);
@@ -1359,13 +1536,13 @@ public class WebCallService extends Service {
 //			webSettings.setCacheMode(WebSettings.LOAD_CACHE_ONLY);
 
 //			webSettings.setSafeBrowsingWhitelist()
-			//Log.d(TAG, "done webSettings "+webSettings.getSaveFormData());
+			//WebCallLog.d(TAG, "done webSettings "+webSettings.getSaveFormData());
 
 			myWebView.setDownloadListener(new DownloadListener() {
 		        @Override
 		        public void onDownloadStart(String url, String userAgent,
 						String contentDisposition, String mimetype, long contentLength) {
-					//Log.d(TAG,"DownloadListener url="+url+" mime="+mimetype);
+					//WebCallLog.d(TAG,"DownloadListener url="+url+" mime="+mimetype);
 					if(url.startsWith("blob:")) {
 						// this is for "downloading" files to disk, that were previously received from peer
 						String fetchBlobJS =
@@ -1407,7 +1584,7 @@ public class WebCallService extends Service {
 		"  }" +
 		"};" +
 		"xhr.send();";
-						//Log.d(TAG,"DownloadListener fetchBlobJS="+fetchBlobJS);
+						//WebCallLog.d(TAG,"DownloadListener fetchBlobJS="+fetchBlobJS);
 						myWebView.loadUrl(fetchBlobJS);
 						// file will be stored in getBase64FromBlobData()
 					} else {
@@ -1425,10 +1602,10 @@ public class WebCallService extends Service {
 				//@Override
 				//public void onLoadResource(WebView view, String url) {
 				//	if(url.indexOf("googleapis.com/")>=0 || url.indexOf("google-analytics.com/")>=0) {
-				//		Log.d(TAG, "onLoadResource deny: " + url);
+				//		WebCallLog.d(TAG, "onLoadResource deny: " + url);
 				//		return;
 				//	}
-				//	Log.d(TAG, "onLoadResource: " + url);
+				//	WebCallLog.d(TAG, "onLoadResource: " + url);
 				//	super.onLoadResource(view, url);
 				//}
 
@@ -1436,13 +1613,13 @@ public class WebCallService extends Service {
 				@Override
 				public void onReceivedError(WebView view, int errorCode, String description, String failingUrl) {
 					if(errorCode==ERROR_HOST_LOOKUP) {
-						Log.d(TAG, "# onReceivedError HOST_LOOKUP "+description+" "+failingUrl);
+						WebCallLog.d(TAG, "# onReceivedError HOST_LOOKUP "+description+" "+failingUrl);
 						statusMessage("Connection error: Host lookup",-1,true,false);
 //					} else if(errorCode==ERROR_UNKNOWN) {
-//						Log.d(TAG, "# onReceivedError ERROR_UNKNOWN "+description+" "+failingUrl);
+//						WebCallLog.d(TAG, "# onReceivedError ERROR_UNKNOWN "+description+" "+failingUrl);
 //						//statusMessage("Connection error: "+description+" "+failingUrl,-1,true,false);
 					} else {
-						Log.d(TAG, "# onReceivedError "+errorCode+" "+description+" "+failingUrl);
+						WebCallLog.d(TAG, "# onReceivedError "+errorCode+" "+description+" "+failingUrl);
 // TODO errorCode == "net::ERR_FAILED" is not reliable (at least not when we do jntercept)
 						//statusMessage("Error "+errorCode+" "+description+" "+failingUrl,-1,true,false);
 // TODO if we have started ringing we need to abort it
@@ -1477,20 +1654,20 @@ public class WebCallService extends Service {
 					//   with onError ex javax.net.ssl.SSLHandshakeException
 					if(insecureTlsFlag) {
 						if(extendedLogsFlag) {
-							Log.d(TAG, "onReceivedSslError (proceed) "+error);
+							WebCallLog.d(TAG, "onReceivedSslError (proceed) "+error);
 						}
 						handler.proceed();
 					} else {
 						// error can not be ignored!
 						// but this ssl error does not return an err in JS
-						Log.d(TAG, "# onReceivedSslError "+error);
+						WebCallLog.d(TAG, "# onReceivedSslError "+error);
 						super.onReceivedSslError(view, handler, error);
 					}
 				}
 
 				//@Override
 				//public void onReceivedClientCertRequest(WebView view, final ClientCertRequest request) {
-				//	Log.d(TAG, "onReceivedClientCertRequest "+request);
+				//	WebCallLog.d(TAG, "onReceivedClientCertRequest "+request);
 				//	request.proceed(mPrivateKey, mCertificates);
 				//}
 
@@ -1499,7 +1676,7 @@ public class WebCallService extends Service {
 				public boolean shouldOverrideUrlLoading(WebView view, String url) {
 					final Uri uri = Uri.parse(url);
 					boolean override = handleUri(uri);
-					Log.d(TAG, "! shouldOverrideUrlS "+url+" override="+override);
+					WebCallLog.d(TAG, "! shouldOverrideUrlS "+url+" override="+override);
 					return override;
 				}
 
@@ -1508,25 +1685,25 @@ public class WebCallService extends Service {
 				public boolean shouldOverrideUrlLoading(WebView view, WebResourceRequest request) {
 					final Uri uri = request.getUrl();
 					boolean override = handleUri(uri);
-					Log.d(TAG, "! shouldOverrideUrlS "+uri+" override="+override);
+					WebCallLog.d(TAG, "! shouldOverrideUrlS "+uri+" override="+override);
 					return override;
 				}
 
 				private boolean handleUri(final Uri uri) {
-					//Log.i(TAG, "handleUri " + uri);
+					//WebCallLog.i(TAG, "handleUri " + uri);
 					//final String host = uri.getHost();
 					//final String scheme = uri.getScheme();
 					final String path = uri.getPath();
-					Log.d(TAG, "handleUri path="+path+" scheme="+uri.getScheme());
+					WebCallLog.d(TAG, "handleUri path="+path+" scheme="+uri.getScheme());
 
 					if(path.startsWith("/webcall/update") && myWebView!=null && webviewMainPageLoaded) {
 						// load update page into iframe
 						String urlStr = uri.toString();
 						// urlStr MUST NOT contain apostrophe
 						String encodedUrl = urlStr.replace("'", "&#39;");
-						Log.d(TAG, "open url ("+encodedUrl+") in iframe");
+						WebCallLog.d(TAG, "open url ("+encodedUrl+") in iframe");
 						String jsString = "openNews(\""+encodedUrl+"\")";
-						Log.d(TAG, "runJS("+jsString+")");
+						WebCallLog.d(TAG, "runJS("+jsString+")");
 						runJS(jsString,null);
 						return true; // do not load this url into webview
 					}
@@ -1537,25 +1714,25 @@ public class WebCallService extends Service {
 						// continue below
 					} else {
 						// uri NOT for webview1: ask activity to forward to ext browser (or our intent-filter)
-						Log.i(TAG, "handleUri uri not for webview1; broadcast 'browse' to activity ("+uri+")");
+						WebCallLog.i(TAG, "handleUri uri not for webview1; broadcast 'browse' to activity ("+uri+")");
 						postStatus("browse", uri.toString());
 						return true; // do not load this url into webview
 					}
 
 					String username = prefs.getString("username", "");
 					if(extendedLogsFlag) {
-						Log.d(TAG, "handleUri username=("+username+")");
+						WebCallLog.d(TAG, "handleUri username=("+username+")");
 					}
 					if(username==null || username.equals("")) {
 						// the username is not stored in the prefs (or it is empty string)
-						Log.d(TAG, "handleUri empty prefs username=("+username+")");
+						WebCallLog.d(TAG, "handleUri empty prefs username=("+username+")");
 						// get username from callee-URL
 						int idxCallee = path.indexOf("/callee/");
 						if(idxCallee>=0) {
 							username = path.substring(idxCallee+8);
 							if(!username.startsWith("register") && username.indexOf("/")<0) {
 								// store username from callee-URL into the prefs
-								Log.d(TAG, "handleUri store username=("+username+")");
+								WebCallLog.d(TAG, "handleUri store username=("+username+")");
 								storePrefsString("username",username);
 							}
 						}
@@ -1573,61 +1750,21 @@ public class WebCallService extends Service {
 					if(path.indexOf("/callee/")<0 && path.indexOf("/user/")<0 &&
 							path.indexOf("/rtcsig")<0 /*&& path.indexOf("favicon.ico")<0*/) {
 						//if(logFlag) {
-							Log.d(TAG,"intercept skip "+wvRequestUri);
+							WebCallLog.d(TAG,"intercept skip "+wvRequestUri);
 						//}
 						return null;
 					}
 
+					if(path.indexOf("/rtcsig/")>=0 && path.indexOf("contact")>=0 &&
+							path.indexOf("getcontacts")<0) {
+						// the page is changing a contact: refresh contactCache once this is done
+						refreshContacts(true, 2000);
+					}
+
 					// injecting local assets into http WebResourceResponse
 					try {
-						OkHttpClient okClient;
-
-						if(insecureTlsFlag) {
-							OkHttpClient.Builder okClientBuilder = new OkHttpClient.Builder();
-							X509TrustManager trustAllCerts = new X509TrustManager() {
-								@Override
-								public X509Certificate[] getAcceptedIssuers() {
-									//if(logFlag) {
-										//Log.d(TAG,"intercept getAcceptedIssuers()");
-									//}
-									return new java.security.cert.X509Certificate[]{};
-								}
-								@Override
-								public void checkClientTrusted(X509Certificate[] chain, String authType)
-										throws CertificateException {
-									//if(logFlag) {
-										//Log.d(TAG,"intercept checkClientTrusted() "+authType);
-									//}
-								}
-								@Override
-								public void checkServerTrusted(X509Certificate[] chain, String authType)
-										throws CertificateException {
-									//if(logFlag) {
-										//Log.d(TAG,"intercept checkServerTrusted() "+authType);
-									//}
-								}
-							};
-
-							SSLContext sslContext = SSLContext.getInstance("TLS");
-							sslContext.init(null, new TrustManager[] { trustAllCerts }, new SecureRandom());
-							okClientBuilder.sslSocketFactory(sslContext.getSocketFactory(), trustAllCerts);
-
-							okClientBuilder.hostnameVerifier(new HostnameVerifier() {
-								@Override
-								public boolean verify(String hostname, SSLSession session) {
-									//HostnameVerifier hv = new org.apache.http.conn.ssl.StrictHostnameVerifier();
-									//boolean ret = hv.verify("192.168.0.161", session);
-									//if(logFlag) {
-										//Log.d(TAG,"intercept HostnameVerifier accept "+hostname);
-									//}
-									return true;
-								}
-							});
-							okClient = okClientBuilder.build();
-						} else {
-							okClient = new OkHttpClient();
-						}
-
+						// one shared client per tls mode: reuses connections and tls sessions
+						OkHttpClient okClient = WebCallTls.getInstance().okHttpClient(insecureTlsFlag);
 
 						String reqUrl = wvRequestUri.toString();
 						int status = 0;
@@ -1692,7 +1829,7 @@ public class WebCallService extends Service {
 								mime = contentType;
 							}
 
-							Log.d(TAG,"intercept filename=("+filename+") path=" + path);
+							WebCallLog.d(TAG,"intercept filename=("+filename+") path=" + path);
 
 							idx = filename.indexOf(".");
 							String ext = filename.substring(idx);
@@ -1723,7 +1860,7 @@ public class WebCallService extends Service {
 
 							long contentLength = myLocalFileLenMap.get(path);
 							contentLenString = ""+contentLength;
-							//Log.d(TAG,"intercept local filename=("+filename+") len=" + contentLength);
+							//WebCallLog.d(TAG,"intercept local filename=("+filename+") len=" + contentLength);
 
 							myResponseHeaders = new HashMap<String,List<String>>();
 							myResponseHeaders.put("content-length", Arrays.asList(""+contentLength));
@@ -1770,20 +1907,20 @@ public class WebCallService extends Service {
 								Request.Builder requestBuilder;
 								Response responseOK;
 
-								Log.d(TAG,"intercept fetch "+wvRequestMethod+" ("+reqUrl+")");
+								WebCallLog.d(TAG,"intercept fetch "+wvRequestMethod+" ("+reqUrl+")");
 								//		  " curUrl="+currentUrl+" ("+webcallCookie+")");
 								requestBuilder = new Request.Builder();
 								requestBuilder.url(reqUrl);
 
 								if(wvRequestMethod.equals("POST")) {
 									if(postData!=null) {
-										//Log.d(TAG,"intercept ("+wvRequestMethod+") ("+postData+")...");
-										Log.d(TAG,"intercept ("+wvRequestMethod+") send postData "+postData.length());
+										//WebCallLog.d(TAG,"intercept ("+wvRequestMethod+") ("+postData+")...");
+										WebCallLog.d(TAG,"intercept ("+wvRequestMethod+") send postData "+postData.length());
 										RequestBody body =
 											RequestBody.create(postData.getBytes(),MediaType.get("text/plain"));
 										requestBuilder.post(body);
 									} else {
-										Log.d(TAG,"# intercept ("+wvRequestMethod+") no postData");
+										WebCallLog.d(TAG,"# intercept ("+wvRequestMethod+") no postData");
 									}
 								}
 
@@ -1803,28 +1940,28 @@ public class WebCallService extends Service {
 								if(myWebView!=null && currentUrl!=null) {
 									CookieManager.getInstance().setAcceptCookie(true);
 									if(webcallCookie==null || webcallCookie=="") {
-										//Log.d(TAG,"intercept CookieManager..getCookie("+currentUrl+")...");
+										//WebCallLog.d(TAG,"intercept CookieManager..getCookie("+currentUrl+")...");
 										webcallCookie = CookieManager.getInstance().getCookie(currentUrl);
-										//Log.d(TAG,"intercept CookieManager..getCookie("+currentUrl+")="+webcallCookie);
+										//WebCallLog.d(TAG,"intercept CookieManager..getCookie("+currentUrl+")="+webcallCookie);
 									}
 								}
 								if(webcallCookie!=null && webcallCookie!="") {
-									//Log.d(TAG,"intercept requestHeaders.put(cookie)=="+webcallCookie);
+									//WebCallLog.d(TAG,"intercept requestHeaders.put(cookie)=="+webcallCookie);
 									requestHeaders.put("Cookie", webcallCookie);
 								} else {
 									webcallCookie = prefs.getString("cookies", "");
 									if(webcallCookie!=null && webcallCookie!="") {
-										//Log.d(TAG,"intercept requestHeaders.put(cookie)="+webcallCookie);
+										//WebCallLog.d(TAG,"intercept requestHeaders.put(cookie)="+webcallCookie);
 										requestHeaders.put("Cookie", webcallCookie);
 									} else {
-										Log.d(TAG,"! intercept no cookie "+reqUrl);
+										WebCallLog.d(TAG,"! intercept no cookie "+reqUrl);
 									}
 								}
 
 								if(logFlag) {
 									// show all request headers
 									for(Map.Entry<String,String> entry : requestHeaders.entrySet()) {
-										Log.d(TAG,"reqHdr: "+entry.getKey() + "/" + entry.getValue()+" "+reqUrl);
+										WebCallLog.v(TAG,"reqHdr: {}/{} {}", entry.getKey(), entry.getValue(), reqUrl);
 									}
 								}
 
@@ -1839,7 +1976,7 @@ public class WebCallService extends Service {
 								status = responseOK.code();
 								if(status>=300 && status<400) {
 									// fatal
-									Log.d(TAG,"# intercept "+status+" url="+reqUrl);
+									WebCallLog.d(TAG,"# intercept "+status+" url="+reqUrl);
 									return null;
 								}
 
@@ -1875,7 +2012,7 @@ public class WebCallService extends Service {
 									// /rtcsig/ requests will not be cached
 									myLocalFileMap.put(path, is);
 									myLocalMimeMap.remove(path); // making sure this will be requested again next time
-									//Log.d(TAG,"intercept no-cache path=("+path+")"+
+									//WebCallLog.d(TAG,"intercept no-cache path=("+path+")"+
 									//	      " len="+contentLenString+
 									//	      " mime="+mime+
 									//	      " enc="+encoding);
@@ -1894,7 +2031,7 @@ public class WebCallService extends Service {
 									myLocalFileDataMap.put(path,buffer.toByteArray());
 									myLocalFileMap.remove(path);
 
-									Log.d(TAG,"intercept cache path=("+path+")"+
+									WebCallLog.d(TAG,"intercept cache path=("+path+")"+
 										      " len="+contentLenString+
 										      " mime="+myLocalMimeMap.get(path)+
 										      " enc="+encoding);
@@ -1923,26 +2060,26 @@ public class WebCallService extends Service {
 							long contentLength = myLocalFileLenMap.get(path);
 							mime = myMime;
 							encoding = myLocalEncodingMap.get(path);
-							Log.d(TAG,"intercept load path=("+path+") len="+contentLength+
+							WebCallLog.d(TAG,"intercept load path=("+path+") len="+contentLength+
 									  " mime="+mime+" enc="+encoding);
 
 							InputStream is = myLocalFileMap.get(path);
 							if(is!=null) {
 								// is = stream to file in our asset folder (good for one fetch)
-								//Log.d(TAG,"intercept store stream ("+(is!=null)+")");
+								//WebCallLog.d(TAG,"intercept store stream ("+(is!=null)+")");
 								is = new BufferedInputStream(is);
 								myLocalFileMap.remove(path); // good for one use only
 							} else {
 								// myLocalFileDataMap.get(path) = ByteArray of our cached content
 								is = new ByteArrayInputStream(myLocalFileDataMap.get(path));
-								//Log.d(TAG,"intercept store bytearray ("+(is!=null)+")");
+								//WebCallLog.d(TAG,"intercept store bytearray ("+(is!=null)+")");
 							}
 
 							response = new WebResourceResponse(mime, encoding, is);
 						} else {
 							// /rtcsig pathes are not being cached, they are requested every time (with the needed header)
 							//if(path.indexOf("/rtcsig/")<0) {
-							//	Log.d(TAG,"intercept notcached path=("+path+")");
+							//	WebCallLog.d(TAG,"intercept notcached path=("+path+")");
 							//}
 						}
 
@@ -1966,10 +2103,10 @@ public class WebCallService extends Service {
 						statusMsg = myLocalStatusMsgMap.get(path);
 
 						if(logFlag || status!=200) {
-							Log.d(TAG,"intercept "+status+" repMsg="+statusMsg+" ("+ mime+ ") ("+ encoding + ") ");
+							WebCallLog.d(TAG,"intercept "+status+" repMsg="+statusMsg+" ("+ mime+ ") ("+ encoding + ") ");
 //							Set<String> headerNamesSet = responseHeadersOK.names();
 //							for(String name : headerNamesSet) {
-//								Log.d(TAG, "headerOK "+name + " " + responseHeadersOK.get(name));
+//								WebCallLog.d(TAG, "headerOK "+name + " " + responseHeadersOK.get(name));
 //							}
 						}
 
@@ -1982,7 +2119,7 @@ public class WebCallService extends Service {
 
 							if(logFlag /*|| myMime!=null*/) {
 								if(key==null || !key.equals("content-security-policy")) {
-									Log.d(TAG,"respHdr: "+key + " (" + value +") "+reqUrl);
+									WebCallLog.v(TAG,"respHdr: {} ({}) {}", key, value, reqUrl);
 								}
 							}
 
@@ -1990,10 +2127,10 @@ public class WebCallService extends Service {
 								if(key.equals("Set-Cookie") || key.equals("set-cookie")) {
 									if(value!="") {
 										webcallCookie = value;
-										Log.d(TAG,"intercept storePrefs cookie="+webcallCookie);
+										WebCallLog.d(TAG,"intercept storePrefs cookie="+webcallCookie);
 										storePrefsString("cookies", webcallCookie);
 										if(myWebView!=null && currentUrl!=null) {
-											Log.d(TAG,"intercept setCookie currentUrl="+currentUrl);
+											WebCallLog.d(TAG,"intercept setCookie currentUrl="+currentUrl);
 											CookieManager.getInstance().setAcceptCookie(true);
 											CookieManager.getInstance().setCookie(currentUrl,webcallCookie);
 										}
@@ -2019,7 +2156,7 @@ public class WebCallService extends Service {
 						// intercept 1 using HttpsURLConnection
 						URL url = new URL(uri.toString());
 						if(insecureTlsFlag) {
-							if(logFlag) { Log.d(TAG,"intercept allow insecure https"); }
+							if(logFlag) { WebCallLog.d(TAG,"intercept allow insecure https"); }
 							try {
 								TrustManager[] trustAllCerts = new TrustManager[] {
 									new X509TrustManager() {
@@ -2039,7 +2176,7 @@ public class WebCallService extends Service {
 								SSLSocketFactory factory = sslContext.getSocketFactory();
 								HttpsURLConnection.setDefaultSSLSocketFactory(factory);
 							} catch(Exception ex) {
-								Log.w(TAG,"# intercept allow insecure https ex="+ex);
+								WebCallLog.w(TAG,"# intercept allow insecure https ex="+ex);
 							}
 						}
 
@@ -2047,12 +2184,10 @@ public class WebCallService extends Service {
 						con.setRequestMethod(wvRequestMethod);
 						con.setConnectTimeout(10000);
 						con.setReadTimeout(10000);
-						con.setRequestProperty("X-WcVer", BuildConfig.VERSION_NAME);
-						con.setRequestProperty("X-WvVer", getWebviewVersion());
 
 						Map<String,String> headers = wvRequest.getRequestHeaders();
 						for(Map.Entry<String, String> entry : headers.entrySet()) {
-							if(logFlag) { Log.d(TAG,"rh: "+entry.getKey() + "/" + entry.getValue()); }
+							if(logFlag) { WebCallLog.d(TAG,"rh: "+entry.getKey() + "/" + entry.getValue()); }
 							con.setRequestProperty(entry.getKey(), entry.getValue());
 						}
 
@@ -2064,7 +2199,7 @@ public class WebCallService extends Service {
 								public boolean verify(String hostname, SSLSession session) {
 									//HostnameVerifier hv = new org.apache.http.conn.ssl.StrictHostnameVerifier();
 									//boolean ret = hv.verify("192.168.0.161", session);
-									//Log.d(TAG,"intercept HostnameVerifier accept "+hostname);
+									//WebCallLog.d(TAG,"intercept HostnameVerifier accept "+hostname);
 									return true;
 								}
 							});
@@ -2073,23 +2208,26 @@ public class WebCallService extends Service {
 						if(myWebView!=null) {
 							CookieManager.getInstance().setAcceptCookie(true);
 							if(webcallCookie==null) {
-								//Log.d(TAG,"intercept CookieManager..getCookie("+currentUrl+")...");
+								//WebCallLog.d(TAG,"intercept CookieManager..getCookie("+currentUrl+")...");
 								webcallCookie = CookieManager.getInstance().getCookie(currentUrl);
-								//Log.d(TAG,"intercept CookieManager..getCookie("+currentUrl+")="+webcallCookie);
+								//WebCallLog.d(TAG,"intercept CookieManager..getCookie("+currentUrl+")="+webcallCookie);
 							}
 						}
-						if(webcallCookie!=null) {
-							//Log.d(TAG,"intercept con.setRequestProperty(webcallCookie)="+webcallCookie);
-							con.setRequestProperty("Cookie", webcallCookie);
-							storePrefsString("cookies", webcallCookie);
+						String cookie = webcallCookie;
+						if(cookie!=null) {
+							//WebCallLog.d(TAG,"intercept con.setRequestProperty(webcallCookie)="+webcallCookie);
+							storePrefsString("cookies", cookie);
 						} else {
-							String webcallCookie = prefs.getString("cookies", "");
-							//Log.d(TAG,"intercept con.setRequestProperty(prefs:cookies)="+webcallCookie);
-							con.setRequestProperty("Cookie", webcallCookie);
+							cookie = prefs.getString("cookies", "");
+							//WebCallLog.d(TAG,"intercept con.setRequestProperty(prefs:cookies)="+cookie);
+						}
+						for(Map.Entry<String,String> entry : SignalingCore.requestHeaders(
+								BuildConfig.VERSION_NAME, getWebviewVersion(), cookie).entrySet()) {
+							con.setRequestProperty(entry.getKey(), entry.getValue());
 						}
 
 						if(wvRequestMethod!=null && wvRequestMethod.equals("POST") && postData!=null) {
-							if(logFlag) { Log.d(TAG,"intercept setDoOutput "+postData); }
+							if(logFlag) { WebCallLog.d(TAG,"intercept setDoOutput "+postData); }
 							con.setDoOutput(true);
 							DataOutputStream wr = new DataOutputStream(con.getOutputStream());
 							wr.writeBytes(postData);
@@ -2098,7 +2236,7 @@ public class WebCallService extends Service {
 							postData = null;
 						}
 
-						if(logFlag) { Log.d(TAG,"intercept con.connect()"); }
+						if(logFlag) { WebCallLog.d(TAG,"intercept con.connect()"); }
 						con.connect();
 						int status = con.getResponseCode();
 						String statusMsg = con.getResponseMessage();
@@ -2117,7 +2255,7 @@ public class WebCallService extends Service {
 							//if(encoding==null && mime.startsWith("text/") encoding="utf-8";
 
 							if(logFlag) {
-								Log.d(TAG,"intercept "+uri.toString()+" "+status+" ("+ mime+ ") "+
+								WebCallLog.d(TAG,"intercept "+uri.toString()+" "+status+" ("+ mime+ ") "+
 										"("+ encoding+") ["+contentType+"] repMsg="+statusMsg);
 							}
 
@@ -2130,13 +2268,13 @@ public class WebCallService extends Service {
 								//if(value.startsWith("[") && value.endsWith("]")) {
 								//	value = value.substring(1,value.length()-1);
 								//}
-								if(logFlag) { Log.d(TAG,"map: "+key + "/" + value+" "+uri.toString()); }
+								if(logFlag) { WebCallLog.d(TAG,"map: "+key + "/" + value+" "+uri.toString()); }
 								if(key!=null && key.equals("Set-Cookie")) {
 									webcallCookie = value;
-									Log.d(TAG,"intercept storePrefs cookie="+webcallCookie);
+									WebCallLog.d(TAG,"intercept storePrefs cookie="+webcallCookie);
 									storePrefsString("cookies", webcallCookie);
 									if(myWebView!=null) {
-										Log.d(TAG,"intercept setCookie currentUrl="+currentUrl);
+										WebCallLog.d(TAG,"intercept setCookie currentUrl="+currentUrl);
 										CookieManager.getInstance().setAcceptCookie(true);
 										CookieManager.getInstance().setCookie(currentUrl,webcallCookie);
 									}
@@ -2150,7 +2288,7 @@ public class WebCallService extends Service {
 //						}
 */
 					} catch(Exception ex) {
-						Log.d(TAG, "# intercept "+wvRequestUri+
+						WebCallLog.d(TAG, "# intercept "+wvRequestUri+
 //									" line="+(Thread.currentThread().getStackTrace()[2].getLineNumber())+
 									" Ex="+ex);
 						ex.printStackTrace();
@@ -2162,11 +2300,11 @@ public class WebCallService extends Service {
 				@Override
 				public void onPageFinished(WebView view, String url){
 					// Notify the host application that a page has finished loading
-					//Log.d(TAG, "onPageFinished url=" + url);
+					//WebCallLog.d(TAG, "onPageFinished url=" + url);
 					// first we want to know if url is just a hashchange
 					// in which case we will NOT do anyhing special
 					if(currentUrl!=null && myWebView!=null && webviewMainPageLoaded) {
-						//Log.d(TAG, "onPageFinished currentUrl=" + currentUrl);
+						//WebCallLog.d(TAG, "onPageFinished currentUrl=" + currentUrl);
 						// for onPageFinished we need currentUrl WITHOUT hash
 						// for getCurrentUrl() called by activity onBackPressed()
 						//   currentUrl must contain the full current url (WITH hash)
@@ -2181,13 +2319,13 @@ public class WebCallService extends Service {
 						if(idxArgs>=0) {
 							baseCurrentUrl = baseCurrentUrl.substring(0,idxArgs);
 						}
-						//Log.d(TAG, "onPageFinished baseCurrentUrl=" + baseCurrentUrl);
+						//WebCallLog.d(TAG, "onPageFinished baseCurrentUrl=" + baseCurrentUrl);
 						if(url.startsWith(baseCurrentUrl)) {
 							// url is just a hashchange; does not need onPageFinished processing
 							// no need to execute onPageFinished() on hashchange or history back
 							// here we cut off "auto=1"
 							currentUrl = url.replace("?auto=1","");
-							//Log.d(TAG, "onPageFinished only hashchange=" + currentUrl);
+							//WebCallLog.d(TAG, "onPageFinished only hashchange=" + currentUrl);
 							return;
 						}
 					}
@@ -2196,11 +2334,11 @@ public class WebCallService extends Service {
 					// and if we ARE connected already -> call js:wakeGoOnline()
 					// here we cut off "auto=1"
 					currentUrl = url.replace("?auto=1","");
-					Log.d(TAG, "onPageFinished currentUrl=" + currentUrl);
+					WebCallLog.d(TAG, "onPageFinished currentUrl=" + currentUrl);
 					//webviewMainPageLoaded = false;
 					if(currentUrl!=null) {
 						webcallCookie = CookieManager.getInstance().getCookie(currentUrl);
-						Log.d(TAG, "onPageFinished webcallCookie=" + webcallCookie);
+						WebCallLog.d(TAG, "onPageFinished webcallCookie=" + webcallCookie);
 						if(webcallCookie!=null && webcallCookie!="") {
 							storePrefsString("cookies", webcallCookie);
 						}
@@ -2211,12 +2349,13 @@ public class WebCallService extends Service {
 						// webview has just finished loading the callee main page
 						webviewMainPageLoaded = true;
 						postStatus("state", "mainpage");
+						mainPageSignal.set();
 
 						if(wsClient==null) {
-							Log.d(TAG, "onPageFinished main page not yet connected to server");
+							WebCallLog.d(TAG, "onPageFinished main page not yet connected to server");
 							// we now await "connectHost hostVerify Success net=x" ...
 						} else {
-							Log.d(TAG, "onPageFinished main page: already connected to server");
+							WebCallLog.d(TAG, "onPageFinished main page: already connected to server");
 							// we are already connected to server (probably from before activity started)
 							// we have to bring the just loaded callee.js online, too
 							// wakeGoOnlineNoInit() makes sure:
@@ -2227,7 +2366,7 @@ public class WebCallService extends Service {
 							runJS("wakeGoOnlineNoInit()", new ValueCallback<String>() {
 								@Override
 								public void onReceiveValue(String s) {
-									Log.d(TAG,"onPageFinished main page: broadcast state connected");
+									WebCallLog.d(TAG,"onPageFinished main page: broadcast state connected");
 									postStatus("state","connected");
 
 									if(calleeIsReady) { // gotStream2() -> s) did already happen
@@ -2236,7 +2375,7 @@ public class WebCallService extends Service {
 											final Runnable runnable2 = new Runnable() {
 												public void run() {
 													if(calleeIsReady) {
-														Log.d(TAG,"onPageFinished main page processWebRtcMessages");
+														WebCallLog.d(TAG,"onPageFinished main page processWebRtcMessages");
 														processWebRtcMessages();
 													}
 												}
@@ -2251,6 +2390,7 @@ public class WebCallService extends Service {
 						}
 					} else {
 						// this is NOT the callee main page
+						mainPageSignal.clear();
 					}
 				}
 			});
@@ -2260,10 +2400,10 @@ public class WebCallService extends Service {
 				public boolean onConsoleMessage(ConsoleMessage cm) {
 					String msg = cm.message();
 					if(msg.startsWith("Uncaught")) {
-						Log.d(TAG,"# con: "+msg + " L"+cm.lineNumber());
+						WebCallLog.d(TAG,"# con: "+msg + " L"+cm.lineNumber());
 // TODO if we have started ringing we need to abort it
 					} else {
-						Log.d(TAG,"con: "+msg + " L"+cm.lineNumber());
+						WebCallLog.d(TAG,"con: "+msg + " L"+cm.lineNumber());
 					}
 					if(msg.equals("Uncaught ReferenceError: goOnline is not defined")) {
 						if(wsClient==null) {
@@ -2280,7 +2420,7 @@ public class WebCallService extends Service {
 					if(msg.startsWith("showNumberForm pos")) {
 						// showNumberForm pos 95.0390625 52.1953125 155.5859375 83.7421875 L1590
 						String floatString = msg.substring(19).trim();
-						//Log.d(TAG, "emulate tap floatString="+floatString);
+						//WebCallLog.d(TAG, "emulate tap floatString="+floatString);
 						postStatus("simulateClick", floatString);
 					}
 					return true;
@@ -2290,14 +2430,14 @@ public class WebCallService extends Service {
 				public void onPermissionRequest(PermissionRequest request) {
 					String[] strArray = request.getResources();
 					for(int i=0; i<strArray.length; i++) {
-						Log.i(TAG, "onPermissionRequest "+i+" ("+strArray[i]+")");
+						WebCallLog.i(TAG, "onPermissionRequest "+i+" ("+strArray[i]+")");
 						// we only grant the permission we want to grant
 						if(strArray[i].equals("android.webkit.resource.AUDIO_CAPTURE") ||
 						   strArray[i].equals("android.webkit.resource.VIDEO_CAPTURE")) {
 							request.grant(strArray);
 							break;
 						}
-						Log.w(TAG, "onPermissionRequest unexpected "+strArray[i]);
+						WebCallLog.w(TAG, "onPermissionRequest unexpected "+strArray[i]);
 					}
 				}
 
@@ -2316,7 +2456,7 @@ public class WebCallService extends Service {
 						FileChooserParams fileChooserParams) {
 					// ValueCallback filePath will be set from fileSelect()
 					filePath = filePathCallback;
-					Log.d(TAG, "onShowFileChooser filePath="+filePath+" (from input[type='file'])");
+					WebCallLog.d(TAG, "onShowFileChooser filePath="+filePath+" (from input[type='file'])");
 
 					// tell activity to open file selector
 					postStatus("forResults", "x"); // value is not relevant
@@ -2336,14 +2476,14 @@ public class WebCallService extends Service {
 				String webcalldomain =
 					prefs.getString("webcalldomain", "").toLowerCase(Locale.getDefault());
 				if(webcalldomain.equals("")) {
-					Log.d(TAG,"startWebView cannot reconnect: webcalldomain is not set");
+					WebCallLog.d(TAG,"startWebView cannot reconnect: webcalldomain is not set");
 				} else if(username.equals("")) {
-					Log.d(TAG,"startWebView cannot reconnect: username is not set");
+					WebCallLog.d(TAG,"startWebView cannot reconnect: username is not set");
 				} else {
 					currentUrl = "https://"+webcalldomain+"/callee/"+username;
 				}
 			}
-			Log.d(TAG, "startWebView load webviewVers="+getWebviewVersion()+" url="+currentUrl);
+			WebCallLog.d(TAG, "startWebView load webviewVers="+getWebviewVersion()+" url="+currentUrl);
 			myWebView.loadUrl(currentUrl);
 		}
 
@@ -2356,15 +2496,15 @@ public class WebCallService extends Service {
 			if(reconnectBusy) {
 	  			// while service is in the process of reconnecting, webcallConnectType() will return 3
 				// this will prevent the activity to destroy itself and open the base-page on restart
-				Log.d(TAG, "webcallConnectType ret 3 (reconnectBusy)");
+				WebCallLog.d(TAG, "webcallConnectType ret 3 (reconnectBusy)");
 				return 3; // reconnecting
 			}
 			if(wsClient!=null) {
-				Log.d(TAG, "webcallConnectType return 1 (connected)");
+				WebCallLog.d(TAG, "webcallConnectType return 1 (connected)");
 				return 1;
 			}
 			// service is NOT connected to webcall server, webcallConnectType() will return 0
-			Log.d(TAG, "webcallConnectType ret 0 (wsClient==null)");
+			WebCallLog.d(TAG, "webcallConnectType ret 0 (wsClient==null)");
 			return 0;
 		}
 
@@ -2378,9 +2518,9 @@ public class WebCallService extends Service {
 				ret = 2; // call in progress / mediaConnect
 			}
 			if(ret>0) {
-				Log.d(TAG, "callInProgress pickedUp="+callPickedUpFlag+" peerConnect="+peerConnectFlag);
+				WebCallLog.d(TAG, "callInProgress pickedUp="+callPickedUpFlag+" peerConnect="+peerConnectFlag);
 			} else {
-				//Log.d(TAG, "callInProgress no");
+				//WebCallLog.d(TAG, "callInProgress no");
 			}
 			return ret;
 		}
@@ -2392,16 +2532,16 @@ public class WebCallService extends Service {
 
 		public void setProximity(boolean flagNear) {
 			if(audioManager.isWiredHeadsetOn()) {
-				Log.d(TAG, "setProximity near="+flagNear+" skip isWiredHeadsetOn");
+				WebCallLog.d(TAG, "setProximity near="+flagNear+" skip isWiredHeadsetOn");
 			} else if(audioManager.isBluetoothA2dpOn()) {
-				Log.d(TAG, "setProximity near="+flagNear+" skip isBluetoothA2dpOn");
+				WebCallLog.d(TAG, "setProximity near="+flagNear+" skip isBluetoothA2dpOn");
 			} else {
-				Log.d(TAG, "setProximity near="+flagNear+" last="+proximityNear);
+				WebCallLog.d(TAG, "setProximity near="+flagNear+" last="+proximityNear);
 				if(flagNear) {
 					if(proximityNear!=1) {
 						// user is now holding device CLOSE TO HEAD
-						//Log.d(TAG, "setProximity() near, speakerphone=false");
-						Log.d(TAG, "setProximity near="+flagNear);
+						//WebCallLog.d(TAG, "setProximity() near, speakerphone=false");
+						WebCallLog.d(TAG, "setProximity near="+flagNear);
 						audioManager.setMode(AudioManager.MODE_IN_CALL);
 						audioManager.setSpeakerphoneOn(false); // deactivates speakerphone on Gn
 						proximityNear = 1;
@@ -2410,8 +2550,8 @@ public class WebCallService extends Service {
 					// not near
 					if(proximityNear!=0) {
 						// user is now now holding device AWAY FROM HEAD
-						//Log.d(TAG, "setProximity() away, speakerphone=true");
-						Log.d(TAG, "setProximity near="+flagNear);
+						//WebCallLog.d(TAG, "setProximity() away, speakerphone=true");
+						WebCallLog.d(TAG, "setProximity near="+flagNear);
 						audioManager.setMode(AudioManager.MODE_IN_COMMUNICATION);
 						audioManager.setSpeakerphoneOn(true); // activates speakerphone
 						proximityNear = 0;
@@ -2423,15 +2563,38 @@ public class WebCallService extends Service {
 		public void releaseWakeUpWakeLock() {
 			if(wakeUpWakeLock!=null && wakeUpWakeLock.isHeld()) {
 				// this will let the screen time out
-				wakeUpWakeLock.release();
-				Log.d(TAG, "releaseWakeUpWakeLock() released");
+				if(wakeLockTracker!=null) {
+					wakeLockTracker.release(wakeUpWakeLock, "wakeUp", "activity");
+				} else {
+					wakeUpWakeLock.release();
+				}
+				WebCallLog.d(TAG, "releaseWakeUpWakeLock() released");
 			} else {
-				Log.d(TAG, "releaseWakeUpWakeLock() not held");
+				WebCallLog.d(TAG, "releaseWakeUpWakeLock() not held");
 			}
 			wakeUpWakeLock = null;
 			// TODO activity called this maybe we should now do the things that we would do on next alarmReceiver
 		}
 
+		// acquireWakeUpLock() acquires the activity's screen wake lock, tracked as "wakeUp"
+		public boolean acquireWakeUpLock(WakeLock lock, String reason, long timeoutMS) {
+			if(wakeLockTracker==null) {
+				lock.acquire(timeoutMS);
+				return true;
+			}
+			return wakeLockTracker.acquire(lock, "wakeUp", reason, timeoutMS);
+		}
+
+		public void releaseWakeUpLock(WakeLock lock, String who) {
+			if(wakeLockTracker==null) {
+				if(lock.isHeld()) {
+					lock.release();
+				}
+				return;
+			}
+			wakeLockTracker.release(lock, "wakeUp", who);
+		}
+
 		public void activityDestroyed() {
 			// activity is telling us that it is being destroyed
 			// TODO this should set webviewPageLoaded=false, needed for next incoming call ???
@@ -2439,14 +2602,14 @@ public class WebCallService extends Service {
 			activityTerminated = true;
 			closeWebView("activityDestroyed");
 			if(wsClient==null && !connectToServerIsWanted && !peerConnectFlag && !callPickedUpFlag) {
-				Log.d(TAG, "----- activityDestroyed exitService()");
+				WebCallLog.d(TAG, "----- activityDestroyed exitService()");
 				exitService();
 			}
 		}
 
 		public int audioToSpeaker(int val) {
 			if(val>=0) {
-				Log.d(TAG, "audioToSpeakerSet="+val);
+				WebCallLog.d(TAG, "audioToSpeakerSet="+val);
 				audioToSpeakerMode = val;
 				audioToSpeakerSet(audioToSpeakerMode>0,true);
 			}
@@ -2455,7 +2618,7 @@ public class WebCallService extends Service {
 
 		public int beepOnLostNetwork(int val) {
 			if(val>=0) {
-				Log.d(TAG, "beepOnLostNetwork="+val);
+				WebCallLog.d(TAG, "beepOnLostNetwork="+val);
 				beepOnLostNetworkMode = val;
 				storePrefsInt("beepOnLostNetwork", beepOnLostNetworkMode);
 			}
@@ -2464,7 +2627,7 @@ public class WebCallService extends Service {
 
 		public int startOnBoot(int val) {
 			if(val>=0) {
-				Log.d(TAG, "startOnBoot="+val);
+				WebCallLog.d(TAG, "startOnBoot="+val);
 				startOnBootMode = val;
 				storePrefsInt("startOnBoot", startOnBootMode);
 			}
@@ -2473,25 +2636,25 @@ public class WebCallService extends Service {
 
 		public int setWifiLock(int val) {
 			if(val>=0) {
-				Log.d(TAG, "setWifiLock="+val);
+				WebCallLog.d(TAG, "setWifiLock="+val);
 				setWifiLockMode = val;
 				storePrefsInt("setWifiLockMode", setWifiLockMode);
 				if(setWifiLockMode<1) {
 					if(wifiLock==null) {
-						Log.d(TAG,"setWifiLock wifiLock==null");
+						WebCallLog.d(TAG,"setWifiLock wifiLock==null");
 					} else if(!wifiLock.isHeld()) {
-						Log.d(TAG,"setWifiLock wifiLock not isHeld");
+						WebCallLog.d(TAG,"setWifiLock wifiLock not isHeld");
 					} else {
-						Log.d(TAG,"setWifiLock wifiLock release");
+						WebCallLog.d(TAG,"setWifiLock wifiLock release");
 						wifiLock.release();
 					}
 				} /*else if(haveNetworkInt==2) {
 					if(wifiLock==null) {
-						Log.d(TAG,"setWifiLock wifiLock==null");
+						WebCallLog.d(TAG,"setWifiLock wifiLock==null");
 					} else if(wifiLock.isHeld()) {
-						Log.d(TAG,"setWifiLock wifiLock isHeld");
+						WebCallLog.d(TAG,"setWifiLock wifiLock isHeld");
 					} else {
-						Log.d(TAG,"setWifiLock wifiLock.acquire");
+						WebCallLog.d(TAG,"setWifiLock wifiLock.acquire");
 						wifiLock.acquire();
 					}
 				}*/
@@ -2501,7 +2664,7 @@ public class WebCallService extends Service {
 
 		public int screenForWifi(int val) {
 			if(val>=0) {
-				Log.d(TAG, "screenForWifi="+val);
+				WebCallLog.d(TAG, "screenForWifi="+val);
 				screenForWifiMode = val;
 				storePrefsInt("screenForWifi", screenForWifiMode);
 			}
@@ -2518,25 +2681,56 @@ public class WebCallService extends Service {
 			} else if(val==0 && extendedLogsFlag) {
 				extendedLogsFlag = false;
 			}
+			if(wakeScheduler!=null) {
+				wakeScheduler.setLogFlag(extendedLogsFlag);
+				wakeLockTracker.setLogFlag(extendedLogsFlag);
+				dnsCache.setLogFlag(extendedLogsFlag);
+				connectionRacer.setLogFlag(extendedLogsFlag);
+			}
+			WebCallLog.setLevel(extendedLogsFlag ? WebCallLog.VERBOSE : WebCallLog.DEBUG);
 			return(extendedLogsFlag);
 		}
 
 		public String getCurrentUrl() {
-			//Log.d(TAG, "getCurrentUrl currentUrl="+currentUrl);
+			//WebCallLog.d(TAG, "getCurrentUrl currentUrl="+currentUrl);
 			return currentUrl;
 		}
 
+		// whenMainPageLoaded() runs task (on the main thread) as soon as the webview shows the
+		// callee main page, or right away if it does so already
+		public void whenMainPageLoaded(Runnable task, long timeoutMS, Runnable onTimeout) {
+			mainPageSignal.whenReady(task, timeoutMS, onTimeout);
+		}
+
+		// whenCalleeConnected() runs task (on the main thread) as soon as the callee is
+		// logged in to the webcall server, or right away if it is already
+		public void whenCalleeConnected(Runnable task, long timeoutMS, Runnable onTimeout) {
+			calleeConnectedSignal.whenReady(task, timeoutMS, onTimeout);
+		}
+
+		// cancelWaiters() drops the tasks the activity queued with whenMainPageLoaded() and
+		// whenCalleeConnected(), so they do not run on (or keep alive) a destroyed activity
+		public void cancelWaiters() {
+			mainPageSignal.cancelWaiters();
+			calleeConnectedSignal.cancelWaiters();
+		}
+
+		public void dialDone(long ms) {
+			dialLatency.add(ms);
+			WebCallLog.d(TAG, "dialDone "+dialLatency);
+		}
+
 		public void runJScode(String str) {
 			// for instance, this lets the activity run "history.back()"
 			if(str.startsWith("history.back()")) {
-				Log.d(TAG, "runJScode history.back()");
+				WebCallLog.d(TAG, "runJScode history.back()");
 			}
 			// TODO apparently calling history.back() does not execute onbeforeunload
 			runJS(str,null);
 		}
 
 		public void fileSelect(Uri[] results) {
-			Log.d(TAG, "fileSelect results="+results);
+			WebCallLog.d(TAG, "fileSelect results="+results);
 			if(results!=null) {
 				filePath.onReceiveValue(results);
 				filePath = null;
@@ -2565,16 +2759,16 @@ public class WebCallService extends Service {
 			storePrefsBoolean("connectWanted",true);
 
 			if(wsClient!=null) {
-				Log.d(TAG, "! goOnline() already online");
+				WebCallLog.d(TAG, "! goOnline() already online");
 //			} else if(haveNetworkInt<=0) {
-//				Log.d(TAG, "! goOnline() no network");
+//				WebCallLog.d(TAG, "! goOnline() no network");
 // if we abort here, the tile icon will not be set
 
 //			} else if(myWebView!=null && webviewMainPageLoaded) {
-//				Log.d(TAG, "goOnline() -> runJS('goOnline();')");
+//				WebCallLog.d(TAG, "goOnline() -> runJS('goOnline();')");
 //				runJS("goOnline(true,'service');",null);
 			} else {
-				Log.d(TAG, "goOnline() -> startReconnecter()");
+				WebCallLog.d(TAG, "goOnline() -> startReconnecter()");
 				startReconnecter(false,0); // wakeIfNoNet=false, reconnectDelaySecs=0
 			}
 		}
@@ -2582,18 +2776,18 @@ public class WebCallService extends Service {
 			// called by tile
 /*
 			if(wsClient==null) {
-				Log.d(TAG, "! goOffline() already offline");
+				WebCallLog.d(TAG, "! goOffline() already offline");
 				// may need to remove a msg like "No network. Waiting in standby..."
 				exitService();
 				// must also remove status msg and switch buttons (enable goOnline)
 			} else
 
 			if(myWebView!=null && webviewMainPageLoaded) {
-				Log.d(TAG, "goOffline() -> runJS('goOffline();')");
+				WebCallLog.d(TAG, "goOffline() -> runJS('goOffline();')");
 				runJS("goOffline('service');",null);
 			} else 
 */			{
-				Log.d(TAG, "goOffline() -> disconnectHost()");
+				WebCallLog.d(TAG, "goOffline() -> disconnectHost()");
 				disconnectHost(true,false); // sendNotif skipStopForeground
 			}
 
@@ -2601,10 +2795,10 @@ public class WebCallService extends Service {
 			postStatus("state", "deactivated");
 			if(myWebView!=null && webviewMainPageLoaded) {
 				// wsConn=null, reconnect stays aktiv
-				//Log.d(TAG,"goOffline -> js:wsOnClose2");
+				//WebCallLog.d(TAG,"goOffline -> js:wsOnClose2");
 				//runJS("wsOnClose2()",null);
 				// turn browser goOnlineSwitch to offline mode
-				Log.d(TAG,"goOffline -> js:offlineAction");
+				WebCallLog.d(TAG,"goOffline -> js:offlineAction");
 				runJS("offlineAction()",null);
 			}
 
@@ -2643,7 +2837,7 @@ public class WebCallService extends Service {
 			// TODO API>=31 use audioManager.setCommunicationDevice(speakerDevice);
 			// see https://developer.android.com/reference/android/media/AudioManager#setCommunicationDevice(android.media.AudioDeviceInfo)
 
-			//Log.d(TAG, "JS prepareDial(), speakerphone=false");
+			//WebCallLog.d(TAG, "JS prepareDial(), speakerphone=false");
 			//audioManager.setMode(AudioManager.MODE_IN_COMMUNICATION); // deactivates speakerphone on P9
 			//audioManager.setSpeakerphoneOn(false); // deactivates speakerphone on Gn
 		}
@@ -2651,7 +2845,18 @@ public class WebCallService extends Service {
 		@android.webkit.JavascriptInterface
 		public void peerConnect() {
 			// aka mediaConnect
-			Log.d(TAG,"JS peerConnect() - mediaConnect");
+			WebCallLog.d(TAG,"JS peerConnect() - mediaConnect");
+			callerInfoAtMS = 0;
+			if(pickupAtMS>0) {
+				pickupLatency.add(SystemClock.elapsedRealtime() - pickupAtMS);
+				WebCallLog.d(TAG,"JS peerConnect() pickup-to-audio "+pickupLatency);
+				pickupAtMS = 0;
+			}
+			CallTracer.callEnd("peerConnect");
+			CallHistory history = callHistory;
+			if(history!=null) {
+				history.answered();
+			}
 			peerConnectFlag=true;
 			callPickedUpFlag=false;
 
@@ -2665,7 +2870,7 @@ public class WebCallService extends Service {
 			// on devices without an earpiece (tablets) this is expected to do nothing
 			// we do it now here instead of at setProximity(true), because it is more reliable this way
 			// will be reversed by peerDisConnect()
-			//Log.d(TAG, "JS peerConnect(), speakerphone=false");
+			//WebCallLog.d(TAG, "JS peerConnect(), speakerphone=false");
 			//audioManager.setMode(AudioManager.MODE_IN_COMMUNICATION); // deactivates speakerphone on P9
 			//audioManager.setSpeakerphoneOn(false); // deactivates speakerphone on Gn
 		}
@@ -2673,7 +2878,7 @@ public class WebCallService extends Service {
 		// added 1.4.7
 		@android.webkit.JavascriptInterface
 		public void muteStateChange(boolean muteState) {
-			Log.d(TAG,"JS muteStateChange("+muteState+")"+
+			WebCallLog.d(TAG,"JS muteStateChange("+muteState+")"+
 				" callPickedUpFlag="+callPickedUpFlag+" peerConnectFlag="+peerConnectFlag+" wsClient="+(wsClient!=null));
 			micMuteState = muteState;
 
@@ -2687,20 +2892,25 @@ public class WebCallService extends Service {
 		@android.webkit.JavascriptInterface
 		public void peerDisConnect() {
 			// called by JS endWebRtcSession()
-			Log.d(TAG,"JS peerDisConnect()");
+			WebCallLog.d(TAG,"JS peerDisConnect()");
 
 			// clear peerConnectFlag + callPickedUpFlag, cancel(NOTIF_ID2), stopRinging
 			endPeerCon();
+			pickupAtMS = 0;
+			CallHistory history = callHistory;
+			if(history!=null) {
+				history.ended(false);
+			}
 
 			autoPickup = false; // set by serviceCmdReceiver "acceptCall"
 
 			if(audioManager!=null) {
 				if(audioManager.isWiredHeadsetOn()) {
-					Log.d(TAG, "JS peerDisConnect() isWiredHeadsetOn: skip setSpeakerphoneOn(true)");
+					WebCallLog.d(TAG, "JS peerDisConnect() isWiredHeadsetOn: skip setSpeakerphoneOn(true)");
 				} else if(audioManager.isBluetoothA2dpOn()) {
-					Log.d(TAG, "JS peerDisConnect() isBluetoothA2dpOn: skip setSpeakerphoneOn(true)");
+					WebCallLog.d(TAG, "JS peerDisConnect() isBluetoothA2dpOn: skip setSpeakerphoneOn(true)");
 				} else {
-					Log.d(TAG, "JS peerDisConnect(), speakerphone=true");
+					WebCallLog.d(TAG, "JS peerDisConnect(), speakerphone=true");
 					audioManager.setSpeakerphoneOn(true);
 				}
 			}
@@ -2710,14 +2920,133 @@ public class WebCallService extends Service {
 
 			if(wsClient==null && !connectToServerIsWanted && activityTerminated &&
 					!peerConnectFlag && !callPickedUpFlag) {
-				Log.d(TAG,"JS peerDisConnect(), wsClient==null and serverIsNotWanted -> exitService()");
+				WebCallLog.d(TAG,"JS peerDisConnect(), wsClient==null and serverIsNotWanted -> exitService()");
 				exitService();
 			}
 		}
 
 		@android.webkit.JavascriptInterface
 		public long keepAwakeMS() {
-			return keepAwakeWakeLockMS;
+			return wakeScheduler.awakeMsToday();
+		}
+
+		@android.webkit.JavascriptInterface
+		public String wakeLockStats() {
+			// battery cost dashboard: wake lock held ms per hour (24h), per day (14d) and by reason
+			return wakeLockTracker.dashboard();
+		}
+
+		@android.webkit.JavascriptInterface
+		public String linkQuality() {
+			// rtt EWMA and percentiles of the current network, missed pongs, stalls and a
+			// quality grade with an audio bitrate hint (callee.js may use it instead of 300kbps)
+			return linkQuality.json();
+		}
+
+		@android.webkit.JavascriptInterface
+		public String identities() {
+			// state of the extra callee IDs (prefs "extraIdentities")
+			return calleeIdentities.json();
+		}
+
+		@android.webkit.JavascriptInterface
+		public String endpointStats() {
+			// per signaling server: rtt EWMA, failures, failovers and whether it is selected
+			return endpointSelector.stats();
+		}
+
+		@android.webkit.JavascriptInterface
+		public String setupStats() {
+			// distributions of time-to-reconnect and time-to-ring
+			JSONObject obj = new JSONObject();
+			try {
+				obj.put("fastReconnect", fastReconnectLatency.json());
+				obj.put("loginReconnect", loginReconnectLatency.json());
+				obj.put("outage", outageLatency.json());
+				obj.put("ring", ringLatency.json());
+				obj.put("pickup", pickupLatency.json());
+				obj.put("dial", dialLatency.json());
+			} catch(Exception ex) {
+				WebCallLog.d(TAG,"# setupStats ex="+ex);
+			}
+			return obj.toString();
+		}
+
+		@android.webkit.JavascriptInterface
+		public String missedCalls() {
+			// the last missedCalls list received by the service (also while there was no webview)
+			// ie. {"version":3,"time":1690000000000,"missedCalls":[...]}
+			if(missedCallStore==null) {
+				return "{\"version\":0,\"time\":0,\"missedCalls\":[]}";
+			}
+			return missedCallStore.snapshot();
+		}
+
+		@android.webkit.JavascriptInterface
+		public long missedCallsVersion() {
+			// changes whenever the server sends a different missedCalls list
+			if(missedCallStore==null) {
+				return 0;
+			}
+			return missedCallStore.version();
+		}
+
+		@android.webkit.JavascriptInterface
+		public void chatAppend(String peer, boolean outgoing, String text) {
+			// the page hands over every sent (outgoing) and received text chat message
+			ChatStore store = chatStore;
+			if(store!=null) {
+				store.append(peer, System.currentTimeMillis(), outgoing, text);
+			}
+		}
+
+		@android.webkit.JavascriptInterface
+		public String chatHistory(String peer, String next, int limit) {
+			// one page of the chat history with peer, newest first: {"messages":[..],"next":".."}
+			// next="" for the newest page, for the following page: the next of this page ("" = no more)
+			ChatStore store = chatStore;
+			if(store==null) {
+				return "{\"messages\":[],\"next\":\"\"}";
+			}
+			return store.query(peer, next, limit);
+		}
+
+		@android.webkit.JavascriptInterface
+		public String chatSearch(String peer, String words, int limit) {
+			// chat messages (with peer, or with anyone if peer is empty) containing all words
+			ChatStore store = chatStore;
+			if(store==null) {
+				return "[]";
+			}
+			return store.search(peer, words, limit);
+		}
+
+		@android.webkit.JavascriptInterface
+		public String callHistory(String next, int limit) {
+			// one page of incoming calls, newest first: {"calls":[..],"next":".."}
+			// next="" for the newest page, for the following page: the next of this page ("" = no more)
+			// outcome: 1=answered 2=missed 3=denied
+			CallHistory history = callHistory;
+			if(history==null) {
+				return "{\"calls\":[],\"next\":\"\"}";
+			}
+			return history.recent(next, limit);
+		}
+
+		@android.webkit.JavascriptInterface
+		public String frequentCallers(int limit) {
+			// the callers with the most calls: count, answered, lastSeen, totalDuration (ms)
+			CallHistory history = callHistory;
+			if(history==null) {
+				return "[]";
+			}
+			return history.frequentCallers(limit);
+		}
+
+		@android.webkit.JavascriptInterface
+		public String callTrace() {
+			// the call setup timeline in Chrome trace-event JSON (for chrome://tracing)
+			return CallTracer.json();
 		}
 
 		@android.webkit.JavascriptInterface
@@ -2762,7 +3091,7 @@ public class WebCallService extends Service {
 		public void setClipboard(String clipText) {
 			// for /callee/mastodon/setup/setup.js
 			if(clipText!=null) {
-				Log.d(TAG, "setClipboard "+clipText);
+				WebCallLog.d(TAG, "setClipboard "+clipText);
 				ClipData clipData = ClipData.newPlainText(null,clipText);
 				ClipboardManager clipboard =
 					(ClipboardManager)getSystemService(Context.CLIPBOARD_SERVICE);
@@ -2777,17 +3106,17 @@ public class WebCallService extends Service {
 		@android.webkit.JavascriptInterface
 		public void getBase64FromBlobData(String base64Data, String filename) throws IOException {
 			// used by WebCallAndroid
-			Log.d(TAG,"JS getBase64FromBlobData "+filename+" "+base64Data.length());
+			WebCallLog.d(TAG,"JS getBase64FromBlobData "+filename+" "+base64Data.length());
 			int skipHeader = base64Data.indexOf("base64,");
 			if(skipHeader>=0) {
 				base64Data = base64Data.substring(skipHeader+7);
 			}
-			//Log.d(TAG,"JS base64Data="+base64Data);
+			//WebCallLog.d(TAG,"JS base64Data="+base64Data);
 			try {
 				byte[] blobAsBytes = Base64.decode(base64Data,Base64.DEFAULT);
-				Log.d(TAG,"JS bytearray len="+blobAsBytes.length);
+				WebCallLog.d(TAG,"JS bytearray len="+blobAsBytes.length);
 
-				//Log.d(TAG,"JS getBase64FromBlobData data="+base64Data);
+				//WebCallLog.d(TAG,"JS getBase64FromBlobData data="+base64Data);
 				storeByteArrayToFile(blobAsBytes,filename);
 			} catch(Exception ex) {
 				statusMessage("Error: "+ex.toString(),-1,false,true);
@@ -2811,7 +3140,7 @@ public class WebCallService extends Service {
 			// wsOpen() does not start reconnecter (reconnecter will be started if the connection is lost)
 			// wsOpen() does NOT call runJS("wakeGoOnline()") (does not send "init|") JS takes care of this
 			if(/*reconnectBusy && */ wsClient!=null) {
-				Log.d(TAG,"JS wsOpen return existing wsClient");
+				WebCallLog.d(TAG,"JS wsOpen return existing wsClient");
 				connectToServerIsWanted = true;
 				storePrefsBoolean("connectWanted",true); // used in case of service crash + restart
 
@@ -2822,13 +3151,15 @@ public class WebCallService extends Service {
 				return wsClient;
 			}
 			if(wsClient==null && setWsAddr!="") {
-				Log.d(TAG,"JS wsOpen wsClient==null addr="+setWsAddr);
+				WebCallLog.d(TAG,"JS wsOpen wsClient==null addr="+setWsAddr);
 				// if connectHost fails, it will send updateNotification(offlineMessage)
 				WebSocketClient wsCli = connectHost(setWsAddr,false);
-				Log.d(TAG,"JS wsOpen wsClient="+(wsCli!=null));
+				WebCallLog.d(TAG,"JS wsOpen wsClient="+(wsCli!=null));
 				if(wsCli!=null) {
 					connectToServerIsWanted = true;
 					storePrefsBoolean("connectWanted",true); // used in case of service crash + restart
+					// the page did the login: the reconnecter may try to resume on this wsAddr
+					cacheFastWsAddr(setWsAddr, webcallCookie);
 					// when callee sends init and gets a confirmation
 					// it will call calleeConnected() / calleeIsConnected()
 					// then we will send: updateNotification readyToReceiveCallsString
@@ -2837,7 +3168,7 @@ public class WebCallService extends Service {
 				return wsCli;
 			}
 
-			Log.d(TAG,"JS wsOpen return existing wsClient");
+			WebCallLog.d(TAG,"JS wsOpen return existing wsClient");
 			connectToServerIsWanted = true;
 			storePrefsBoolean("connectWanted",true); // used in case of service crash + restart
 			// when callee sends init and gets a confirmation
@@ -2849,7 +3180,7 @@ public class WebCallService extends Service {
 
 		@android.webkit.JavascriptInterface
 		public void jsGoOnline() {
-			Log.d(TAG,"JS jsGoOnline() -> startReconnecter()");
+			WebCallLog.d(TAG,"JS jsGoOnline() -> startReconnecter()");
 			connectToServerIsWanted = true;
 			storePrefsBoolean("connectWanted",true);
 			startReconnecter(false,0); // wakeIfNoNet=false, reconnectDelaySecs=0
@@ -2858,21 +3189,21 @@ public class WebCallService extends Service {
 		@android.webkit.JavascriptInterface
 		public boolean isRinging() {
 			if(ringFlag) {
-				Log.d(TAG, "JS isRinging() "+ringFlag);
+				WebCallLog.d(TAG, "JS isRinging() "+ringFlag);
 			}
 			return ringFlag; // set by JS ringStart()
 		}
 
 		@android.webkit.JavascriptInterface
 		public boolean isTextmode() {
-			Log.d(TAG, "JS isTextmode() "+textmode);
+			WebCallLog.d(TAG, "JS isTextmode() "+textmode);
 			return textmode; // set by JS onMessage()
 		}
 
 		@android.webkit.JavascriptInterface
 		public void postRequestData(String data) {
 			postData = data;
-			Log.d(TAG, "JS postRequestData()");
+			WebCallLog.d(TAG, "JS postRequestData()");
 		}
 
 		@android.webkit.JavascriptInterface
@@ -2880,17 +3211,18 @@ public class WebCallService extends Service {
 			// called from gotStream2()
 			// this means the callee webapp is ready to receive messages
 			// does NOT mean it is online (connected to server)
+			CallTracer.instant("calleeReady");
 			calleeIsReady = true;
 			if(!processWebRtcMessagesRunning) {
-				if(!stringMessageQueue.isEmpty()) {
-					Log.d(TAG,"JS calleeReady() -> processWebRtcMessages() "+stringMessageQueue.size());
+				if(!signalingQueue.isEmpty()) {
+					WebCallLog.d(TAG,"JS calleeReady() -> processWebRtcMessages() "+signalingQueue.size());
 					processWebRtcMessagesRunning = true;
 					// we delay calling processWebRtcMessages() bc otherwise JS code will receive:
 					// "cmd callerCandidate !peerCon.remoteDescription"
 					// "callerOffer setRemoteDescription" needs some time to complete
 					final Runnable runnable2 = new Runnable() {
 						public void run() {
-							Log.d(TAG,"---------- calleeReady() processWebRtcMessages start "+stringMessageQueue.size());
+							WebCallLog.d(TAG,"---------- calleeReady() processWebRtcMessages start "+signalingQueue.size());
 							processWebRtcMessages();
 						}
 					};
@@ -2898,7 +3230,7 @@ public class WebCallService extends Service {
 					// when we return true, we will abort gotStream2 (not call prepareCallee())
 					return true;
 				}
-				Log.d(TAG,"JS calleeReady() no queued WebRtcMessages()");
+				WebCallLog.d(TAG,"JS calleeReady() no queued WebRtcMessages()");
 			}
 			return false;
 		}
@@ -2906,35 +3238,29 @@ public class WebCallService extends Service {
 		@android.webkit.JavascriptInterface
 		public void calleeConnected() {
 			// callee.js telling us that it connected to the server
-			Log.d(TAG,"JS calleeConnected()");
+			WebCallLog.d(TAG,"JS calleeConnected()");
 			calleeIsConnected();
 		}
 
 		@android.webkit.JavascriptInterface
 		public void clearLastStatus() {
 			// client.js uses this to prevent postDozeAction() from overwriting the newest statusMsg from JS
-			Log.d(TAG,"JS clearLastStatus()");
+			WebCallLog.d(TAG,"JS clearLastStatus()");
 			lastStatusMessage="";
 		}
 
 		@android.webkit.JavascriptInterface
 		public void wsSend(String str) {
-			String logstr = str;
-			if(logstr.length()>40) {
-				logstr = logstr.substring(0,40);
-			}
 			if(wsClient==null) {
 				// this may happen when service is in reconnect mode and the connection was lost
 				// and the client tries to delete an entry
-				Log.w(TAG,"# JS wsSend wsClient==null "+logstr);
+				WebCallLog.w(TAG,"# JS wsSend wsClient==null "+str.substring(0,Math.min(str.length(),40)));
 			} else {
-				if(extendedLogsFlag) {
-					Log.d(TAG,"JS wsSend "+logstr);
-				}
+				WebCallLog.v(TAG,"JS wsSend {.40}", str);
 				try {
 					wsClient.send(str);
 				} catch(Exception ex) {
-					Log.d(TAG,"JS wsSend ex="+ex);
+					WebCallLog.d(TAG,"JS wsSend ex="+ex);
 					// TODO
 					return;
 				}
@@ -2944,19 +3270,19 @@ public class WebCallService extends Service {
 		@android.webkit.JavascriptInterface
 		public void wsClose() {
 			// called by JS:goOffline()
-			Log.d(TAG,"JS wsClose");
+			WebCallLog.d(TAG,"JS wsClose");
 
 			// wsClient.closeBlocking() + wsClient=null
 			disconnectHost(true,false); // sendNotif skipStopForeground
 
 			storePrefsBoolean("connectWanted",false);
-			Log.d(TAG,"JS wsClose done");
+			WebCallLog.d(TAG,"JS wsClose done");
 		}
 
 		@android.webkit.JavascriptInterface
 		public void wsClosex() {
 			// called by JS:clearcache()
-			Log.d(TAG,"JS wsClosex");
+			WebCallLog.d(TAG,"JS wsClosex");
 
 			//postStatus("state", "deactivated");
 
@@ -2965,7 +3291,7 @@ public class WebCallService extends Service {
 
 			// TODO this is wrong if used for clearCache+reload
 			//storePrefsBoolean("connectWanted",false);
-			Log.d(TAG,"JS wsClosex done");
+			WebCallLog.d(TAG,"JS wsClosex done");
 		}
 
 		@android.webkit.JavascriptInterface
@@ -2985,30 +3311,30 @@ public class WebCallService extends Service {
 			// despite it's name: this function returns true if webview can run JS unconstrained
 			if(powerManager.isDeviceIdleMode()) {
 				if(extendedLogsFlag) {
-					Log.d(TAG,"isActivityInteractive false (DeviceIdleMode)");
+					WebCallLog.d(TAG,"isActivityInteractive false (DeviceIdleMode)");
 				}
 				return false;
 			}
 			if(!activityVisible) {
 				if(extendedLogsFlag) {
-					Log.d(TAG,"isActivityInteractive false (!activityVisible)");
+					WebCallLog.d(TAG,"isActivityInteractive false (!activityVisible)");
 				}
 				return false;
 			}
 			if(myWebView==null) {
 				if(extendedLogsFlag) {
-					Log.d(TAG,"isActivityInteractive false (myWebView==null)");
+					WebCallLog.d(TAG,"isActivityInteractive false (myWebView==null)");
 				}
 				return false;
 			}
 			if(!webviewMainPageLoaded) {
 				if(extendedLogsFlag) {
-					Log.d(TAG,"isActivityInteractive false (!webviewMainPageLoaded)");
+					WebCallLog.d(TAG,"isActivityInteractive false (!webviewMainPageLoaded)");
 				}
 				return false;
 			}
 			if(extendedLogsFlag) {
-				Log.d(TAG,"isActivityInteractive true");
+				WebCallLog.d(TAG,"isActivityInteractive true");
 			}
 			return true;
 		}
@@ -3022,7 +3348,7 @@ public class WebCallService extends Service {
 		@android.webkit.JavascriptInterface
 		public void insecureTls(boolean flag) {
 			insecureTlsFlag = flag;
-			Log.d(TAG,"JS insecureTlsFlag="+insecureTlsFlag);
+			WebCallLog.d(TAG,"JS insecureTlsFlag="+insecureTlsFlag);
 			storePrefsBoolean("insecureTlsFlag", insecureTlsFlag);
 		}
 
@@ -3036,7 +3362,7 @@ public class WebCallService extends Service {
 		public void wsClearCache(final boolean autoreload, final boolean autoreconnect) {
 			// used by webcall.js + callee.js (clearcache())
 			if(myWebView!=null) {
-				Log.d(TAG,"JS wsClearCache clearCache() "+autoreload+" "+autoreconnect);
+				WebCallLog.d(TAG,"JS wsClearCache clearCache() "+autoreload+" "+autoreconnect);
 				myWebView.post(new Runnable() {
 					@Override
 					public void run() {
@@ -3051,16 +3377,16 @@ public class WebCallService extends Service {
 						myLocalStatusMsgMap = new HashMap<String,String>();
 						myLocalFileDataMap = new HashMap<String,byte[]>();
 
-						Log.d(TAG,"JS wsClearCache clearCache() done");
+						WebCallLog.d(TAG,"JS wsClearCache clearCache() done");
 						if(autoreload) {
 							// immediate execution of reload() will NOT execute JS code
-							//Log.d(TAG,"JS wsClearCache reload("+autoreconnect+")");
+							//WebCallLog.d(TAG,"JS wsClearCache reload("+autoreconnect+")");
 							//reload(autoreconnect);
 
 							// but if we wait a little, we can reload and autostart with no problem
 							final Runnable runnable2 = new Runnable() {
 								public void run() {
-									Log.d(TAG,"JS wsClearCache delayed reload("+autoreconnect+")");
+									WebCallLog.d(TAG,"JS wsClearCache delayed reload("+autoreconnect+")");
 									reload(autoreconnect);
 									// at this point the old JS is killed and the new JS will be started
 								}
@@ -3072,16 +3398,16 @@ public class WebCallService extends Service {
 				long nowSecs = new Date().getTime();
 				storePrefsLong("lastClearCache", nowSecs);
 			} else {
-				Log.d(TAG,"JS wsClearCache myWebView==null");
+				WebCallLog.d(TAG,"JS wsClearCache myWebView==null");
 			}
 		}
 
 		@android.webkit.JavascriptInterface
 		public void reload(boolean autoconnect) {
 			if(myWebView==null) {
-				Log.d(TAG,"# JS reload("+currentUrl+") myWebView==null");
+				WebCallLog.d(TAG,"# JS reload("+currentUrl+") myWebView==null");
 			} else if(currentUrl==null) {
-				Log.d(TAG,"# JS reload() currentUrl==null, myWebView not null");
+				WebCallLog.d(TAG,"# JS reload() currentUrl==null, myWebView not null");
 			} else {
 				// get rid of #... in currentUrl
 				String baseCurrentUrl = currentUrl;
@@ -3097,9 +3423,9 @@ public class WebCallService extends Service {
 				currentUrl = baseCurrentUrl;
 				if(autoconnect) {
 					currentUrl += "?auto=1";
-					Log.d(TAG,"JS reload("+currentUrl+") autoconnect");
+					WebCallLog.d(TAG,"JS reload("+currentUrl+") autoconnect");
 				} else {
-					Log.d(TAG,"JS reload("+currentUrl+") no autoconnect");
+					WebCallLog.d(TAG,"JS reload("+currentUrl+") no autoconnect");
 				}
 				final String reloadUrl = currentUrl;
 				currentUrl=null;
@@ -3107,7 +3433,7 @@ public class WebCallService extends Service {
 					@Override
 					public void run() {
 						myWebView.loadUrl(reloadUrl);
-						Log.d(TAG,"JS reload("+reloadUrl+") done");
+						WebCallLog.d(TAG,"JS reload("+reloadUrl+") done");
 					}
 				});
 			}
@@ -3115,13 +3441,14 @@ public class WebCallService extends Service {
 
 		@android.webkit.JavascriptInterface
 		public int androidApiVersion() {
-			Log.d(TAG,"JS androidApiVersion() "+Build.VERSION.SDK_INT);
+			WebCallLog.d(TAG,"JS androidApiVersion() "+Build.VERSION.SDK_INT);
 			return Build.VERSION.SDK_INT;
 		}
 
 		@android.webkit.JavascriptInterface
 		public boolean rtcConnect() {
-			Log.d(TAG,"JS rtcConnect()");
+			WebCallLog.d(TAG,"JS rtcConnect()");
+			CallTracer.instant("rtcConnect");
 
 			// making sure this is activated (if it is enabled)
 			audioToSpeakerSet(audioToSpeakerMode>0,false);
@@ -3134,14 +3461,14 @@ public class WebCallService extends Service {
 			}
 
 			if(activityVisible) {
-				Log.d(TAG,"JS rtcConnect() with activityVisible: not bringActivityToFront");
+				WebCallLog.d(TAG,"JS rtcConnect() with activityVisible: not bringActivityToFront");
 			} else if(Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
 				// while phone is still ringing, keep sending wakeIntent to bringActivityToFront
 
 				final Runnable bringActivityToFront = new Runnable() {
 					public void run() {
 						if(!callPickedUpFlag && !peerConnectFlag && !peerDisconnnectFlag) {
-							Log.d(TAG,"JS rtcConnect() bringActivityToFront loop");
+							WebCallLog.d(TAG,"JS rtcConnect() bringActivityToFront loop");
 							// wake activity for incoming call
 							// this is our secondary wakeIntent with ACTIVITY_REORDER_TO_FRONT
 							long eventMS = (new Date()).getTime();
@@ -3155,19 +3482,19 @@ public class WebCallService extends Service {
 							context.startActivity(wakeIntent);
 							scheduler.schedule(this, 3, TimeUnit.SECONDS);
 						} else {
-							Log.d(TAG,"JS rtcConnect() bringActivityToFront end");
+							WebCallLog.d(TAG,"JS rtcConnect() bringActivityToFront end");
 						}
 					}
 				};
 				scheduler.schedule(bringActivityToFront, 0, TimeUnit.SECONDS);
 			} else {
-				//Log.d(TAG,"JS rtcConnect() "+Build.VERSION.SDK_INT+" >= "+Build.VERSION_CODES.Q+" do nothing");
+				//WebCallLog.d(TAG,"JS rtcConnect() "+Build.VERSION.SDK_INT+" >= "+Build.VERSION_CODES.Q+" do nothing");
 			}
 
 			// 3-button call-notification dialog may have set autoPickup (via serviceCmdReceiver "acceptCall")
 			if(autoPickup) {
 				autoPickup = false;
-				Log.d(TAG,"JS rtcConnect() autoPickup...");
+				WebCallLog.d(TAG,"JS rtcConnect() autoPickup...");
 
 				// allow time for callee.js to switch from online/offline to answer/reject layout
 				final Runnable runnable2 = new Runnable() {
@@ -3180,22 +3507,26 @@ public class WebCallService extends Service {
 				// and no Accept call buttons are needed, pickup() was already called
 				return true;
 			}
-			Log.d(TAG,"JS rtcConnect() no autoPickup");
+			WebCallLog.d(TAG,"JS rtcConnect() no autoPickup");
 			return false;
 		}
 
 		@android.webkit.JavascriptInterface
 		public void callPickedUp() {
-			Log.d(TAG,"JS callPickedUp() wsClient="+(wsClient!=null));
+			WebCallLog.d(TAG,"JS callPickedUp() wsClient="+(wsClient!=null));
 			// route audio to it's normal destination (to headset if connected)
 			audioToSpeakerSet(false,false);
 			callPickedUpFlag=true; // no peerConnect yet, this activates proximitySensor
+			if(pickupAtMS==0) {
+				// picked up in the page (not via the notification)
+				pickupAtMS = SystemClock.elapsedRealtime();
+			}
 		}
 
 
 		@android.webkit.JavascriptInterface
 		public void browse(String url) {
-			Log.d(TAG,"JS browse("+url+")");
+			WebCallLog.d(TAG,"JS browse("+url+")");
 			postStatus("browse", url);
 		}
 
@@ -3203,23 +3534,23 @@ public class WebCallService extends Service {
 		public void wsExit() {
 			// called by Exit button
 			// end peercon, stopRinging(), clear callPickedUpFlag
-			Log.d(TAG,"JS wsExit -> endWebRtcSession()");
+			WebCallLog.d(TAG,"JS wsExit -> endWebRtcSession()");
 			endWebRtcSession(true);
 			endPeerCon();
 
 			// disconnect from webcall server, turn off tile
-			Log.d(TAG,"JS wsExit -> disconnectHost()");
+			WebCallLog.d(TAG,"JS wsExit -> disconnectHost()");
 			disconnectHost(true,false); // sendNotif skipStopForeground
 
 			// tell activity to force close
-			Log.d(TAG,"JS wsExit shutdown activity");
+			WebCallLog.d(TAG,"JS wsExit shutdown activity");
 			postStatus("cmd", "shutdown");
 
 			// myWebView = null
 			closeWebView("wsExit");
 
 			exitService();
-			Log.d(TAG,"JS wsExit done");
+			WebCallLog.d(TAG,"JS wsExit done");
 		}
 
 		@android.webkit.JavascriptInterface
@@ -3227,7 +3558,7 @@ public class WebCallService extends Service {
 			// used by WebCallAndroid
 			String str = prefs.getString(pref, "");
 			if(extendedLogsFlag) {
-				Log.d(TAG, "JS readPreference "+pref+" = "+str);
+				WebCallLog.d(TAG, "JS readPreference "+pref+" = "+str);
 			}
 			return str;
 		}
@@ -3237,7 +3568,7 @@ public class WebCallService extends Service {
 			// used by WebCallAndroid
 			boolean bool = prefs.getBoolean(pref, false);
 			if(extendedLogsFlag) {
-				Log.d(TAG, "JS readPreferenceBool "+pref+" = "+bool);
+				WebCallLog.d(TAG, "JS readPreferenceBool "+pref+" = "+bool);
 			}
 			return bool;
 		}
@@ -3246,7 +3577,7 @@ public class WebCallService extends Service {
 		public long readPreferenceLong(String pref) {
 			long val = prefs.getLong(pref, 0);
 			if(extendedLogsFlag) {
-				Log.d(TAG, "JS readPreferenceLong "+pref+" = "+val);
+				WebCallLog.d(TAG, "JS readPreferenceLong "+pref+" = "+val);
 			}
 			return val;
 		}
@@ -3255,21 +3586,21 @@ public class WebCallService extends Service {
 		public void storePreference(String pref, String str) {
 			// used by WebCallAndroid
 			storePrefsString(pref,str);
-			Log.d(TAG, "JS storePreference "+pref+" "+str+" stored");
+			WebCallLog.d(TAG, "JS storePreference "+pref+" "+str+" stored");
 		}
 
 		@android.webkit.JavascriptInterface
 		public void storePreferenceBool(String pref, boolean bool) {
 			// used by WebCallAndroid
 			storePrefsBoolean(pref,bool);
-			Log.d(TAG, "JS storePreferenceBool "+pref+" "+bool+" stored");
+			WebCallLog.d(TAG, "JS storePreferenceBool "+pref+" "+bool+" stored");
 		}
 
 		@android.webkit.JavascriptInterface
 		public void storePreferenceLong(String pref, long val) {
 			// used by WebCallAndroid
 			storePrefsLong(pref,val);
-			Log.d(TAG, "JS storePreferenceLong "+pref+" "+val+" stored");
+			WebCallLog.d(TAG, "JS storePreferenceLong "+pref+" "+val+" stored");
 		}
 
 		@android.webkit.JavascriptInterface
@@ -3298,19 +3629,21 @@ public class WebCallService extends Service {
 
 		public WsClient(URI serverUri, Draft draft) {
 			super(serverUri, draft);
-			//Log.d(TAG,"constructor with draft "+serverUri);
+			//WebCallLog.d(TAG,"constructor with draft "+serverUri);
 		}
 
 		public WsClient(URI serverURI) {
 			super(serverURI);
-			//Log.d(TAG,"constructor "+serverURI);
+			//WebCallLog.d(TAG,"constructor "+serverURI);
 		}
 
 		@Override
 		public void onOpen(ServerHandshake handshakedata) {
 			// connection to server was opened, so we tell JS wsOnOpen()
+			linkQuality.connectionReset();
+			scheduleLinkProbe(0);
 			if(myWebView!=null && webviewMainPageLoaded) {
-				Log.d(TAG,"WsClient onOpen -> js:wsOnOpen");
+				WebCallLog.d(TAG,"WsClient onOpen -> js:wsOnOpen");
 				// wsOnOpen may come too early and cause:
 				// D WebCallService: con: Uncaught ReferenceError: wsOnOpen is not defined L1
 				//runJS("wsOnOpen()",null);
@@ -3322,7 +3655,7 @@ public class WebCallService extends Service {
 				scheduler.schedule(runnable2, 500l, TimeUnit.MILLISECONDS);
 			} else {
 				// this happens when service is launched by the tile
-				//Log.d(TAG,"WsClient onOpen, but no myWebView or not webviewMainPageLoaded");
+				//WebCallLog.d(TAG,"WsClient onOpen, but no myWebView or not webviewMainPageLoaded");
 				//updateNotification(readyToReceiveCallsString,false);	// ??? too early? has init been sent?
 				// yeah, we wait for init -> sessionId to show readyToReceiveCallsString
 			}
@@ -3331,7 +3664,7 @@ public class WebCallService extends Service {
 		@Override
 		public void onError(Exception ex) {
 			String exString = ex.toString();
-			Log.d(TAG,"onError ex "+exString);
+			WebCallLog.d(TAG,"onError ex "+exString);
 
 			// javax.net.ssl.SSLException: Read error: ssl=0x75597c5e80: 
 			//    I/O error during system call, Connection reset by peer
@@ -3347,7 +3680,7 @@ public class WebCallService extends Service {
 			if(exString!=null && exString!="") {
 				if(exString.indexOf("Read error") >=0) {
 					if(extendedLogsFlag) {
-						Log.d(TAG,"onError hide from JS: "+exString);
+						WebCallLog.d(TAG,"onError hide from JS: "+exString);
 					}
 				} else {
 					statusMessage("Error: "+exString,-1,false,true);
@@ -3365,12 +3698,29 @@ public class WebCallService extends Service {
 
 			autoPickup = false;
 			calleeIsConnectedFlag = false;
+			calleeConnectedSignal.clear();
+			calleeIdentities.muxReset();
+			if(code!=1000 && disconnectedAtMS==0) {
+				// the outage (time-to-reconnect) starts now
+				disconnectedAtMS = SystemClock.elapsedRealtime();
+			}
 
 			if(reconnectBusy) {
-				Log.d(TAG,"onClose skip busy (code="+code+" "+reason+")");
+				WebCallLog.d(TAG,"onClose skip busy (code="+code+" "+reason+")");
+			} else if(code!=1000 && fastResumeTime>0 && connectToServerIsWanted &&
+					SystemClock.elapsedRealtime() - fastResumeTime < fastResumeGraceMS) {
+				// the server accepted the upgrade on the cached wsAddr, but dropped us right away
+				// we take this as a rejection of the fast resume and do a full login
+				// (a normal close, 1000, is handled below: no reconnect)
+				WebCallLog.d(TAG,"onClose after fast resume (code="+code+" "+reason+") -> full login");
+				fastResumeTime = 0;
+				fastReconnectFails++;
+				clearFastWsAddr("closed after resume");
+				wsClient = null;
+				startReconnecter(true,0);
 			} else if(code==1000) {
 				// normal disconnect: shut down connection - do NOT reconnect
-				Log.d(TAG,"onClose code=1000");
+				WebCallLog.d(TAG,"onClose code=1000");
 				wsClient = null;
 				// tmtmtm2
 				if(reconnectSchedFuture==null) {
@@ -3386,13 +3736,13 @@ public class WebCallService extends Service {
 					//runJS("wsOnClose2();", new ValueCallback<String>() {
 					//	@Override
 					//	public void onReceiveValue(String s) {
-					//		Log.d(TAG,"runJS('wsOnClose2') completed: "+s);
+					//		WebCallLog.d(TAG,"runJS('wsOnClose2') completed: "+s);
 					//	}
 					//});
 					runJS("offlineAction();",null);
 				}
 			} else {
-				Log.d(TAG,"onClose code="+code+" reason="+reason);
+				WebCallLog.d(TAG,"onClose code="+code+" reason="+reason);
 
 				if(code==1006) {
 					// connection to webcall server has been interrupted and must be reconnected asap
@@ -3406,18 +3756,14 @@ public class WebCallService extends Service {
 					// what is screenForWifiMode doing here?
 					if(haveNetworkInt<=0 && screenForWifiMode>0) {
 						if(wifiLock!=null && wifiLock.isHeld()) {
-							Log.d(TAG,"onClose wifiLock release");
+							WebCallLog.d(TAG,"onClose wifiLock release");
 							wifiLock.release();
 						}
 					}
 					*/
 
 					// we need keepAwake so we can manage reconnect
-					if(keepAwakeWakeLock!=null && !keepAwakeWakeLock.isHeld()) {
-						Log.d(TAG,"onClose keepAwakeWakeLock.acquire");
-						keepAwakeWakeLock.acquire(3 * 60 * 1000); // 3 minutes max
-						keepAwakeWakeLockStartTime = (new Date()).getTime();
-					}
+					wakeScheduler.keepAwake("onClose", 3 * 60 * 1000); // 3 minutes max
 
 					// close prev connection
 					if(wsClient!=null) {
@@ -3427,7 +3773,7 @@ public class WebCallService extends Service {
 						if(myWebView!=null && webviewMainPageLoaded) {
 							runJS("wsOnClose2()",null); // set wsConn=null; abort blinkButtonFunc()
 						}
-						//Log.d(TAG,"onClose wsClient.close() done");
+						//WebCallLog.d(TAG,"onClose wsClient.close() done");
 
 						// TODO problem is that the server may STILL think it is connected to this client
 						// and that re-login below may fail with "already/still logged in" because of this
@@ -3444,27 +3790,27 @@ public class WebCallService extends Service {
 					int delayReconnecter = 0;
 					if(haveNetworkInt>0) {
 						delayReconnecter = 150;
-						Log.d(TAG,"onClose 1006: haveNetworkInt>0: delay start reconnecter by 150ms");
+						WebCallLog.d(TAG,"onClose 1006: haveNetworkInt>0: delay start reconnecter by 150ms");
 					}
 					scheduler.schedule(new Runnable() {
 						public void run() {
 							if(reconnectSchedFuture!=null) {
-								Log.d(TAG,"onClose 1006 no reconnecter: reconnectSchedFuture!=null");
+								WebCallLog.d(TAG,"onClose 1006 no reconnecter: reconnectSchedFuture!=null");
 							} else if(reconnectBusy) {
-								Log.d(TAG,"onClose 1006 no reconnecter: reconnectBusy");
+								WebCallLog.d(TAG,"onClose 1006 no reconnecter: reconnectBusy");
 							} else if(haveNetworkInt<=0) {
-								Log.d(TAG,"onClose 1006 no reconnecter: haveNetworkInt<=0");
+								WebCallLog.d(TAG,"onClose 1006 no reconnecter: haveNetworkInt<=0");
 							} else {
 								// if no reconnecter is scheduled at this time (say, by checkLastPing())
 								// then schedule a new reconnecter
 								// schedule in 5s to give server some time to detect the discon
 								setLoginUrl();
 								if(loginUrl!="") {
-									Log.d(TAG,"onClose 1006 start reconnecter in 5s url="+loginUrl);
+									WebCallLog.d(TAG,"onClose 1006 start reconnecter in 5s url="+loginUrl);
 									// TODO on P9 in some cases this reconnecter does NOT fire
 									// these are cases where the cause of the 1006 was wifi lost (client side)
 									// shortly after this 1006 we then receive a networkStateReceiver event with all null
-									reconnectSchedFuture = scheduler.schedule(reconnecter,5,TimeUnit.SECONDS);
+									reconnectSchedFuture = scheduleReconnecter(5);
 								}
 							}
 						}
@@ -3487,55 +3833,80 @@ public class WebCallService extends Service {
 					}
 
 					if(reconnectSchedFuture!=null && !reconnectSchedFuture.isDone()) {
-						Log.d(TAG,"networkState cancel reconnectSchedFuture");
+						WebCallLog.d(TAG,"networkState cancel reconnectSchedFuture");
 						reconnectSchedFuture.cancel(false);
 						reconnectSchedFuture = null;
 					}
 					reconnectBusy = false;
-					if(keepAwakeWakeLock!=null && keepAwakeWakeLock.isHeld()) {
-						long wakeMS = (new Date()).getTime() - keepAwakeWakeLockStartTime;
-						Log.d(TAG,"networkState keepAwakeWakeLock.release +"+wakeMS);
-						keepAwakeWakeLockMS += wakeMS;
-						storePrefsLong("keepAwakeWakeLockMS", keepAwakeWakeLockMS);
-						keepAwakeWakeLock.release();
-					}
+					wakeScheduler.release("onClose");
 				}
-				Log.d(TAG,"onClose done");
+				WebCallLog.d(TAG,"onClose done");
 			}
 		}
 
 		@Override
 		public void onMessage(String message) {
-			//Log.d(TAG,"onMessage '"+message+"'");
+			//WebCallLog.d(TAG,"onMessage '"+message+"'");
 
 			lastPingDate = new Date();
 
-			if(message.startsWith("dummy|")) {
-				Log.d(TAG,"onMessage dummy "+message);
+			CalleeIdentities identities = calleeIdentities;
+			if(identities!=null && identities.isMux() && signalingMux.dispatch(message)) {
+				// a tagged frame for one of the extra identities
+				return;
+			}
+
+			final int msgType = SignalingCore.classify(message);
+			if(msgType==SignalingCore.MSG_MISSED_CALLS && missedCallStore!=null) {
+				// keep the list for the page, also while there is no webview
+				if(missedCallStore.update(message.substring(12))) {
+					WebCallLog.d(TAG,"onMessage missedCalls changed {}", missedCallStore.stats());
+				}
+			}
+			if(msgType==SignalingCore.MSG_CALLER_INFO || msgType==SignalingCore.MSG_CALLER_OFFER) {
+				if(callerInfoAtMS==0) {
+					callerInfoAtMS = SystemClock.elapsedRealtime();
+				}
+			}
+			if(msgType==SignalingCore.MSG_CALLER_INFO) {
+				CallTracer.callBegin();
+				CallTracer.instant("onMessage callerInfo");
+				CallHistory history = callHistory;
+				if(history!=null) {
+					// payload: callerID \t callerName \t txtMsg
+					String[] toks = message.substring(11).split("\t");
+					history.ringing(toks[0], toks.length>=2 ? toks[1] : "");
+				}
+			} else if(msgType==SignalingCore.MSG_CALLER_OFFER) {
+				CallTracer.callBegin();
+				CallTracer.instant("onMessage callerOffer");
+			}
+
+			if(msgType==SignalingCore.MSG_DUMMY) {
+				WebCallLog.d(TAG,"onMessage dummy {}", message);
 				return;
 			}
 
-			if(message.equals("clearcache")) {
-				Log.d(TAG,"! onMessage clearcache "+message);
+			if(msgType==SignalingCore.MSG_CLEARCACHE) {
+				WebCallLog.d(TAG,"! onMessage clearcache {}", message);
 				// TODO implement clearcache: force callee web-client reload
 				return;
 			}
 
-			if(message.startsWith("textmode|")) {
+			if(msgType==SignalingCore.MSG_TEXTMODE) {
 				if(message.substring(9).equals("true")) {
 					textmode = true;
-					Log.d(TAG,"onMessage textmode=("+textmode+")");
+					WebCallLog.d(TAG,"onMessage textmode=({})", textmode);
 				} else {
 					textmode = false;
-					Log.d(TAG,"onMessage no textmode");
+					WebCallLog.d(TAG,"onMessage no textmode");
 				}
 				// this runJS may fail (but the client can call isTextmode())
-				String argStr = "wsOnMessage2('"+message+"','service');";
-				runJS(argStr,null);
+				runJS(SignalingCore.jsWsOnMessage(message),null);
 				return;
 			}
 
-			if(message.startsWith("callerOffer|") && Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
+			if(msgType==SignalingCore.MSG_CALLER_OFFER && Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
 				// incoming call!!
 				// for Android <= 9: wake activity via wakeIntent
 				// send a wakeIntent with ACTIVITY_REORDER_TO_FRONT
@@ -3544,10 +3915,12 @@ public class WebCallService extends Service {
 				// the ringing will also be done in the activity
 				// whereas for Andr10+ we start ringing on "callerinfo"
 				if(context==null) {
-					Log.e(TAG,"# onMessage callerOffer: no context to wake activity");
+					WebCallLog.e(TAG,"# onMessage callerOffer: no context to wake activity");
 				} else {
-					Log.d(TAG,"onMessage callerOffer: "+
-						new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US).format(new Date()));
+					if(WebCallLog.isLoggable(WebCallLog.DEBUG)) {
+						WebCallLog.d(TAG,"onMessage callerOffer: "+
+							new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US).format(new Date()));
+					}
 					long eventMS = (new Date()).getTime();
 					Intent wakeIntent =
 						new Intent(context, WebCallCalleeActivity.class)
@@ -3561,7 +3934,7 @@ public class WebCallService extends Service {
 				}
 			}
 
-			if(message.startsWith("callerInfo|") && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+			if(msgType==SignalingCore.MSG_CALLER_INFO && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
 				// incoming call!!
 				// for Android 10+ (SDK >= Q): wake activity via notification channel
 				// - Accept button to wake activity and pickup call
@@ -3594,33 +3967,42 @@ public class WebCallService extends Service {
 				}
 
 				if(context==null) {
-					Log.e(TAG,"# onMessage incoming call: "+contentText+", no context to wake activity");
+					WebCallLog.e(TAG,"# onMessage incoming call: "+contentText+", no context to wake activity");
 				} else if(activityVisible && myWebView!=null && webviewMainPageLoaded &&
 							(currentUrl==null || currentUrl.indexOf("#")<0)) {
-					Log.d(TAG,"onMessage incoming call: "+contentText+", activityVisible on mainpage (do nothing)");
+					WebCallLog.d(TAG,"onMessage incoming call: {}, activityVisible on mainpage (do nothing)", contentText);
 				} else {
 					incomingCall(callerID,callerName,txtMsg,false);
 					startRinging();
 				}
 			}
 
-			if(message.startsWith("cancel|")) {
+			if(msgType==SignalingCore.MSG_CANCEL) {
 				// server or caller signalling end of call (or end of ringing)
-				Log.d(TAG,"onMessage "+message);
+				WebCallLog.d(TAG,"onMessage {}", message);
+				CallTracer.callEnd("cancel");
+				// queued offer and candidates of this call must not reach the next session
+				signalingQueue.cancel();
+				CallHistory history = callHistory;
+				if(history!=null) {
+					history.ended(false);
+				}
+				callerInfoAtMS = 0;
+				pickupAtMS = 0;
 
 				// dismiss the 3-button dialog (just in case)
-				notificationManager.cancel(NOTIF_ID2);
+				cancelIncomingNotification();
 				incomingCall = false;
 				stopRinging(message);
 
 				if(myWebView!=null && webviewMainPageLoaded) {
 					// do nothing: callee.js will receive cancel
-					//Log.d(TAG,"onMessage cancel, -> JS endWebRtcSession()");
+					//WebCallLog.d(TAG,"onMessage cancel, -> JS endWebRtcSession()");
 					//endWebRtcSession(false);
 				} else {
 					cancelIncomingCall();
 				}
-				Log.d(TAG,"onMessage cancel done");
+				WebCallLog.d(TAG,"onMessage cancel done");
 			}
 
 			if(myWebView==null || !webviewMainPageLoaded ||
@@ -3628,42 +4010,50 @@ public class WebCallService extends Service {
 				// we can not send messages (for instance callerCandidate's) into the JS 
 				// if the page is not fully loaded (webviewMainPageLoaded==true)
 				// in such cases we queue the WebRTC messages - until we see "sessionId|"
-				if(message.startsWith("sessionId|")) {
-					Log.d(TAG,"onMessage sessionId -> calleeIsConnected() (activity not running)");
+				if(msgType==SignalingCore.MSG_SESSION_ID) {
+					WebCallLog.d(TAG,"onMessage sessionId -> calleeIsConnected() (activity not running)");
 					calleeIsConnected();
 					incomingCall = false;
 					return;
 				}
 
-				if(message.startsWith("waitingCallers|")) {
+				if(msgType==SignalingCore.MSG_WAITING_CALLERS) {
 					String payload = message.substring(15);
 					if(payload.length()>0) {
 						try {
-							JSONArray jArray = new JSONArray(payload);
-							Log.d(TAG,"onMessage waitingCallers elements="+jArray.length());
-							if(jArray.length()>0) {
+							if(waitingCallerList.update(payload)) {
+								WebCallLog.d(TAG,"onMessage waitingCallers changed {}", waitingCallerList.stats());
+							}
+							// the notification is only posted (or cancelled) if it does not show
+							// this already; the server resends unchanged lists
+							int waitingCount = waitingCallerList.count();
+							if(waitingCount>0) {
+								String txtMsg = "(waiting)";
+								if(waitingCount>1) {
+									txtMsg = "(more waiting...)";
+								}
+								String callerID = waitingCallerList.firstCallerID();
+								String callerName = waitingCallerList.firstCallerName();
+								String notifKey = callerID+"\t"+callerName+"\t"+txtMsg;
 								if(context==null) {
-									Log.e(TAG,"# onMessage waitingCallers: payload="+payload+
+									WebCallLog.e(TAG,"# onMessage waitingCallers: payload="+payload+
 										", no context to wake activity");
 								} else if(activityVisible) {
-									Log.d(TAG,"onMessage waitingCallers: payload="+payload+
-										", activityVisible (do nothing)");
-								} else {
-									JSONObject oneObject = jArray.getJSONObject(0);
-									String callerID = oneObject.getString("CallerID");
-									String callerName = oneObject.getString("CallerName");
-									String txtMsg = "(waiting)";
-									if(jArray.length()>1) {
-										txtMsg = "(more waiting...)";
-									}
+									WebCallLog.d(TAG,"onMessage waitingCallers: payload={}, activityVisible (do nothing)",
+										payload);
+									// the activity may dismiss the notification: show it again next time
+									waitingNotifKey = null;
+								} else if(!notifKey.equals(waitingNotifKey)) {
+									WebCallLog.d(TAG,"onMessage waitingCallers elements={}", waitingCount);
 									incomingCall(callerID,callerName,txtMsg,true);
+									waitingNotifKey = notifKey;
 									//startRinging();
 								}
-							} else {
-								notificationManager.cancel(NOTIF_ID2);
+							} else if(waitingNotifKey!=null) {
+								cancelIncomingNotification();
 							}
 						} catch(Exception ex) {
-							Log.d(TAG,"# onMessage "+message+" json parse ex="+ex);
+							WebCallLog.d(TAG,"# onMessage {} json parse ex={}", message, ex);
 						}
 					}
 					return;
@@ -3671,8 +4061,8 @@ public class WebCallService extends Service {
 
 				// always let callerOffer and missedCalls through
 				// but everything else needs incomingCall==true to be processed
-				if(!message.startsWith("callerOffer|") && !message.startsWith("missedCalls|") && !incomingCall) {
-					//Log.d(TAG,"onMessage "+message+", no incomingCall (activity not running)");
+				if(msgType!=SignalingCore.MSG_CALLER_OFFER && msgType!=SignalingCore.MSG_MISSED_CALLS && !incomingCall) {
+					//WebCallLog.d(TAG,"onMessage "+message+", no incomingCall (activity not running)");
 					return;
 				}
 
@@ -3680,27 +4070,25 @@ public class WebCallService extends Service {
 				if(message.length()>24) {
 					shortMessage = message.substring(0,24);
 				}
-				//Log.d(TAG,"onMessage queueWebRtcMessage("+shortMessage+") "+
+				//WebCallLog.d(TAG,"onMessage queueWebRtcMessage("+shortMessage+") "+
 				//	webviewMainPageLoaded+" "+myWebView);
-				queueWebRtcMessage(message);
-				// same as stringMessageQueue.add(message);
+				queueWebRtcMessage(msgType, message);
 			} else {
 				// webviewMainPageLoaded is set by onPageFinished() when a /callee/ url has been loaded
 				// NOTE: message MUST NOT contain apostrophe (') characters
-				String encodedMessage = message.replace("'", "&#39;");
-				String argStr = "wsOnMessage2('"+encodedMessage+"','service');";
+				String argStr = SignalingCore.jsWsOnMessage(message);
 				/*
 				if(message.startsWith("callerOffer|")) {
-					//Log.d(TAG,"onMessage callerOffer -> runJS() (activity running)");
+					//WebCallLog.d(TAG,"onMessage callerOffer -> runJS() (activity running)");
 				} else if(message.startsWith("missedCalls|")) {
-					//Log.d(TAG,"onMessage missedCalls -> runJS() (activity running)");
+					//WebCallLog.d(TAG,"onMessage missedCalls -> runJS() (activity running)");
 				} else if(message.startsWith("callerCandidate|")) {
-					//Log.d(TAG,"onMessage callerCandidate -> runJS() (activity running)");
+					//WebCallLog.d(TAG,"onMessage callerCandidate -> runJS() (activity running)");
 				} else {
-					//Log.d(TAG,"onMessage "+message+" -> runJS("+argStr+") (activity running)");
+					//WebCallLog.d(TAG,"onMessage "+message+" -> runJS("+argStr+") (activity running)");
 				}
 				*/
-				//Log.d(TAG,"onMessage runJS "+argStr);
+				//WebCallLog.d(TAG,"onMessage runJS "+argStr);
 				// forward message to signalingCommand() in callee.js
 				runJS(argStr,null);
 			}
@@ -3709,7 +4097,7 @@ public class WebCallService extends Service {
 		@Override
 		public void onMessage(ByteBuffer message) {
 			//this is not being used
-			Log.d(TAG,"onMessage ! ByteBuffer");
+			WebCallLog.d(TAG,"onMessage ! ByteBuffer");
 		}
 
 		@Override
@@ -3717,10 +4105,10 @@ public class WebCallService extends Service {
 			// this method is only supported on Android >= 24 (Nougat)
 			// in wsOpen() we do host verification ourselves
 			if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
-				Log.d(TAG,"onSetSSLParameters "+sslParameters);
+				WebCallLog.d(TAG,"onSetSSLParameters "+sslParameters);
 				super.onSetSSLParameters(sslParameters);
 			} else {
-				Log.d(TAG,"# onSetSSLParameters "+sslParameters+" not supported "+
+				WebCallLog.d(TAG,"# onSetSSLParameters "+sslParameters+" not supported "+
 					Build.VERSION.SDK_INT+" < "+Build.VERSION_CODES.N);
 			}
 		}
@@ -3730,8 +4118,22 @@ public class WebCallService extends Service {
 			// a pong from the server in response to our ping
 			// note: if doze mode is active, many of our ws-pings (by Timer) do not execute
 			// and then we also don't receive the acompaning server-pongs
+			ByteBuffer payload = f.getPayloadData();
+			long tag = payload.remaining()==8 ? payload.getLong(payload.position()) : -1;
+			long rttMS = linkQuality.pongReceived(tag);
+			if(rttMS>=0) {
+				endpointSelector.reportPingRtt(loginDomain, rttMS);
+				if(endpointSelector.probeDue()) {
+					// select() compares probe rtts: measure all webcalldomains the same way
+					scheduler.execute(new Runnable() {
+						public void run() {
+							endpointSelector.probeAll(dnsCache);
+						}
+					});
+				}
+			}
 			if(extendedLogsFlag) {
-				Log.d(TAG,"onWebsocketPong "+currentDateTimeString());
+				WebCallLog.d(TAG,"onWebsocketPong rtt={}", rttMS);
 			}
 			super.onWebsocketPong(conn,f); // without calling this we crash (at least on P9)
 		}
@@ -3743,41 +4145,42 @@ public class WebCallService extends Service {
 			// maybe we should use the AlarmManager to wake ourself up (every 15m)
 			if(wsClient==null) {
 				// apparently this never happens
-				Log.d(TAG,"onWebsocketPing wsClient==null "+currentDateTimeString());
+				WebCallLog.d(TAG,"onWebsocketPing wsClient==null "+currentDateTimeString());
 				// don't pong back
 				return;
 			}
 
 			pingCounter++;
-			if(keepAwakeWakeLock!=null && keepAwakeWakeLock.isHeld()) {
-				// in case keepAwakeWakeLock was acquired before, say, by "dozeStateReceiver idle"
-				long wakeMS = (new Date()).getTime() - keepAwakeWakeLockStartTime;
-				Log.d(TAG,"onWebsocketPing keepAwakeWakeLock.release +"+wakeMS);
-				keepAwakeWakeLockMS += wakeMS;
-				storePrefsLong("keepAwakeWakeLockMS", keepAwakeWakeLockMS);
-				keepAwakeWakeLock.release();
-			}
+			linkQuality.serverPingReceived();
+			// the next probe is due later (or sooner, if the ping was late)
+			scheduleLinkProbe(0);
+			// in case keepAwakeWakeLock was acquired before, say, by "dozeStateReceiver idle"
+			wakeScheduler.release("onWebsocketPing");
 
 			Date currentDate = new Date();
-			Calendar calNow = Calendar.getInstance();
-			int hours = calNow.get(Calendar.HOUR_OF_DAY);
-			int minutes = calNow.get(Calendar.MINUTE);
-			int currentMinuteOfDay = ((hours * 60) + minutes);
-			if(currentMinuteOfDay<lastMinuteOfDay) {
-				Log.d(TAG,"new day clear old keepAwakeWakeLockMS "+keepAwakeWakeLockMS);
-				keepAwakeWakeLockMS = 0;
-				storePrefsLong("keepAwakeWakeLockMS", keepAwakeWakeLockMS);
-			}
-
 			if(extendedLogsFlag) {
-				Log.d(TAG,"onWebsocketPing "+pingCounter+" net="+haveNetworkInt+" "+
-					keepAwakeWakeLockMS+" "+BuildConfig.VERSION_NAME+" "+
-					new SimpleDateFormat("yyyy-MM-dd_HH:mm:ss", Locale.US).format(currentDate));
+				if(WebCallLog.isLoggable(WebCallLog.DEBUG)) {
+					WebCallLog.d(TAG,"onWebsocketPing "+pingCounter+" net="+haveNetworkInt+" "+
+						wakeScheduler.awakeMsToday()+" "+BuildConfig.VERSION_NAME+" "+
+						new SimpleDateFormat("yyyy-MM-dd_HH:mm:ss", Locale.US).format(currentDate));
+				}
 			}
 			lastPingDate = currentDate;
-			lastMinuteOfDay = currentMinuteOfDay;
 
 			super.onWebsocketPing(conn,f); // will send a pong
+
+			if(SystemClock.elapsedRealtime() - lastOwnPingMS > ownPingIntervalMS) {
+				// we are awake anyway: ping back for an rtt sample
+				sendRttPing("onWebsocketPing");
+			}
+
+			// we are awake anyway: run wake tasks that are due soon
+			// (on scheduler, not on the websocket read thread)
+			scheduler.execute(new Runnable() {
+				public void run() {
+					wakeScheduler.wakeup("ping", null);
+				}
+			});
 		}
 	}
 
@@ -3789,26 +4192,31 @@ public class WebCallService extends Service {
 		@Override
 		public void onReceive(Context context, Intent intent) {
 			if(intent.getAction().equals(Intent.ACTION_POWER_CONNECTED)) {
-				Log.d(TAG,"POWER_CONNECTED");
+				WebCallLog.d(TAG,"POWER_CONNECTED");
 				charging = true;
 			} else if(intent.getAction().equals(Intent.ACTION_POWER_DISCONNECTED)) {
-				Log.d(TAG,"POWER_DISCONNECTED");
+				WebCallLog.d(TAG,"POWER_DISCONNECTED");
 				charging = false;
 			} else {
-				Log.d(TAG,"POWER_? "+intent.getAction());
+				WebCallLog.d(TAG,"POWER_? "+intent.getAction());
+			}
+
+			if(wakeScheduler!=null) {
+				// we are awake anyway: run wake tasks that are due soon
+				wakeScheduler.wakeup("power", null);
 			}
 
 			if(wsClient!=null) {
-				Log.d(TAG, "power event wsClient is set: checkLastPing");
+				WebCallLog.d(TAG, "power event wsClient is set: checkLastPing");
 				checkLastPing(true,0);
 			} else {
 				// we are disconnected: if connectToServerIsWanted, connect to server
 				if(!connectToServerIsWanted) {
-					Log.d(TAG,"power event wsClient not set, no connectToServerIsWanted");
+					WebCallLog.d(TAG,"power event wsClient not set, no connectToServerIsWanted");
 				} else if(reconnectBusy) {
-					Log.d(TAG,"power event wsClient not set, reconnectBusy");
+					WebCallLog.d(TAG,"power event wsClient not set, reconnectBusy");
 				} else {
-					Log.d(TAG,"power event wsClient not set, startReconnecter");
+					WebCallLog.d(TAG,"power event wsClient not set, startReconnecter");
 					startReconnecter(true,0);
 				}
 			}
@@ -3818,100 +4226,13 @@ public class WebCallService extends Service {
 	public class AlarmReceiver extends BroadcastReceiver {
 		private static final String TAG = "WebCallAlarm";
 		public void onReceive(Context context, Intent intent) {
-			// we have requested wakeup out of doze every 10-15 minutes
-			// now we check if we are still receiving pings from the server
-			if(pendingAlarm==null) {
-				// user is possibly on basepage still
-				Log.w(TAG,"abort on pendingAlarm==null");
-			}
-			pendingAlarm = null;
-			alarmPendingDate = null;
-
-			if(!connectToServerIsWanted) {
-				Log.w(TAG,"abort on !connectToServerIsWanted");
+			// we have requested wakeup out of doze for the earliest pending wake task
+			// wakeScheduler will run all tasks that are due and request a followup alarm
+			if(wakeScheduler==null) {
+				WebCallLog.w(TAG,"abort on wakeScheduler==null");
 				return;
 			}
-
-			batteryStatus = context.registerReceiver(null, batteryStatusfilter);
-			//int chargePlug = batteryStatus.getIntExtra(BatteryManager.EXTRA_PLUGGED, -1);
-			//boolean usbCharge = chargePlug == BatteryManager.BATTERY_PLUGGED_USB;
-			//boolean acCharge = chargePlug == BatteryManager.BATTERY_PLUGGED_AC;
-			int level = batteryStatus.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
-			int scale = batteryStatus.getIntExtra(BatteryManager.EXTRA_SCALE, -1);
-			float batteryPct = level * 100 / (float)scale;
-
-
-			Log.d(TAG,"net="+haveNetworkInt+ " awakeMS="+keepAwakeWakeLockMS+
-				" pings="+pingCounter+ " "+batteryPct+
-				" "+BuildConfig.VERSION_NAME+
-				" "+currentDateTimeString());
-			if(Build.VERSION.SDK_INT < Build.VERSION_CODES.N) { // api<24
-				checkNetworkState(false);
-			}
-			if(haveNetworkInt>0) {
-				// this is a good time to send a ping
-				// if the connection is bad we will know much quicker
-				if(wsClient!=null) {
-					try {
-						if(extendedLogsFlag) {
-							Log.d(TAG,"sendPing");
-						}
-						wsClient.sendPing();
-					} catch(Exception ex) {
-						// possibly: org.java_websocket.exceptions.WebsocketNotConnectedException
-						Log.d(TAG,"sendPing ex="+ex);
-						wsClient = null;
-					}
-				}
-			}
-
-			if(wsClient!=null) {
-				//Log.d(TAG,"alarm checkLastPing()");
-				checkLastPing(true,0);
-			} else {
-				if(!connectToServerIsWanted) {
-					Log.d(TAG,"alarm skip reconnect, no connectToServerIsWanted");
-				/*
-				} else if(reconnectBusy) {
-					// alarm only fires if device is in doze, and then reconnectSchedFuture does NOT fire
-					// so we do NOT skip this alarm!
-					// instead we canncel reconnectSchedFuture (if it is not done)
-					// and startReconnecter
-					Log.d(TAG,"alarm skip, reconnectBusy");
-				*/
-				} else if(haveNetworkInt<=0) {
-					Log.d(TAG,"alarm skip reconnect, no network");
-				} else {
-					// stop reconnectSchedFuture, clear reconnectBusy
-					if(reconnectSchedFuture!=null && !reconnectSchedFuture.isDone()) {
-						Log.d(TAG,"alarm reconnectSchedFuture.cancel");
-						reconnectSchedFuture.cancel(false);
-						reconnectSchedFuture = null;
-					}
-					reconnectBusy = false;
-					Log.d(TAG,"alarm startReconnecter");
-					startReconnecter(true,0);
-				}
-			}
-
-			// always request a followup alarm
-			pendingAlarm = PendingIntent.getBroadcast(context, 0, startAlarmIntent, PendingIntent.FLAG_IMMUTABLE);
-			if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-				if(extendedLogsFlag) {
-					Log.d(TAG,"alarm setAndAllowWhileIdle");
-				}
-				alarmManager.setAndAllowWhileIdle(AlarmManager.ELAPSED_REALTIME_WAKEUP,
-					SystemClock.elapsedRealtime() + 15*60*1000, pendingAlarm);
-			} else {
-				// for Android 5 and below:
-				if(extendedLogsFlag) {
-					Log.d(TAG,"alarm set");
-				}
-				// many devices do min 16min
-				alarmManager.set(AlarmManager.ELAPSED_REALTIME_WAKEUP,
-					SystemClock.elapsedRealtime() + 15*60*1000, pendingAlarm);
-			}
-			alarmPendingDate = new Date();
+			wakeScheduler.onAlarm();
 		}
 	}
 
@@ -3919,82 +4240,67 @@ public class WebCallService extends Service {
 	// section 5: private methods
 
 	private void startRinging() {
-		if(ringPlayer!=null) {
+		if(ringEngine.isRinging()) {
 			// ringtone already playing
-			Log.d(TAG,"! startRinging: ringtone already playing");
+			WebCallLog.d(TAG,"! startRinging: ringtone already playing");
 			return;
 		}
 
 		// start playing ringtone
-		Log.d(TAG,"startRinging");
+		WebCallLog.d(TAG,"startRinging");
+		long traceStartNS = CallTracer.now();
 		ringFlag = true; // for isRingin()
 
 		audioToSpeakerSet(audioToSpeakerMode>0,false);
 
-		ringPlayer = new MediaPlayer();
-		AudioAttributes aa = new AudioAttributes.Builder()
-				.setUsage(AudioAttributes.USAGE_NOTIFICATION_RINGTONE)
-				//.setUsage(AudioAttributes.USAGE_VOICE_COMMUNICATION)
-				.setContentType(AudioAttributes.CONTENT_TYPE_MUSIC)
-				//.setContentType(AudioAttributes.CONTENT_TYPE_SPEECH)
-				//.setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
-				.setLegacyStreamType(AudioManager.STREAM_RING)
-				.build();
-
-		// int vol = audioManager.getStreamVolume(AudioManager.STREAM_RING);
-		// int maxvol = audioManager.getStreamMaxVolume(AudioManager.STREAM_RING);
-		// Log.d(TAG,"mediaPlayer AudioManager.STREAM_RING vol="+vol+" maxvol="+maxvol);
-		// Log.d(TAG,"mediaPlayer aa.getVolumeControlStream() "+aa.getVolumeControlStream());
-		// vol = audioManager.getStreamVolume(aa.getVolumeControlStream());
-		// maxvol = audioManager.getStreamMaxVolume(aa.getVolumeControlStream());
-		// Log.d(TAG,"mediaPlayer aa.getVolumeControlStream vol="+vol+" maxvol="+maxvol);
-
-		ringPlayer.setAudioAttributes(aa);
-		ringPlayer.setLooping(true);
-		try {
-			AssetFileDescriptor ad = getResources().openRawResourceFd(R.raw.ringing);
-			ringPlayer.setDataSource(ad.getFileDescriptor(), ad.getStartOffset(), ad.getLength());
-			ad.close();
-
-			ringPlayer.prepare();
-			ringPlayer.start();
+		// the ringtone player was prepared at service start, this only starts it
+		if(ringEngine.startRing()) {
+			CallTracer.span("startRinging", traceStartNS);
+			if(callerInfoAtMS>0) {
+				ringLatency.add(SystemClock.elapsedRealtime() - callerInfoAtMS);
+				WebCallLog.d(TAG,"startRinging time-to-ring "+ringLatency+" "+ringEngine.stats());
+				callerInfoAtMS = 0;
+			}
 			// we stop ringing in multiple places, see: stopRinging()
-		} catch(IOException ex) {
-			Log.d(TAG,"# startRinging ringtone ex="+ex);
-			ringPlayer.stop();
-			ringPlayer = null;
+		} else {
+			WebCallLog.d(TAG,"# startRinging ringtone failed "+ringEngine.stats());
 		}
 	}
 
 	private void stopRinging(String comment) {
 		// stop playing the ringtone
 		ringFlag = false; // for isRingin()
-		if(ringPlayer!=null) {
-			Log.d(TAG,"stopRinging from=("+comment+")");
-			ringPlayer.stop();
-			ringPlayer = null;
+		if(ringEngine!=null && ringEngine.stopRing()) {
+			WebCallLog.d(TAG,"stopRinging from=("+comment+")");
 		} else {
-			//Log.d(TAG,"stopRinging (was not active), from="+comment);
+			//WebCallLog.d(TAG,"stopRinging (was not active), from="+comment);
 		}
 	}
 
 	private void calleeIsConnected() {
 		// sessionId received
-		Log.d(TAG,"calleeIsConnected()");
+		WebCallLog.d(TAG,"calleeIsConnected()");
 		calleeIsConnectedFlag = true;
+		calleeConnectedSignal.set();
 		postStatus("state","connected");
+		if(calleeIdentities!=null && loginUserName!=null) {
+			// a handed over identity is now served by wsClient
+			calleeIdentities.remove(loginUserName);
+		}
+		// keep the local contact names current (rate limited by contactCache)
+		refreshContacts(false, 0);
 
 		// problem: statusMessage() (runJS) is not always executed in doze mode
 		// we need a method to display the last msg when device gets out of doze
 		// see: lastStatusMessage
 		if(ringFlag) {
-			Log.d(TAG,"calleeIsConnected() status('Incoming call')");
+			WebCallLog.d(TAG,"calleeIsConnected() status('Incoming call')");
 			statusMessage("Incoming call",-1,true,false);
 		} else if(callPickedUpFlag || peerConnectFlag) {
-			Log.d(TAG,"calleeIsConnected() status(connectedToServerString)");
+			WebCallLog.d(TAG,"calleeIsConnected() status(connectedToServerString)");
 			statusMessage(connectedToServerString,-1,true,true);
 		} else {
-			Log.d(TAG,"calleeIsConnected() status(readyToReceiveCallsString)");
+			WebCallLog.d(TAG,"calleeIsConnected() status(readyToReceiveCallsString)");
 			statusMessage(readyToReceiveCallsString,-1,true,true);
 		}
 
@@ -4010,33 +4316,49 @@ public class WebCallService extends Service {
 		String webcalldomain = null;
 		String username = null;
 		try {
-			webcalldomain = prefs.getString("webcalldomain", "").toLowerCase(Locale.getDefault());
-			//Log.d(TAG,"setLoginUrl webcalldomain="+webcalldomain);
+			if(endpointSelector!=null) {
+				// the fastest healthy of the configured webcalldomains
+				webcalldomain = endpointSelector.select();
+			} else {
+				webcalldomain = prefs.getString("webcalldomain", "").toLowerCase(Locale.getDefault());
+			}
+			loginDomain = webcalldomain;
+			//WebCallLog.d(TAG,"setLoginUrl webcalldomain="+webcalldomain);
 		} catch(Exception ex) {
-			Log.d(TAG,"# setLoginUrl webcalldomain ex="+ex);
+			WebCallLog.d(TAG,"# setLoginUrl webcalldomain ex="+ex);
 			return;
 		}
 		try {
 			// loginUserName = calleeID
 			loginUserName = prefs.getString("username", "").toLowerCase(Locale.getDefault());
-			//Log.d(TAG,"setLoginUrl username="+loginUserName);
+			//WebCallLog.d(TAG,"setLoginUrl username="+loginUserName);
+			// every callee ID keeps its own missed calls list and contacts
+			if(missedCallStore!=null) {
+				missedCallStore.setCalleeID(loginUserName);
+			}
+			if(contactCache!=null) {
+				contactCache.setCalleeID(loginUserName);
+			}
 		} catch(Exception ex) {
-			Log.d(TAG,"# setLoginUrl username ex="+ex);
+			WebCallLog.d(TAG,"# setLoginUrl username ex="+ex);
 			return;
 		}
 
 		loginUrl = "https://"+webcalldomain+"/rtcsig/login?id="+loginUserName+"&ver="+BuildConfig.VERSION_NAME;
-		//Log.d(TAG,"setLoginUrl="+loginUrl);
+		//WebCallLog.d(TAG,"setLoginUrl="+loginUrl);
 	}
 
 	private void startReconnecter(boolean wakeIfNoNet, int reconnectDelaySecs) {
-		Log.d(TAG,"startReconnecter myWebView="+(myWebView!=null));
+		WebCallLog.d(TAG,"startReconnecter myWebView="+(myWebView!=null));
 		if(wsClient!=null) {
+			if(disconnectedAtMS==0) {
+				disconnectedAtMS = SystemClock.elapsedRealtime();
+			}
 			closeWsClient(false, "startReconnecter");
 		}
 
 //		if(haveNetworkInt<=0 && wakeIfNoNet && screenForWifiMode>0) {
-//			Log.d(TAG,"startReconnecter noNetwork: wakeIfNoNet + screenForWifiMode");
+//			WebCallLog.d(TAG,"startReconnecter noNetwork: wakeIfNoNet + screenForWifiMode");
 //			wakeUpFromDoze();
 //		}
 
@@ -4044,28 +4366,130 @@ public class WebCallService extends Service {
 			setLoginUrl();
 			// TODO do we need to copy cookies here?
 			if(reconnectSchedFuture!=null && !reconnectSchedFuture.isDone()) {
-				Log.d(TAG,"startReconnecter cancel old then start new reconnectSchedFuture "+reconnectDelaySecs);
+				WebCallLog.d(TAG,"startReconnecter cancel old then start new reconnectSchedFuture "+reconnectDelaySecs);
 				reconnectSchedFuture.cancel(false);
 				reconnectSchedFuture = null;
 			} else {
-				Log.d(TAG,"startReconnecter start reconnectSchedFuture "+reconnectDelaySecs+" "+(myWebView!=null));
+				WebCallLog.d(TAG,"startReconnecter start reconnectSchedFuture "+reconnectDelaySecs+" "+(myWebView!=null));
 			}
-			reconnectSchedFuture = scheduler.schedule(reconnecter, reconnectDelaySecs, TimeUnit.SECONDS);
+			reconnectSchedFuture = scheduleReconnecter(reconnectDelaySecs);
 		} else {
-			Log.d(TAG,"! startReconnecter skip: reconnectBusy="+reconnectBusy);
+			WebCallLog.d(TAG,"! startReconnecter skip: reconnectBusy="+reconnectBusy);
 		}
 	}
 
-	private void checkLastPing(boolean wakeIfNoNet, int reconnectDelaySecs) {
-		if(!connectToServerIsWanted) {
-			Log.d(TAG,"checkLastPing !connectToServerIsWanted abort");
-			return;
-		}
-		if(extendedLogsFlag) {
-			Log.d(TAG,"checkLastPing");
+	// scheduleReconnecter() schedules the reconnecter on scheduler; the executor does not fire while
+	// the device is in doze, so a delayed reconnect is also submitted as "reconnect" wake task:
+	// the alarm (or any earlier wakeup within the slack) runs the reconnecter if it is still waiting
+	private ScheduledFuture<?> scheduleReconnecter(long delaySecs) {
+		ScheduledFuture<?> future = scheduler.schedule(reconnecter, delaySecs, TimeUnit.SECONDS);
+		if(delaySecs>0 && wakeScheduler!=null) {
+			long delayMS = delaySecs*1000;
+			wakeScheduler.submit("reconnect", delayMS, delayMS/reconnectSlackDiv, 0, new Runnable() {
+				public void run() {
+					ScheduledFuture<?> waiting = reconnectSchedFuture;
+					if(reconnectBusy || waiting==null || waiting.isDone()) {
+						// the reconnecter has run (or was cancelled)
+						return;
+					}
+					if(waiting.cancel(false)) {
+						WebCallLog.d(TAG,"reconnect wake task: run reconnecter now");
+						wakeScheduler.keepAwake("reconnect", 3 * 60 * 1000);
+						reconnectSchedFuture = scheduler.schedule(reconnecter, 0, TimeUnit.SECONDS);
+					}
+				}
+			});
 		}
-		boolean needKeepAwake = false;
-		boolean needReconnecter = false;
+		return future;
+	}
+
+	private void schedulePingCheck() {
+		// the pingcheck wake task replaces the old fixed 15min alarm; it is run by wakeScheduler
+		// on the alarm, or up to pingCheckSlackMS early whenever the device is awake anyway
+		if(!wakeScheduler.isPending("pingcheck")) {
+			wakeScheduler.submit("pingcheck", pingCheckPeriodMS, pingCheckSlackMS, pingCheckPeriodMS,
+				new Runnable() {
+					public void run() {
+						pingCheck();
+					}
+				});
+		} else if(extendedLogsFlag) {
+			WebCallLog.d(TAG,"schedulePingCheck already pending");
+		}
+	}
+
+	private void pingCheck() {
+		// we check if we are still receiving pings from the server
+		if(!connectToServerIsWanted) {
+			WebCallLog.w(TAG,"pingCheck abort on !connectToServerIsWanted");
+			wakeScheduler.cancel("pingcheck");
+			return;
+		}
+
+		batteryStatus = context.registerReceiver(null, batteryStatusfilter);
+		int level = batteryStatus.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
+		int scale = batteryStatus.getIntExtra(BatteryManager.EXTRA_SCALE, -1);
+		float batteryPct = level * 100 / (float)scale;
+
+		WebCallLog.d(TAG,"pingCheck net="+haveNetworkInt+ " pings="+pingCounter+ " "+batteryPct+
+			" "+BuildConfig.VERSION_NAME+
+			" "+currentDateTimeString());
+		if(extendedLogsFlag) {
+			WebCallLog.d(TAG,"pingCheck wake report "+wakeScheduler.report());
+		}
+		if(Build.VERSION.SDK_INT < Build.VERSION_CODES.N) { // api<24
+			checkNetworkState(false);
+		}
+		if(haveNetworkInt>0) {
+			// this is a good time to send a ping
+			// if the connection is bad we will know much quicker
+			if(wsClient!=null) {
+				try {
+					if(extendedLogsFlag) {
+						WebCallLog.d(TAG,"pingCheck sendPing");
+					}
+					sendRttPing(null);
+				} catch(Exception ex) {
+					// possibly: org.java_websocket.exceptions.WebsocketNotConnectedException
+					WebCallLog.d(TAG,"pingCheck sendPing ex="+ex);
+					wsClient = null;
+				}
+			}
+		}
+
+		// reconnect extra identities that have lost their connection
+		calleeIdentities.check(haveNetworkInt>0);
+
+		if(wsClient!=null) {
+			checkLastPing(true,0);
+		} else {
+			if(haveNetworkInt<=0) {
+				WebCallLog.d(TAG,"pingCheck skip reconnect, no network");
+			} else {
+				// alarm only fires if device is in doze, and then reconnectSchedFuture does NOT fire
+				// so we do not skip on reconnectBusy: we cancel reconnectSchedFuture and startReconnecter
+				if(reconnectSchedFuture!=null && !reconnectSchedFuture.isDone()) {
+					WebCallLog.d(TAG,"pingCheck reconnectSchedFuture.cancel");
+					reconnectSchedFuture.cancel(false);
+					reconnectSchedFuture = null;
+				}
+				reconnectBusy = false;
+				WebCallLog.d(TAG,"pingCheck startReconnecter");
+				startReconnecter(true,0);
+			}
+		}
+	}
+
+	private void checkLastPing(boolean wakeIfNoNet, int reconnectDelaySecs) {
+		if(!connectToServerIsWanted) {
+			WebCallLog.d(TAG,"checkLastPing !connectToServerIsWanted abort");
+			return;
+		}
+		if(extendedLogsFlag) {
+			WebCallLog.d(TAG,"checkLastPing");
+		}
+		boolean needKeepAwake = false;
+		boolean needReconnecter = false;
 		if(lastPingDate!=null) {
 			// if lastPingDate is too old, then there was a network disconnect
 			// and the server has given up on us: we need to start reconnecter
@@ -4075,41 +4499,47 @@ public class WebCallService extends Service {
 				// server pings have dropped, we need to start a reconnecter
 				needKeepAwake = true;
 				needReconnecter = true;
-				Log.d(TAG,"checkLastPing diff="+diffInMillies+"ms TOO OLD");
+				WebCallLog.d(TAG,"checkLastPing diff="+diffInMillies+"ms TOO OLD");
 			} else {
 				if(extendedLogsFlag) {
-					Log.d(TAG,"checkLastPing diff="+diffInMillies+" < "+(serverPingPeriodPlus*1000));
+					WebCallLog.d(TAG,"checkLastPing diff="+diffInMillies+" < "+(serverPingPeriodPlus*1000));
 				}
 			}
 		}
 		if(reconnectBusy) {
 			// if we are in a reconnect already (after a detected disconnect)
 			// get a KeepAwake wakelock (it will be released automatically)
-			Log.d(TAG,"checkLastPing reconnectBusy");
+			WebCallLog.d(TAG,"checkLastPing reconnectBusy");
 			needKeepAwake = true;
 			needReconnecter = false;
 		}
 
 		if(needKeepAwake) {
-			/*if(charging) {
-				Log.d(TAG,"checkLastPing charging, no keepAwakeWakeLock change");
-			} else*/ if(keepAwakeWakeLock!=null && !keepAwakeWakeLock.isHeld()) {
-				Log.d(TAG,"checkLastPing keepAwakeWakeLock.acquire");
-				keepAwakeWakeLock.acquire(3 * 60 * 1000);
-				keepAwakeWakeLockStartTime = (new Date()).getTime();
-			} else if(keepAwakeWakeLock!=null) {
-				Log.d(TAG,"checkLastPing keepAwakeWakeLock.isHeld");
-			} else {
-				Log.d(TAG,"checkLastPing cannot keepAwakeWakeLock.acquire");
-			}
+			wakeScheduler.keepAwake("checkLastPing", 3 * 60 * 1000);
 		}
 		if(connectToServerIsWanted && needReconnecter) {
-			Log.d(TAG,"checkLastPing startReconnecter");
+			WebCallLog.d(TAG,"checkLastPing startReconnecter");
 			startReconnecter(wakeIfNoNet,reconnectDelaySecs);
 		}
 	}
 
-	private void storeByteArrayToFile(byte[] blobAsBytes, String filename) {
+	// StreamWriter writes the content of a file that is stored by storeStreamToFile();
+	// writeTo() returns a note for the toast that reports the stored file (or null)
+	private interface StreamWriter {
+		String writeTo(OutputStream os) throws IOException;
+	}
+
+	private void storeByteArrayToFile(final byte[] blobAsBytes, String filename) {
+		storeStreamToFile(filename, new StreamWriter() {
+			public String writeTo(OutputStream os) throws IOException {
+				os.write(blobAsBytes);
+				return null;
+			}
+		});
+	}
+
+	// storeStreamToFile() lets writer stream the file content straight into the download folder
+	private void storeStreamToFile(String filename, StreamWriter writer) {
 		String androidFolder = Environment.DIRECTORY_DOWNLOADS;
 		String mimeType = URLConnection.guessContentTypeFromName(filename);
 		String filenameLowerCase = filename.toLowerCase(Locale.getDefault());
@@ -4122,22 +4552,22 @@ public class WebCallService extends Service {
 			mimeType = "image/png";
 		}
 		*/
-		Log.d(TAG,"storeByteArrayToFile filename="+filename+" folder="+androidFolder+" mime="+mimeType);
+		WebCallLog.d(TAG,"storeStreamToFile filename="+filename+" folder="+androidFolder+" mime="+mimeType);
 
 		if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) { // <10 <api29
 			final File dwldsPath = new File(Environment.getExternalStoragePublicDirectory(
 				Environment.DIRECTORY_DOWNLOADS) + "/"+ filename);
-			Log.d(TAG,"store to "+dwldsPath+" (andr "+Build.VERSION.SDK_INT+" <28)");
+			WebCallLog.d(TAG,"store to "+dwldsPath+" (andr "+Build.VERSION.SDK_INT+" <28)");
 			int hasWriteStoragePermission = 0;
 			try {
-				FileOutputStream os = new FileOutputStream(dwldsPath, false);
-				os.write(blobAsBytes);
+				OutputStream os = new BufferedOutputStream(new FileOutputStream(dwldsPath, false));
+				String note = writer.writeTo(os);
 				os.flush();
 				os.close();
-				postStatus("toast", "file "+filename+" stored in download directory");
+				postStatus("toast", "file "+filename+" stored in download directory"+(note!=null ? note : ""));
 			} catch(Exception ex) {
 				// should never happen: activity fetches WRITE_EXTERNAL_STORAGE permission up front
-				Log.d(TAG,"storeByteArrayToFile ex="+ex);
+				WebCallLog.d(TAG,"storeStreamToFile ex="+ex);
 				postStatus("toast", "exception "+ex.toString());
 			}
 		} else {
@@ -4155,31 +4585,32 @@ public class WebCallService extends Service {
 
 			try {
 				final Uri contentUri = MediaStore.Downloads.EXTERNAL_CONTENT_URI;
-				Log.d(TAG,"B store to "+contentUri+" (andr "+Build.VERSION.SDK_INT+" >=29)");
+				WebCallLog.d(TAG,"B store to "+contentUri+" (andr "+Build.VERSION.SDK_INT+" >=29)");
 				try {
 					uri = resolver.insert(contentUri, values);
 				} catch(Exception ex) {
-					Log.d(TAG,"resolver.insert ex="+ex);
+					WebCallLog.d(TAG,"resolver.insert ex="+ex);
 				}
 
 				if (uri == null)
 					throw new IOException("Failed to create new MediaStore record.");
 
-				Log.d(TAG,"C uri="+uri);
-				try (final OutputStream os = resolver.openOutputStream(uri)) {
-					if (os == null) {
+				WebCallLog.d(TAG,"C uri="+uri);
+				String note;
+				try (final OutputStream resolverOs = resolver.openOutputStream(uri)) {
+					if (resolverOs == null) {
 						throw new IOException("Failed to open output stream.");
 					}
-					os.write(blobAsBytes);
+					OutputStream os = new BufferedOutputStream(resolverOs);
+					note = writer.writeTo(os);
 					os.flush();
-					os.close();
 				}
 				//resolver.delete(uri, null, null);
 
-				postStatus("toast", "file "+filename+" stored in download directory");
+				postStatus("toast", "file "+filename+" stored in download directory"+(note!=null ? note : ""));
 			}
 			catch (IOException ex) {
-				Log.d(TAG,"storeByteArrayToFile ex="+ex);
+				WebCallLog.d(TAG,"storeStreamToFile ex="+ex);
 				if (uri != null) {
 					// Don't leave an orphan entry in the MediaStore
 					resolver.delete(uri, null, null);
@@ -4190,22 +4621,24 @@ public class WebCallService extends Service {
 		}
 	}
 
-	private void queueWebRtcMessage(String message) {
+	private void queueWebRtcMessage(int msgType, String message) {
 		// we do not queue msgs that start with "missedCalls|"
-		if(!message.startsWith("missedCalls|")) {
-			stringMessageQueue.add(message);
-		}
+		// callerCandidate's are collected into one set right behind the callerOffer
+		signalingQueue.add(msgType, message);
 	}
 
 	// push all queued rtcMessages into callee.js signalingCommand()
 	// will be started from wsSend()
 	private void processWebRtcMessages() {
-		if(myWebView!=null && webviewMainPageLoaded && !stringMessageQueue.isEmpty()) {
-			String message = (String)(stringMessageQueue.poll());
-			// message MUST NOT contain apostrophe
-			String encodedMessage = message.replace("'", "&#39;");
-			String argStr = "wsOnMessage2('"+encodedMessage+"','service');";
-			//Log.d(TAG,"processWebRtcMessages runJS "+argStr);
+		// one message, or all candidates of the call (right after its callerOffer)
+		// message MUST NOT contain apostrophe
+		final String argStr = (myWebView!=null && webviewMainPageLoaded) ? signalingQueue.pollJS() : null;
+		if(argStr!=null) {
+			if(!processWebRtcMessagesTraced) {
+				processWebRtcMessagesTraced = true;
+				CallTracer.asyncBegin("processWebRtcMessages");
+			}
+			//WebCallLog.d(TAG,"processWebRtcMessages runJS "+argStr);
 			/*
 			// we wait till runJS has been processed before we runJS the next
 			runJS(argStr, new ValueCallback<String>() {
@@ -4233,8 +4666,12 @@ public class WebCallService extends Service {
 			scheduler.schedule(runnable2, 50l, TimeUnit.MILLISECONDS);
 
 		} else {
-			Log.d(TAG,"processWebRtcMessages end");
+			WebCallLog.d(TAG,"processWebRtcMessages end "+signalingQueue.stats());
 			processWebRtcMessagesRunning = false;
+			if(processWebRtcMessagesTraced) {
+				processWebRtcMessagesTraced = false;
+				CallTracer.asyncEnd("processWebRtcMessages");
+			}
 
 			// post processing for processWebRtcMessages
 			final Runnable runnable2 = new Runnable() {
@@ -4243,11 +4680,11 @@ public class WebCallService extends Service {
 						return;
 					}
 
-					//Log.d(TAG,"processWebRtcMessages 3s later "+ringFlag+" "+rtcConnectFlag);
+					//WebCallLog.d(TAG,"processWebRtcMessages 3s later "+ringFlag+" "+rtcConnectFlag);
 					if(autoPickup) {
 						// reset autoPickup after 3s, so that it can be used in rtcConnect
 						// and for it to definitely get cleared, even if rtcConnect does not occur
-						Log.d(TAG,"processWebRtcMessages 3s later autoPickup=false");
+						WebCallLog.d(TAG,"processWebRtcMessages 3s later autoPickup=false");
 						autoPickup = false;
 					}
 					if(!rtcConnectFlag) {
@@ -4255,7 +4692,7 @@ public class WebCallService extends Service {
 						if(ringFlag) {
 							// we are still ringing -> stop the ringing
 							// this should not anymore happen (since server-side caller early disconnect fix)
-							Log.d(TAG,"# processWebRtcMessages 3s later !rtcConnectFlag -> stopRinging");
+							WebCallLog.d(TAG,"# processWebRtcMessages 3s later !rtcConnectFlag -> stopRinging");
 							statusMessage("Failed to establish p2p connection",2000,true,true);
 							stopRinging("processWebRtcMessages 3s later");
 							cancelIncomingCall();
@@ -4272,7 +4709,7 @@ public class WebCallService extends Service {
 	private void wakeUpFromDoze() {
 		// this is for wakeing up WIFI; if wifi is switched off, doing this does not make sense
 		if(wifiManager.isWifiEnabled()==false) {
-			Log.d(TAG,"wakeUpFromDoze denied, wifi is not enabled");
+			WebCallLog.d(TAG,"wakeUpFromDoze denied, wifi is not enabled");
 			return;
 		}
 
@@ -4281,7 +4718,7 @@ public class WebCallService extends Service {
 		long sinceLastCallSecs = nowSecs - wakeUpFromDozeSecs;
 		if(sinceLastCallSecs < 3) {
 			// wakeUpFromDoze was executed less than 3secs ago
-			Log.d(TAG,"wakeUpFromDoze denied, was called "+sinceLastCallSecs+" secs ago");
+			WebCallLog.d(TAG,"wakeUpFromDoze denied, was called "+sinceLastCallSecs+" secs ago");
 			return;
 		}
 		wakeUpFromDozeSecs = nowSecs;
@@ -4290,7 +4727,7 @@ public class WebCallService extends Service {
 			// is disconnected -> wakeup to help wifi
 			// we use this to wake the device so we can establish NEW network connections for reconnect
 			// step a: bring webcall activity to front via intent
-			Log.d(TAG,"wakeUpFromDoze webcallToFrontIntent");
+			WebCallLog.d(TAG,"wakeUpFromDoze webcallToFrontIntent");
 			Intent webcallToFrontIntent =
 				new Intent(context, WebCallCalleeActivity.class).putExtra("wakeup", "wake");
 			webcallToFrontIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK |
@@ -4302,16 +4739,16 @@ public class WebCallService extends Service {
 		// step b: invoke FULL_WAKE_LOCK + ACQUIRE_CAUSES_WAKEUP 
 		//          to wake the device (+screen) from deep sleep
 		// NOTE: this is needed bc XHR may not work in deep sleep - and bc wifi may not come back
-		Log.d(TAG,"wakeUpFromDoze FULL_WAKE_LOCK + ACQUIRE_CAUSES_WAKEUP");
+		WebCallLog.d(TAG,"wakeUpFromDoze FULL_WAKE_LOCK + ACQUIRE_CAUSES_WAKEUP");
 		if(powerManager==null) {
 			powerManager = (PowerManager)context.getSystemService(Context.POWER_SERVICE);
 		}
 
 		if(wakeUpWakeLock!=null && wakeUpWakeLock.isHeld()) {
-			Log.d(TAG,"wakeUpFromDoze wakeUpWakeLock.release()");
+			WebCallLog.d(TAG,"wakeUpFromDoze wakeUpWakeLock.release()");
 			wakeUpWakeLock.release();
 		}
-		Log.d(TAG,"wakeUpFromDoze wakeUpWakeLock.acquire(20s)");
+		WebCallLog.d(TAG,"wakeUpFromDoze wakeUpWakeLock.acquire(20s)");
 		String logKey = "WebCall:wakeUpWakeLock";
 		if(userAgentString==null || userAgentString.indexOf("HUAWEI")>=0)
 			logKey = "LocationManagerService"; // to avoid being killed on Huawei
@@ -4323,7 +4760,8 @@ public class WebCallService extends Service {
 */
 
 	private void clearCookies() {
-		Log.d(TAG,"clearCookies");
+		WebCallLog.d(TAG,"clearCookies");
+		clearFastWsAddr("clearCookies");
 		storePrefsString("cookies", "");
 		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP_MR1) {
 			CookieManager.getInstance().removeAllCookies(null);
@@ -4343,19 +4781,19 @@ public class WebCallService extends Service {
 		reconnecter = new Runnable() {
 			public void run() {
 				if(!connectToServerIsWanted) {
-					Log.d(TAG,"! reconnecter start, not wanted "+reconnectCounter+" net="+haveNetworkInt+" "+
-						currentDateTimeString()+" wsClient="+(wsClient!=null));
+					WebCallLog.d(TAG,"! reconnecter start, not wanted {} net={} wsClient={}",
+						reconnectCounter, haveNetworkInt, wsClient!=null);
 					return;
 				}
 
 				if(serviceDestroyed) {
-					Log.d(TAG,"! reconnecter start, serviceDestroyed, exit, wsClient="+(wsClient!=null));
+					WebCallLog.d(TAG,"! reconnecter start, serviceDestroyed, exit, wsClient={}", wsClient!=null);
 					return;
 				}
 				/*
 				reconnectSchedFuture = null;
 				if(wsClient!=null) {
-					Log.d(TAG,"reconnecter already connected");
+					WebCallLog.d(TAG,"reconnecter already connected");
 					reconnectCounter = 0;
 					if(reconnectSchedFuture!=null && !reconnectSchedFuture.isDone()) {
 						reconnectSchedFuture.cancel(false);
@@ -4365,23 +4803,19 @@ public class WebCallService extends Service {
 					return;
 				}
 				*/
+				// the executor was faster than the "reconnect" wake task
+				wakeScheduler.cancel("reconnect");
 				reconnectBusy = true;
 				reconnectCounter++;
-				Log.d(TAG,"reconnecter start "+reconnectCounter+" net="+haveNetworkInt+" "+
-					currentDateTimeString()+" wsClient="+(wsClient!=null));
+				WebCallLog.d(TAG,"reconnecter start {} net={} wsClient={}",
+					reconnectCounter, haveNetworkInt, wsClient!=null);
 
 				if(haveNetworkInt<=0) {
 					// we have no network: it makes no sense to try to reconnect any longer
 					// we just wait for a new-network event via networkCallback or networkStateReceiver
 					// we release keepAwakeWakeLock
-					Log.d(TAG,"reconnecter no net");
-					if(keepAwakeWakeLock!=null && keepAwakeWakeLock.isHeld()) {
-						long wakeMS = (new Date()).getTime() - keepAwakeWakeLockStartTime;
-						Log.d(TAG,"reconnecter waiting for net; keepAwakeWakeLock.release +"+wakeMS);
-						keepAwakeWakeLockMS += wakeMS;
-						storePrefsLong("keepAwakeWakeLockMS", keepAwakeWakeLockMS);
-						keepAwakeWakeLock.release();
-					}
+					WebCallLog.d(TAG,"reconnecter no net");
+					wakeScheduler.release("reconnecter waiting for net");
 
 					if(beepOnLostNetworkMode>0) {
 						playSoundAlarm();
@@ -4393,21 +4827,21 @@ public class WebCallService extends Service {
 						// we pause reconnecter; if network comes back, checkNetworkState() will
 						// schedule a new reconnecter if connectToServerIsWanted is set
 						if(connectToServerIsWanted) {
-							Log.d(TAG,"no network, reconnecter paused...");
+							WebCallLog.d(TAG,"no network, reconnecter paused...");
 							statusMessage("No network. Will reconnect...",-1,true,false);
 
 							// let JS know that wsConn is gone
 							if(myWebView!=null && webviewMainPageLoaded) {
-								Log.d(TAG,"reconnecter -> js:wsOnClose2");
+								WebCallLog.d(TAG,"reconnecter -> js:wsOnClose2");
 								runJS("wsOnClose2()",null);
 							}
 						} else {
-							Log.d(TAG,"no network, reconnecter stopped");
+							WebCallLog.d(TAG,"no network, reconnecter stopped");
 							statusMessage("No network. Reconnector stopped.",-1,true,true);
 
 							// let JS know that wsConn is gone
 							if(myWebView!=null && webviewMainPageLoaded) {
-								Log.d(TAG,"reconnecter -> js:offlineAction");
+								WebCallLog.d(TAG,"reconnecter -> js:offlineAction");
 								runJS("offlineAction()",null);
 							}
 						}
@@ -4419,83 +4853,72 @@ public class WebCallService extends Service {
 				}
 
 				if(!connectToServerIsWanted) {
-					Log.d(TAG,"reconnecter not wanted, stopped, wsClient="+(wsClient!=null));
+					WebCallLog.d(TAG,"reconnecter not wanted, stopped, wsClient={}", wsClient!=null);
 					reconnectBusy = false;
 					return;
 				}
 
 				if(calleeIsConnectedFlag) { // set by JS calleeReady()
-					Log.d(TAG,"! reconnecter not needed, calleeIsConnected, stopped, wsClient="+(wsClient!=null));
+					WebCallLog.d(TAG,"! reconnecter not needed, calleeIsConnected, stopped, wsClient={}", wsClient!=null);
 					reconnectBusy = false;
 					return;
 				}
 
 				if(currentUrl!=null && currentUrl.equals("file:///android_asset/index.html")) {
-					Log.d(TAG,"! reconnecter stopped, user on basepage wsClient="+(wsClient!=null));
+					WebCallLog.d(TAG,"! reconnecter stopped, user on basepage wsClient={}", wsClient!=null);
 					// we need to prevent the reconnector to start in the bg while user sits on the base page
 					// reconnector was probably started from tile
 					reconnectBusy = false;
 					connectToServerIsWanted = false;
 					if(wsClient==null) {
-						Log.d(TAG,"! reconnecter stopped, no wsClient, stop tile");
+						WebCallLog.d(TAG,"! reconnecter stopped, no wsClient, stop tile");
 						postStatus("state", "disconnected");
 						postStatus("state", "deactivated");
 					}
 					return;
 				}
 
-				Log.d(TAG,"reconnecter construct setLoginUrl...");
+				// try to resume on the cached wsAddr first; on rejection fall through to the full login
+				final long reconnectStartMS = SystemClock.elapsedRealtime();
+				if(fastReconnect(reconnectStartMS)) {
+					if(reconnectSchedFuture!=null && !reconnectSchedFuture.isDone()) {
+						WebCallLog.d(TAG,"reconnecter cancel reconnectSchedFuture");
+						reconnectSchedFuture.cancel(false);
+						reconnectSchedFuture = null;
+					}
+					if(currentUrl==null) {
+						setLoginUrl();
+						currentUrl = loginUrl;
+						WebCallLog.d(TAG,"reconnecter set currentUrl={}", currentUrl);
+					}
+					reconnectBusy = false;
+					reconnectCounter = 0;
+					WebCallLog.d(TAG,"reconnecter fast resume success net={}", haveNetworkInt);
+					reconnecterSendInit();
+					return;
+				}
+
+				WebCallLog.d(TAG,"reconnecter construct setLoginUrl...");
 				setLoginUrl();
-				Log.d(TAG,"reconnecter login "+loginUrl+" wsClient="+(wsClient!=null));
+				WebCallLog.d(TAG,"reconnecter login {} wsClient={}", loginUrl, wsClient!=null);
 				statusMessage("Login "+loginUserName,-1,true,false);
 				try {
 					URL url = new URL(loginUrl);
-					//Log.d(TAG,"reconnecter openCon("+url+")");
-
-					if(insecureTlsFlag) {
-						Log.d(TAG,"reconnecter allow insecure https");
-						try {
-							TrustManager[] trustAllCerts = new TrustManager[] { 
-								new X509TrustManager() {
-									public X509Certificate[] getAcceptedIssuers() {
-										X509Certificate[] myTrustedAnchors = new X509Certificate[0];
-										return myTrustedAnchors;
-									}
-									@Override
-									public void checkClientTrusted(X509Certificate[] certs, String authType) {}
-
-									@Override
-									public void checkServerTrusted(X509Certificate[] certs, String authType) {}
-								}
-							};
-							SSLContext sslContext = SSLContext.getInstance("TLS");
-							sslContext.init(null, trustAllCerts, new SecureRandom());
-							SSLSocketFactory factory = sslContext.getSocketFactory();
-						    HttpsURLConnection.setDefaultSSLSocketFactory(factory);
-						} catch(Exception ex) {
-							Log.w(TAG,"reconnecter allow insecure https ex="+ex);
-						}
-					}
-
-					HttpsURLConnection con = (HttpsURLConnection)url.openConnection();
-					con.setConnectTimeout(22000);
-					con.setReadTimeout(10000);
-					con.setRequestProperty("X-WcVer", BuildConfig.VERSION_NAME);
-					con.setRequestProperty("X-WvVer", getWebviewVersion());
-
-					if(insecureTlsFlag) {
-						// avoid: "javax.net.ssl.SSLPeerUnverifiedException: Hostname 192.168.0.161 not verified"
-						// on reconnect on LineageOS
-						con.setHostnameVerifier(new HostnameVerifier() {
-							@Override
-							public boolean verify(String hostname, SSLSession session) {
-								//HostnameVerifier hv = new org.apache.http.conn.ssl.StrictHostnameVerifier();
-								//boolean ret = hv.verify("192.168.0.161", session);
-								Log.d(TAG,"reconnecter HostnameVerifier accept "+hostname);
-								return true;
-							}
-						});
-					}
+					//WebCallLog.d(TAG,"reconnecter openCon("+url+")");
+
+					// the login request goes through the shared OkHttp client (shared tls factory),
+					// so that the tls session can be resumed by the following wss connect (and by the
+					// next reconnect); with insecureTlsFlag this also accepts any hostname, avoiding
+					// "javax.net.ssl.SSLPeerUnverifiedException: Hostname 192.168.0.161 not verified"
+					// connectionRacer lists the addresses beginning with the family that won the last
+					// websocket race on this network
+					OkHttpClient loginClient = WebCallTls.getInstance().okHttpClient(insecureTlsFlag)
+						.newBuilder()
+						.dns(connectionRacer.dns())
+						.connectTimeout(22000, TimeUnit.MILLISECONDS)
+						.readTimeout(10000, TimeUnit.MILLISECONDS)
+						.build();
+					Request.Builder con = new Request.Builder().url(url);
 
 					if(myWebView!=null) {
 						// avoid Mulch webview crash
@@ -4506,29 +4929,27 @@ public class WebCallService extends Service {
 					}
 					if(webcallCookie!=null && webcallCookie!="") {
 						//if(extendedLogsFlag) {
-							Log.d(TAG,"reconnecter con.setRequestProperty(webcallCookie)="+webcallCookie);
+							WebCallLog.d(TAG,"reconnecter con.setRequestProperty(webcallCookie)={}", webcallCookie);
 						//}
-						con.setRequestProperty("Cookie", webcallCookie);
 						storePrefsString("cookies", webcallCookie);
 					} else {
 						webcallCookie = prefs.getString("cookies", "");
 						if(webcallCookie!=null && webcallCookie!="") {
 							//if(extendedLogsFlag) {
-								Log.d(TAG,"reconnecter con.setRequestProperty(prefs:cookies)="+webcallCookie);
+								WebCallLog.d(TAG,"reconnecter con.setRequestProperty(prefs:cookies)={}", webcallCookie);
 							//}
-							con.setRequestProperty("Cookie", webcallCookie);
 						} else {
 							// abort
-							Log.d(TAG,"# reconnecter no pw cookie, abort");
+							WebCallLog.d(TAG,"# reconnecter no pw cookie, abort");
 							statusMessage("No password cookie. Reconnector aborted.",-1,true,false);
 							reconnectBusy = false;
 							// TODO tmtmtm turn tile off?
 						}
 					}
 					if(!reconnectBusy) {
-						Log.d(TAG,"reconnecter abort");
+						WebCallLog.d(TAG,"reconnecter abort");
 						if(reconnectSchedFuture!=null && !reconnectSchedFuture.isDone()) {
-							Log.d(TAG,"reconnecter cancel reconnectSchedFuture");
+							WebCallLog.d(TAG,"reconnecter cancel reconnectSchedFuture");
 							reconnectSchedFuture.cancel(false);
 						}
 						reconnectSchedFuture = null;
@@ -4538,7 +4959,7 @@ public class WebCallService extends Service {
 
 					if(!connectToServerIsWanted) {
 						if(reconnectSchedFuture!=null && !reconnectSchedFuture.isDone()) {
-							Log.d(TAG,"reconnecter cancel reconnectSchedFuture");
+							WebCallLog.d(TAG,"reconnecter cancel reconnectSchedFuture");
 							reconnectSchedFuture.cancel(false);
 						}
 						reconnectSchedFuture = null;
@@ -4546,41 +4967,43 @@ public class WebCallService extends Service {
 						reconnectBusy = false;
 						return;
 					}
-					con.setRequestProperty("Connection", "close"); // this kills keep-alives TODO???
+					for(Map.Entry<String,String> entry : SignalingCore.requestHeaders(
+							BuildConfig.VERSION_NAME, getWebviewVersion(), webcallCookie).entrySet()) {
+						con.header(entry.getKey(), entry.getValue());
+					}
+					con.header("Connection", "close"); // this kills keep-alives TODO???
 					BufferedReader reader = null;
 					String exString = "";
 					int status = 0;
 					try {
-						Log.d(TAG,"reconnecter con.connect()");
-						con.connect();
-						status = con.getResponseCode();
-						if(!connectToServerIsWanted) {
-							if(reconnectSchedFuture!=null && !reconnectSchedFuture.isDone()) {
-								Log.d(TAG,"reconnecter cancel reconnectSchedFuture");
-								reconnectSchedFuture.cancel(false);
+						WebCallLog.d(TAG,"reconnecter con.connect()");
+						Response loginResponse = loginClient.newCall(con.build()).execute();
+						try {
+							status = loginResponse.code();
+							if(!connectToServerIsWanted) {
+								if(reconnectSchedFuture!=null && !reconnectSchedFuture.isDone()) {
+									WebCallLog.d(TAG,"reconnecter cancel reconnectSchedFuture");
+									reconnectSchedFuture.cancel(false);
+								}
+								reconnectSchedFuture = null;
+								reconnectCounter = 0;
+								reconnectBusy = false;
+								return;
 							}
-							reconnectSchedFuture = null;
-							reconnectCounter = 0;
-							reconnectBusy = false;
-							return;
-						}
-						if(status!=200) {
-							Log.d(TAG,"reconnecter http login statusCode="+status+" fail");
-						} else {
-							Log.d(TAG,"reconnecter http login statusCode="+status+" OK");
-							try {
-								reader = new BufferedReader(
-									new InputStreamReader(con.getInputStream()));
-							} catch(Exception ex) {
-								// for instance java.net.SocketTimeoutException
-								Log.d(TAG,"reconnecter con.getInputStream() retry ex="+ex);
-								reader = new BufferedReader(
-									new InputStreamReader(con.getInputStream()));
+							if(status!=200) {
+								WebCallLog.d(TAG,"reconnecter http login statusCode={} fail", status);
+							} else {
+								WebCallLog.d(TAG,"reconnecter http login statusCode={} OK", status);
+								// the login response is a few short lines; read it all, so that the
+								// response (and its connection) can be closed right here
+								reader = new BufferedReader(new StringReader(loginResponse.body().string()));
 							}
+						} finally {
+							loginResponse.close();
 						}
 					} catch(Exception ex) {
 						status = 0;
-						Log.d(TAG,"reconnecter con.connect()/getInputStream() ex="+ex);
+						WebCallLog.d(TAG,"reconnecter con.connect()/getInputStream() ex={}", ex);
 						// in some cases it DOES NOT make sense to continue reconnecter
 						// javax.net.ssl.SSLHandshakeException: java.security.cert.CertPathValidatorException:
 						//   Trust anchor for certification path not found.
@@ -4611,7 +5034,7 @@ public class WebCallService extends Service {
 
 					if(!connectToServerIsWanted) {
 						if(reconnectSchedFuture!=null && !reconnectSchedFuture.isDone()) {
-							Log.d(TAG,"reconnecter cancel reconnectSchedFuture");
+							WebCallLog.d(TAG,"reconnecter cancel reconnectSchedFuture");
 							reconnectSchedFuture.cancel(false);
 						}
 						reconnectSchedFuture = null;
@@ -4627,48 +5050,50 @@ public class WebCallService extends Service {
 							closeWsClient(false, "reconnecter status!=200 before start");
 						}
 						if(reconnectCounter < ReconnectCounterMax) {
-							int delaySecs = reconnectCounter*10;
-							if(delaySecs>ReconnectDelayMaxSecs) {
-								delaySecs = ReconnectDelayMaxSecs;
+							int delaySecs = SignalingCore.reconnectDelaySecs(reconnectCounter, ReconnectDelayMaxSecs);
+							if(haveNetworkInt>0 && endpointSelector.reportFailure(loginDomain)) {
+								// the next login goes to another server: no need to wait
+								WebCallLog.d(TAG,"reconnecter failover from {}", loginDomain);
+								delaySecs = 1;
 							}
 							if(status!=0) {
-								Log.d(TAG,"reconnecter fail status="+status+" retry in "+delaySecs+"sec");
+								WebCallLog.d(TAG,"reconnecter fail status={} retry in {}sec", Integer.valueOf(status), delaySecs);
 								statusMessage("Failed to reconnect, will try again... (status="+status+")",-1,true,false);
 							} else if(exString!="") {
-								Log.d(TAG,"reconnecter fail ex="+exString+" retry in "+delaySecs+"sec");
+								WebCallLog.d(TAG,"reconnecter fail ex={} retry in {}sec", exString, delaySecs);
 								statusMessage("Failed to reconnect, will try again... (ex="+exString+")",-1,true,false);
 							} else {
-								Log.d(TAG,"reconnecter fail, retry in "+delaySecs+"sec");
+								WebCallLog.d(TAG,"reconnecter fail, retry in {}sec", delaySecs);
 								statusMessage("Failed to reconnect, will try again...",-1,true,false);
 							}
 							if(reconnectSchedFuture!=null && !reconnectSchedFuture.isDone()) {
-								//Log.d(TAG,"cancel old schedFuture");
+								//WebCallLog.d(TAG,"cancel old schedFuture");
 								reconnectSchedFuture.cancel(false);
 								reconnectSchedFuture = null;
 							} else {
-								//Log.d(TAG,"no old schedFuture to cancel");
+								//WebCallLog.d(TAG,"no old schedFuture to cancel");
 							}
 							// let JS know that wsConn is gone
 							if(myWebView!=null && webviewMainPageLoaded) {
-								Log.d(TAG,"reconnecter -> js:wsOnClose2");
+								WebCallLog.d(TAG,"reconnecter -> js:wsOnClose2");
 								runJS("wsOnClose2()",null);
 							}
 							if(serviceDestroyed) {
-								Log.d(TAG,"! reconnecter serviceDestroyed exit");
+								WebCallLog.d(TAG,"! reconnecter serviceDestroyed exit");
 							} else {
 								reconnectSchedFuture =
-									scheduler.schedule(reconnecter, delaySecs, TimeUnit.SECONDS);
+									scheduleReconnecter(delaySecs);
 								if(reconnectSchedFuture==null) {
-									Log.d(TAG,"scheduled reconnect in "+delaySecs+"sec reconnectSchedFuture==null");
+									WebCallLog.d(TAG,"scheduled reconnect in {}sec reconnectSchedFuture==null", delaySecs);
 								} else {
-									Log.d(TAG,"scheduled recon in "+delaySecs+"sec done="+reconnectSchedFuture.isDone());
+									WebCallLog.d(TAG,"scheduled recon in {}sec done={}", delaySecs, reconnectSchedFuture.isDone());
 								}
 							}
 							return;
 						}
 
 						// give up reconnector, tried often enough
-						Log.d(TAG,"reconnecter con.connect() fail. give up.");
+						WebCallLog.d(TAG,"reconnecter con.connect() fail. give up.");
 						postStatus("state", "disconnected");
 						postStatus("state", "deactivated");
 
@@ -4694,13 +5119,7 @@ public class WebCallService extends Service {
 							scheduler.schedule(runnable2, 300l, TimeUnit.MILLISECONDS);
 						}
 
-						if(keepAwakeWakeLock!=null && keepAwakeWakeLock.isHeld()) {
-							long wakeMS = (new Date()).getTime() - keepAwakeWakeLockStartTime;
-							Log.d(TAG,"reconnecter keepAwakeWakeLock.release +"+wakeMS);
-							keepAwakeWakeLockMS += wakeMS;
-							storePrefsLong("keepAwakeWakeLockMS", keepAwakeWakeLockMS);
-							keepAwakeWakeLock.release();
-						}
+						wakeScheduler.release("reconnecter");
 						reconnectCounter = 0;
 						return;
 					}
@@ -4709,7 +5128,7 @@ public class WebCallService extends Service {
 					if(!connectToServerIsWanted || !reconnectBusy) {
 						// abort forced
 						if(reconnectSchedFuture!=null && !reconnectSchedFuture.isDone()) {
-							Log.d(TAG,"reconnecter cancel reconnectSchedFuture");
+							WebCallLog.d(TAG,"reconnecter cancel reconnectSchedFuture");
 							reconnectSchedFuture.cancel(false);
 						}
 						reconnectSchedFuture = null;
@@ -4720,7 +5139,7 @@ public class WebCallService extends Service {
 
 					String response = reader.readLine();
 					String[] tokens = response.split("\\|"); // this means split on pipe (backslash as escape)
-					Log.d(TAG,"reconnecter response tokens length="+tokens.length);
+					WebCallLog.d(TAG,"reconnecter response tokens length={}", tokens.length);
 					wsAddr = tokens[0];
 
 					if(wsAddr.equals("fatal") || wsAddr.equals("error") || wsAddr.equals("busy") ||
@@ -4729,7 +5148,7 @@ public class WebCallService extends Service {
 						boolean wasReconnectBusy = reconnectBusy;
 						reconnectBusy = false;
 						reconnectCounter = 0;
-						Log.d(TAG,"# reconnecter login fail '"+wsAddr+"' give up "+reader.readLine()+
+						WebCallLog.d(TAG,"# reconnecter login fail '"+wsAddr+"' give up "+reader.readLine()+
 							" "+reader.readLine()+" "+reader.readLine()+" "+reader.readLine());
 						statusMessage("Gave up reconnecting, "+response,-1,true,true);
 
@@ -4754,36 +5173,24 @@ public class WebCallService extends Service {
 							runJS("offlineAction();", new ValueCallback<String>() {
 								@Override
 								public void onReceiveValue(String s) {
-									if(keepAwakeWakeLock!=null && keepAwakeWakeLock.isHeld()) {
-										long wakeMS = (new Date()).getTime() - keepAwakeWakeLockStartTime;
-										Log.d(TAG,"reconnecter keepAwakeWakeLock.release +"+wakeMS);
-										keepAwakeWakeLockMS += wakeMS;
-										storePrefsLong("keepAwakeWakeLockMS", keepAwakeWakeLockMS);
-
+									if(wakeScheduler.isAwake()) {
 										if(wasReconnectBusy) {
 											if(beepOnLostNetworkMode>0) {
 												playSoundAlarm();
 											}
 										}
-										if(keepAwakeWakeLock!=null && keepAwakeWakeLock.isHeld()) {
-											keepAwakeWakeLock.release();
-										}
+										wakeScheduler.release("reconnecter login fail");
 									}
 								}
 							});
 						} else {
-							if(keepAwakeWakeLock!=null && keepAwakeWakeLock.isHeld()) {
-								long wakeMS = (new Date()).getTime() - keepAwakeWakeLockStartTime;
-								Log.d(TAG,"reconnecter keepAwakeWakeLock.release +"+wakeMS);
-								keepAwakeWakeLockMS += wakeMS;
-								storePrefsLong("keepAwakeWakeLockMS", keepAwakeWakeLockMS);
-
+							if(wakeScheduler.isAwake()) {
 								if(wasReconnectBusy) {
 									if(beepOnLostNetworkMode>0) {
 										playSoundAlarm();
 									}
 								}
-								keepAwakeWakeLock.release();
+								wakeScheduler.release("reconnecter login fail");
 							}
 						}
 						return;
@@ -4792,7 +5199,7 @@ public class WebCallService extends Service {
 					if(!connectToServerIsWanted || !reconnectBusy) {
 						// abort forced
 						if(reconnectSchedFuture!=null && !reconnectSchedFuture.isDone()) {
-							Log.d(TAG,"reconnecter cancel reconnectSchedFuture");
+							WebCallLog.d(TAG,"reconnecter cancel reconnectSchedFuture");
 							reconnectSchedFuture.cancel(false);
 						}
 						reconnectSchedFuture = null;
@@ -4801,7 +5208,7 @@ public class WebCallService extends Service {
 						return;
 					}
 
-					Log.d(TAG,"reconnecter connectHost("+wsAddr+") net="+haveNetworkInt+" "+(myWebView!=null));
+					WebCallLog.d(TAG,"reconnecter connectHost({}) net={} {}", wsAddr, haveNetworkInt, myWebView!=null);
 					if(haveNetworkInt==2) {
 						statusMessage("Connecting via Wifi...",-1,true,false);
 					} else if(haveNetworkInt==1) {
@@ -4809,37 +5216,40 @@ public class WebCallService extends Service {
 					} else {
 						statusMessage("Connecting..",-1,true,false);
 					}
-					//Log.d(TAG,"reconnecter connectHost("+wsAddr+")");
+					//WebCallLog.d(TAG,"reconnecter connectHost("+wsAddr+")");
 					// connectHost() will send updateNotification()
 					// connectHost() will set and return wsClient on success
+					String loginWsAddr = wsAddr;
 					connectHost(wsAddr,true);
 
 					if(wsClient==null) {
 						// fail
 						if(reconnectCounter<ReconnectCounterMax) {
-							int delaySecs = reconnectCounter*10;
-							if(delaySecs>ReconnectDelayMaxSecs) {
-								delaySecs = ReconnectDelayMaxSecs;
+							int delaySecs = SignalingCore.reconnectDelaySecs(reconnectCounter, ReconnectDelayMaxSecs);
+							if(haveNetworkInt>0 && endpointSelector.reportFailure(loginDomain)) {
+								// the next login goes to another server: no need to wait
+								WebCallLog.d(TAG,"reconnecter failover from {}", loginDomain);
+								delaySecs = 1;
 							}
 
 							if(reconnectSchedFuture!=null && !reconnectSchedFuture.isDone()) {
-								Log.d(TAG,"reconnecter cancel reconnectSchedFuture");
+								WebCallLog.d(TAG,"reconnecter cancel reconnectSchedFuture");
 								reconnectSchedFuture.cancel(false);
 								reconnectSchedFuture = null;
 							}
 							if(serviceDestroyed) {
-								Log.d(TAG,"! reconnecter, serviceDestroyed, stopped");
+								WebCallLog.d(TAG,"! reconnecter, serviceDestroyed, stopped");
 							} else {
-								Log.d(TAG,"reconnecter reconnect retry in "+delaySecs+"sec");
-								//Log.d(TAG,"reconnecter connectHost() fail - retry...");
+								WebCallLog.d(TAG,"reconnecter reconnect retry in {}sec", delaySecs);
+								//WebCallLog.d(TAG,"reconnecter connectHost() fail - retry...");
 								statusMessage("Server lost, failed to reconnect, will try again... ",-1,true,false);
 
 								reconnectSchedFuture =
-									scheduler.schedule(reconnecter, delaySecs, TimeUnit.SECONDS);
+									scheduleReconnecter(delaySecs);
 							}
 							return;
 						}
-						Log.d(TAG,"reconnecter connectHost() fail - give up");
+						WebCallLog.d(TAG,"reconnecter connectHost() fail - give up");
 						if(reconnectBusy) {
 							if(beepOnLostNetworkMode>0) {
 								playSoundAlarm();
@@ -4861,7 +5271,7 @@ public class WebCallService extends Service {
 					// success - wsClient is set
 
 					if(reconnectSchedFuture!=null && !reconnectSchedFuture.isDone()) {
-						Log.d(TAG,"reconnecter cancel reconnectSchedFuture");
+						WebCallLog.d(TAG,"reconnecter cancel reconnectSchedFuture");
 						reconnectSchedFuture.cancel(false);
 						reconnectSchedFuture = null;
 					}
@@ -4869,13 +5279,16 @@ public class WebCallService extends Service {
 					if(currentUrl==null) {
 						setLoginUrl();
 						currentUrl = loginUrl;
-						Log.d(TAG,"reconnecter set currentUrl="+currentUrl);
+						WebCallLog.d(TAG,"reconnecter set currentUrl={}", currentUrl);
 					}
 
 					// full success
 					reconnectBusy = false;
 					reconnectCounter = 0;
-					Log.d(TAG,"reconnecter connectHost() success net="+haveNetworkInt);
+					WebCallLog.d(TAG,"reconnecter connectHost() success net={}", haveNetworkInt);
+					recordReconnectLatency(loginReconnectLatency, "login", reconnectStartMS);
+					cacheFastWsAddr(loginWsAddr, webcallCookie);
+					endpointSelector.reportSuccess(loginDomain);
 					//statusMessage("reconnect to server",500,true,false);	// TODO statusMessage needed ???
 
 					// we trust now that server will receive "init" and respond with "sessionId|"+codetag
@@ -4895,7 +5308,7 @@ public class WebCallService extends Service {
 					if(!connectToServerIsWanted) {
 						// abort forced
 						if(reconnectSchedFuture!=null && !reconnectSchedFuture.isDone()) {
-							Log.d(TAG,"reconnecter cancel reconnectSchedFuture");
+							WebCallLog.d(TAG,"reconnecter cancel reconnectSchedFuture");
 							reconnectSchedFuture.cancel(false);
 						}
 						reconnectSchedFuture = null;
@@ -4912,27 +5325,24 @@ public class WebCallService extends Service {
 
 					ex.printStackTrace();
 					if(reconnectCounter<ReconnectCounterMax) {
-						int delaySecs = reconnectCounter*10;
-						if(delaySecs>ReconnectDelayMaxSecs) {
-							delaySecs = ReconnectDelayMaxSecs;
-						}
-						Log.d(TAG,"reconnecter reconnect ex="+ex+" retry in "+delaySecs+"sec");
+						int delaySecs = SignalingCore.reconnectDelaySecs(reconnectCounter, ReconnectDelayMaxSecs);
+						WebCallLog.d(TAG,"reconnecter reconnect ex={} retry in {}sec", ex, delaySecs);
 
 						if(reconnectSchedFuture!=null && !reconnectSchedFuture.isDone()) {
-							Log.d(TAG,"reconnecter cancel reconnectSchedFuture");
+							WebCallLog.d(TAG,"reconnecter cancel reconnectSchedFuture");
 							reconnectSchedFuture.cancel(false);
 							reconnectSchedFuture = null;
 						}
 						if(serviceDestroyed) {
-							Log.d(TAG,"! reconnecter, serviceDestroyed, exit");
+							WebCallLog.d(TAG,"! reconnecter, serviceDestroyed, exit");
 						} else {
 							statusMessage("Failed to reconnect, will try again...",-1,true,false);
 							reconnectSchedFuture =
-								scheduler.schedule(reconnecter, delaySecs, TimeUnit.SECONDS);
+								scheduleReconnecter(delaySecs);
 						}
 						return;
 					}
-					Log.d(TAG,"reconnecter reconnect ex="+ex+" give up");
+					WebCallLog.d(TAG,"reconnecter reconnect ex={} give up", ex);
 					if(reconnectBusy) {
 						if(beepOnLostNetworkMode>0) {
 							playSoundAlarm();
@@ -4942,13 +5352,7 @@ public class WebCallService extends Service {
 							// offlineAction(): disable offline-button and enable online-button
 							runJS("offlineAction();",null);
 						}
-						if(keepAwakeWakeLock!=null && keepAwakeWakeLock.isHeld()) {
-							long wakeMS = (new Date()).getTime() - keepAwakeWakeLockStartTime;
-							Log.d(TAG,"reconnecter keepAwakeWakeLock.release +"+wakeMS);
-							keepAwakeWakeLockMS += wakeMS;
-							storePrefsLong("keepAwakeWakeLockMS", keepAwakeWakeLockMS);
-							keepAwakeWakeLock.release();
-						}
+						wakeScheduler.release("reconnecter");
 						reconnectBusy = false;
 					}
 					reconnectCounter = 0;
@@ -4957,61 +5361,111 @@ public class WebCallService extends Service {
 					return;
 				}
 
-				// send 'init' to register as callee, otherwise the server will kick us out
-				// in response we will get sessionId and missedCalls
-				Log.d(TAG,"reconnecter send init "+(myWebView!=null) +" "+webviewMainPageLoaded);
-				try {
-					wsClient.send("init|");
-					// server is expected to send back: "sessionId|(serverCodetag)"
-
-					if(myWebView!=null && webviewMainPageLoaded) {
-						Log.d(TAG,"reconnecter call js:wakeGoOnlineNoInit()...");
-						// wakeGoOnlineNoInit() makes sure:
-						// - js:wsConn is set (to wsClient)
-						// - UI in online state (green led + goOfflineButton enabled)
-						runJS("wakeGoOnlineNoInit();", new ValueCallback<String>() {
-							@Override
-							public void onReceiveValue(String s) {
-								if(keepAwakeWakeLock!=null && keepAwakeWakeLock.isHeld()) {
-									long wakeMS = (new Date()).getTime() - keepAwakeWakeLockStartTime;
-									Log.d(TAG,"reconnecter keepAwakeWakeLock.release 2 +"+wakeMS);
-									keepAwakeWakeLockMS += wakeMS;
-									storePrefsLong("keepAwakeWakeLockMS", keepAwakeWakeLockMS);
-									if(keepAwakeWakeLock!=null && keepAwakeWakeLock.isHeld()) {
-										keepAwakeWakeLock.release();
-									}
-								}
-							}
-						});
-					}
-
-					if(keepAwakeWakeLock!=null && keepAwakeWakeLock.isHeld()) {
-						long wakeMS = (new Date()).getTime() - keepAwakeWakeLockStartTime;
-						Log.d(TAG,"reconnecter keepAwakeWakeLock.release 2 +"+wakeMS);
-						keepAwakeWakeLockMS += wakeMS;
-						storePrefsLong("keepAwakeWakeLockMS", keepAwakeWakeLockMS);
-						keepAwakeWakeLock.release();
-					}
-				} catch(Exception ex) {
-					Log.d(TAG,"reconnecter send init ex="+ex);
-					// ignore
-				}
+				reconnecterSendInit();
 				return;
 			} // end of run()
 		};
 		return reconnecter;
 	}
 
+	private void reconnecterSendInit() {
+		// send 'init' to register as callee, otherwise the server will kick us out
+		// in response we will get sessionId and missedCalls
+		WebCallLog.d(TAG,"reconnecter send init "+(myWebView!=null) +" "+webviewMainPageLoaded);
+		try {
+			wsClient.send("init|");
+			// server is expected to send back: "sessionId|(serverCodetag)"
+
+			if(myWebView!=null && webviewMainPageLoaded) {
+				WebCallLog.d(TAG,"reconnecter call js:wakeGoOnlineNoInit()...");
+				// wakeGoOnlineNoInit() makes sure:
+				// - js:wsConn is set (to wsClient)
+				// - UI in online state (green led + goOfflineButton enabled)
+				runJS("wakeGoOnlineNoInit();", new ValueCallback<String>() {
+					@Override
+					public void onReceiveValue(String s) {
+						wakeScheduler.release("reconnecter init js");
+					}
+				});
+			}
+
+			wakeScheduler.release("reconnecter init");
+		} catch(Exception ex) {
+			WebCallLog.d(TAG,"reconnecter send init ex="+ex);
+			// ignore
+		}
+	}
+
+	// fastReconnect() tries to resume the WebSocket on the cached fastWsAddr, skipping the login request
+	// returns true if wsClient is connected; if the server rejects the address, the cache is cleared
+	private boolean fastReconnect(long startMS) {
+		if(fastWsAddr.equals("")) {
+			return false;
+		}
+		long age = SystemClock.elapsedRealtime() - fastWsAddrTime;
+		if(age > fastWsAddrMaxAgeMS) {
+			clearFastWsAddr("expired age="+age);
+			return false;
+		}
+		WebCallLog.d(TAG,"fastReconnect "+fastWsAddr+" age="+age+" fails="+fastReconnectFails);
+		if(webcallCookie==null || webcallCookie.equals("")) {
+			webcallCookie = fastWsCookie;
+		}
+		statusMessage("Connecting...",-1,true,false);
+		connectHost(fastWsAddr,true);
+		if(wsClient==null) {
+			fastReconnectFails++;
+			clearFastWsAddr("rejected");
+			return false;
+		}
+		fastResumeTime = SystemClock.elapsedRealtime();
+		recordReconnectLatency(fastReconnectLatency, "fast", startMS);
+		return true;
+	}
+
+	private void cacheFastWsAddr(String addr, String cookie) {
+		if(addr==null || addr.equals("")) {
+			return;
+		}
+		fastWsAddr = addr;
+		fastWsCookie = cookie!=null ? cookie : "";
+		fastWsAddrTime = SystemClock.elapsedRealtime();
+	}
+
+	private void clearFastWsAddr(String why) {
+		if(!fastWsAddr.equals("")) {
+			WebCallLog.d(TAG,"clearFastWsAddr "+why);
+		}
+		fastWsAddr = "";
+		fastWsCookie = "";
+		fastWsAddrTime = 0;
+	}
+
+	private void recordReconnectLatency(LatencyStats stat, String path, long startMS) {
+		long nowMS = SystemClock.elapsedRealtime();
+		long ms = nowMS - startMS;
+		stat.add(ms);
+		long outageMS = -1;
+		if(disconnectedAtMS>0) {
+			outageMS = nowMS - disconnectedAtMS;
+			outageLatency.add(outageMS);
+			disconnectedAtMS = 0;
+		}
+		WebCallLog.d(TAG,"reconnect latency "+path+"="+ms+"ms outage="+outageMS+"ms "+
+			fastReconnectLatency+" "+loginReconnectLatency+" "+outageLatency+
+			" fastFails="+fastReconnectFails);
+	}
+
 	private WebSocketClient connectHost(String setAddr, boolean auto) {
 		if(setAddr=="") {
 			if(wsAddr!="") {
 				setAddr = wsAddr;
-				Log.d(TAG,"connectHost("+setAddr+") no given setAddr, using wsAddr from service");
+				WebCallLog.d(TAG,"connectHost("+setAddr+") no given setAddr, using wsAddr from service");
 			} else {
-				Log.d(TAG,"# connectHost("+setAddr+") no given setAddr, no wsAddr from service");
+				WebCallLog.d(TAG,"# connectHost("+setAddr+") no given setAddr, no wsAddr from service");
 			}
 		} else {
-			Log.d(TAG,"connectHost("+setAddr+") using given setAddr");
+			WebCallLog.d(TAG,"connectHost("+setAddr+") using given setAddr");
 		}
 		stopSelfFlag = false;
 		try {
@@ -5021,53 +5475,65 @@ public class WebCallService extends Service {
 					// service reconnect: set auto=true telling server this is not a manual login
 					wsAddr += "&auto=true";
 				}
-				Log.d(TAG,"connectHost create new WsClient "+wsAddr);
+				WebCallLog.d(TAG,"connectHost create new WsClient "+wsAddr);
 				wsClient = new WsClient(new URI(wsAddr));
 			}
 			if(wsClient==null) {
-				Log.e(TAG,"# connectHost wsClient==null");
+				WebCallLog.e(TAG,"# connectHost wsClient==null");
 			} else {
 				// client-side ping-interval (default: 60 seconds)
 				// see: https://github.com/TooTallNate/Java-WebSocket/wiki/Lost-connection-detection
 				wsClient.setConnectionLostTimeout(0); // we turn off client pings
 
-				if(setAddr.startsWith("wss")) {
-					if(insecureTlsFlag) {
-						Log.d(TAG,"connectHost allow insecure wss");
-						try {
-							TrustManager[] trustAllCerts = new TrustManager[] {
-								new X509TrustManager() {
-									public X509Certificate[] getAcceptedIssuers() {
-										X509Certificate[] myTrustedAnchors = new X509Certificate[0];
-										return myTrustedAnchors;
-									}
-									@Override
-									public void checkClientTrusted(X509Certificate[] certs, String authType) {}
+				if(webcallCookie!=null && !webcallCookie.equals("")) {
+					// send the session cookie with the upgrade request (needed for a fast resume)
+					wsClient.addHeader("Cookie", webcallCookie);
+				}
 
-									@Override
-									public void checkServerTrusted(X509Certificate[] certs, String authType) {}
-								}
-							};
-							SSLContext sslContext = SSLContext.getInstance("TLS");
-							sslContext.init(null, trustAllCerts, new SecureRandom());
-							SSLSocketFactory factory = sslContext.getSocketFactory();
-							wsClient.setSocket(factory.createSocket());
-							// onSetSSLParameters() will now be called
-						} catch(Exception ex) {
-							Log.w(TAG,"connectHost allow insecure wss ex="+ex);
-						}
+				// should connectBlocking() have to connect on its own, it resolves via dnsCache
+				wsClient.setDnsResolver(new DnsResolver() {
+					@Override
+					public InetAddress resolve(URI uri) throws UnknownHostException {
+						return dnsCache.resolve(uri.getHost())[0];
+					}
+				});
+
+				// race the tcp connect over both address families (happy eyeballs)
+				// for wss the tls layer comes from the shared tls factory, so that the session
+				// of the login request (or of the previous connection) can be resumed
+				boolean isWss = setAddr.startsWith("wss");
+				if(isWss && insecureTlsFlag) {
+					WebCallLog.d(TAG,"connectHost allow insecure wss");
+				}
+				try {
+					URI wsUri = wsClient.getURI();
+					int port = wsUri.getPort();
+					if(port<0) {
+						port = isWss ? 443 : 80;
+					}
+					Socket plainSocket = connectionRacer.connect(wsUri.getHost(), port, 22000);
+					if(isWss) {
+						wsClient.setSocket(WebCallTls.getInstance().layerSocket(
+							plainSocket, wsUri.getHost(), port, insecureTlsFlag));
+						// onSetSSLParameters() will now be called
+					} else {
+						wsClient.setSocket(plainSocket);
 					}
+				} catch(Exception ex) {
+					// connectBlocking() will connect on its own (and report the error)
+					WebCallLog.w(TAG,"connectHost raced socket ex="+ex);
 				}
 
-				Log.d(TAG,"connectHost connectBlocking...");
+				WebCallLog.d(TAG,"connectHost connectBlocking...");
 				boolean isOpen = wsClient.connectBlocking();
 				if(serviceDestroyed) {
-					Log.d(TAG,"! connectHost, serviceDestroyed, exit");
+					WebCallLog.d(TAG,"! connectHost, serviceDestroyed, exit");
 					closeWsClient(false, "connectHost serviceDestroyed");
 				} else {
 					// ssl error: onError ex javax.net.ssl.SSLHandshakeException:
 					// java.security.cert.CertPathValidatorException: Trust anchor for certification path not found
-					Log.d(TAG,"connectHost connectBlocking done isOpen="+isOpen);
+					WebCallLog.d(TAG,"connectHost connectBlocking done isOpen="+isOpen+
+						" tls "+WebCallTls.getInstance().stats()+" race "+connectionRacer.stats()+" dns "+dnsCache.stats());
 					if(isOpen) {
 					// Self hostVerify
 					// the next 25 lines (and the override of onSetSSLParameters below)
@@ -5075,7 +5541,7 @@ public class WebCallService extends Service {
 					// github.com/TooTallNate/Java-WebSocket/wiki/No-such-method-error-setEndpointIdentificationAlgorithm
 						boolean hostVerifySuccess = true;
 						if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N) { // < 24 (< Android 7)
-							Log.d(TAG,"connectHost self hostVerify");
+							WebCallLog.d(TAG,"connectHost self hostVerify");
 							HostnameVerifier hv = HttpsURLConnection.getDefaultHostnameVerifier();
 							SSLSocket socket = (SSLSocket)wsClient.getSocket();
 							SSLSession s = socket.getSession();
@@ -5093,32 +5559,32 @@ public class WebCallService extends Service {
 									hostName = hostName.substring(0,idxColon);
 								}
 							}
-							Log.d(TAG,"connectHost hostName "+hostName);
+							WebCallLog.d(TAG,"connectHost hostName "+hostName);
 							if(!hv.verify(hostName, s)) {
-								Log.d(TAG,"connectHost self-hostVerify fail on "+s.getPeerPrincipal());
+								WebCallLog.d(TAG,"connectHost self-hostVerify fail on "+s.getPeerPrincipal());
 								hostVerifySuccess = false;
 							}
 						}
 
 						if(hostVerifySuccess) {
-							Log.d(TAG,"connectHost hostVerify Success net="+haveNetworkInt);
+							WebCallLog.d(TAG,"connectHost hostVerify Success net="+haveNetworkInt);
 							audioToSpeakerSet(audioToSpeakerMode>0,false);
 
 							if(currentUrl==null) {
 								setLoginUrl();
 								currentUrl = loginUrl;
-								Log.d(TAG,"connectHost set currentUrl="+currentUrl);
+								WebCallLog.d(TAG,"connectHost set currentUrl="+currentUrl);
 							}
 
 							if(currentUrl!=null) {
 								if(extendedLogsFlag) {
-									Log.d(TAG,"connectHost get cookies from currentUrl="+currentUrl);
+									WebCallLog.d(TAG,"connectHost get cookies from currentUrl="+currentUrl);
 								}
 								if(!currentUrl.equals("")) {
 									if(myWebView!=null) {
 										webcallCookie = CookieManager.getInstance().getCookie(currentUrl);
 										if(extendedLogsFlag) {
-											Log.d(TAG,"connectHost webcallCookie="+webcallCookie);
+											WebCallLog.d(TAG,"connectHost webcallCookie="+webcallCookie);
 										}
 										if(webcallCookie!=null && webcallCookie!="") {
 											storePrefsString("cookies", webcallCookie);
@@ -5130,54 +5596,22 @@ public class WebCallService extends Service {
 							if(haveNetworkInt==2) {
 								// we are connected over wifi
 								if(setWifiLockMode<=0) {
-									Log.d(TAG,"connectHost WifiLockMode off");
+									WebCallLog.d(TAG,"connectHost WifiLockMode off");
 								} else if(wifiLock==null) {
-									Log.d(TAG,"connectHost wifiLock==null");
+									WebCallLog.d(TAG,"connectHost wifiLock==null");
 								} else if(wifiLock.isHeld()) {
-									//Log.d(TAG,"connectHost wifiLock isHeld");
+									//WebCallLog.d(TAG,"connectHost wifiLock isHeld");
 								} else {
 									// enable wifi lock
-									Log.d(TAG,"connectHost wifiLock.acquire");
+									WebCallLog.d(TAG,"connectHost wifiLock.acquire");
 									wifiLock.acquire();
 								}
 							}
 
-							long diffInMillies = 0;
-							if(alarmPendingDate!=null) {
-								diffInMillies = Math.abs(new Date().getTime() - alarmPendingDate.getTime());
-								if(diffInMillies > 18*60*1000) {
-									// an alarm is already set, but it is too old
-									if(pendingAlarm!=null) {
-										alarmManager.cancel(pendingAlarm);
-										pendingAlarm = null;
-									}
-									alarmPendingDate = null;
-								}
-							}
-							if(alarmPendingDate==null) {
-								pendingAlarm =
-								  PendingIntent.getBroadcast(context, 0, startAlarmIntent, PendingIntent.FLAG_IMMUTABLE);
-								if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-									if(extendedLogsFlag) {
-										Log.d(TAG,"connectHost alarm setAndAllowWhileIdle");
-									}
-									alarmManager.setAndAllowWhileIdle(AlarmManager.ELAPSED_REALTIME_WAKEUP,
-										SystemClock.elapsedRealtime() + 15*60*1000, pendingAlarm);
-								} else {
-									// for Android 5 and below only:
-									if(extendedLogsFlag) {
-										Log.d(TAG,"connectHost alarm set");
-									}
-									// 15*60*1000 will be very likely be ignored; P9 does minimal 16min
-									alarmManager.set(AlarmManager.ELAPSED_REALTIME_WAKEUP,
-										SystemClock.elapsedRealtime() + 15*60*1000, pendingAlarm);
-								}
-								alarmPendingDate = new Date();
-							} else {
-								if(extendedLogsFlag) {
-									Log.d(TAG,"connectHost alarm pending age="+diffInMillies);
-								}
-							}
+							// make sure the pingcheck wake task is scheduled
+							schedulePingCheck();
+							// register the extra identities as well
+							calleeIdentities.check(haveNetworkInt>0);
 
 							// an alarm event (checkLastPing) striking now could report "diff TOO OLD"
 							// to prevent this from happening:
@@ -5193,16 +5627,17 @@ public class WebCallService extends Service {
 				}
 			}
 		} catch(URISyntaxException ex) {
-			Log.e(TAG,"connectHost URISyntaxException",ex);
+			WebCallLog.e(TAG,"connectHost URISyntaxException",ex);
 		} catch(InterruptedException ex) {
-			Log.e(TAG,"connectHost InterruptedException",ex);
+			WebCallLog.e(TAG,"connectHost InterruptedException",ex);
 		} catch(SSLPeerUnverifiedException ex) {
-			Log.e(TAG,"connectHost SSLPeerUnverifiedException",ex);
+			WebCallLog.e(TAG,"connectHost SSLPeerUnverifiedException",ex);
 		}
 
-		Log.d(TAG,"connectHost fail, clear wsClient, return null");
+		WebCallLog.d(TAG,"connectHost fail, clear wsClient, return null");
 		wsClient = null;
 		calleeIsConnectedFlag = false;
+		calleeConnectedSignal.clear();
 		//updateNotification(offlineMessage);
 		statusMessage(offlineMessage,-1,true,false);
 		postStatus("state", "disconnected");
@@ -5218,11 +5653,11 @@ public class WebCallService extends Service {
 		// problem: wifi icon visible but netActiveInfo==null
 		// problem: wifi icon NOT visible but netTypeName=="WIFI"
 		if(extendedLogsFlag) {
-			Log.d(TAG,"checkNetworkState");
+			WebCallLog.d(TAG,"checkNetworkState");
 		}
 
 	    if(connectivityManager == null) {
-			Log.d(TAG,"checkNetworkState connectivityManager==null");
+			WebCallLog.d(TAG,"checkNetworkState connectivityManager==null");
 			haveNetworkInt=0;
 			return;
 	    }
@@ -5231,24 +5666,24 @@ public class WebCallService extends Service {
 	        NetworkCapabilities capabilities =
 				connectivityManager.getNetworkCapabilities(connectivityManager.getActiveNetwork());
 	        if(capabilities == null) {
-				Log.d(TAG,"checkNetworkState capabilities==null");
+				WebCallLog.d(TAG,"checkNetworkState capabilities==null");
 				haveNetworkInt=0;
 				return;
 	        }
             if(capabilities.hasTransport(NetworkCapabilities.TRANSPORT_WIFI)) {
 		        haveNetworkInt = 2;
-				Log.d(TAG,"checkNetworkState TRANSPORT_WIFI");
+				WebCallLog.d(TAG,"checkNetworkState TRANSPORT_WIFI");
 
 				if(connectToServerIsWanted) {
 					if(setWifiLockMode<=0) {
-						Log.d(TAG,"checkNetworkState WifiLockMode off");
+						WebCallLog.d(TAG,"checkNetworkState WifiLockMode off");
 					} else if(wifiLock==null) {
-						Log.d(TAG,"checkNetworkState wifiLock==null");
+						WebCallLog.d(TAG,"checkNetworkState wifiLock==null");
 					} else if(wifiLock.isHeld()) {
-						Log.d(TAG,"checkNetworkState wifiLock isHeld");
+						WebCallLog.d(TAG,"checkNetworkState wifiLock isHeld");
 					} else {
 						// enable wifi lock
-						Log.d(TAG,"checkNetworkState wifiLock.acquire");
+						WebCallLog.d(TAG,"checkNetworkState wifiLock.acquire");
 						wifiLock.acquire();
 					}
 				}
@@ -5256,20 +5691,20 @@ public class WebCallService extends Service {
             }
             if(capabilities.hasTransport(NetworkCapabilities.TRANSPORT_CELLULAR)) {
 		        haveNetworkInt = 1;
-				Log.d(TAG,"checkNetworkState TRANSPORT_CELLULAR");
+				WebCallLog.d(TAG,"checkNetworkState TRANSPORT_CELLULAR");
 				return;
             }
             if(capabilities.hasTransport(NetworkCapabilities.TRANSPORT_VPN) ||
                capabilities.hasTransport(NetworkCapabilities.TRANSPORT_USB) ||
                capabilities.hasTransport(NetworkCapabilities.TRANSPORT_ETHERNET)) {
 		        haveNetworkInt = 3;
-				Log.d(TAG,"checkNetworkState transport other");
+				WebCallLog.d(TAG,"checkNetworkState transport other");
 				return;
             }
 		} else {
 			NetworkInfo netActiveInfo = connectivityManager.getActiveNetworkInfo();
 			if(netActiveInfo==null) {
-				Log.d(TAG,"checkNetworkState netActiveInfo==null");
+				WebCallLog.d(TAG,"checkNetworkState netActiveInfo==null");
 				// this will make onClose postpone reconnect attempts
 				haveNetworkInt=0;
 				statusMessage("No network",-1,true,false);
@@ -5278,17 +5713,17 @@ public class WebCallService extends Service {
 
 		    if(netActiveInfo.getType() == ConnectivityManager.TYPE_WIFI) { // ==1
 		        haveNetworkInt = 2;
-				Log.d(TAG,"checkNetworkState TYPE_WIFI");
+				WebCallLog.d(TAG,"checkNetworkState TYPE_WIFI");
 				if(connectToServerIsWanted) {
 					if(setWifiLockMode<=0) {
-						Log.d(TAG,"checkNetworkState WifiLockMode off");
+						WebCallLog.d(TAG,"checkNetworkState WifiLockMode off");
 					} else if(wifiLock==null) {
-						Log.d(TAG,"checkNetworkState wifiLock==null");
+						WebCallLog.d(TAG,"checkNetworkState wifiLock==null");
 					} else if(wifiLock.isHeld()) {
-						Log.d(TAG,"checkNetworkState wifiLock isHeld");
+						WebCallLog.d(TAG,"checkNetworkState wifiLock isHeld");
 					} else {
 						// enable wifi lock
-						Log.d(TAG,"checkNetworkState wifiLock.acquire");
+						WebCallLog.d(TAG,"checkNetworkState wifiLock.acquire");
 						wifiLock.acquire();
 					}
 				}
@@ -5296,36 +5731,39 @@ public class WebCallService extends Service {
 		    }
 		    if(netActiveInfo.getType() == ConnectivityManager.TYPE_MOBILE) { // ==0
 		        haveNetworkInt = 1;
-				Log.d(TAG,"checkNetworkState TYPE_MOBILE");
+				WebCallLog.d(TAG,"checkNetworkState TYPE_MOBILE");
 				return;
 		    }
 		    if(netActiveInfo.getType() == ConnectivityManager.TYPE_VPN ||      // ==17
 		              netActiveInfo.getType() == ConnectivityManager.TYPE_ETHERNET) { // ==9
 		        haveNetworkInt = 3;
-				Log.d(TAG,"checkNetworkState type other");
+				WebCallLog.d(TAG,"checkNetworkState type other");
 				return;
 		    }
 		}
 
-		Log.d(TAG,"! checkNetworkState nothing");
+		WebCallLog.d(TAG,"! checkNetworkState nothing");
 		haveNetworkInt=0;
 	}
 
 	private void disconnectHost(boolean sendNotification, boolean skipStopForeground) {
 		// called by wsClose() and wsExit()
-		Log.d(TAG,"disconnectHost "+sendNotification+" "+skipStopForeground);
+		WebCallLog.d(TAG,"disconnectHost "+sendNotification+" "+skipStopForeground);
 
 		calleeIsReady = false;
 		calleeIsConnectedFlag = false;
-		if(pendingAlarm!=null) {
-			alarmManager.cancel(pendingAlarm);
-			pendingAlarm = null;
-			alarmPendingDate = null;
+		calleeConnectedSignal.clear();
+		if(wakeScheduler!=null) {
+			wakeScheduler.cancel("pingcheck");
+			wakeScheduler.cancel("reconnect");
 		}
+		// a manual disconnect ends the server session: do not try to resume on its wsAddr
+		clearFastWsAddr("disconnectHost");
+		calleeIdentities.disconnectAll();
 
 		// if reconnect loop is running, cancel it
 		if(reconnectSchedFuture!=null && !reconnectSchedFuture.isDone()) {
-			Log.d(TAG,"disconnectHost reconnectSchedFuture.cancel");
+			WebCallLog.d(TAG,"disconnectHost reconnectSchedFuture.cancel");
 			reconnectSchedFuture.cancel(false);
 			reconnectSchedFuture = null;
 		}
@@ -5333,7 +5771,7 @@ public class WebCallService extends Service {
 		if(wsClient!=null) {
 			// disable networkStateReceiver
 			if(networkStateReceiver!=null) {
-				Log.d(TAG,"disconnectHost unregister networkStateReceiver");
+				WebCallLog.d(TAG,"disconnectHost unregister networkStateReceiver");
 				unregisterReceiver(networkStateReceiver);
 				networkStateReceiver = null;
 			}
@@ -5347,22 +5785,18 @@ public class WebCallService extends Service {
 		//      is also useless for the clearCache+reload use case
 
 		// clear the offlineMessage from lastStatusMessage, so that it will not be pulled and shown from postDozeAction()
-		Log.d(TAG,"disconnectHost clear lastStatusMessage");
+		WebCallLog.d(TAG,"disconnectHost clear lastStatusMessage");
 		lastStatusMessage = "";
 		postStatus("state", "disconnected");
 
 		// this is needed for wakelock and wifilock to be released
 		reconnectBusy = false;
-		if(keepAwakeWakeLock!=null && keepAwakeWakeLock.isHeld()) {
-			long wakeMS = (new Date()).getTime() - keepAwakeWakeLockStartTime;
-			Log.d(TAG,"disconnectHost keepAwakeWakeLock.release +"+wakeMS);
-			keepAwakeWakeLockMS += wakeMS;
-			storePrefsLong("keepAwakeWakeLockMS", keepAwakeWakeLockMS);
-			keepAwakeWakeLock.release();
+		if(wakeScheduler!=null) {
+			wakeScheduler.release("disconnectHost");
 		}
 		if(wifiLock!=null && wifiLock.isHeld()) {
 			// release wifi lock
-			Log.d(TAG,"disconnectHost wifiLock.release");
+			WebCallLog.d(TAG,"disconnectHost wifiLock.release");
 			wifiLock.release();
 		}
 
@@ -5371,25 +5805,25 @@ public class WebCallService extends Service {
 //      powerConnectionReceiver dozeStateReceiver myNetworkCallback
 
 		if(skipStopForeground) {
-			Log.d(TAG,"disconnectHost with skipStopForeground, exitService() not wanted");
+			WebCallLog.d(TAG,"disconnectHost with skipStopForeground, exitService() not wanted");
 		} else {
 			connectToServerIsWanted = false;
 			storePrefsBoolean("connectWanted",false); // used in case of service crash + restart
 			postStatus("state", "deactivated");
 
 			if(!activityTerminated) {
-				Log.d(TAG,"disconnectHost no skipStopForeground, but !activityTerminated");
+				WebCallLog.d(TAG,"disconnectHost no skipStopForeground, but !activityTerminated");
 			} else if(callPickedUpFlag || peerConnectFlag) {
-				Log.d(TAG,"disconnectHost no skipStopForeground, but callInProgress");
+				WebCallLog.d(TAG,"disconnectHost no skipStopForeground, but callInProgress");
 			} else {
-				Log.d(TAG,"disconnectHost -> exitService()");
+				WebCallLog.d(TAG,"disconnectHost -> exitService()");
 				// remove the Android notification
 				// we delay this so that the last notification msg (offlineMessage) is still shown
 				scheduler.schedule(new Runnable() {
 					public void run() {
 						// no more notification msgs after this
 						exitService();
-						Log.d(TAG,"disconnectHost delayed done");
+						WebCallLog.d(TAG,"disconnectHost delayed done");
 					}
 				}, 200l, TimeUnit.MILLISECONDS);
 			}
@@ -5398,15 +5832,20 @@ public class WebCallService extends Service {
 
 	private void exitService() {
 		if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) { // >= 26
-			Log.d(TAG,"exitService stopForeground()");
+			WebCallLog.d(TAG,"exitService stopForeground()");
 			stopForeground(true); // true = removeNotification
 		}
 		// without .cancel(NOTIF_ID1) our notification icon will not go away
-		Log.d(TAG,"exitService notificationManager.cancel(NOTIF_ID1)");
-		notificationManager.cancel(NOTIF_ID1);
+		WebCallLog.d(TAG,"exitService notificationManager.cancel(NOTIF_ID1)");
+		if(notificationPresenter!=null) {
+			WebCallLog.d(TAG,"exitService notifications "+notificationPresenter.stats());
+			notificationPresenter.cancel();
+		} else {
+			notificationManager.cancel(NOTIF_ID1);
+		}
 
 		// service kill itself
-		Log.d(TAG, "exitService stopSelf()");
+		WebCallLog.d(TAG, "exitService stopSelf()");
 		onDestroy();
 		stopSelfFlag = true;
 		// stopSelf must not be called without a preceeding startForeground
@@ -5415,17 +5854,26 @@ public class WebCallService extends Service {
 
 	private void endPeerCon() {
 		// peercon has ended, stopRinging, clear peerConnectFlag + callPickedUpFlag
-		Log.d(TAG, "endPeerCon");
+		WebCallLog.d(TAG, "endPeerCon");
 		stopRinging("endPeerCon");
+		cancelIncomingNotification();
 		callPickedUpFlag = false;
 		peerConnectFlag = false;
 		peerDisconnnectFlag = true;
 		rtcConnectFlag = false;
 	}
 
+	// cancelIncomingNotification() removes NOTIF_ID2 (incoming call or waiting caller)
+	private void cancelIncomingNotification() {
+		if(notificationManager!=null) {
+			notificationManager.cancel(NOTIF_ID2);
+		}
+		waitingNotifKey = null;
+	}
+
 	private void endWebRtcSession(boolean disconnectCaller) {
 		if(myWebView!=null && webviewMainPageLoaded) {
-			Log.d(TAG, "endWebRtcSession runJS(endWebRtcSession("+
+			WebCallLog.d(TAG, "endWebRtcSession runJS(endWebRtcSession("+
 				"disconnectCaller="+disconnectCaller+",connectToServerIsWanted="+connectToServerIsWanted+"))");
 			// 1st param: disconnectCaller
 			runJS("endWebRtcSession("+disconnectCaller+","+connectToServerIsWanted+")", new ValueCallback<String>() {
@@ -5435,25 +5883,21 @@ public class WebCallService extends Service {
 				}
 			});
 		} else {
-			Log.d(TAG, "endWebRtcSession no webview')");
+			WebCallLog.d(TAG, "endWebRtcSession no webview')");
 		}
 	}
 
 	protected void runJS(final String str, final ValueCallback<String> myBlock) {
 		// str can be very long, we just log the 1st 30 chars
-		String logstr = str;
-		if(logstr.length()>56) {
-			logstr = logstr.substring(0,56);
-		}
 		if(myWebView==null) {
-			Log.d(TAG, "! runJS("+logstr+") but no webview");
+			WebCallLog.d(TAG, "! runJS({.56}) but no webview", str);
 		} else if(!webviewMainPageLoaded && !str.equals("history.back()")) {
-			Log.d(TAG, "! runJS("+logstr+") but no webviewMainPageLoaded");
+			WebCallLog.d(TAG, "! runJS({.56}) but no webviewMainPageLoaded", str);
 		} else {
 			// when problem striks, "runJS(...) post..." will be logged
 			//                  but "runJS evalJS exec"  will be not logged
-			if(!logstr.startsWith("wsOnMessage2")) {
-				Log.d(TAG, "runJS("+logstr+") post...");
+			if(!str.startsWith("wsOnMessage2")) {
+				WebCallLog.d(TAG, "runJS({.56}) post...", str);
 			}
 			// Causes the Runnable r to be added to the message queue.
 			// The runnable will be run on the thread to which this handler is attached.
@@ -5466,31 +5910,31 @@ public class WebCallService extends Service {
 					}
 					// escape '\r\n' to '\\r\\n'
 					final String str2 = str.replace("\\", "\\\\");
-					//Log.d(TAG,"runJS evalJS "+str2);
+					//WebCallLog.d(TAG,"runJS evalJS "+str2);
 					if(myWebView==null) {
-						Log.d(TAG,"# runJS evalJS "+str2+" but no myWebView");
+						WebCallLog.d(TAG,"# runJS evalJS "+str2+" but no myWebView");
 					} else if(!webviewMainPageLoaded && !str.equals("history.back()")) {
-						Log.d(TAG,"# runJS evalJS "+str2+" but no webviewMainPageLoaded (and not history.back())");
+						WebCallLog.d(TAG,"# runJS evalJS "+str2+" but no webviewMainPageLoaded (and not history.back())");
 					} else {
 						// evaluateJavascript() instead of loadUrl()
-						//Log.d(TAG,"runJS evalJS exec: "+str2);
+						//WebCallLog.d(TAG,"runJS evalJS exec: "+str2);
 						try {
 							myWebView.evaluateJavascript(str2, myBlock);
 						} catch(Exception ex) {
-							Log.d(TAG,"# runJS evalJS ex="+ex);
+							WebCallLog.d(TAG,"# runJS evalJS ex="+ex);
 						}
 					}
 				}
 			})) {
 				// Returns false on failure, usually because the looper processing the message queue is exiting.
-				Log.d(TAG,"# runJS post runnable failed");
+				WebCallLog.d(TAG,"# runJS post runnable failed");
 			}
 		}
 	}
 
 	private boolean isScreenOn() {
 		for(Display display : displayManager.getDisplays()) {
-			//Log.d(TAG,"isScreenOff state="+display.getState());
+			//WebCallLog.d(TAG,"isScreenOff state="+display.getState());
 			// STATE_UNKNOWN = 0
 			// STATE_OFF = 1
 			// STATE_ON = 2
@@ -5520,7 +5964,7 @@ public class WebCallService extends Service {
 		// set=true:  route audio to speaker (even if headset is connected)
 		// called by callPickedUp()
 		if(extendedLogsFlag) {
-			Log.d(TAG,"audioToSpeakerSet "+set+" (prev="+audioToSpeakerActive+")");
+			WebCallLog.d(TAG,"audioToSpeakerSet "+set+" (prev="+audioToSpeakerActive+")");
 		}
 		if(Build.VERSION.SDK_INT <= Build.VERSION_CODES.O_MR1) { // <= 27
 			// this works on Android 5-8 but not on Android 9+
@@ -5540,10 +5984,10 @@ public class WebCallService extends Service {
 					}
 				}
 				audioToSpeakerActive = set;
-				Log.d(TAG,"audioToSpeakerSet setForceUse "+set);
+				WebCallLog.d(TAG,"audioToSpeakerSet setForceUse "+set);
 				storePrefsInt("audioToSpeaker", audioToSpeakerMode);
 			} catch(Exception ex) {
-				Log.d(TAG,"audioToSpeakerSet "+set+" ex="+ex);
+				WebCallLog.d(TAG,"audioToSpeakerSet "+set+" ex="+ex);
 				postStatus("toast", "Ring on speaker not available");
 				audioToSpeakerMode = 0;
 				storePrefsInt("audioToSpeaker", audioToSpeakerMode);
@@ -5561,80 +6005,112 @@ public class WebCallService extends Service {
 		}
 	}
 
+	// saveSystemLogs() stores the logs into a file in the download folder: the in-process ringLog
+	// together with the system lines of logcat (crashes, doze) that ringLog can not see.
+	// storeStreamToFile() reports the stored file (or the failure) with a toast once it is written.
 	private String saveSystemLogs() {
 		final String logFileName = "webcall-log-"+
 				new SimpleDateFormat("yyyy-MM-dd-HH-mm", Locale.US).format(new Date()) + ".txt";
-		Log.d(TAG,"saveSystemLogs fileName="+logFileName);
-
-		class ProcessTestRunnable implements Runnable {
-			Process p;
-			BufferedReader br;
-
-			ProcessTestRunnable(Process p) {
-				this.p = p;
-				//Log.d(TAG,"saveSystemLogs ProcessTestRunnable constr");
-			}
+		WebCallLog.d(TAG,"saveSystemLogs fileName="+logFileName+" "+ringLog.stats());
 
+		new Thread(new Runnable() {
 			public void run() {
-				//Log.d(TAG,"saveSystemLogs ProcessTestRunnable run");
-				int linesAccepted=0;
-				int linesDenied=0;
-				try {
-					br = new BufferedReader(new InputStreamReader(p.getInputStream()));
-					StringBuilder strbld = new StringBuilder();
-					String line = null;
-					while((line = br.readLine()) != null) {
-						String lowerLine = line.toLowerCase(Locale.getDefault());
-						if(lowerLine.indexOf("webcall")>=0 ||
-						   lowerLine.indexOf("androidruntime")>=0 ||
-						   lowerLine.indexOf("system.err")>=0 ||
-						   lowerLine.indexOf("offline")>=0 ||
-						   lowerLine.indexOf("wifiLock")>=0 ||
-						   lowerLine.indexOf("waking")>=0 ||
-						   lowerLine.indexOf("dozing")>=0 ||
-						   lowerLine.indexOf("killing")>=0 ||
-						   lowerLine.indexOf("anymotion")>=0) {
-							strbld.append(line+"\n");
-							linesAccepted++;
-						} else {
-							linesDenied++;
+				storeStreamToFile(logFileName, new StreamWriter() {
+					public String writeTo(OutputStream os) throws IOException {
+						int[] lines = writeLogs(os);
+						WebCallLog.d(TAG,"saveSystemLogs ringLines="+lines[0]+" systemLines="+lines[1]);
+						if(lines[1]<0) {
+							return " ("+lines[0]+" lines, no system log)";
 						}
+						return " ("+(lines[0]+lines[1])+" lines)";
 					}
+				});
+			}
+		}).start();
+		return logFileName;
+	}
 
-					Log.d(TAG,"saveSystemLogs accepted="+linesAccepted+" denied="+linesDenied);
-					String dumpStr = strbld.toString();
-					Log.d(TAG,"saveSystemLogs store "+dumpStr.length()+" bytes");
-					storeByteArrayToFile(dumpStr.getBytes(),logFileName);
-				}
-				catch(IOException ex) {
-					ex.printStackTrace();
+	// writeLogs() streams the logs to os in time order: the logcat lines of interest from before
+	// the oldest ringLog line, the ringLog lines, then the later logcat lines that ringLog does not
+	// hold (our own lines of this process since the oldest ringLog line are skipped; crash lines and
+	// the lines of an earlier, ie. crashed, process are always included).
+	// Returns {ringLines, systemLines}; systemLines is -1 if logcat could not be started.
+	private int[] writeLogs(OutputStream os) throws IOException {
+		String myPid = String.valueOf(android.os.Process.myPid());
+		String ringStart = null;
+		long oldestMS = ringLog.oldestTimeMS();
+		if(oldestMS>0) {
+			// same as the logcat threadtime timestamp
+			ringStart = new SimpleDateFormat("MM-dd HH:mm:ss.SSS", Locale.US).format(new Date(oldestMS));
+		}
+		Process p;
+		try {
+			ProcessBuilder pb = new ProcessBuilder("logcat","-d","-v","threadtime");
+			pb.redirectErrorStream(true); // redirect the error stream to stdout
+			p = pb.start();
+		} catch(IOException ex) {
+			// logcat may be restricted; the ringLog lines are stored anyway
+			WebCallLog.d(TAG,"saveSystemLogs logcat ex="+ex);
+			return new int[] { ringLog.export(os, null), -1 };
+		}
+		int ringLines = -1;
+		int linesAccepted = 0;
+		BufferedReader br = new BufferedReader(new InputStreamReader(p.getInputStream()));
+		try {
+			String line = null;
+			while((line = br.readLine()) != null) {
+				String lowerLine = line.toLowerCase(Locale.US);
+				if((lowerLine.indexOf("webcall")>=0 ||
+				    lowerLine.indexOf("androidruntime")>=0 ||
+				    lowerLine.indexOf("system.err")>=0 ||
+				    lowerLine.indexOf("offline")>=0 ||
+				    lowerLine.indexOf("wifilock")>=0 ||
+				    lowerLine.indexOf("waking")>=0 ||
+				    lowerLine.indexOf("dozing")>=0 ||
+				    lowerLine.indexOf("killing")>=0 ||
+				    lowerLine.indexOf("anymotion")>=0) &&
+				   !heldByRingLog(line, myPid, ringStart)) {
+					if(ringLines<0 && ringStart!=null && !loggedBefore(line, ringStart)) {
+						// the ringLog lines go between the older and the newer logcat lines
+						ringLines = ringLog.export(os, null);
+					}
+					os.write(line.getBytes("UTF-8"));
+					os.write('\n');
+					linesAccepted++;
 				}
 			}
+		} finally {
+			br.close();
+			p.destroy();
+		}
+		if(ringLines<0) {
+			ringLines = ringLog.export(os, null);
 		}
+		return new int[] { ringLines, linesAccepted };
+	}
 
-		try {
-			//Log.d(TAG,"saveSystemLogs ProcessBuilder");
-			ProcessBuilder pb = new ProcessBuilder("logcat","-d");
-			pb.redirectErrorStream(true); // redirect the error stream to stdout
-			//Log.d(TAG,"saveSystemLogs pb.start()");
-			Process p = pb.start(); // start the process
-			//Log.d(TAG,"saveSystemLogs new ProcessTestRunnable(p)).start()");
-			new Thread(new ProcessTestRunnable(p)).start();
-			//Log.d(TAG,"saveSystemLogs p.waitFor()");
-			p.waitFor();
-			return logFileName;
-		}
-		catch(Exception ex) {
-			ex.printStackTrace();
-			return null;
+	// loggedBefore() returns true if the logcat line was logged before time ("MM-dd HH:mm:ss.SSS")
+	private static boolean loggedBefore(String line, String time) {
+		return line.length()>=time.length() && line.substring(0, time.length()).compareTo(time) < 0;
+	}
+
+	// heldByRingLog() returns true if the logcat line ("MM-dd HH:mm:ss.SSS pid tid P tag: msg")
+	// was logged by WebCallLog in this process at or after ringStart
+	private static boolean heldByRingLog(String line, String myPid, String ringStart) {
+		if(ringStart==null) {
+			return false;
+		}
+		String[] toks = line.trim().split("\\s+", 6);
+		if(toks.length<6 || !toks[2].equals(myPid) || !toks[5].startsWith("WebCall")) {
+			return false;
 		}
+		return (toks[0]+" "+toks[1]).compareTo(ringStart) >= 0;
 	}
 
 	private void playSoundNotification() {
-		Log.d(TAG,"playSoundNotification");
-		ToneGenerator toneGen1 = new ToneGenerator(AudioManager.STREAM_MUSIC, 90); // volume
-		//toneGen1.startTone(ToneGenerator.TONE_CDMA_PIP,120); // duration
-		toneGen1.startTone(ToneGenerator.TONE_SUP_INTERCEPT_ABBREV,200); // duration
+		WebCallLog.d(TAG,"playSoundNotification");
+		//ringEngine.beep(ToneGenerator.TONE_CDMA_PIP,120); // duration
+		ringEngine.beep(ToneGenerator.TONE_SUP_INTERCEPT_ABBREV,200); // duration
 		soundNotificationPlayed = true;
 	}
 
@@ -5642,9 +6118,8 @@ public class WebCallService extends Service {
 	private void playSoundConfirm() {
 		// very simple short beep to indicate a network problem (maybe just temporary)
 		if(soundNotificationPlayed) {
-			Log.d(TAG,"playSoundConfirm");
-			ToneGenerator toneGen1 = new ToneGenerator(AudioManager.STREAM_MUSIC, 90); // volume
-			toneGen1.startTone(ToneGenerator.TONE_SUP_CONFIRM,120); // duration
+			WebCallLog.d(TAG,"playSoundConfirm");
+			ringEngine.beep(ToneGenerator.TONE_SUP_CONFIRM,120); // duration
 			soundNotificationPlayed = false;
 		}
 	}
@@ -5653,34 +6128,32 @@ public class WebCallService extends Service {
 	private void playSoundAlarm() {
 		// typical TYPE_NOTIFICATION sound to indicate we given up on reconnect (severe)
 		// used for beepOnLostNetworkMode
-		Log.d(TAG,"playSoundAlarm");
-		Ringtone r = RingtoneManager.getRingtone(context.getApplicationContext(), 
-			RingtoneManager.getDefaultUri(RingtoneManager.TYPE_NOTIFICATION));
-		r.play();
+		WebCallLog.d(TAG,"playSoundAlarm");
+		ringEngine.alarm();
 	}
 
 
 	private void statusMessage(String message, int timeoutMs, boolean notifi, boolean urgent) {
 		// webcall status msg + android notification (if notifi + important are true)
-		//Log.d(TAG,"statusMessage: "+message+" n="+notifi);
+		//WebCallLog.d(TAG,"statusMessage: "+message+" n="+notifi);
 		if(myWebView==null) {
-			Log.d(TAG,"statusMessage: "+message+" n="+notifi+" skip: no webview");
+			WebCallLog.d(TAG,"statusMessage: "+message+" n="+notifi+" skip: no webview");
 		} else if(!webviewMainPageLoaded) {
-			Log.d(TAG,"statusMessage: "+message+" n="+notifi+" skip: notOnMainPage");
+			WebCallLog.d(TAG,"statusMessage: "+message+" n="+notifi+" skip: notOnMainPage");
 		} else if((peerConnectFlag || callPickedUpFlag) && !urgent) {
-			Log.d(TAG,"statusMessage: skip while peerCon: "+message);
+			WebCallLog.d(TAG,"statusMessage: skip while peerCon: "+message);
 		} else if(message.equals("")) {
-			Log.d(TAG,"statusMessage: no display of empty message");
+			WebCallLog.d(TAG,"statusMessage: no display of empty message");
 		} else {
 			String dispMsg = message;
-			Log.d(TAG,"statusMessage: "+dispMsg+" (n="+notifi+") (u="+urgent+")");
+			WebCallLog.d(TAG,"statusMessage: "+dispMsg+" (n="+notifi+") (u="+urgent+")");
 			// encodedMsg MUST NOT contain apostrophe
 			String encodedMsg = dispMsg.replace("'", "&#39;");
 			runJS("showStatus('"+encodedMsg+"',"+timeoutMs+","+urgent+");",null);
 			//runJS("showStatus('"+encodedMsg+"',"+timeoutMs+");", new ValueCallback<String>() {
 			//	@Override
 			//	public void onReceiveValue(String s) {
-			//		Log.d(TAG,"statusMessage completed: "+encodedMsg);
+			//		WebCallLog.d(TAG,"statusMessage completed: "+encodedMsg);
 			//	}
 			//});
 
@@ -5697,18 +6170,18 @@ public class WebCallService extends Service {
 		if(message.equals("")) {
 			// if message is empty, updateNotification + callInProgressNotification will display lastStatusMessage again
 			message = lastStatusMessage;
-			Log.d(TAG,"updateNotification msg is empty, set to lastStatusMessage="+message);
+			WebCallLog.d(TAG,"updateNotification msg is empty, set to lastStatusMessage="+message);
 		} else {
 			lastStatusMessage = message;
-			//Log.d(TAG,"updateNotification lastStatusMessage set to message="+message);
+			//WebCallLog.d(TAG,"updateNotification lastStatusMessage set to message="+message);
 		}
 		if(stopSelfFlag) {
-			Log.d(TAG,"updateNotification msg="+message+" skip on stopSelfFlag");
+			WebCallLog.d(TAG,"updateNotification msg="+message+" skip on stopSelfFlag");
 		} else if(Build.VERSION.SDK_INT < Build.VERSION_CODES.KITKAT) { // < 19
-			Log.d(TAG,"updateNotification msg="+message+" SKIP sdk="+Build.VERSION.SDK_INT+" smaller than K (19)");
+			WebCallLog.d(TAG,"updateNotification msg="+message+" SKIP sdk="+Build.VERSION.SDK_INT+" smaller than K (19)");
 		} else {
 			if(peerConnectFlag) {
-				Log.d(TAG,"updateNotification message="+message+" (->callInProg)");
+				WebCallLog.d(TAG,"updateNotification message="+message+" (->callInProg)");
 // TODO at this point, getStats (Connected p2p/p2p) was most likely not yet retrieved
 				callInProgressNotification(message);
 				return;
@@ -5717,20 +6190,29 @@ public class WebCallService extends Service {
 			if(!message.equals("")) {
 				//String dispMsg = "Server: "+message;
 				String dispMsg = message;
-				Log.d(TAG,"updateNotification message="+dispMsg);
-				Notification notif = buildServiceNotification(dispMsg, NOTIF_LOW, NotificationCompat.PRIORITY_LOW);
-				notificationManager.notify(NOTIF_ID1, notif);
+				WebCallLog.d(TAG,"updateNotification message="+dispMsg);
+				if(notificationPresenter!=null) {
+					// posts only if changed, at most once per frame window
+					notificationPresenter.showStatus(dispMsg);
+				} else {
+					Notification notif = buildServiceNotification(dispMsg, NOTIF_LOW, NotificationCompat.PRIORITY_LOW);
+					notificationManager.notify(NOTIF_ID1, notif);
+				}
 			}
 		}
 	}
 
 	private Notification buildServiceNotification(String msg, String notifChannel, int prio) {
 		// only call with Build.VERSION.SDK_INT >= Build.VERSION_CODES.O // >= 26
+		if(notificationPresenter!=null && notifChannel.equals(NOTIF_LOW)) {
+			// reuses the cached builder and PendingIntent
+			return notificationPresenter.statusNotification(msg);
+		}
 		Intent notificationIntent = new Intent(this, WebCallCalleeActivity.class);
 		PendingIntent pendingIntent =
 			PendingIntent.getActivity(this, 0, notificationIntent, PendingIntent.FLAG_IMMUTABLE);
 
-		//Log.d(TAG,"buildServiceNotification msg="+msg+" chl="+notifChannel+" !="+important);
+		//WebCallLog.d(TAG,"buildServiceNotification msg="+msg+" chl="+notifChannel+" !="+important);
 		NotificationCompat.Builder notificationBuilder =
 			new NotificationCompat.Builder(this, notifChannel)
 					.setContentTitle(msg) // 1st line
@@ -5745,21 +6227,10 @@ public class WebCallService extends Service {
 
 	private void callInProgressNotification(String message) {
 		if(context==null) {
-			Log.e(TAG,"# callInProgressNotification no context");
+			WebCallLog.e(TAG,"# callInProgressNotification no context");
 			return;
 		}
 
-		Date wakeDate = new Date();
-		long eventMS = wakeDate.getTime();
-
-		Intent muteIntent = new Intent("serviceCmdReceiver");
-		muteIntent.putExtra("muteMic", "true");
-
-		Intent hangupIntent = new Intent("serviceCmdReceiver");
-		hangupIntent.putExtra("hangup", "true");
-
-		Intent switchToIntent = new Intent(this, WebCallCalleeActivity.class);
-
 		String title = callInProgressMessage;
 		String muteButtonLabel = "Mute";
 		if(micMuteState) {
@@ -5776,7 +6247,21 @@ public class WebCallService extends Service {
 //			dispMsg = "WebCall Server: "+dispMsg;
 //		}
 
-		Log.d(TAG,"callInProgressNotif title="+title+" dispMsg="+dispMsg);
+		WebCallLog.d(TAG,"callInProgressNotif title="+title+" dispMsg="+dispMsg);
+		if(notificationPresenter!=null) {
+			// posts only if changed, at most once per frame window
+			notificationPresenter.showCallInProgress(title, muteButtonLabel, dispMsg);
+			return;
+		}
+
+		Intent muteIntent = new Intent("serviceCmdReceiver");
+		muteIntent.putExtra("muteMic", "true");
+
+		Intent hangupIntent = new Intent("serviceCmdReceiver");
+		hangupIntent.putExtra("hangup", "true");
+
+		Intent switchToIntent = new Intent(this, WebCallCalleeActivity.class);
+
 
 		NotificationCompat.Builder notificationBuilder =
 			new NotificationCompat.Builder(context, NOTIF_LOW)
@@ -5839,10 +6324,15 @@ public class WebCallService extends Service {
 */
 		Notification notification = notificationBuilder.build();
 		notificationManager.notify(NOTIF_ID1, notification);
-		//Log.d(TAG,"callInProgressNotification: Android10+ notification sent");
+		//WebCallLog.d(TAG,"callInProgressNotification: Android10+ notification sent");
 	}
 
 	private void incomingCall(String callerID, String callerName, String txtMsg, boolean waitingCaller) {
+		long traceStartNS = CallTracer.now();
+		if(contactCache!=null) {
+			// the name the callee gave this caller (if it is a contact)
+			callerName = contactCache.nameFor(callerID, callerName);
+		}
 		String contentText = callerName+" "+callerID;
 		if(textmode) { // set by onMessage(()
 			contentText += " TextMode ";
@@ -5856,9 +6346,9 @@ public class WebCallService extends Service {
 
 		// activity is NOT visible
 		Date wakeDate = new Date();
-		//Log.d(TAG,"incomingCall: "+
+		//WebCallLog.d(TAG,"incomingCall: "+
 		//	new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US).format(wakeDate));
-		Log.d(TAG,"incomingCall: '"+contentText+"' Android10+ notification");
+		WebCallLog.d(TAG,"incomingCall: '"+contentText+"' Android10+ notification");
 
 		long eventMS = wakeDate.getTime();
 
@@ -5922,26 +6412,29 @@ public class WebCallService extends Service {
 
 		if(activityVisible && myWebView!=null && webviewMainPageLoaded &&
 				currentUrl!=null && currentUrl.indexOf("#")>=0) {
-			Log.d(TAG,"incomingCall: notification can be swiped");
+			WebCallLog.d(TAG,"incomingCall: notification can be swiped");
 		} else {
-			Log.d(TAG,"incomingCall: notification can not be swiped");
+			WebCallLog.d(TAG,"incomingCall: notification can not be swiped");
 			notificationBuilder.setOngoing(true);
 		}
 
 
 		Notification notification = notificationBuilder.build();
 		notificationManager.notify(NOTIF_ID2, notification);
-		//Log.d(TAG,"incomingCall: '"+contentText+"' Android10+ notification sent");
+		// NOTIF_ID2 no longer shows a waiting caller (for one, onMessage sets waitingNotifKey after this)
+		waitingNotifKey = null;
+		CallTracer.span("incomingCall", traceStartNS);
+		//WebCallLog.d(TAG,"incomingCall: '"+contentText+"' Android10+ notification sent");
 
 		// send log RING to server
 		String ringMsg = "log|callee Incoming /";
 		// do this later when all deployed server can cope without 3rd arg
 		//String ringMsg = "log|callee Incoming";
-		Log.d(TAG,"wsClient.send RING-log "+ringMsg);
+		WebCallLog.d(TAG,"wsClient.send RING-log "+ringMsg);
 		try {
 			wsClient.send(ringMsg);
 		} catch(Exception ex) {
-			Log.d(TAG,"# wsClient.send "+ringMsg+" ex="+ex.toString());
+			WebCallLog.d(TAG,"# wsClient.send "+ringMsg+" ex="+ex.toString());
 		}
 	}
 
@@ -5987,52 +6480,136 @@ public class WebCallService extends Service {
 	private PackageInfo getCurrentWebViewPackageInfo() {
 		PackageInfo pInfo = null;
 		if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-			Log.d(TAG, "getCurrentWebViewPackageInfo for O+");
+			WebCallLog.d(TAG, "getCurrentWebViewPackageInfo for O+");
 			pInfo = WebView.getCurrentWebViewPackage();
 		} else {
 			try {
-				Log.d(TAG, "getCurrentWebViewPackageInfo for M+");
+				WebCallLog.d(TAG, "getCurrentWebViewPackageInfo for M+");
 				Class webViewFactory = Class.forName("android.webkit.WebViewFactory");
 				Method method = webViewFactory.getMethod("getLoadedPackageInfo");
 				pInfo = (PackageInfo)method.invoke(null);
 			} catch(Exception e) {
-				//Log.d(TAG, "getCurrentWebViewPackageInfo for M+ ex="+e);
+				//WebCallLog.d(TAG, "getCurrentWebViewPackageInfo for M+ ex="+e);
 			}
 			if(pInfo==null) {
 				try {
-					Log.d(TAG, "getCurrentWebViewPackageInfo for M+ (2)");
+					WebCallLog.d(TAG, "getCurrentWebViewPackageInfo for M+ (2)");
 					Class webViewFactory = Class.forName("com.google.android.webview.WebViewFactory");
 					Method method = webViewFactory.getMethod("getLoadedPackageInfo");
 					pInfo = (PackageInfo) method.invoke(null);
 				} catch(Exception e2) {
-					//Log.d(TAG, "getCurrentWebViewPackageInfo for M+ (2) ex="+e2);
+					//WebCallLog.d(TAG, "getCurrentWebViewPackageInfo for M+ (2) ex="+e2);
 				}
 			}
 			if(pInfo==null) {
 				try {
-					Log.d(TAG, "getCurrentWebViewPackageInfo for M+ (3)");
+					WebCallLog.d(TAG, "getCurrentWebViewPackageInfo for M+ (3)");
 					Class webViewFactory = Class.forName("com.android.webview.WebViewFactory");
 					Method method = webViewFactory.getMethod("getLoadedPackageInfo");
 					pInfo = (PackageInfo)method.invoke(null);
 				} catch(Exception e2) {
-					//Log.d(TAG, "getCurrentWebViewPackageInfo for M+ (3) ex="+e2);
+					//WebCallLog.d(TAG, "getCurrentWebViewPackageInfo for M+ (3) ex="+e2);
 				}
 			}
 		}
 		if(pInfo!=null) {
-			Log.d(TAG, "getCurrentWebViewPackageInfo pInfo set");
+			WebCallLog.d(TAG, "getCurrentWebViewPackageInfo pInfo set");
 		}
 		return pInfo;
 	}
 
+	// sendRttPing() sends a ws ping and notes the time, so that onWebsocketPong() can measure the rtt
+	// if the pong does not arrive within linkQuality.stallTimeoutMS() we send one more probe;
+	// if that is missed too, the link is stalled and we reconnect (long before serverPingPeriodPlus)
+	// if who is set, exceptions are logged instead of thrown
+	private void sendRttPing(String who) {
+		WebSocketClient client = wsClient;
+		if(client==null) {
+			return;
+		}
+		final long sentAt;
+		try {
+			// the tag comes back as the payload of the pong
+			ByteBuffer tag = ByteBuffer.allocate(8);
+			tag.putLong(0, linkQuality.pingSent());
+			sentAt = linkQuality.pingSentAt();
+			lastOwnPingMS = sentAt;
+			PingFrame ping = new PingFrame();
+			ping.setPayload(tag);
+			client.sendFrame(ping);
+		} catch(RuntimeException ex) {
+			linkQuality.pingFailed();
+			if(who==null) {
+				throw ex;
+			}
+			WebCallLog.d(TAG,"# sendRttPing "+who+" ex="+ex);
+			return;
+		}
+		scheduler.schedule(new Runnable() {
+			public void run() {
+				int result = linkQuality.checkPong(sentAt);
+				if(result==1) {
+					WebCallLog.d(TAG,"sendRttPing missed pong, probe again");
+					sendRttPing("stall probe");
+				} else if(result==2) {
+					if(connectToServerIsWanted && !reconnectBusy && wsClient!=null) {
+						WebCallLog.d(TAG,"sendRttPing link stalled, startReconnecter");
+						startReconnecter(true,0);
+					}
+				}
+			}
+		}, linkQuality.stallTimeoutMS(), TimeUnit.MILLISECONDS);
+	}
+
+	// scheduleLinkProbe() (re)schedules the probe ping for when the link state calls for it:
+	// once a server ping is overdue, and repeatedly while the link is degraded; the missed pong
+	// handling of sendRttPing() then finds a stalled link long before serverPingPeriodPlus
+	private void scheduleLinkProbe(long minDelayMS) {
+		ScheduledFuture<?> previous = linkProbeFuture;
+		if(previous!=null) {
+			previous.cancel(false);
+		}
+		if(wsClient==null || scheduler==null) {
+			linkProbeFuture = null;
+			return;
+		}
+		long delayMS = Math.max(minDelayMS, linkQuality.nextProbeMS());
+		linkProbeFuture = scheduler.schedule(new Runnable() {
+			public void run() {
+				if(wsClient==null || !connectToServerIsWanted) {
+					return;
+				}
+				if(linkQuality.pingSentAt()==0) {
+					// no probe outstanding (a missed pong is probed again by sendRttPing())
+					WebCallLog.d(TAG,"link probe degraded={}", linkQuality.isDegraded());
+					sendRttPing("link probe");
+				}
+				scheduleLinkProbe(linkProbeRepeatMS);
+			}
+		}, Math.max(delayMS, 1000), TimeUnit.MILLISECONDS);
+	}
+
+	// webcallHost() returns the host part of the current (or first configured) webcalldomain
+	private String webcallHost() {
+		String webcalldomain = loginDomain;
+		if(webcalldomain==null || webcalldomain.equals("")) {
+			webcalldomain = prefs.getString("webcalldomain", "").toLowerCase(Locale.getDefault());
+		}
+		int idxPort = webcalldomain.indexOf(":");
+		if(idxPort>=0) {
+			webcalldomain = webcalldomain.substring(0,idxPort);
+		}
+		return webcalldomain;
+	}
+
 	private void networkChange(int newNetworkInt, int oldNetworkInt, String comment) {
 		// called by onAvailable() or onCapabilitiesChanged()
-		Log.d(TAG,"networkChange start "+comment+" old="+oldNetworkInt+" new="+newNetworkInt);
+		WebCallLog.d(TAG,"networkChange start "+comment+" old="+oldNetworkInt+" new="+newNetworkInt);
 		if(newNetworkInt!=2 /*&& oldNetworkInt==2*/) {
 			// lost wifi
 			if(wifiLock!=null && wifiLock.isHeld()) {
 				// release wifi lock
-				Log.d(TAG,"networkChange wifi gone -> wifiLock.release");
+				WebCallLog.d(TAG,"networkChange wifi gone -> wifiLock.release");
 				wifiLock.release();
 			}
 		}
@@ -6040,66 +6617,71 @@ public class WebCallService extends Service {
 		if(newNetworkInt<=0 && oldNetworkInt>0) {
 			// lost network
 			calleeIsConnectedFlag = false;
+			calleeConnectedSignal.clear();
 			if(connectToServerIsWanted) {
 				if(oldNetworkInt==2) {
-					Log.d(TAG,"networkChange lost Wifi");
+					WebCallLog.d(TAG,"networkChange lost Wifi");
 					statusMessage("Wifi network lost, reconnector active",-1,true,false);
 				} else if(oldNetworkInt==1) {
-					Log.d(TAG,"networkChange lost mobile");
+					WebCallLog.d(TAG,"networkChange lost mobile");
 					statusMessage("Mobile network lost, reconnector active",-1,true,false);
 				} else {
-					Log.d(TAG,"networkChange lost "+haveNetworkInt);
+					WebCallLog.d(TAG,"networkChange lost "+haveNetworkInt);
 					statusMessage("Network lost, reconnector active",-1,true,false);
 				}
 			} else {
 				if(oldNetworkInt==2) {
-					Log.d(TAG,"networkChange lost Wifi");
+					WebCallLog.d(TAG,"networkChange lost Wifi");
 					statusMessage("Wifi network lost, reconnector off",-1,true,false);
 				} else if(oldNetworkInt==1) {
-					Log.d(TAG,"networkChange lost mobile");
+					WebCallLog.d(TAG,"networkChange lost mobile");
 					statusMessage("Mobile network lost, reconnector off",-1,true,false);
 				} else {
-					Log.d(TAG,"networkChange lost "+haveNetworkInt);
+					WebCallLog.d(TAG,"networkChange lost "+haveNetworkInt);
 					statusMessage("Network lost, reconnector off",-1,true,false);
 				}
 			}
 		} else {
 			// gained network
+			if(newNetworkInt>0 && connectToServerIsWanted) {
+				// resolve the server on the new network before the reconnecter needs it
+				dnsCache.prefetch(webcallHost());
+			}
 			// tmtmtm1
 			if(!connectToServerIsWanted || reconnectBusy) {
 				if(newNetworkInt>0 && newNetworkInt!=oldNetworkInt) {
 					if(newNetworkInt==2) {
-						Log.d(TAG,"networkChange gained Wifi");
+						WebCallLog.d(TAG,"networkChange gained Wifi");
 						statusMessage("Wifi network ready",-1,true,false);
 					} else if(newNetworkInt==1) {
-						Log.d(TAG,"networkChange gained mobile");
+						WebCallLog.d(TAG,"networkChange gained mobile");
 						statusMessage("Mobile network ready",-1,true,false);
 					} else {
-						Log.d(TAG,"networkChange gained "+newNetworkInt);
+						WebCallLog.d(TAG,"networkChange gained "+newNetworkInt);
 						statusMessage("Network ready",-1,true,false);
 					}
 				}
 				if(!connectToServerIsWanted) {
-					Log.d(TAG,"networkChange abort conWant==false");
+					WebCallLog.d(TAG,"networkChange abort conWant==false");
 				} else if(reconnectBusy) {
-					Log.d(TAG,"networkChange abort reconnectBusy");
+					WebCallLog.d(TAG,"networkChange abort reconnectBusy");
 				}
 			} else {
 				// start reconnecter (independent of whether we have a network or not)
-				Log.d(TAG,"networkChange start...");
+				WebCallLog.d(TAG,"networkChange start...");
 				if(newNetworkInt==2) {
 					statusMessage("Reconnecting via Wifi...",-1,true,false);
 					if(oldNetworkInt!=2) {
 						if(setWifiLockMode<=0) {
 							// prefer wifi not enabled by user
-							Log.d(TAG,"networkChange gainWifi WifiLockMode off");
+							WebCallLog.d(TAG,"networkChange gainWifi WifiLockMode off");
 						} else if(wifiLock==null) {
-							Log.d(TAG,"# networkChange gainWifi wifiLock==null");
+							WebCallLog.d(TAG,"# networkChange gainWifi wifiLock==null");
 						} else if(wifiLock.isHeld()) {
-							Log.d(TAG,"networkChange gainWifi wifiLock isHeld already");
+							WebCallLog.d(TAG,"networkChange gainWifi wifiLock isHeld already");
 						} else {
 							// enable wifi lock
-							Log.d(TAG,"networkChange gainWifi wifiLock.acquire");
+							WebCallLog.d(TAG,"networkChange gainWifi wifiLock.acquire");
 							wifiLock.acquire();
 						}
 					}
@@ -6110,11 +6692,7 @@ public class WebCallService extends Service {
 				}
 
 				// we need keepAwake to manage the reconnect
-				if(keepAwakeWakeLock!=null && !keepAwakeWakeLock.isHeld()) {
-					Log.d(TAG,"networkChange keepAwakeWakeLock.acquire");
-					keepAwakeWakeLock.acquire(3 * 60 * 1000);
-					keepAwakeWakeLockStartTime = (new Date()).getTime();
-				}
+				wakeScheduler.keepAwake("networkChange", 3 * 60 * 1000);
 
 				if(wsClient!=null) {
 					// disconnect old connection to avoid server re-login denial ("already/still logged in")
@@ -6123,7 +6701,7 @@ public class WebCallService extends Service {
 				}
 
 				if(serviceDestroyed) {
-					Log.d(TAG,"! networkChange, serviceDestroyed, exit");
+					WebCallLog.d(TAG,"! networkChange, serviceDestroyed, exit");
 				} else if(reconnectSchedFuture!=null && !reconnectSchedFuture.isDone()) {
 					// we don't want to wait more than 3s
 					// but we also don't want to wait less than 3s
@@ -6132,15 +6710,15 @@ public class WebCallService extends Service {
 					// why wait for the scheduled reconnecter job
 					// let's cancel it and start in 3s from now
 					// (3s, so that the server has enough time to detect the disconnect)
-					Log.d(TAG,"networkChange cancel reconnectSchedFuture");
+					WebCallLog.d(TAG,"networkChange cancel reconnectSchedFuture");
 					if(reconnectSchedFuture.cancel(false)) {
 						// next run reconnecter
-						Log.d(TAG,"networkChange restart reconnecter in 3s");
-						reconnectSchedFuture = scheduler.schedule(reconnecter, 3 ,TimeUnit.SECONDS);
+						WebCallLog.d(TAG,"networkChange restart reconnecter in 3s");
+						reconnectSchedFuture = scheduleReconnecter(3);
 					}
 				} else {
-					Log.d(TAG,"networkChange start reconnecter in 3s");
-					reconnectSchedFuture = scheduler.schedule(reconnecter, 3, TimeUnit.SECONDS);
+					WebCallLog.d(TAG,"networkChange start reconnecter in 3s");
+					reconnectSchedFuture = scheduleReconnecter(3);
 				}
 			}
 		}
@@ -6150,44 +6728,162 @@ public class WebCallService extends Service {
 		WebSocketClient tmpWsClient = wsClient;
 		wsClient = null;
 		calleeIsConnectedFlag = false;
+		calleeConnectedSignal.clear();
+		// mux channels of the extra identities are gone with the socket
+		calleeIdentities.muxReset();
+		// the server sends a fresh waitingCallers list after the next login
+		waitingCallerList.clear();
 		if(tmpWsClient==null) {
 			if(blocking) {
-				Log.d(TAG,"! "+from+" closeWsClient wsClient was null");
+				WebCallLog.d(TAG,"! "+from+" closeWsClient wsClient was null");
 			} else {
-				Log.d(TAG,"! "+from+" closeWsClient none-blocking wsClient was null");
+				WebCallLog.d(TAG,"! "+from+" closeWsClient none-blocking wsClient was null");
 			}
 			return;
 		}
 		try {
 			if(blocking) {
-				Log.d(TAG,from+" closeWsClient blocking...");
+				WebCallLog.d(TAG,from+" closeWsClient blocking...");
 				tmpWsClient.closeBlocking();
 			} else {
-				Log.d(TAG,from+" closeWsClient none-blocking...");
+				WebCallLog.d(TAG,from+" closeWsClient none-blocking...");
 				tmpWsClient.close();
 			}
 		} catch(Exception ex) {
 			if(blocking) {
-				Log.d(TAG,"# "+from+" closeWsClient blocking ex="+ex);
+				WebCallLog.d(TAG,"# "+from+" closeWsClient blocking ex="+ex);
 			} else {
-				Log.d(TAG,"# "+from+" closeWsClient none-blocking ex="+ex);
+				WebCallLog.d(TAG,"# "+from+" closeWsClient none-blocking ex="+ex);
 			}
 		}
 
 		if(blocking) {
-			Log.d(TAG,from+" closeWsClient blocking done");
+			WebCallLog.d(TAG,from+" closeWsClient blocking done");
 		} else {
-			Log.d(TAG,from+" closeWsClient none-blocking done");
+			WebCallLog.d(TAG,from+" closeWsClient none-blocking done");
 		}
 	}
 
 	private void postStatus(String key, String status) {
-		Log.d(TAG,"postStatus "+key+" "+status);
+		WebCallLog.d(TAG,"postStatus "+key+" "+status);
 		sendBroadcast(new Intent("webcall").putExtra(key,status));
 	}
 
+	// newIdentitiesHost() connects CalleeIdentities to the shared service state
+	private CalleeIdentities.Host newIdentitiesHost() {
+		return new CalleeIdentities.Host() {
+			public String domain() {
+				if(loginDomain==null || loginDomain.equals("")) {
+					setLoginUrl();
+				}
+				return loginDomain;
+			}
+
+			public boolean insecureTls() {
+				return insecureTlsFlag;
+			}
+
+			public String version() {
+				return BuildConfig.VERSION_NAME;
+			}
+
+			public void incomingCall(String calleeID, String callerID, String callerName, String txtMsg) {
+				identityIncomingCall(calleeID, callerID, callerName, txtMsg);
+			}
+
+			public void cancelCall(String calleeID) {
+				WebCallLog.d(TAG,"identity cancelCall "+calleeID);
+				notificationManager.cancel(NOTIF_ID3);
+				stopRinging("identity cancel "+calleeID);
+			}
+		};
+	}
+
+	// identityIncomingCall() notifies about a call for an extra identity
+	// the call can only be taken after switching to that identity
+	private void identityIncomingCall(String calleeID, String callerID, String callerName, String txtMsg) {
+		String contentText = callerName+" "+callerID;
+		if(txtMsg!=null && !txtMsg.equals("")) {
+			contentText += " \""+txtMsg+"\""; // greeting msg
+		}
+		WebCallLog.d(TAG,"identityIncomingCall for "+calleeID+": '"+contentText+"'");
+
+		Intent switchIntent = new Intent("serviceCmdReceiver");
+		switchIntent.putExtra("switchIdentity", calleeID);
+		Intent denyIntent = new Intent("serviceCmdReceiver");
+		denyIntent.putExtra("denyIdentityCall", calleeID);
+
+		NotificationCompat.Builder notificationBuilder =
+			new NotificationCompat.Builder(context, NOTIF_HIGH)
+				.setSmallIcon(R.mipmap.notification_icon)
+				.setContentTitle("WebCall incoming for "+calleeID)
+				.setCategory(NotificationCompat.CATEGORY_CALL)
+				.setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
+				.setPriority(NotificationCompat.PRIORITY_HIGH)
+				.addAction(R.mipmap.notification_icon,"Switch",
+					PendingIntent.getBroadcast(context, 4, switchIntent,
+						PendingIntent.FLAG_UPDATE_CURRENT|PendingIntent.FLAG_IMMUTABLE))
+				.addAction(R.mipmap.notification_icon,"Reject",
+					PendingIntent.getBroadcast(context, 5, denyIntent,
+						PendingIntent.FLAG_UPDATE_CURRENT|PendingIntent.FLAG_IMMUTABLE))
+				.setOngoing(true)
+				.setContentText(contentText);
+		notificationManager.notify(NOTIF_ID3, notificationBuilder.build());
+		startRinging();
+	}
+
+	// switchIdentity() makes calleeID the primary identity (served by the webview)
+	// the previous primary ID becomes an extra identity
+	private void switchIdentity(String calleeID) {
+		String oldPrimary = prefs.getString("username", "").toLowerCase(Locale.getDefault());
+		if(calleeID.equals(oldPrimary)) {
+			return;
+		}
+		String oldCookie = prefs.getString("cookies", "");
+		String newCookie = prefs.getString("cookies_"+calleeID, "");
+		// keep calleeID (and its waiting caller) registered until we are logged in as calleeID;
+		// calleeIsConnected() then closes the extra connection
+		calleeIdentities.handover(calleeID);
+
+		StringBuilder extra = new StringBuilder();
+		for(String tok : prefs.getString("extraIdentities", "").split(",")) {
+			String id = tok.trim().toLowerCase(Locale.getDefault());
+			if(id.equals(calleeID)) {
+				id = oldPrimary;
+			}
+			if(!id.equals("")) {
+				if(extra.length()>0) {
+					extra.append(",");
+				}
+				extra.append(id);
+			}
+		}
+		storePrefsString("extraIdentities", extra.toString());
+		storePrefsString("cookies_"+oldPrimary, oldCookie);
+		storePrefsString("cookies", newCookie);
+		storePrefsString("username", calleeID);
+		webcallCookie = newCookie;
+		WebCallLog.d(TAG,"switchIdentity "+oldPrimary+" -> "+calleeID);
+
+		// log in as calleeID (the old primary is picked up by calleeIdentities.check())
+		clearFastWsAddr("switchIdentity");
+		setLoginUrl();
+		startReconnecter(true,0);
+		if(myWebView!=null) {
+			final String calleeUrl = "https://"+loginDomain+"/callee/"+calleeID;
+			currentUrl = null;
+			myWebView.post(new Runnable() {
+				@Override
+				public void run() {
+					myWebView.loadUrl(calleeUrl);
+				}
+			});
+		}
+		bringActivityToFront();
+	}
+
 	private void bringActivityToFront() {
-		Log.d(TAG, "bringActivityToFront");
+		WebCallLog.d(TAG, "bringActivityToFront");
 		Intent webcallToFrontIntent =
 			new Intent(context, WebCallCalleeActivity.class).putExtra("wakeup", "wake");
 		webcallToFrontIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK |
@@ -6197,14 +6893,12 @@ public class WebCallService extends Service {
 	}
 
 	private void cancelIncomingCall() {
-		Log.d(TAG,"cancelIncomingCall endPeerCon()");
-		// clear queueWebRtcMessage / stringMessageQueue
-		while(!stringMessageQueue.isEmpty()) {
-			stringMessageQueue.poll();
-		}
+		WebCallLog.d(TAG,"cancelIncomingCall endPeerCon()");
+		// clear queueWebRtcMessage / signalingQueue
+		signalingQueue.clear();
 		endPeerCon();
 		if(wsClient!=null && connectToServerIsWanted) {
-			Log.d(TAG,"cancelIncomingCall send init...");
+			WebCallLog.d(TAG,"cancelIncomingCall send init...");
 			wsClient.send("init|");
 			// wait for sessionID
 		} else {
@@ -6213,7 +6907,7 @@ public class WebCallService extends Service {
 	}
 
 	private void postDozeAction() {
-		Log.d(TAG, "postDozeAction dozeIdleCounter="+dozeIdleCounter+" ("+lastStatusMessage+")");
+		WebCallLog.d(TAG, "postDozeAction dozeIdleCounter="+dozeIdleCounter+" ("+lastStatusMessage+")");
 		dozeIdleCounter=0;
 		if(lastStatusMessage!="") {
 			// runJS(statusMessage)) is not always executed while in doze mode
@@ -6222,31 +6916,54 @@ public class WebCallService extends Service {
 			// problem with this: that JS statusMessage() acts independent of service
 			// so lastStatusMessage is not always the last status msg
 			// solved by JS calling clearLastStatus()
-			Log.d(TAG,"postDozeAction showStatus lastStatusMessage="+lastStatusMessage);
+			WebCallLog.d(TAG,"postDozeAction showStatus lastStatusMessage="+lastStatusMessage);
 			runJS("showStatus('"+lastStatusMessage+"',-1);",null);
 			lastStatusMessage="";
 		}
 	}
 
+	// refreshContacts() updates contactCache from the server in the background
+	// (unless it was refreshed recently and force is false)
+	private void refreshContacts(final boolean force, long delayMS) {
+		if(contactCache==null || scheduler==null) {
+			return;
+		}
+		scheduler.schedule(new Runnable() {
+			public void run() {
+				String cookie = webcallCookie;
+				if(cookie==null || cookie.equals("")) {
+					cookie = prefs.getString("cookies", "");
+				}
+				try {
+					OkHttpClient okClient = WebCallTls.getInstance().okHttpClient(insecureTlsFlag);
+					contactCache.refresh(okClient, loginDomain, loginUserName, SignalingCore.requestHeaders(
+						BuildConfig.VERSION_NAME, getWebviewVersion(), cookie), force);
+				} catch(Exception ex) {
+					WebCallLog.d(TAG,"# refreshContacts ex="+ex);
+				}
+			}
+		}, delayMS, TimeUnit.MILLISECONDS);
+	}
+
 	private void closeWebView(String comment) {
-		Log.d(TAG, "closeWebView "+comment);
+		WebCallLog.d(TAG, "closeWebView "+comment);
 		if(myWebView!=null) {
 			/* we let the activity take care of doing this
 			try {
-				Log.d(TAG, "closeWebView stopLoading");
+				WebCallLog.d(TAG, "closeWebView stopLoading");
 				myWebView.stopLoading();
 				myWebView.clearCache(true);
 				//myWebView.loadUrl("about:blank");
 				myWebView.onPause();
 				final ViewGroup parent = (ViewGroup)myWebView.getParent();
 				if(parent != null) {
-					Log.d(TAG, "closeWebView parent.removeView(myWebView)");
+					WebCallLog.d(TAG, "closeWebView parent.removeView(myWebView)");
 					parent.removeView(myWebView);
 				}
 				myWebView.removeAllViews();
 				myWebView.destroy();
 			} catch(Exception ex) {
-				Log.d(TAG, "closeWebView destroy ex="+ex);
+				WebCallLog.d(TAG, "closeWebView destroy ex="+ex);
 			}
 			*/
 			myWebView = null;
@@ -6254,6 +6971,7 @@ public class WebCallService extends Service {
 		webSettings = null;
 		webcallCookie = null;
 		webviewMainPageLoaded = false;
+		mainPageSignal.clear();
 		currentUrl=null;
 		calleeIsReady=false;
 		//webCallJSInterface = null;
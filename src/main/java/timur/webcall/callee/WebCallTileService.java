@@ -12,7 +12,6 @@ import android.content.BroadcastReceiver;
 import android.content.IntentFilter;
 import android.app.PendingIntent;
 import android.os.IBinder;
-import android.util.Log;
 
 import java.util.Locale;
 import java.util.Date;
@@ -37,33 +36,33 @@ public class WebCallTileService extends TileService {
 	@Override
 	public void onTileAdded() {
 		super.onTileAdded();
-		Log.d(TAG,"onTileAdded");
+		WebCallLog.d(TAG,"onTileAdded");
 	}
 
 	// Called when the user removes your tile.
 	@Override
 	public void onTileRemoved() {
 		super.onTileRemoved();
-		Log.d(TAG,"onTileRemoved");
+		WebCallLog.d(TAG,"onTileRemoved");
 	}
 
 	@Override
 	public void onCreate() {
 		super.onCreate();
-		Log.d(TAG,"onCreate");
+		WebCallLog.d(TAG,"onCreate");
 	}
 
 	@Override
 	public void onDestroy() {
 		super.onDestroy();
-		Log.d(TAG,"onDestroy");
+		WebCallLog.d(TAG,"onDestroy");
 		if(webCallServiceBinder!=null) {
-			Log.d(TAG,"onDestroy unbindService");
+			WebCallLog.d(TAG,"onDestroy unbindService");
 			unbindService(serviceConnection);
 			webCallServiceBinder = null; // not necessary?
 		}
 		if(broadcastReceiver!=null) {
-			Log.d(TAG, "onDestroy unregister broadcastReceiver");
+			WebCallLog.d(TAG, "onDestroy unregister broadcastReceiver");
 			unregisterReceiver(broadcastReceiver);
 			// -> WebCallService: activityDestroyed exitService()
 			broadcastReceiver = null;
@@ -74,11 +73,11 @@ public class WebCallTileService extends TileService {
 	public IBinder onBind(Intent intent) {
 		super.onBind(intent);
 		// intent usually contains: "cmp=timur.webcall.callee/.WebCallTileService (has extras)"
-		Log.d(TAG,"onBind intent="+intent.toString());
+		WebCallLog.d(TAG,"onBind intent="+intent.toString());
 		Context context = this;
 
 		if(scheduler==null) {
-			Log.d(TAG,"onBind Executors.newScheduledThreadPool(2)");
+			WebCallLog.d(TAG,"onBind Executors.newScheduledThreadPool(2)");
 			scheduler = Executors.newScheduledThreadPool(2);
 		}
 
@@ -91,23 +90,23 @@ public class WebCallTileService extends TileService {
 					if(state!=null && !state.equals("")) {
 						if(state.equals("connected")) {
 							// user is now connected as callee to webcall server
-							Log.d(TAG, "broadcastReceiver wsCon state="+state);
+							WebCallLog.d(TAG, "broadcastReceiver wsCon state="+state);
 							if(!tilesVisible) {
-								Log.d(TAG, "broadcastReceiver requestListeningState");
+								WebCallLog.d(TAG, "broadcastReceiver requestListeningState");
 								requestListeningState(context, new ComponentName(context, WebCallTileService.class));
 							}
 							updateTile(true);
 
 						} else if(state.equals("disconnected")) {
-							Log.d(TAG, "broadcastReceiver wsCon state="+state);
+							WebCallLog.d(TAG, "broadcastReceiver wsCon state="+state);
 							// "temporary disconnect" must NOT set button off
 							//updateTile(false);
 
 						} else if(state.equals("deactivated")) {
 							// "server giving up reconnecting" must set button off
-							Log.d(TAG, "broadcastReceiver wsCon state="+state);
+							WebCallLog.d(TAG, "broadcastReceiver wsCon state="+state);
 							if(!tilesVisible) {
-								Log.d(TAG, "broadcastReceiver requestListeningState");
+								WebCallLog.d(TAG, "broadcastReceiver requestListeningState");
 								requestListeningState(context, new ComponentName(context, WebCallTileService.class));
 							}
 							updateTile(false);
@@ -128,7 +127,7 @@ public class WebCallTileService extends TileService {
 //							}
 
 						} else {
-							//Log.d(TAG, "! broadcastReceiver unknown state="+state);
+							//WebCallLog.d(TAG, "! broadcastReceiver unknown state="+state);
 						}
 					}
 				}
@@ -140,11 +139,11 @@ public class WebCallTileService extends TileService {
 			// try to bind to WebCallService (don't force load)
 			bindWebCallService(false);
 		} else {
-			Log.d(TAG,"onBind service already bound");
+			WebCallLog.d(TAG,"onBind service already bound");
 		}
 
 		// active tiles may request to send an update to the System while their process is alive
-		Log.d(TAG,"onBind requestListeningState");
+		WebCallLog.d(TAG,"onBind requestListeningState");
 		requestListeningState(context, new ComponentName(context, WebCallTileService.class));
 	    return super.onBind(intent);
 	}
@@ -154,7 +153,7 @@ public class WebCallTileService extends TileService {
 	@Override
 	public void onStartListening() {
 		super.onStartListening();
-		Log.d(TAG,"onStartListening");
+		WebCallLog.d(TAG,"onStartListening");
 		tilesVisible = true;
 	}
 
@@ -163,7 +162,7 @@ public class WebCallTileService extends TileService {
 	public void onStopListening() {
 		super.onStopListening();
 		tilesVisible = false;
-		Log.d(TAG,"onStopListening requestListeningState...");
+		WebCallLog.d(TAG,"onStopListening requestListeningState...");
 		requestListeningState(this, new ComponentName(this, WebCallTileService.class));
 	}
 
@@ -171,57 +170,57 @@ public class WebCallTileService extends TileService {
 	@Override
 	public void onClick() {
 		super.onClick();
-		Log.d(TAG,"onClick isSecure="+isSecure());
+		WebCallLog.d(TAG,"onClick isSecure="+isSecure());
 
 		if(webCallServiceBinder==null) {
 			long delayMS = 100l;
-			Log.d(TAG,"onClick no webCallServiceBinder delayMS="+delayMS);
+			WebCallLog.d(TAG,"onClick no webCallServiceBinder delayMS="+delayMS);
 			final Runnable runnable = new Runnable() {
 				public void run() {
 					if(webCallServiceBinder==null) {
-						Log.d(TAG,"onClick no webCallServiceBinder2 bindService() + drop click");
+						WebCallLog.d(TAG,"onClick no webCallServiceBinder2 bindService() + drop click");
 						bindWebCallService(true);
 						// drop the click; lets see if user is happy with current state
 /*
 						long delayMS2 = 200l; // should only take <20ms incl starting
-						Log.d(TAG,"onClick no webCallServiceBinder2 delayMS2="+delayMS2);
+						WebCallLog.d(TAG,"onClick no webCallServiceBinder2 delayMS2="+delayMS2);
 						scheduler.schedule(this, delayMS2, TimeUnit.MILLISECONDS);
 */
 					} else {
-						Log.d(TAG,"onClick delayed toggle()");
+						WebCallLog.d(TAG,"onClick delayed toggle()");
 						toggle(false);
 					}
 				}
 			};
 			schedFuture = scheduler.schedule(runnable, delayMS, TimeUnit.MILLISECONDS);
 		} else {
-			Log.d(TAG,"onClick immediate toggle()");
+			WebCallLog.d(TAG,"onClick immediate toggle()");
 			toggle(false);
 		}
 	}
 
 	private void toggle(boolean forceOn) {
 		if(webCallServiceBinder==null) {
-			Log.d(TAG,"# toggle skip, no webCallServiceBinder");
+			WebCallLog.d(TAG,"# toggle skip, no webCallServiceBinder");
 			return;
 		}
 
 		boolean isActive = getServiceStatus();
 //		if(isActive==currentState) {
 			isActive = !isActive;
-			Log.d(TAG,"toggle changes isActive to "+isActive);
+			WebCallLog.d(TAG,"toggle changes isActive to "+isActive);
 //		}
 		if(forceOn && !isActive) {
 			isActive = true;
-			Log.d(TAG,"toggle forceOn isActive");
+			WebCallLog.d(TAG,"toggle forceOn isActive");
 		}
-		//Log.d(TAG,"toggle will be set to "+isActive);
+		//WebCallLog.d(TAG,"toggle will be set to "+isActive);
 		if(isActive) {
-			Log.d(TAG,"toggle goOnline()");
+			WebCallLog.d(TAG,"toggle goOnline()");
 			webCallServiceBinder.goOnline();
 			// goOnline() can fail; broadcastReceiver events may call updateTile() with connect state
 		} else {
-			Log.d(TAG,"toggle goOffline()");
+			WebCallLog.d(TAG,"toggle goOffline()");
 			webCallServiceBinder.goOffline();
 			//updateTile(isActive);
 		}
@@ -231,14 +230,14 @@ public class WebCallTileService extends TileService {
 	private boolean getServiceStatus() {
 		boolean isActive = false;
 		if(webCallServiceBinder==null) {
-			Log.d(TAG,"! getServiceStatus no webCallServiceBinder");
+			WebCallLog.d(TAG,"! getServiceStatus no webCallServiceBinder");
 		} else {
 			if(webCallServiceBinder.connectToServerIsWanted()) {
-				Log.d(TAG,"getServiceStatus connectToServerIsWanted set");
+				WebCallLog.d(TAG,"getServiceStatus connectToServerIsWanted set");
 				isActive = webCallServiceBinder.webcallConnectType()>0;
 			}
 		}
-		Log.d(TAG,"getServiceStatus isActive="+isActive);
+		WebCallLog.d(TAG,"getServiceStatus isActive="+isActive);
 		return isActive;
 	}
 
@@ -261,7 +260,7 @@ public class WebCallTileService extends TileService {
 		tile.setLabel(newLabel);
 		tile.setState(newState);
 		if(isActive!=currentState) {
-			Log.d(TAG,"updateTile isActive="+isActive+" "+newLabel);
+			WebCallLog.d(TAG,"updateTile isActive="+isActive+" "+newLabel);
 			currentState = isActive;
 		}
 
@@ -273,21 +272,21 @@ public class WebCallTileService extends TileService {
 	private void bindWebCallService(boolean forClick) {
 		bindForClick = forClick;
 		Intent serviceIntent = new Intent(this, WebCallService.class);
-		Log.d(TAG,"bindWebCallService destr="+WebCallService.serviceDestroyed+" cli="+WebCallService.boundServiceClients);
+		WebCallLog.d(TAG,"bindWebCallService destr="+WebCallService.serviceDestroyed+" cli="+WebCallService.boundServiceClients);
 		if(!WebCallService.serviceDestroyed) {
-			Log.d(TAG,"bindWebCallService service alive");
+			WebCallLog.d(TAG,"bindWebCallService service alive");
 		} else {
-			Log.d(TAG,"bindWebCallService must be loaded");
+			WebCallLog.d(TAG,"bindWebCallService must be loaded");
 			// no extra: quick auto-connect
 			//serviceIntent.putExtra("onstart", "donothing");
 			if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) { // >= 26
 				// foreground service
-				Log.d(TAG,"bindWebCallService foreground service");
+				WebCallLog.d(TAG,"bindWebCallService foreground service");
 				startForegroundService(serviceIntent);
 				// note: doing stopSelf() without first doing stopForeground() can crash our service
 			} else {
 				// regular service
-				Log.d(TAG,"bindWebCallService regular service");
+				WebCallLog.d(TAG,"bindWebCallService regular service");
 				startService(serviceIntent); // -> service.onStartCommand()
 			}
 		}
@@ -295,9 +294,9 @@ public class WebCallTileService extends TileService {
 		// here we bind the service, so that we can call goOnline()/goOffline()
 		//bindService(serviceIntent, serviceConnection, Context.BIND_AUTO_CREATE);
 		if(bindService(serviceIntent, serviceConnection, 0)) {
-			Log.d(TAG,"bindWebCallService bindService requested");
+			WebCallLog.d(TAG,"bindWebCallService bindService requested");
 		} else {
-			Log.d(TAG,"bindWebCallService bindService requested failed");
+			WebCallLog.d(TAG,"bindWebCallService bindService requested failed");
 		}
 	}
 
@@ -307,28 +306,28 @@ public class WebCallTileService extends TileService {
 			// activity is connected to service (says nothing about connectivity to webcall server)
 			webCallServiceBinder = (WebCallService.WebCallServiceBinder)service;
 			if(webCallServiceBinder==null) {
-				Log.d(TAG, "# onServiceConnected bind service failed");
+				WebCallLog.d(TAG, "# onServiceConnected bind service failed");
 			} else {
-				Log.d(TAG, "onServiceConnected bind service success, bindForClick="+bindForClick);
+				WebCallLog.d(TAG, "onServiceConnected bind service success, bindForClick="+bindForClick);
 				if(!bindForClick && !webCallServiceBinder.connectToServerIsWanted()) {
-					Log.d(TAG, "onServiceConnected bind service success, !connectToServerIsWanted -> unbind");
+					WebCallLog.d(TAG, "onServiceConnected bind service success, !connectToServerIsWanted -> unbind");
 					updateTile(false);
 					unbindService(serviceConnection);
 					webCallServiceBinder=null;
 /*
 					if(schedFuture!=null && !schedFuture.isDone()) {
-						Log.d(TAG, "onServiceConnected bind service success, !conToServerWanted -> schedFuture.cancel");
+						WebCallLog.d(TAG, "onServiceConnected bind service success, !conToServerWanted -> schedFuture.cancel");
 						schedFuture.cancel(false);
 						schedFuture = null;
 					}
 */
 				} else {
 					if(schedFuture!=null && !schedFuture.isDone()) {
-						Log.d(TAG, "onServiceConnected bind service success -> schedFuture.cancel");
+						WebCallLog.d(TAG, "onServiceConnected bind service success -> schedFuture.cancel");
 						schedFuture.cancel(false);
 						schedFuture = null;
 					}
-					Log.d(TAG, "onServiceConnected bind service success -> toggle()");
+					WebCallLog.d(TAG, "onServiceConnected bind service success -> toggle()");
 					toggle(false);
 				}
 			}
@@ -336,9 +335,9 @@ public class WebCallTileService extends TileService {
 
 		@Override
 		public void onServiceDisconnected(ComponentName name) {
-			Log.d(TAG, "onServiceDisconnected");
+			WebCallLog.d(TAG, "onServiceDisconnected");
 			if(webCallServiceBinder!=null) {
-				Log.d(TAG,"onServiceDisconnected unbindService");
+				WebCallLog.d(TAG,"onServiceDisconnected unbindService");
 				webCallServiceBinder = null;
 				//if(serviceConnection!=null) {
 				//	unbindService(serviceConnection);
@@ -0,0 +1,262 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// WebCallTls is the shared TLS layer for the login request (HttpsURLConnection),
+// the WebSocket (WsClient) and the webview request interceptor (OkHttp).
+//
+// There is one SSLContext per mode (secure / insecureTls), created once per process.
+// Their client SSLSessionContext keeps TLS sessions across reconnects, and session tickets
+// are enabled on every socket, so that the login request and the following wss connect
+// (and every later reconnect) can do an abbreviated handshake instead of a full one.
+// The factories are handed out per connection; HttpsURLConnection.setDefaultSSLSocketFactory()
+// is no longer used. Every completed handshake is counted as either full or resumed.
+
+package timur.webcall.callee;
+
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.HandshakeCompletedEvent;
+import javax.net.ssl.HandshakeCompletedListener;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+
+import okhttp3.OkHttpClient;
+
+public class WebCallTls {
+	private static final String TAG = "WebCallTls";
+	private static final int sessionCacheSize = 32;
+	private static final int sessionTimeoutSecs = 24*60*60;
+
+	private static WebCallTls instance = null;
+
+	private Mode secureMode = null;
+	private Mode insecureMode = null;
+
+	private final AtomicLong fullHandshakes = new AtomicLong();
+	private final AtomicLong resumedHandshakes = new AtomicLong();
+	private volatile Method setUseSessionTickets = null;
+	private volatile boolean sessionTicketsChecked = false;
+
+	private static final HostnameVerifier acceptAllHostnameVerifier = new HostnameVerifier() {
+		@Override
+		public boolean verify(String hostname, SSLSession session) {
+			// avoid: "javax.net.ssl.SSLPeerUnverifiedException: Hostname 192.168.0.161 not verified"
+			return true;
+		}
+	};
+
+	private class Mode {
+		SSLContext sslContext;
+		X509TrustManager trustManager;
+		SSLSocketFactory socketFactory;
+		OkHttpClient okClient;
+	}
+
+	public static synchronized WebCallTls getInstance() {
+		if(instance==null) {
+			instance = new WebCallTls();
+		}
+		return instance;
+	}
+
+	// socketFactory() returns the shared (session caching, handshake counting) factory
+	public SSLSocketFactory socketFactory(boolean insecure) throws Exception {
+		return mode(insecure).socketFactory;
+	}
+
+	// prepare() makes con use the shared factory (instead of the global default factory)
+	public void prepare(HttpsURLConnection con, boolean insecure) throws Exception {
+		con.setSSLSocketFactory(mode(insecure).socketFactory);
+		if(insecure) {
+			con.setHostnameVerifier(acceptAllHostnameVerifier);
+		}
+	}
+
+	// okHttpClient() returns one OkHttpClient per mode, so that its connection pool
+	// and the TLS sessions are reused across intercepted requests
+	public synchronized OkHttpClient okHttpClient(boolean insecure) throws Exception {
+		Mode mode = mode(insecure);
+		if(mode.okClient==null) {
+			OkHttpClient.Builder okClientBuilder = new OkHttpClient.Builder();
+			okClientBuilder.sslSocketFactory(mode.socketFactory, mode.trustManager);
+			if(insecure) {
+				okClientBuilder.hostnameVerifier(acceptAllHostnameVerifier);
+			}
+			mode.okClient = okClientBuilder.build();
+		}
+		return mode.okClient;
+	}
+
+	// layerSocket() returns a TLS socket to host:port on top of an already connected tcp socket
+	// (ie. the winner of ConnectionRacer); the TLS handshake runs on first use
+	public SSLSocket layerSocket(Socket plainSocket, String host, int port, boolean insecure) throws Exception {
+		try {
+			return (SSLSocket)mode(insecure).socketFactory.createSocket(plainSocket, host, port, true);
+		} catch(Exception ex) {
+			plainSocket.close();
+			throw ex;
+		}
+	}
+
+	public long fullHandshakes() {
+		return fullHandshakes.get();
+	}
+
+	public long resumedHandshakes() {
+		return resumedHandshakes.get();
+	}
+
+	public String stats() {
+		return "full="+fullHandshakes.get()+" resumed="+resumedHandshakes.get();
+	}
+
+	private synchronized Mode mode(boolean insecure) throws Exception {
+		Mode mode = insecure ? insecureMode : secureMode;
+		if(mode!=null) {
+			return mode;
+		}
+		mode = new Mode();
+		if(insecure) {
+			mode.trustManager = new X509TrustManager() {
+				public X509Certificate[] getAcceptedIssuers() {
+					return new X509Certificate[0];
+				}
+				@Override
+				public void checkClientTrusted(X509Certificate[] certs, String authType) {}
+
+				@Override
+				public void checkServerTrusted(X509Certificate[] certs, String authType) {}
+			};
+		} else {
+			TrustManagerFactory tmf =
+				TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+			tmf.init((KeyStore)null);
+			for(TrustManager tm : tmf.getTrustManagers()) {
+				if(tm instanceof X509TrustManager) {
+					mode.trustManager = (X509TrustManager)tm;
+					break;
+				}
+			}
+		}
+		mode.sslContext = SSLContext.getInstance("TLS");
+		mode.sslContext.init(null, new TrustManager[] { mode.trustManager }, new SecureRandom());
+		SSLSessionContext sessionContext = mode.sslContext.getClientSessionContext();
+		if(sessionContext!=null) {
+			sessionContext.setSessionCacheSize(sessionCacheSize);
+			sessionContext.setSessionTimeout(sessionTimeoutSecs);
+		}
+		mode.socketFactory = new SessionSocketFactory(mode.sslContext.getSocketFactory());
+		WebCallLog.d(TAG,"new SSLContext insecure="+insecure);
+		if(insecure) {
+			insecureMode = mode;
+		} else {
+			secureMode = mode;
+		}
+		return mode;
+	}
+
+	// prepareSocket() enables session tickets and registers the handshake counter
+	private Socket prepareSocket(Socket socket) {
+		if(!(socket instanceof SSLSocket)) {
+			return socket;
+		}
+		SSLSocket sslSocket = (SSLSocket)socket;
+		if(!sessionTicketsChecked) {
+			// the platform (conscrypt) socket offers this method, but not through the SSLSocket api
+			try {
+				setUseSessionTickets = sslSocket.getClass().getMethod("setUseSessionTickets", boolean.class);
+			} catch(Exception ex) {
+				WebCallLog.d(TAG,"no setUseSessionTickets on "+sslSocket.getClass().getName());
+			}
+			sessionTicketsChecked = true;
+		}
+		if(setUseSessionTickets!=null) {
+			try {
+				setUseSessionTickets.invoke(sslSocket, true);
+			} catch(Exception ex) {
+				WebCallLog.d(TAG,"# setUseSessionTickets ex="+ex);
+			}
+		}
+		final long createdMS = System.currentTimeMillis();
+		sslSocket.addHandshakeCompletedListener(new HandshakeCompletedListener() {
+			@Override
+			public void handshakeCompleted(HandshakeCompletedEvent event) {
+				// a resumed session was created by an earlier handshake
+				SSLSession session = event.getSession();
+				if(session.getCreationTime() < createdMS) {
+					resumedHandshakes.incrementAndGet();
+					WebCallLog.d(TAG,"handshake resumed "+session.getPeerHost()+" "+stats());
+				} else {
+					fullHandshakes.incrementAndGet();
+					WebCallLog.d(TAG,"handshake full "+session.getPeerHost()+" "+stats());
+				}
+			}
+		});
+		return sslSocket;
+	}
+
+	private class SessionSocketFactory extends SSLSocketFactory {
+		private final SSLSocketFactory delegate;
+
+		SessionSocketFactory(SSLSocketFactory delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public String[] getDefaultCipherSuites() {
+			return delegate.getDefaultCipherSuites();
+		}
+
+		@Override
+		public String[] getSupportedCipherSuites() {
+			return delegate.getSupportedCipherSuites();
+		}
+
+		@Override
+		public Socket createSocket() throws IOException {
+			return prepareSocket(delegate.createSocket());
+		}
+
+		@Override
+		public Socket createSocket(Socket s, String host, int port, boolean autoClose) throws IOException {
+			return prepareSocket(delegate.createSocket(s, host, port, autoClose));
+		}
+
+		@Override
+		public Socket createSocket(String host, int port) throws IOException {
+			return prepareSocket(delegate.createSocket(host, port));
+		}
+
+		@Override
+		public Socket createSocket(String host, int port, InetAddress localHost, int localPort)
+				throws IOException {
+			return prepareSocket(delegate.createSocket(host, port, localHost, localPort));
+		}
+
+		@Override
+		public Socket createSocket(InetAddress host, int port) throws IOException {
+			return prepareSocket(delegate.createSocket(host, port));
+		}
+
+		@Override
+		public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort)
+				throws IOException {
+			return prepareSocket(delegate.createSocket(address, port, localAddress, localPort));
+		}
+	}
+}
@@ -0,0 +1,215 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// CallHistoryBenchmark fills callhistory.db with a generated history of 100k calls (500 callers,
+// four calls share every start time, so that page boundaries fall between equal starts), written
+// by the batch writer of CallHistory, plus a few calls through ringing()/answered()/ended().
+// It checks that the per-caller aggregates equal a GROUP BY over the calls, and measures
+// CallHistory.recent(): the newest page, and every page of a walk through the whole history by
+// its next cursor, compared with OFFSET paging at the same depth (the walk must return every call
+// exactly once), and frequentCallers(). The number of calls is set by -Dbenchmark.calls=N.
+// It only runs with gradle test -Pbenchmarks.
+
+package timur.webcall.callee;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import java.util.HashSet;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class CallHistoryBenchmark {
+	private static final String dbName = "callhistory.db";
+	private static final int calls = Integer.getInteger("benchmark.calls", 100000);
+	private static final int callers = 500;
+	private static final int pageSize = 200;
+	private static final int firstPageOps = 200;
+	private static final int frequentOps = 200;
+
+	private Context context;
+	private CallHistory callHistory;
+
+	@Before
+	public void setUp() throws Exception {
+		context = RuntimeEnvironment.getApplication();
+		context.deleteDatabase(dbName);
+		callHistory = new CallHistory(context);
+		long startNS = System.nanoTime();
+		generate(callHistory, calls);
+		// waits for the writer
+		callHistory.recent("", 1);
+		System.out.println("generated "+calls+" calls in "+(System.nanoTime()-startNS)/1000000+"ms "+
+			callHistory.stats());
+		// live calls: a call without a name must not clear the name of its caller
+		callHistory.ringing("caller1", "");
+		callHistory.answered();
+		callHistory.ended(false);
+		callHistory.ringing("caller2", "Caller 2");
+		callHistory.ended(true);
+		callHistory.ringing("newcaller", "");
+		callHistory.ended(false);
+		callHistory.recent("", 1);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		callHistory.close();
+	}
+
+	@Test
+	public void aggregatesMatchCalls() throws Exception {
+		SQLiteDatabase db = SQLiteDatabase.openDatabase(context.getDatabasePath(dbName).getPath(),
+			null, SQLiteDatabase.OPEN_READONLY);
+		try {
+			Cursor cursor = db.rawQuery(
+				"SELECT c.caller, a.caller, a.name, a.count, a.answered, a.lastSeen, a.totalDuration,"+
+				" c.name, c.count, c.answered, c.lastSeen, c.totalDuration FROM"+
+				" (SELECT caller, max(name) AS name, count(*) AS count,"+
+				"  sum(outcome="+CallHistory.OUTCOME_ANSWERED+") AS answered,"+
+				"  max(start) AS lastSeen, sum(duration) AS totalDuration FROM calls GROUP BY caller) c"+
+				" LEFT JOIN callers a ON a.caller=c.caller", null);
+			int rows = 0;
+			try {
+				while(cursor.moveToNext()) {
+					String caller = cursor.getString(0);
+					assertEquals("callers row of "+caller, caller, cursor.getString(1));
+					// every caller has only one non-empty name, so max(name) is the name to keep
+					assertEquals("name of "+caller, cursor.getString(7), cursor.getString(2));
+					for(int col=3; col<=6; col++) {
+						assertEquals(cursor.getColumnName(col)+" of "+caller,
+							cursor.getLong(col+5), cursor.getLong(col));
+					}
+					rows++;
+				}
+			} finally {
+				cursor.close();
+			}
+			assertEquals(callers+1, rows);
+			assertEquals(callers+1, count(db, "SELECT count(*) FROM callers"));
+			assertEquals(calls+3, count(db, "SELECT count(*) FROM calls"));
+		} finally {
+			db.close();
+		}
+	}
+
+	@Test
+	public void frequentCallers() throws Exception {
+		for(int i=0; i<frequentOps/4; i++) {
+			callHistory.frequentCallers(20);
+		}
+		long startNS = System.nanoTime();
+		for(int i=0; i<frequentOps; i++) {
+			callHistory.frequentCallers(20);
+		}
+		System.out.println(String.format("frequent top20 %8.3f ms/op",
+			(System.nanoTime()-startNS)/1000000.0/frequentOps));
+		JSONArray top = new JSONArray(callHistory.frequentCallers(20));
+		assertEquals(20, top.length());
+		for(int i=1; i<top.length(); i++) {
+			assertTrue("not most calls first",
+				top.getJSONObject(i).getLong("count")<=top.getJSONObject(i-1).getLong("count"));
+		}
+	}
+
+	@Test
+	public void recentPages() throws Exception {
+		for(int i=0; i<firstPageOps/4; i++) {
+			callHistory.recent("", pageSize);
+		}
+		long startNS = System.nanoTime();
+		for(int i=0; i<firstPageOps; i++) {
+			callHistory.recent("", pageSize);
+		}
+		System.out.println(String.format("first page     %8.3f ms/page",
+			(System.nanoTime()-startNS)/1000000.0/firstPageOps));
+
+		HashSet<Long> ids = new HashSet<Long>();
+		String next = "";
+		int pages = 0;
+		long lastStart = Long.MAX_VALUE;
+		long walkNS = 0;
+		long deepestPageNS = 0;
+		do {
+			long pageStartNS = System.nanoTime();
+			JSONObject page = new JSONObject(callHistory.recent(next, pageSize));
+			long pageNS = System.nanoTime() - pageStartNS;
+			walkNS += pageNS;
+			JSONArray pageCalls = page.getJSONArray("calls");
+			for(int i=0; i<pageCalls.length(); i++) {
+				JSONObject call = pageCalls.getJSONObject(i);
+				assertTrue("call returned twice", ids.add(call.getLong("id")));
+				assertTrue("not newest first", call.getLong("start")<=lastStart);
+				lastStart = call.getLong("start");
+			}
+			if(pageCalls.length()==pageSize) {
+				deepestPageNS = pageNS;
+			}
+			next = page.getString("next");
+			pages++;
+		} while(next.length()>0);
+		assertEquals(calls+3, ids.size());
+		System.out.println(String.format("keyset walk    %8.3f ms/page (%d pages)",
+			walkNS/1000000.0/pages, pages));
+		System.out.println(String.format("keyset deepest %8.3f ms/page", deepestPageNS/1000000.0));
+		System.out.println(String.format("offset deepest %8.3f ms/page", offsetPageMS(calls+3-pageSize)));
+	}
+
+	// generate() records count calls through the batch writer of callHistory (every 7th without
+	// a name, which must keep the name of the caller)
+	static void generate(CallHistory callHistory, int count) {
+		long newestMS = System.currentTimeMillis() - 3600*1000L;
+		for(int i=0; i<count; i++) {
+			int caller = (int)((i * 2654435761L) % callers);
+			int outcome = i%5==0 ? CallHistory.OUTCOME_MISSED :
+				i%17==0 ? CallHistory.OUTCOME_DENIED : CallHistory.OUTCOME_ANSWERED;
+			// oldest first, like live calls; four calls per start time
+			callHistory.add("caller"+caller, i%7==0 ? "" : "Caller "+caller,
+				newestMS - (count-1-i)/4 * 60000L,
+				outcome==CallHistory.OUTCOME_ANSWERED ? 30000+(i%600)*1000 : 0, outcome);
+		}
+	}
+
+	private static long count(SQLiteDatabase db, String sql) {
+		Cursor cursor = db.rawQuery(sql, null);
+		try {
+			cursor.moveToNext();
+			return cursor.getLong(0);
+		} finally {
+			cursor.close();
+		}
+	}
+
+	// offsetPageMS() returns the time of one page at offset when paging by LIMIT/OFFSET
+	private double offsetPageMS(int offset) {
+		SQLiteDatabase db = SQLiteDatabase.openDatabase(context.getDatabasePath(dbName).getPath(),
+			null, SQLiteDatabase.OPEN_READONLY);
+		try {
+			long startNS = System.nanoTime();
+			Cursor cursor = db.rawQuery(
+				"SELECT id, caller, name, start, duration, outcome FROM calls"+
+				" ORDER BY start DESC, id DESC LIMIT "+pageSize+" OFFSET "+offset, null);
+			try {
+				while(cursor.moveToNext()) {
+					cursor.getString(1);
+				}
+			} finally {
+				cursor.close();
+			}
+			return (System.nanoTime()-startNS)/1000000.0;
+		} finally {
+			db.close();
+		}
+	}
+}
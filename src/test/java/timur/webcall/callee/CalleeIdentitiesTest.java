@@ -0,0 +1,175 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// CalleeIdentitiesTest registers many extra callee IDs against a SignalingStandIn, with the
+// shared scheduler, TLS layer and ConnectionRacer of one service, and checks incoming calls,
+// the hand over to the primary identity and the disconnect.
+
+package timur.webcall.callee;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.preference.PreferenceManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.json.JSONArray;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class CalleeIdentitiesTest {
+	private static final int identityCount = 100;
+	private static final long timeoutMS = 60*1000;
+
+	private final ConcurrentHashMap<String,String> incoming = new ConcurrentHashMap<String,String>();
+	private SignalingStandIn standIn;
+	private SharedPreferences prefs;
+	// same pool size as the service scheduler
+	private ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(10);
+	private CalleeIdentities identities;
+
+	@Before
+	public void setUp() throws Exception {
+		standIn = new SignalingStandIn();
+		standIn.start();
+		Context context = RuntimeEnvironment.getApplication();
+		prefs = PreferenceManager.getDefaultSharedPreferences(context);
+		SharedPreferences.Editor prefed = prefs.edit();
+		prefed.putString("username", "primary");
+		prefed.putString("extraIdentities", ids(-1));
+		for(int i=0; i<identityCount; i++) {
+			prefed.putString("cookies_id"+i, "webcallid=id"+i);
+		}
+		prefed.commit();
+		identities = new CalleeIdentities(new CalleeIdentities.Host() {
+			public String domain() {
+				return standIn.domain();
+			}
+			public boolean insecureTls() {
+				return true;
+			}
+			public String version() {
+				return "test";
+			}
+			public void incomingCall(String calleeID, String callerID, String callerName, String txtMsg) {
+				incoming.put(calleeID, callerID+"/"+callerName);
+			}
+			public void cancelCall(String calleeID) {
+				incoming.remove(calleeID);
+			}
+		}, scheduler, new ConnectionRacer(new DnsCache(context), prefs), prefs);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		identities.disconnectAll();
+		scheduler.shutdownNow();
+		standIn.stop();
+		prefs.edit().clear().commit();
+	}
+
+	@Test
+	public void registersManyIdentities() throws Exception {
+		assertEquals(identityCount, identities.ids().size());
+		identities.check(true);
+		assertTrue("sessions="+standIn.sessionCount(), standIn.awaitSessions(identityCount, timeoutMS));
+		assertTrue(awaitOnline(identityCount));
+		assertEquals(identityCount, standIn.logins());
+
+		// a second check() must not open more connections
+		identities.check(true);
+		Thread.sleep(500);
+		assertEquals(identityCount, standIn.inits());
+
+		identities.disconnectAll();
+		assertTrue(standIn.awaitSessions(0, timeoutMS));
+	}
+
+	@Test
+	public void reportsIncomingCallsPerIdentity() throws Exception {
+		identities.check(true);
+		assertTrue(standIn.awaitSessions(identityCount, timeoutMS));
+		assertTrue(standIn.send("id17", "callerInfo|caller1\tAlice\thello"));
+		assertTrue(standIn.send("id42", "callerInfo|caller2\tBob"));
+		long deadline = System.currentTimeMillis() + timeoutMS;
+		while(incoming.size()<2 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		assertEquals("caller1/Alice", incoming.get("id17"));
+		assertEquals("caller2/Bob", incoming.get("id42"));
+
+		assertTrue(standIn.send("id17", "cancel|"));
+		deadline = System.currentTimeMillis() + timeoutMS;
+		while(incoming.size()>1 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		assertFalse(incoming.containsKey("id17"));
+	}
+
+	@Test
+	public void keepsHandedOverIdentityUntilRemoved() throws Exception {
+		identities.check(true);
+		assertTrue(standIn.awaitSessions(identityCount, timeoutMS));
+
+		// id3 becomes the primary: the old primary is an extra identity now
+		identities.handover("id3");
+		prefs.edit()
+			.putString("username", "id3")
+			.putString("extraIdentities", ids(3)+",primary")
+			.commit();
+		identities.check(true);
+		Thread.sleep(500);
+		assertTrue(standIn.hasSession("id3"));
+
+		// the primary has logged in as id3
+		identities.remove("id3");
+		long deadline = System.currentTimeMillis() + timeoutMS;
+		while(standIn.hasSession("id3") && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		assertFalse(standIn.hasSession("id3"));
+	}
+
+	// ids() returns the extra identities id0..idN except skip
+	private static String ids(int skip) {
+		StringBuilder sb = new StringBuilder();
+		for(int i=0; i<identityCount; i++) {
+			if(i==skip) {
+				continue;
+			}
+			if(sb.length()>0) {
+				sb.append(",");
+			}
+			sb.append("id").append(i);
+		}
+		return sb.toString();
+	}
+
+	private boolean awaitOnline(int count) throws Exception {
+		long deadline = System.currentTimeMillis() + timeoutMS;
+		while(System.currentTimeMillis() < deadline) {
+			JSONArray array = new JSONArray(identities.json());
+			int online = 0;
+			for(int i=0; i<array.length(); i++) {
+				if(array.getJSONObject(i).getString("state").equals("online")) {
+					online++;
+				}
+			}
+			if(online==count) {
+				return true;
+			}
+			Thread.sleep(20);
+		}
+		return false;
+	}
+}
@@ -0,0 +1,159 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// EndpointSelectorTest runs EndpointSelector against several local stand-in servers
+// (plain tcp listeners on 127.0.0.1, one "webcalldomain" each) and a port that refuses connects.
+
+package timur.webcall.callee;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.preference.PreferenceManager;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowSystemClock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class EndpointSelectorTest {
+	private final ArrayList<ServerSocket> servers = new ArrayList<ServerSocket>();
+	private Context context;
+	private SharedPreferences prefs;
+	private String domain1, domain2, domainDown;
+
+	@Before
+	public void setUp() throws Exception {
+		context = RuntimeEnvironment.getApplication();
+		prefs = PreferenceManager.getDefaultSharedPreferences(context);
+		domain1 = standIn();
+		domain2 = standIn();
+		// a port nobody listens on: connects are refused
+		ServerSocket closed = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"));
+		domainDown = "127.0.0.1:"+closed.getLocalPort();
+		closed.close();
+		prefs.edit().putString("webcalldomains", domain1+","+domain2+","+domainDown).commit();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		for(ServerSocket server : servers) {
+			server.close();
+		}
+		prefs.edit().clear().commit();
+	}
+
+	@Test
+	public void selectsFirstConfigured() {
+		EndpointSelector selector = new EndpointSelector(prefs);
+		assertEquals(3, selector.domains().size());
+		assertEquals(domain1, selector.select());
+	}
+
+	@Test
+	public void failsOverAndComesBackAfterCooldown() {
+		EndpointSelector selector = new EndpointSelector(prefs);
+		assertEquals(domain1, selector.select());
+		assertFalse(selector.reportFailure(domain1));
+		assertFalse(selector.reportFailure(domain1));
+		assertTrue(selector.reportFailure(domain1));
+		assertEquals(domain2, selector.select());
+
+		ShadowSystemClock.advanceBy(Duration.ofMinutes(6));
+		assertEquals(domain1, selector.select());
+	}
+
+	@Test
+	public void readsFailoverFailuresOfAnyType() {
+		prefs.edit().putInt("failoverFailures", 1).commit();
+		assertTrue(new EndpointSelector(prefs).reportFailure(domain1));
+
+		prefs.edit().putString("failoverFailures", "2").commit();
+		EndpointSelector selector = new EndpointSelector(prefs);
+		assertFalse(selector.reportFailure(domain1));
+		assertTrue(selector.reportFailure(domain1));
+
+		prefs.edit().putString("failoverFailures", "many").commit();
+		selector = new EndpointSelector(prefs);
+		assertFalse(selector.reportFailure(domain1));
+		assertFalse(selector.reportFailure(domain1));
+		assertTrue(selector.reportFailure(domain1));
+	}
+
+	@Test
+	public void switchesToMuchFasterEndpoint() {
+		EndpointSelector selector = new EndpointSelector(prefs);
+		selector.reportProbeRtt(domain1, 100);
+		selector.reportProbeRtt(domain2, 80);
+		assertEquals(domain1, selector.select());
+		selector.reportProbeRtt(domain2, 10);
+		selector.reportProbeRtt(domain2, 10);
+		assertEquals(domain2, selector.select());
+	}
+
+	@Test
+	public void comparesProbesNotPings() {
+		EndpointSelector selector = new EndpointSelector(prefs);
+		selector.reportProbeRtt(domain1, 100);
+		selector.reportProbeRtt(domain2, 90);
+		// a slow ws ping/pong rtt of the connected endpoint is no reason to switch
+		selector.reportPingRtt(domain1, 900);
+		assertEquals(domain1, selector.select());
+	}
+
+	@Test
+	public void probesAllEndpoints() throws Exception {
+		EndpointSelector selector = new EndpointSelector(prefs);
+		assertEquals(domain1, selector.select());
+		assertTrue(selector.probeDue());
+		assertFalse(selector.probeDue());
+		selector.reportPingRtt(domain1, 50);
+		selector.probeAll(new DnsCache(context));
+
+		JSONObject stats1 = stats(selector, domain1);
+		JSONObject stats2 = stats(selector, domain2);
+		JSONObject statsDown = stats(selector, domainDown);
+		assertEquals(1, stats1.getLong("probes"));
+		assertEquals(1, stats1.getLong("probeSamples"));
+		assertEquals(50, stats1.getLong("pingRttMS"));
+		assertEquals(1, stats2.getLong("probes"));
+		assertEquals(1, stats2.getLong("probeSamples"));
+		assertTrue(stats2.getLong("probeRttMS")>=0);
+		assertEquals(-1, stats2.getLong("pingRttMS"));
+		assertEquals(1, statsDown.getLong("probeFailures"));
+		assertEquals(-1, statsDown.getLong("probeRttMS"));
+
+		ShadowSystemClock.advanceBy(Duration.ofMinutes(11));
+		assertTrue(selector.probeDue());
+	}
+
+	// standIn() starts a tcp listener on 127.0.0.1 and returns it as a "host:port" domain
+	private String standIn() throws Exception {
+		ServerSocket server = new ServerSocket(0, 16, InetAddress.getByName("127.0.0.1"));
+		servers.add(server);
+		return "127.0.0.1:"+server.getLocalPort();
+	}
+
+	private static JSONObject stats(EndpointSelector selector, String domain) throws Exception {
+		JSONArray array = new JSONArray(selector.stats());
+		for(int i=0; i<array.length(); i++) {
+			if(array.getJSONObject(i).getString("domain").equals(domain)) {
+				return array.getJSONObject(i);
+			}
+		}
+		throw new AssertionError("no stats for "+domain);
+	}
+}
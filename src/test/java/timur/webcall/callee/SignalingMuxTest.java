@@ -0,0 +1,214 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// SignalingMuxTest checks the framing and routing of SignalingMux: tagged frames go to the
+// handler of their channel, untagged frames and frames with an unknown tag are left to the
+// primary callee. With a SignalingStandIn it runs extra callee IDs as mux channels over one
+// primary WebSocket and checks that their calls arrive, and that the primary keeps its own.
+
+package timur.webcall.callee;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.preference.PreferenceManager;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.handshake.ServerHandshake;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class SignalingMuxTest {
+	private static final int identityCount = 10;
+	private static final long timeoutMS = 30*1000;
+
+	private final ConcurrentHashMap<String,String> incoming = new ConcurrentHashMap<String,String>();
+	// messages that the primary callee gets to process
+	private final LinkedBlockingQueue<String> primaryMessages = new LinkedBlockingQueue<String>();
+	private final SignalingMux mux = new SignalingMux();
+	private SignalingStandIn standIn;
+	private SharedPreferences prefs;
+	private ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(10);
+	private CalleeIdentities identities;
+	private PrimarySocket primary;
+
+	@Before
+	public void setUp() throws Exception {
+		standIn = new SignalingStandIn();
+		standIn.start();
+		Context context = RuntimeEnvironment.getApplication();
+		prefs = PreferenceManager.getDefaultSharedPreferences(context);
+		SharedPreferences.Editor prefed = prefs.edit();
+		prefed.putString("username", "primary");
+		StringBuilder ids = new StringBuilder();
+		for(int i=0; i<identityCount; i++) {
+			if(i>0) {
+				ids.append(",");
+			}
+			ids.append("id"+i);
+			prefed.putString("cookies_id"+i, "webcallid=id"+i);
+		}
+		prefed.putString("extraIdentities", ids.toString());
+		prefed.commit();
+		identities = new CalleeIdentities(new CalleeIdentities.Host() {
+			public String domain() {
+				return standIn.domain();
+			}
+			public boolean insecureTls() {
+				return true;
+			}
+			public String version() {
+				return "test";
+			}
+			public void incomingCall(String calleeID, String callerID, String callerName, String txtMsg) {
+				incoming.put(calleeID, callerID+"/"+callerName);
+			}
+			public void cancelCall(String calleeID) {
+				incoming.remove(calleeID);
+			}
+		}, scheduler, new ConnectionRacer(new DnsCache(context), prefs), prefs);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		identities.disconnectAll();
+		if(primary!=null) {
+			primary.closeBlocking();
+		}
+		scheduler.shutdownNow();
+		standIn.stop();
+		prefs.edit().clear().commit();
+	}
+
+	@Test
+	public void framesMessages() throws Exception {
+		assertEquals("~1|callerInfo|a\tb", SignalingMux.frame("1", "callerInfo|a\tb"));
+		assertEquals("~a|init|", SignalingMux.frame("a", "init|"));
+	}
+
+	@Test
+	public void routesByTag() throws Exception {
+		final LinkedBlockingQueue<String> routed = new LinkedBlockingQueue<String>();
+		String tag1 = mux.register(new SignalingMux.Handler() {
+			public void onFrame(String frame, int offset) {
+				routed.add("1:"+frame.substring(offset));
+			}
+		});
+		String tag2 = mux.register(new SignalingMux.Handler() {
+			public void onFrame(String frame, int offset) {
+				routed.add("2:"+frame.substring(offset));
+			}
+		});
+		assertFalse(tag1.equals(tag2));
+
+		assertTrue(mux.dispatch(SignalingMux.frame(tag2, "sessionId|x")));
+		assertTrue(mux.dispatch(SignalingMux.frame(tag1, "callerInfo|a\tb")));
+		assertEquals("2:sessionId|x", routed.poll());
+		assertEquals("1:callerInfo|a\tb", routed.poll());
+
+		// untagged frames belong to the primary callee
+		assertFalse(mux.dispatch("sessionId|primary"));
+		assertFalse(mux.dispatch("~"));
+		assertFalse(mux.dispatch("~nosep"));
+		// so do frames with a tag that has no channel (ie. after unregister)
+		mux.unregister(tag1);
+		assertFalse(mux.dispatch(SignalingMux.frame(tag1, "cancel|c")));
+		assertFalse(mux.dispatch(SignalingMux.frame("zz", "cancel|c")));
+		assertNull(routed.poll());
+		assertEquals("channels=1 frames=4 unrouted=2", mux.stats());
+	}
+
+	@Test
+	public void carriesIdentitiesOverPrimary() throws Exception {
+		primary = new PrimarySocket(new URI(standIn.wsAddr("primary")));
+		primary.setSocketFactory(standIn.clientSslContext().getSocketFactory());
+		assertTrue(primary.connectBlocking(10, TimeUnit.SECONDS));
+		primary.send("init|");
+		assertEquals("sessionId|primary", primaryMessages.poll(timeoutMS, TimeUnit.MILLISECONDS));
+
+		identities.setMux(mux, new CalleeIdentities.MuxSender() {
+			public boolean send(String frame) {
+				if(!primary.isOpen()) {
+					return false;
+				}
+				primary.send(frame);
+				return true;
+			}
+		});
+		identities.check(true);
+		assertTrue("sessions="+standIn.sessionCount(), standIn.awaitSessions(identityCount+1, timeoutMS));
+		for(int i=0; i<identityCount; i++) {
+			assertTrue("id"+i, standIn.hasChannel("id"+i));
+		}
+		// one tagged login per identity, no sockets of their own
+		assertEquals(identityCount, standIn.logins());
+
+		assertTrue(standIn.send("id3", "callerInfo|caller1\tAlice\thello"));
+		assertTrue(standIn.send("primary", "callerInfo|caller2\tBob"));
+		long deadline = System.currentTimeMillis() + timeoutMS;
+		while(!incoming.containsKey("id3") && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		assertEquals("caller1/Alice", incoming.get("id3"));
+		assertEquals("callerInfo|caller2\tBob", primaryMessages.poll(timeoutMS, TimeUnit.MILLISECONDS));
+
+		// a tagged frame without a channel is not swallowed
+		assertTrue(standIn.send("primary", "~zz|callerInfo|caller3\tCarol"));
+		assertEquals("~zz|callerInfo|caller3\tCarol", primaryMessages.poll(timeoutMS, TimeUnit.MILLISECONDS));
+		assertEquals(1, incoming.size());
+
+		assertTrue(standIn.send("id3", "cancel|c"));
+		deadline = System.currentTimeMillis() + timeoutMS;
+		while(incoming.containsKey("id3") && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		assertFalse(incoming.containsKey("id3"));
+
+		// logout| closes the channels, the primary stays
+		identities.disconnectAll();
+		assertTrue(standIn.awaitSessions(1, timeoutMS));
+		assertTrue(standIn.hasSession("primary"));
+	}
+
+	// PrimarySocket stands for the WebSocket of the service: tagged frames go to the mux first
+	private class PrimarySocket extends WebSocketClient {
+		PrimarySocket(URI uri) {
+			super(uri);
+		}
+
+		@Override
+		public void onOpen(ServerHandshake handshake) {
+		}
+
+		@Override
+		public void onMessage(String message) {
+			if(identities.isMux() && mux.dispatch(message)) {
+				return;
+			}
+			primaryMessages.add(message);
+		}
+
+		@Override
+		public void onClose(int code, String reason, boolean remote) {
+		}
+
+		@Override
+		public void onError(Exception ex) {
+		}
+	}
+}
@@ -0,0 +1,405 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// SignalingStandIn is a local stand-in for the WebCall signaling server, for unit tests.
+//
+// /rtcsig/login?id= is served via https by a MockWebServer and answers with the wss address of
+// a local WebSocketServer. Both use a self-signed certificate for 127.0.0.1 (so clients need
+// insecureTls). The WebSocket side answers "init|" with "sessionId|" and keeps one connection per
+// callee ID, so that tests can count sessions and push messages (ie. callerInfo|) to a callee.
+//
+// Faults can be injected: latency (on the login response and on every message sent to a callee),
+// drops (the tcp connection is closed without a close frame: the client sees 1006), closes with
+// a given code, bursts of messages and failing logins.
+//
+// Tagged frames (SignalingMux) are understood as well: "~tag|login|id|cookie" followed by
+// "~tag|init|" opens a channel for id on the connection they arrive on, which is answered with
+// "~tag|sessionId|id". Messages for that id are then sent tagged over that connection.
+
+package timur.webcall.callee;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.SSLContext;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.handshake.ClientHandshake;
+import org.java_websocket.server.DefaultSSLWebSocketServerFactory;
+import org.java_websocket.server.WebSocketServer;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.tls.HandshakeCertificates;
+import okhttp3.tls.HeldCertificate;
+
+public class SignalingStandIn {
+	private final HeldCertificate certificate;
+	private final HandshakeCertificates certificates;
+	private final MockWebServer loginServer = new MockWebServer();
+	private final WsServer wsServer;
+
+	// calleeID -> open connection
+	private final ConcurrentHashMap<String,WebSocket> sessions = new ConcurrentHashMap<String,WebSocket>();
+	// calleeID -> mux channel (after its tagged init|)
+	private final ConcurrentHashMap<String,MuxChannel> channels = new ConcurrentHashMap<String,MuxChannel>();
+	// "connection|tag" -> calleeID of a tagged login| not yet followed by init|
+	private final ConcurrentHashMap<String,String> channelLogins = new ConcurrentHashMap<String,String>();
+	// calleeID -> number of init| received
+	private final ConcurrentHashMap<String,AtomicLong> initsByID = new ConcurrentHashMap<String,AtomicLong>();
+	private final AtomicLong logins = new AtomicLong();
+	private final AtomicLong inits = new AtomicLong();
+
+	// delayed sends run in order on a single thread
+	private final ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor();
+	private volatile long latencyMS = 0;
+	private final AtomicLong failLogins = new AtomicLong();
+
+	public SignalingStandIn() throws Exception {
+		certificate = new HeldCertificate.Builder()
+			.addSubjectAlternativeName("127.0.0.1")
+			.addSubjectAlternativeName("localhost")
+			.build();
+		certificates = new HandshakeCertificates.Builder().heldCertificate(certificate).build();
+		wsServer = new WsServer();
+		wsServer.setWebSocketFactory(new DefaultSSLWebSocketServerFactory(certificates.sslContext()));
+	}
+
+	public void start() throws Exception {
+		wsServer.start();
+		if(!wsServer.started.await(10, TimeUnit.SECONDS)) {
+			throw new IllegalStateException("websocket server did not start");
+		}
+		loginServer.useHttps(certificates.sslSocketFactory(), false);
+		loginServer.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest request) {
+				return login(request);
+			}
+		});
+		loginServer.start();
+	}
+
+	public void stop() throws Exception {
+		sender.shutdownNow();
+		loginServer.shutdown();
+		wsServer.stop(1000);
+	}
+
+	// domain() returns the "host:port" to configure as webcalldomain
+	public String domain() {
+		return "127.0.0.1:"+loginServer.getPort();
+	}
+
+	// wsAddr() returns the WebSocket address that a login of calleeID answers with
+	public String wsAddr(String calleeID) {
+		return "wss://127.0.0.1:"+wsServer.getPort()+"/ws?wsid="+calleeID;
+	}
+
+	// clientSslContext() returns an SSLContext that trusts the certificate of the stand-in
+	public SSLContext clientSslContext() {
+		return new HandshakeCertificates.Builder()
+			.addTrustedCertificate(certificate.certificate())
+			.build().sslContext();
+	}
+
+	// sessionCount() returns the number of connected callee IDs (own connections and mux channels)
+	public int sessionCount() {
+		return sessions.size() + channels.size();
+	}
+
+	public boolean hasSession(String calleeID) {
+		return sessions.containsKey(calleeID) || channels.containsKey(calleeID);
+	}
+
+	// hasChannel() returns true if calleeID is connected over a mux channel
+	public boolean hasChannel(String calleeID) {
+		return channels.containsKey(calleeID);
+	}
+
+	public long logins() {
+		return logins.get();
+	}
+
+	public long inits() {
+		return inits.get();
+	}
+
+	// inits() returns the number of init| received from calleeID (one per (re)connect)
+	public long inits(String calleeID) {
+		AtomicLong count = initsByID.get(calleeID);
+		return count!=null ? count.get() : 0;
+	}
+
+	// setLatency() delays the login response and every message sent to a callee by ms
+	public void setLatency(long ms) {
+		latencyMS = ms;
+	}
+
+	// failLogins() answers the next count logins with status 503
+	public void failLogins(long count) {
+		failLogins.set(count);
+	}
+
+	// send() pushes msg to the connection of calleeID (tagged, if calleeID is on a mux channel)
+	public boolean send(String calleeID, String msg) {
+		WebSocket conn = sessions.get(calleeID);
+		if(conn==null) {
+			MuxChannel channel = channels.get(calleeID);
+			if(channel==null || !channel.conn.isOpen()) {
+				return false;
+			}
+			deliver(channel.conn, SignalingMux.frame(channel.tag, msg));
+			return true;
+		}
+		if(!conn.isOpen()) {
+			return false;
+		}
+		deliver(conn, msg);
+		return true;
+	}
+
+	// burst() pushes all msgs back to back
+	public boolean burst(String calleeID, String[] msgs) {
+		WebSocket conn = sessions.get(calleeID);
+		if(conn==null || !conn.isOpen()) {
+			return false;
+		}
+		for(String msg : msgs) {
+			deliver(conn, msg);
+		}
+		return true;
+	}
+
+	public boolean callerInfo(String calleeID, String callerID, String callerName, String txtMsg) {
+		return send(calleeID, "callerInfo|"+callerID+"\t"+callerName+"\t"+txtMsg);
+	}
+
+	// callerOffer() sends an offer as the server relays it: callerOffer|{"type":"offer","sdp":..}
+	public boolean callerOffer(String calleeID, String sdp) {
+		return send(calleeID, "callerOffer|{\"type\":\"offer\",\"sdp\":\""+
+			sdp.replace("\r\n","\\r\\n")+"\"}");
+	}
+
+	// callerCandidates() sends a burst of count callerCandidate| for sdpMid 0
+	public boolean callerCandidates(String calleeID, int count) {
+		String[] msgs = new String[count];
+		for(int i=0; i<count; i++) {
+			msgs[i] = "callerCandidate|{\"candidate\":\"candidate:"+(1467250027+i)+
+				" 1 udp 2122260223 192.168.1."+(20+i%200)+" "+(50000+i)+" typ host generation 0\","+
+				"\"sdpMid\":\"0\",\"sdpMLineIndex\":0}";
+		}
+		return burst(calleeID, msgs);
+	}
+
+	public boolean cancel(String calleeID) {
+		return send(calleeID, "cancel|c");
+	}
+
+	// drop() closes the tcp connection of calleeID without a close frame (the client sees 1006)
+	public boolean drop(String calleeID) {
+		WebSocket conn = sessions.get(calleeID);
+		if(conn==null) {
+			return false;
+		}
+		conn.closeConnection(1006, "dropped by stand-in");
+		return true;
+	}
+
+	// close() closes the connection of calleeID with a close frame of the given code
+	public boolean close(String calleeID, int code) {
+		WebSocket conn = sessions.get(calleeID);
+		if(conn==null) {
+			return false;
+		}
+		conn.close(code, "closed by stand-in");
+		return true;
+	}
+
+	// awaitInits() waits until calleeID has sent more than count init|
+	public boolean awaitInits(String calleeID, long count, long timeoutMS) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + timeoutMS;
+		while(inits(calleeID)<=count) {
+			if(System.currentTimeMillis() > deadline) {
+				return false;
+			}
+			Thread.sleep(2);
+		}
+		return true;
+	}
+
+	// awaitSessions() waits until exactly count callee IDs are connected
+	public boolean awaitSessions(int count, long timeoutMS) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + timeoutMS;
+		while(sessionCount()!=count) {
+			if(System.currentTimeMillis() > deadline) {
+				return false;
+			}
+			Thread.sleep(20);
+		}
+		return true;
+	}
+
+	// login() answers like /rtcsig/login: "wsAddr|..|.."
+	protected MockResponse login(RecordedRequest request) {
+		String calleeID = query(request.getPath(), "id");
+		if(!request.getPath().startsWith("/rtcsig/login") || calleeID==null) {
+			return new MockResponse().setResponseCode(404);
+		}
+		logins.incrementAndGet();
+		if(takeLoginFailure()) {
+			return new MockResponse().setResponseCode(503)
+				.setHeadersDelay(latencyMS, TimeUnit.MILLISECONDS);
+		}
+		return new MockResponse().setBody(wsAddr(calleeID)+"|0|0\n")
+			.setHeadersDelay(latencyMS, TimeUnit.MILLISECONDS);
+	}
+
+	private boolean takeLoginFailure() {
+		while(true) {
+			long count = failLogins.get();
+			if(count<=0) {
+				return false;
+			}
+			if(failLogins.compareAndSet(count, count-1)) {
+				return true;
+			}
+		}
+	}
+
+	private void countInit(String calleeID) {
+		inits.incrementAndGet();
+		AtomicLong count = initsByID.get(calleeID);
+		if(count==null) {
+			initsByID.putIfAbsent(calleeID, new AtomicLong());
+			count = initsByID.get(calleeID);
+		}
+		count.incrementAndGet();
+	}
+
+	// onTagged() handles a tagged frame: login|, init| and logout| of a mux channel
+	private void onTagged(WebSocket conn, String message) {
+		int idxSep = message.indexOf('|');
+		if(idxSep<2) {
+			return;
+		}
+		String tag = message.substring(1, idxSep);
+		String msg = message.substring(idxSep+1);
+		String key = System.identityHashCode(conn)+"|"+tag;
+		if(msg.startsWith("login|")) {
+			String[] toks = msg.split("\\|");
+			if(toks.length>=2) {
+				logins.incrementAndGet();
+				channelLogins.put(key, toks[1]);
+			}
+		} else if(msg.startsWith("init|")) {
+			String calleeID = channelLogins.remove(key);
+			if(calleeID!=null) {
+				countInit(calleeID);
+				channels.put(calleeID, new MuxChannel(conn, tag));
+				deliver(conn, SignalingMux.frame(tag, "sessionId|"+calleeID));
+			}
+		} else if(msg.startsWith("logout|")) {
+			for(String calleeID : channels.keySet()) {
+				MuxChannel channel = channels.get(calleeID);
+				if(channel!=null && channel.conn==conn && channel.tag.equals(tag)) {
+					channels.remove(calleeID, channel);
+				}
+			}
+		}
+	}
+
+	private void deliver(final WebSocket conn, final String msg) {
+		if(latencyMS<=0) {
+			conn.send(msg);
+			return;
+		}
+		sender.schedule(new Runnable() {
+			public void run() {
+				if(conn.isOpen()) {
+					conn.send(msg);
+				}
+			}
+		}, latencyMS, TimeUnit.MILLISECONDS);
+	}
+
+	private static String query(String path, String key) {
+		int idxQuery = path.indexOf("?");
+		if(idxQuery<0) {
+			return null;
+		}
+		for(String tok : path.substring(idxQuery+1).split("&")) {
+			if(tok.startsWith(key+"=")) {
+				return tok.substring(key.length()+1);
+			}
+		}
+		return null;
+	}
+
+	private static class MuxChannel {
+		final WebSocket conn;
+		final String tag;
+
+		MuxChannel(WebSocket conn, String tag) {
+			this.conn = conn;
+			this.tag = tag;
+		}
+	}
+
+	private class WsServer extends WebSocketServer {
+		final CountDownLatch started = new CountDownLatch(1);
+
+		WsServer() {
+			super(new InetSocketAddress("127.0.0.1", 0));
+			setReuseAddr(true);
+		}
+
+		@Override
+		public void onStart() {
+			started.countDown();
+		}
+
+		@Override
+		public void onOpen(WebSocket conn, ClientHandshake handshake) {
+			String calleeID = query(handshake.getResourceDescriptor(), "wsid");
+			conn.setAttachment(calleeID);
+		}
+
+		@Override
+		public void onMessage(WebSocket conn, String message) {
+			String calleeID = conn.getAttachment();
+			if(message.startsWith("~")) {
+				onTagged(conn, message);
+			} else if(message.startsWith("init|") && calleeID!=null) {
+				countInit(calleeID);
+				sessions.put(calleeID, conn);
+				deliver(conn, "sessionId|"+calleeID);
+			}
+		}
+
+		@Override
+		public void onClose(WebSocket conn, int code, String reason, boolean remote) {
+			String calleeID = conn.getAttachment();
+			if(calleeID!=null) {
+				sessions.remove(calleeID, conn);
+			}
+			// the mux channels are gone with the connection that carried them
+			for(String id : channels.keySet()) {
+				MuxChannel channel = channels.get(id);
+				if(channel!=null && channel.conn==conn) {
+					channels.remove(id, channel);
+				}
+			}
+		}
+
+		@Override
+		public void onError(WebSocket conn, Exception ex) {
+		}
+	}
+}
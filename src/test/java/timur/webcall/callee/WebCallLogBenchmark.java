@@ -0,0 +1,100 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// WebCallLogBenchmark compares the cost of a log line in the form used on the hot paths
+// (onMessage, wsSend, reconnecter, ping/pong): "{}" formatting versus string concatenation,
+// both for a suppressed level and for a logged one. It prints ns/op and bytes/op and checks that
+// a suppressed parameterized line does not allocate. It only runs with gradle test -Pbenchmarks.
+
+package timur.webcall.callee;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class WebCallLogBenchmark {
+	private static final String TAG = "WebCallLogBench";
+	private static final int warmupOps = 200000;
+	private static final int measureOps = 2000000;
+	private static final String message = "callerInfo|a1b2c3d4\tSome Caller\thello there";
+
+	private long sinkLines = 0;
+
+	private interface Op {
+		void run(int i);
+	}
+
+	@After
+	public void tearDown() {
+		WebCallLog.setSink(null);
+		WebCallLog.setLevel(WebCallLog.DEBUG);
+	}
+
+	@Test
+	public void suppressedLines() {
+		WebCallLog.setLevel(WebCallLog.INFO);
+		double[] lazy = measure("suppressed lazy", new Op() {
+			public void run(int i) {
+				WebCallLog.d(TAG,"onMessage {.40} counter={}", message, i);
+			}
+		});
+		measure("suppressed concat", new Op() {
+			public void run(int i) {
+				WebCallLog.d(TAG,"onMessage "+message.substring(0,40)+" counter="+i);
+			}
+		});
+		// no formatting and no boxing if the line is not logged
+		assertTrue("lazy bytes/op="+lazy[1], lazy[1] < 1.0);
+	}
+
+	@Test
+	public void loggedLines() {
+		// like a hot-path tag: most of the logged lines are suppressed by the rate limit
+		WebCallLog.limitRate(TAG);
+		WebCallLog.setLevel(WebCallLog.DEBUG);
+		WebCallLog.setSink(new WebCallLog.Sink() {
+			public void write(int priority, String tag, CharSequence msg) {
+				sinkLines++;
+			}
+		});
+		measure("logged lazy", new Op() {
+			public void run(int i) {
+				WebCallLog.d(TAG,"onMessage {.40} counter={}", message, i);
+			}
+		});
+		measure("logged concat", new Op() {
+			public void run(int i) {
+				WebCallLog.d(TAG,"onMessage "+message.substring(0,40)+" counter="+i);
+			}
+		});
+		assertTrue(sinkLines>0);
+	}
+
+	// measure() returns {ns/op, bytes/op}
+	private static double[] measure(String name, Op op) {
+		for(int i=0; i<warmupOps; i++) {
+			op.run(i);
+		}
+		long startBytes = allocatedBytes();
+		long startNS = System.nanoTime();
+		for(int i=0; i<measureOps; i++) {
+			op.run(i);
+		}
+		long elapsedNS = System.nanoTime() - startNS;
+		long bytes = allocatedBytes() - startBytes;
+		double[] result = new double[] { (double)elapsedNS/measureOps, (double)bytes/measureOps };
+		System.out.println(String.format("%-18s %8.1f ns/op %8.1f bytes/op", name, result[0], result[1]));
+		return result;
+	}
+
+	private static long allocatedBytes() {
+		com.sun.management.ThreadMXBean bean =
+			(com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+		return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+}
@@ -0,0 +1,203 @@
+// WebCall Copyright 2023 timur.mobi. All rights reserved.
+//
+// WebCallServiceHarness runs WebCallService (without activity and webview) against a
+// SignalingStandIn and reports the distributions of:
+// - time-to-reconnect: from a dropped connection (1006) until the service is logged in again
+//   (the stand-in has seen init| and the service has seen sessionId|)
+// - time-to-ring: from callerInfo| (followed by callerOffer| and a burst of callerCandidate|)
+//   until the service rings
+// Every other round runs with latency injected into the stand-in. The harness also prints the
+// service's own setupStats(). Robolectric does not advance SystemClock by itself, so the harness
+// moves it along with the wall clock. The number of rounds is set by -Dharness.rounds=N.
+// It only runs with gradle test -Pbenchmarks.
+
+package timur.webcall.callee;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.net.ConnectivityManager;
+import android.net.NetworkCapabilities;
+import android.os.Looper;
+import android.preference.PreferenceManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.android.controller.ServiceController;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowNetworkCapabilities;
+import org.robolectric.shadows.ShadowSystemClock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk=29)
+public class WebCallServiceHarness {
+	private static final String calleeID = "harness";
+	private static final int rounds = Integer.getInteger("harness.rounds", 6);
+	private static final long injectedLatencyMS = 150;
+	private static final long timeoutMS = 30*1000;
+	private static final String sdp =
+		"v=0\r\no=- 4611731400430051336 2 IN IP4 127.0.0.1\r\ns=-\r\nt=0 0\r\n"+
+		"a=group:BUNDLE 0\r\nm=audio 9 UDP/TLS/RTP/SAVPF 111\r\nc=IN IP4 0.0.0.0\r\n"+
+		"a=ice-ufrag:Xq3V\r\na=ice-pwd:0bLr7m2Jc9Vw+E4kQf1sHtNy\r\na=setup:actpass\r\na=mid:0\r\n"+
+		"a=sendrecv\r\na=rtcp-mux\r\na=rtpmap:111 opus/48000/2\r\n";
+
+	private interface Condition {
+		boolean met();
+	}
+
+	private SignalingStandIn standIn;
+	private SharedPreferences prefs;
+	private ServiceController<WebCallService> controller;
+	private WebCallService.WebCallServiceBinder binder;
+	private WebCallService.WebCallJSInterfaceMini jsInterface;
+	private long clockSyncNS;
+
+	@Before
+	public void setUp() throws Exception {
+		standIn = new SignalingStandIn();
+		standIn.start();
+		Context context = RuntimeEnvironment.getApplication();
+		prefs = PreferenceManager.getDefaultSharedPreferences(context);
+		prefs.edit()
+			.putString("webcalldomain", standIn.domain())
+			.putString("username", calleeID)
+			.putString("cookies", "webcallid="+calleeID)
+			.putBoolean("insecureTlsFlag", true)
+			.commit();
+
+		// the reconnecter only runs if the service sees a network
+		ConnectivityManager connectivityManager =
+			(ConnectivityManager)context.getSystemService(Context.CONNECTIVITY_SERVICE);
+		NetworkCapabilities capabilities = ShadowNetworkCapabilities.newInstance();
+		shadowOf(capabilities).addTransportType(NetworkCapabilities.TRANSPORT_WIFI);
+		shadowOf(connectivityManager).setNetworkCapabilities(
+			connectivityManager.getActiveNetwork(), capabilities);
+
+		Intent intent = new Intent(context, WebCallService.class);
+		controller = Robolectric.buildService(WebCallService.class, intent);
+		WebCallService service = controller.create().startCommand(0, 1).get();
+		binder = (WebCallService.WebCallServiceBinder)service.onBind(intent);
+		jsInterface = service.new WebCallJSInterfaceMini();
+		clockSyncNS = System.nanoTime();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		binder.goOffline();
+		controller.destroy();
+		standIn.stop();
+		prefs.edit().clear().commit();
+	}
+
+	@Test
+	public void reconnectAndRing() throws Exception {
+		binder.goOnline();
+		assertTrue("no login", await(new Condition() {
+			public boolean met() {
+				return standIn.inits(calleeID)>0;
+			}
+		}));
+		assertTrue("no sessionId", awaitCalleeConnected()>0);
+
+		LatencyStats reconnect = new LatencyStats("reconnect");
+		LatencyStats reconnectLatency = new LatencyStats("reconnect+"+injectedLatencyMS+"ms");
+		for(int i=0; i<rounds; i++) {
+			boolean slow = i%2==1;
+			standIn.setLatency(slow ? injectedLatencyMS : 0);
+			// the connection has been up for a while (longer than the fast resume grace time)
+			ShadowSystemClock.advanceBy(Duration.ofSeconds(30));
+
+			final long inits = standIn.inits(calleeID);
+			long startNS = System.nanoTime();
+			assertTrue(standIn.drop(calleeID));
+			assertTrue("no reconnect in round "+i, await(new Condition() {
+				public boolean met() {
+					return standIn.inits(calleeID)>inits;
+				}
+			}));
+			long connectedNS = awaitCalleeConnected();
+			assertTrue("no sessionId in round "+i, connectedNS>0);
+			(slow ? reconnectLatency : reconnect).add((connectedNS-startNS)/1000000);
+		}
+
+		LatencyStats ring = new LatencyStats("ring");
+		LatencyStats ringLatency = new LatencyStats("ring+"+injectedLatencyMS+"ms");
+		for(int i=0; i<rounds; i++) {
+			boolean slow = i%2==1;
+			standIn.setLatency(slow ? injectedLatencyMS : 0);
+			long startNS = System.nanoTime();
+			assertTrue(standIn.callerInfo(calleeID, "caller"+i, "Caller "+i, "hello"));
+			assertTrue(standIn.callerOffer(calleeID, sdp));
+			assertTrue(standIn.callerCandidates(calleeID, 12));
+			assertTrue("no ring in round "+i, await(new Condition() {
+				public boolean met() {
+					return binder.isRinging();
+				}
+			}));
+			(slow ? ringLatency : ring).add((System.nanoTime()-startNS)/1000000);
+
+			assertTrue(standIn.cancel(calleeID));
+			assertTrue("still ringing in round "+i, await(new Condition() {
+				public boolean met() {
+					return !binder.isRinging();
+				}
+			}));
+		}
+
+		report(reconnect);
+		report(reconnectLatency);
+		report(ring);
+		report(ringLatency);
+		System.out.println("setupStats "+jsInterface.setupStats());
+		assertEquals(rounds, reconnect.count()+reconnectLatency.count());
+		assertEquals(rounds, ring.count()+ringLatency.count());
+	}
+
+	// awaitCalleeConnected() returns the System.nanoTime() the service got sessionId|, or 0
+	private long awaitCalleeConnected() throws Exception {
+		final AtomicLong connectedNS = new AtomicLong();
+		binder.whenCalleeConnected(new Runnable() {
+			public void run() {
+				connectedNS.compareAndSet(0, System.nanoTime());
+			}
+		}, timeoutMS, null);
+		await(new Condition() {
+			public boolean met() {
+				return connectedNS.get()>0;
+			}
+		});
+		return connectedNS.get();
+	}
+
+	// await() polls condition; meanwhile it runs the main looper and moves SystemClock along
+	private boolean await(Condition condition) throws Exception {
+		long deadline = System.currentTimeMillis() + timeoutMS;
+		while(System.currentTimeMillis() < deadline) {
+			long nowNS = System.nanoTime();
+			ShadowSystemClock.advanceBy(Duration.ofNanos(nowNS - clockSyncNS));
+			clockSyncNS = nowNS;
+			shadowOf(Looper.getMainLooper()).idle();
+			if(condition.met()) {
+				return true;
+			}
+			Thread.sleep(1);
+		}
+		return false;
+	}
+
+	private static void report(LatencyStats stats) {
+		System.out.println(stats+" "+stats.json());
+	}
+}